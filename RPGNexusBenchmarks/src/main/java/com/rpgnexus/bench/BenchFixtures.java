@@ -0,0 +1,200 @@
+package com.rpgnexus.bench;
+
+import com.rpgnexus.core.config.ConfigManager;
+import com.rpgnexus.core.config.dto.DamageSystemConfig;
+import com.rpgnexus.core.config.dto.DamageSystemConfig.CategoryDetail;
+import com.rpgnexus.core.config.dto.NormalSystemConfig;
+import com.rpgnexus.core.config.dto.NormalSystemConfig.SystemDef;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.script.FormulaToolkit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * 벤치마크 공용 입력: 플러그인 jar에 포함된 기본 설정(shipped)과 코드로 생성하는 큰 설정(heavy), 스텁 프로필.
+ */
+final class BenchFixtures {
+
+    static final String SHIPPED = "shipped";
+    static final String HEAVY = "heavy";
+
+    // heavy 설정 크기
+    private static final int HEAVY_STATS = 32;
+    private static final int HEAVY_TOOLS = 64;
+    private static final int HEAVY_CATEGORIES = 6;
+    private static final int HEAVY_CATEGORY_VALUES = 6;
+    private static final int HEAVY_SYSTEM_TOOLS = 40;
+
+    private static final String[] SHIPPED_STATS = { "Combat-Ability", "Defense-Ability", "Critical",
+            "Critical-Damage", "Level", "Health", "Max-Health", "HealthStat", "Strength", "Mana", "Max-Mana",
+            "ManaStat", "Intelligence", "Exp" };
+
+    private BenchFixtures() {
+    }
+
+    /**
+     * 수식 파싱/계산 실패는 WARNING으로만 보고되고 해당 수식이 0 또는 기본값으로 대체되므로,
+     * 벤치마크가 빈 프로그램을 측정하지 않도록 WARNING 이상이 기록되면 즉시 실패시킴.
+     */
+    static FormulaToolkit toolkit() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.WARNING);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                throw new IllegalStateException("벤치마크 수식 오류: " + record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return new FormulaToolkit(logger);
+    }
+
+    static DamageSystemConfig damageConfig(String config) {
+        return HEAVY.equals(config) ? heavyDamageConfig() : load("damage-system.yml", DamageSystemConfig.class);
+    }
+
+    static NormalSystemConfig normalConfig(String config) {
+        return HEAVY.equals(config) ? heavyNormalConfig() : load("normal-system.yml", NormalSystemConfig.class);
+    }
+
+    /**
+     * 두 설정에서 참조하는 모든 스탯을 채운 프로필.
+     */
+    static NexusProfile profile(String name, long seed) {
+        NexusProfile profile = new NexusProfile(new UUID(seed, seed), name);
+        for (int i = 0; i < SHIPPED_STATS.length; i++)
+            profile.setStat(SHIPPED_STATS[i], 10.0 + ((seed + i * 7) % 50));
+        for (int i = 0; i < HEAVY_STATS; i++)
+            profile.setStat(stat(i), 1.0 + ((seed * 31 + i * 13) % 97));
+        return profile;
+    }
+
+    /**
+     * heavy 설정의 카테고리 이름 (태그 생성용).
+     */
+    static String category(int index) {
+        return "Category-" + index;
+    }
+
+    static String categoryValue(int index) {
+        return "value" + index;
+    }
+
+    private static <T> T load(String resource, Class<T> clazz) {
+        try (InputStream in = BenchFixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null)
+                throw new IllegalStateException("리소스 없음: " + resource + " (RPGNexusCore jar가 클래스패스에 있어야 함)");
+            return ConfigManager.readYaml(in, clazz);
+        } catch (IOException e) {
+            throw new IllegalStateException("설정 로드 실패: " + resource, e);
+        }
+    }
+
+    private static String stat(int index) {
+        return "Stat" + index;
+    }
+
+    private static DamageSystemConfig heavyDamageConfig() {
+        DamageSystemConfig.DamageSystem system = new DamageSystemConfig.DamageSystem();
+
+        Map<String, Map<String, CategoryDetail>> categories = new LinkedHashMap<>();
+        for (int c = 0; c < HEAVY_CATEGORIES; c++) {
+            Map<String, CategoryDetail> values = new LinkedHashMap<>();
+            for (int v = 0; v < HEAVY_CATEGORY_VALUES; v++) {
+                CategoryDetail detail = new CategoryDetail();
+                detail.setDefaultMultiplier(0.75 + 0.1 * v);
+                values.put(categoryValue(v), detail);
+            }
+            categories.put(category(c), values);
+        }
+        system.setDamageCategory(categories);
+
+        // 스탯 절반은 공격자, 절반은 방어자에서 읽음
+        Map<String, String> definitions = new LinkedHashMap<>();
+        for (int i = 0; i < HEAVY_STATS; i++)
+            definitions.put("d" + i, "%player-status#" + stat(i) + (i % 2 == 0 ? "#$attacker$%" : "#$defender$%"));
+        definitions.put("mag", "%damage_mag%");
+        definitions.put("ctx", "%context_multiplier%");
+        definitions.put("scale", "1.5 * 2");
+        system.setDefinitions(definitions);
+
+        // 앞선 도구를 이어 참조하는 체인 + 반복되는 공통 부분식
+        Map<String, String> tools = new LinkedHashMap<>();
+        tools.put("t0", "d0 * mag");
+        for (int i = 1; i < HEAVY_TOOLS; i++) {
+            String a = "d" + (i % HEAVY_STATS);
+            String b = "d" + ((i * 7 + 3) % HEAVY_STATS);
+            tools.put("t" + i, "max(0.1, t" + (i - 1) + " * 0.97 + " + a + " / (" + b + " + 10)) + if(" + a + " > "
+                    + b + ", (" + a + " - " + b + ") * scale, 0)");
+        }
+        system.setTools(tools);
+
+        int last = HEAVY_TOOLS - 1;
+        Map<String, Map<String, String>> calculate = new LinkedHashMap<>();
+        calculate.put("PVP", finalDamage("t" + last + " * ctx * max(0.1, 1 - d1 / (d0 + 100))"));
+        calculate.put("PVE", finalDamage("t" + (last / 2) + " * ctx"));
+        calculate.put("EVP", finalDamage("(t" + (last / 4) + " + t" + (last / 3) + ") * ctx"));
+        calculate.put("EVE", finalDamage("mag * ctx"));
+        system.setCalculate(calculate);
+
+        DamageSystemConfig config = new DamageSystemConfig();
+        config.setDamageSystem(system);
+        return config;
+    }
+
+    private static Map<String, String> finalDamage(String expression) {
+        Map<String, String> mode = new LinkedHashMap<>();
+        mode.put("Final_Damage", expression);
+        return mode;
+    }
+
+    private static NormalSystemConfig heavyNormalConfig() {
+        NormalSystemConfig config = new NormalSystemConfig();
+        config.setPlayerHealthSystem(heavySystem("health", "Max-Health", 0));
+        config.setPlayerManaSystem(heavySystem("mana", "Max-Mana", 11));
+        config.setPlayerExpSystem(heavySystem("exp", "Exp", 23));
+        return config;
+    }
+
+    private static SystemDef heavySystem(String prefix, String outputStat, int offset) {
+        Map<String, String> definitions = new LinkedHashMap<>();
+        definitions.put("output", "%player-status#" + outputStat + "%");
+        definitions.put("level", "%player-status#Level%");
+        for (int i = 0; i < HEAVY_STATS; i++)
+            definitions.put("s" + i, "%player-status#" + stat((i + offset) % HEAVY_STATS) + "%");
+
+        Map<String, String> tools = new LinkedHashMap<>();
+        tools.put(prefix + "0", "s0 + s1");
+        for (int i = 1; i < HEAVY_SYSTEM_TOOLS; i++) {
+            String a = "s" + (i % HEAVY_STATS);
+            String b = "s" + ((i * 5 + 1) % HEAVY_STATS);
+            tools.put(prefix + i, prefix + (i - 1) + " + " + a + " * level / (" + b + " + 1) + max(" + a + ", " + b
+                    + ")");
+        }
+
+        Map<String, String> calculate = new LinkedHashMap<>();
+        calculate.put("output", prefix + (HEAVY_SYSTEM_TOOLS - 1) + " * 10");
+
+        SystemDef system = new SystemDef();
+        system.setDefinition(definitions);
+        system.setTools(tools);
+        system.setCalculate(calculate);
+        return system;
+    }
+}
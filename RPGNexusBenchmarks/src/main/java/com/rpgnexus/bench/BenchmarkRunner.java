@@ -0,0 +1,28 @@
+package com.rpgnexus.bench;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * benchmarks.jar 진입점. JMH 명령행 옵션을 그대로 받으며, 할당량 비교를 위해 GC 프로파일러를 기본으로 붙입니다.
+ * (-prof를 직접 지정하면 그 설정을 그대로 사용)
+ *
+ * 예: java -jar benchmarks.jar DamageBenchmark -p config=heavy
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
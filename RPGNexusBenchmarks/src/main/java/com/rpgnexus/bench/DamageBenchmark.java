@@ -0,0 +1,66 @@
+package com.rpgnexus.bench;
+
+import com.rpgnexus.core.battle.DamageCalculator;
+import com.rpgnexus.core.battle.DamageTags;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대미지 계산 한 번 (태그 멀티플라이어 조회 + 모드 프로그램 실행).
+ * BattleManager.calculateDamage가 사용하는 DamageCalculator를 서버 없이 직접 생성합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DamageBenchmark {
+
+    @Param({ BenchFixtures.SHIPPED, BenchFixtures.HEAVY })
+    public String config;
+
+    private DamageCalculator calculator;
+    private NexusProfile attacker;
+    private NexusProfile defender;
+    private DamageTags tags;
+
+    @Setup
+    public void setup() {
+        calculator = new DamageCalculator(BenchFixtures.damageConfig(config), BenchFixtures.toolkit());
+        attacker = BenchFixtures.profile("attacker", 1);
+        defender = BenchFixtures.profile("defender", 2);
+
+        if (BenchFixtures.HEAVY.equals(config)) {
+            DamageTags.Builder builder = DamageTags.builder();
+            for (int c = 0; c < 4; c++)
+                builder.with(BenchFixtures.category(c), BenchFixtures.categoryValue(c + 1));
+            tags = builder.build();
+        } else {
+            tags = DamageTags.builder().with("Damage-Kind", "melee").with("Damage-Sort", "physical")
+                    .with("Damage-Stem", "skill").build();
+        }
+    }
+
+    @Benchmark
+    public double pvp() {
+        return calculator.calculate(attacker, defender, 1.0, tags);
+    }
+
+    @Benchmark
+    public double pve() {
+        return calculator.calculate(attacker, null, 1.0, tags);
+    }
+}
@@ -0,0 +1,83 @@
+package com.rpgnexus.bench;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.script.FormulaParser;
+import com.rpgnexus.core.script.FormulaToolkit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 수식 단위 비용: 파싱, 트리 인터프리터(Node.evaluate), 캐시된 컴파일 수식(FormulaToolkit.calculate).
+ * ScriptEngine.calculate는 FormulaToolkit.calculate에 그대로 위임합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormulaBenchmark {
+
+    private static final String SHORT = "atk * 2 + 10";
+    private static final String LONG =
+            "max(0.1, 1 - (def / (atk + 100))) * atk * mag * if(crit > 50, 1.5, 1) + min(atk, def) / (level + 1)";
+
+    // 짧은 수식 / 함수와 비교가 섞인 긴 수식
+    @Param({ "short", "long" })
+    public String shape;
+
+    private String formula;
+    private FormulaToolkit toolkit;
+    private FormulaParser.Node node;
+    private Map<String, Double> context;
+    private String profileFormula;
+    private NexusProfile attacker;
+    private NexusProfile defender;
+
+    @Setup
+    public void setup() {
+        formula = "long".equals(shape) ? LONG : SHORT;
+        toolkit = BenchFixtures.toolkit();
+        node = new FormulaParser().parse(formula);
+
+        context = new HashMap<>();
+        for (String name : new String[] { "atk", "def", "mag", "crit", "level" })
+            context.put(name, 42.0);
+
+        // 같은 수식을 프로필 스탯 바인딩(attacker_/defender_)으로 바꿔 calculate에 사용
+        profileFormula = formula.replace("atk", "attacker_Stat0").replace("def", "defender_Stat1")
+                .replace("mag", "attacker_Stat2").replace("crit", "attacker_Critical")
+                .replace("level", "attacker_Level");
+        attacker = BenchFixtures.profile("attacker", 1);
+        defender = BenchFixtures.profile("defender", 2);
+        toolkit.calculate(profileFormula, attacker, defender); // 컴파일 후 캐시
+    }
+
+    @Benchmark
+    public FormulaParser.Node parse() {
+        return new FormulaParser().parse(formula);
+    }
+
+    @Benchmark
+    public double evaluateTree() {
+        return node.evaluate(context);
+    }
+
+    @Benchmark
+    public double calculateCached() {
+        return toolkit.calculate(profileFormula, attacker, defender);
+    }
+}
@@ -0,0 +1,63 @@
+package com.rpgnexus.bench;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.manager.NormalSystemCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로필 하나의 파생 스탯 재계산 (Health/Mana/Exp 시스템).
+ * NormalSystemManager.updatePlayerStats가 사용하는 NormalSystemCalculator를 서버 없이 직접 생성합니다.
+ *
+ * full: 모든 시스템 재계산 (로그인/리로드 직후), oneStat: 입력 스탯 하나 변경 후 (장비 교체, 버프 틱)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NormalSystemBenchmark {
+
+    @Param({ BenchFixtures.SHIPPED, BenchFixtures.HEAVY })
+    public String config;
+
+    private NormalSystemCalculator calculator;
+    private NexusProfile profile;
+    private String changedStat;
+    private double changedValue;
+
+    @Setup
+    public void setup() {
+        calculator = new NormalSystemCalculator(BenchFixtures.normalConfig(config), BenchFixtures.toolkit());
+        profile = BenchFixtures.profile("player", 3);
+        changedStat = BenchFixtures.HEAVY.equals(config) ? "Stat5" : "Strength";
+        calculator.update(profile);
+    }
+
+    @Benchmark
+    public NexusProfile full() {
+        profile.markAllStatsChanged();
+        calculator.update(profile);
+        return profile;
+    }
+
+    @Benchmark
+    public NexusProfile oneStat() {
+        changedValue = changedValue == 1.0 ? 2.0 : 1.0;
+        profile.setStat(changedStat, changedValue);
+        calculator.update(profile);
+        return profile;
+    }
+}
@@ -0,0 +1,58 @@
+package com.rpgnexus.bench;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.network.packet.PlayerStatusPacket;
+import com.rpgnexus.core.network.packet.TargetInfoPacket;
+import com.rpgnexus.core.network.protocol.PacketEncoder;
+import com.rpgnexus.core.network.protocol.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * nexus:data 패킷 인코딩 (경험치 변경마다 보내는 상태 패킷, 매초 보내는 타겟 패킷).
+ * 패킷 생성(프로필 스탯 복사)까지 포함하며, 인코딩 크기는 설정 단계에서 출력합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PacketEncodingBenchmark {
+
+    @Param({ "JSON", "BINARY" })
+    public String format;
+
+    private WireFormat wireFormat;
+    private NexusProfile profile;
+
+    @Setup
+    public void setup() {
+        wireFormat = WireFormat.valueOf(format);
+        profile = BenchFixtures.profile("packet", 5);
+        System.out.println();
+        System.out.println("[" + format + "] status: " + status().length + " bytes, target: " + target().length
+                + " bytes");
+    }
+
+    @Benchmark
+    public byte[] status() {
+        return PacketEncoder.encode(new PlayerStatusPacket(profile), wireFormat);
+    }
+
+    @Benchmark
+    public byte[] target() {
+        return PacketEncoder.encode(new TargetInfoPacket(4182, "Zombie", 13.5, 20.0, true), wireFormat);
+    }
+}
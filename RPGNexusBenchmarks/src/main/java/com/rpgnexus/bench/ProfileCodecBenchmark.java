@@ -0,0 +1,75 @@
+package com.rpgnexus.bench;
+
+import com.rpgnexus.core.data.codec.ProfileFormat;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로필 한 개 인코딩/디코딩 (JsonDataStorage가 파일 하나를 쓰고 읽을 때의 직렬화 비용).
+ * 인코딩 크기는 설정 단계에서 출력합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProfileCodecBenchmark {
+
+    @Param({ "JSON", "BINARY" })
+    public String format;
+
+    private ProfileFormat profileFormat;
+    private NexusProfile profile;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        profileFormat = ProfileFormat.valueOf(format);
+        profile = BenchFixtures.profile("codec", 3);
+
+        // 클래스/퀘스트 진행 등 일반적인 메타
+        profile.setMeta("class", "Warrior");
+        profile.setMeta("class-level", 17);
+        profile.setMeta("last-login", 1_700_000_000_000L);
+        Map<String, Object> quests = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            List<Object> progress = new ArrayList<>();
+            progress.add(i);
+            progress.add(i % 2 == 0);
+            quests.put("quest-" + i, progress);
+        }
+        profile.setMeta("quests", quests);
+
+        encoded = profileFormat.encode(profile);
+        System.out.println();
+        System.out.println("[" + format + "] encoded size: " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return profileFormat.encode(profile);
+    }
+
+    @Benchmark
+    public NexusProfile decode() throws IOException {
+        return ProfileFormat.decode(encoded);
+    }
+}
@@ -9,14 +9,18 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * 엔티티 간의 전투 이벤트를 처리합니다.
  */
 public class CombatListener implements Listener {
 
+    // Default mappings matching the example config (인턴된 상수이므로 이벤트마다 새로 만들지 않음)
+    private static final DamageTags DEFAULT_TAGS = DamageTags.builder()
+            .with("Damage-Kind", "melee") // Default to melee
+            .with("Damage-Sort", "physical") // Default to physical
+            .with("Damage-Stem", "normal") // Default to normal attack
+            .build();
+
     private final RPGNexusCore plugin;
     private final DataManager dataManager;
 
@@ -43,15 +47,10 @@ public class CombatListener implements Listener {
 
         // Build Context Tags dynamically
         // In the future this can come from Metadata, Item Tags, or Skill API
-        Map<String, String> tags = new HashMap<>();
-
-        // Default mappings matching the example config
-        tags.put("Damage-Kind", "melee"); // Default to melee
-        tags.put("Damage-Sort", "physical"); // Default to physical
-        tags.put("Damage-Stem", "normal"); // Default to normal attack
+        DamageTags tags = DEFAULT_TAGS;
 
         // Example: Check if attacker is holding a specific item to change 'Damage-Kind'
-        // to 'ranged'
+        // to 'ranged' -> tags = tags.with("Damage-Kind", "ranged");
         // This logic can be expanded later.
 
         // 데미지 재계산
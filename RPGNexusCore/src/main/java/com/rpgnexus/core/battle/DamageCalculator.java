@@ -0,0 +1,122 @@
+package com.rpgnexus.core.battle;
+
+import com.rpgnexus.core.config.dto.DamageSystemConfig;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.script.FormulaOptimizer;
+import com.rpgnexus.core.script.FormulaParser.ConstantNode;
+import com.rpgnexus.core.script.FormulaParser.Node;
+import com.rpgnexus.core.script.FormulaToolkit;
+import com.rpgnexus.core.script.compiler.CompiledFormula;
+import com.rpgnexus.core.script.compiler.SlotLayout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Damage-System 설정 하나를 컴파일한 불변 계산기입니다.
+ * Calculate 모드마다 Definitions -> Tools -> Final_Damage를 하나의 프로그램으로 컴파일하며,
+ * 모든 프로그램이 하나의 SlotLayout을 공유합니다.
+ *
+ * 플러그인에 의존하지 않으므로 BattleManager 외에 벤치마크에서도 직접 생성해 사용할 수 있습니다.
+ */
+public final class DamageCalculator {
+
+    private final DamageSystemConfig source;
+    private final SlotLayout layout = new SlotLayout();
+    private final int damageMagSlot = layout.slotOf("damage_mag");
+    private final int contextMultiplierSlot = layout.slotOf("context_multiplier");
+    private final Map<String, CompiledFormula> programs = new HashMap<>();
+    private final DamageMultiplierTable multipliers;
+
+    /**
+     * @param source  Damage-System 설정 (getDamageSystem()이 null이 아니어야 함)
+     * @param toolkit 수식 파싱/컴파일 도구
+     */
+    public DamageCalculator(DamageSystemConfig source, FormulaToolkit toolkit) {
+        this.source = source;
+        DamageSystemConfig.DamageSystem system = source.getDamageSystem();
+        this.multipliers = new DamageMultiplierTable(system.getDamageCategory());
+
+        List<FormulaOptimizer.Entry> stepEntries = new ArrayList<>();
+        addSteps(toolkit, stepEntries, "Definitions", system.getDefinitions());
+        addSteps(toolkit, stepEntries, "Tools", system.getTools());
+
+        // Calculate: 모드별 Final_Damage -> 프로그램
+        Map<String, Map<String, String>> calculate = system.getCalculate();
+        if (calculate != null) {
+            for (Map.Entry<String, Map<String, String>> entry : calculate.entrySet()) {
+                String expression = entry.getValue() != null ? entry.getValue().get("Final_Damage") : null;
+                if (expression == null)
+                    continue;
+                String label = "Calculate." + entry.getKey();
+                Node root = parseOrNull(toolkit, label, expression);
+                if (root == null)
+                    continue;
+                programs.put(entry.getKey(), toolkit.compileProgram("Damage-System/" + entry.getKey(), stepEntries,
+                        new FormulaOptimizer.Entry(entry.getKey(), label, root), layout));
+            }
+        }
+        layout.freeze();
+    }
+
+    public DamageSystemConfig getSource() {
+        return source;
+    }
+
+    /**
+     * Calculates damage based on context tags.
+     *
+     * @param tags 인턴된 태그 (null이면 태그 없음)
+     */
+    public double calculate(NexusProfile attacker, NexusProfile defender, double damageMag, DamageTags tags) {
+        // 1. Resolve Multipliers from Categories using Tags (precomputed table lookup)
+        if (tags == null)
+            tags = DamageTags.EMPTY;
+        double contextMultiplier = multipliers.multiplier(tags);
+
+        // 2. Calculate (Mode selection)
+        // Default Mode PVP, PVE based on defender presence
+        String mode = (defender == null) ? "PVE" : "PVP";
+
+        // Maybe allow overriding mode via Tags?
+        if (tags.getMode() != null) {
+            mode = tags.getMode();
+        }
+
+        // 3. Build Frame & Run
+        // 모드별 프로그램: Final_Damage에 필요한 Definitions/Tools만 의존성 순서로 실행
+        CompiledFormula program = programs.get(mode);
+        if (program == null) {
+            return damageMag;
+        }
+
+        double[] frame = layout.frame();
+        layout.load(frame, attacker, defender);
+        frame[damageMagSlot] = damageMag;
+        frame[contextMultiplierSlot] = contextMultiplier;
+        return program.eval(frame);
+    }
+
+    private void addSteps(FormulaToolkit toolkit, List<FormulaOptimizer.Entry> out, String section,
+            Map<String, String> entries) {
+        if (entries == null)
+            return;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            String label = section + "." + entry.getKey();
+            Node root = parseOrNull(toolkit, label, entry.getValue());
+            // 파싱 실패한 스텝은 기존과 동일하게 0.0을 기록
+            out.add(new FormulaOptimizer.Entry(entry.getKey(), label, root != null ? root : new ConstantNode(0.0)));
+        }
+    }
+
+    private Node parseOrNull(FormulaToolkit toolkit, String key, String expression) {
+        try {
+            return toolkit.parse(expression);
+        } catch (Exception e) {
+            toolkit.getLogger().warning("Damage-System 수식 파싱 실패 [" + key + "]: " + e.getMessage());
+            return null;
+        }
+    }
+}
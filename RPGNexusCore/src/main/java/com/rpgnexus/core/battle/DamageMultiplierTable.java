@@ -0,0 +1,111 @@
+package com.rpgnexus.core.battle;
+
+import com.rpgnexus.core.config.dto.DamageSystemConfig.CategoryDetail;
+
+import java.util.Map;
+
+/**
+ * Damage-Category 멀티플라이어를 설정 로드 시 미리 곱해둔 테이블입니다.
+ *
+ * 카테고리 c의 값 개수가 n_c 일 때 (미지정 = 0 포함) 각 카테고리를 (n_c + 1) 진법 자리로 보고
+ * 모든 조합의 곱을 평탄한 배열에 저장합니다. 태그 값 ID마다 (값 순번 * 자릿값) 을 미리 계산해두므로
+ * 조회는 태그 수만큼의 덧셈과 배열 인덱스 한 번입니다.
+ *
+ * 곱하는 순서는 기존 루프와 동일하게 설정의 카테고리 순서를 따르므로 결과가 비트 단위로 같습니다.
+ */
+final class DamageMultiplierTable {
+
+    // 조합 수가 이보다 크면 테이블 대신 카테고리 순서대로 곱함
+    private static final int MAX_TABLE_SIZE = 1 << 16;
+
+    private final int[] offsets;          // 값 ID -> 테이블 오프셋 (설정에 없는 값은 0)
+    private final double[] table;         // 조합 인덱스 -> 멀티플라이어 곱 (null이면 직접 계산)
+    private final int[] categoryOrdinals; // 값 ID -> 카테고리 순번 (+1, 설정에 없으면 0)
+    private final double[] multipliers;   // 값 ID -> 멀티플라이어
+    private final int categoryCount;
+
+    DamageMultiplierTable(Map<String, Map<String, CategoryDetail>> categories) {
+        // 설정의 모든 (카테고리, 값) 을 먼저 인턴하여 ID 범위를 확정
+        if (categories != null) {
+            for (Map.Entry<String, Map<String, CategoryDetail>> category : categories.entrySet()) {
+                if (category.getValue() == null)
+                    continue;
+                for (String value : category.getValue().keySet())
+                    DamageTags.valueId(category.getKey(), value);
+            }
+        }
+
+        int ids = DamageTags.valueCount();
+        this.offsets = new int[ids];
+        this.categoryOrdinals = new int[ids];
+        this.multipliers = new double[ids];
+
+        // 카테고리별 값 ID (순번 1부터, 0은 미지정)
+        int[][] valueIdsByCategory = new int[categories != null ? categories.size() : 0][];
+        int count = 0;
+        long size = 1;
+        if (categories != null) {
+            for (Map.Entry<String, Map<String, CategoryDetail>> category : categories.entrySet()) {
+                Map<String, CategoryDetail> values = category.getValue();
+                int[] valueIds = new int[(values != null ? values.size() : 0) + 1];
+                int ordinal = 0;
+                if (values != null) {
+                    for (Map.Entry<String, CategoryDetail> value : values.entrySet()) {
+                        int id = DamageTags.valueId(category.getKey(), value.getKey());
+                        valueIds[++ordinal] = id;
+                        offsets[id] = size <= MAX_TABLE_SIZE ? (int) (ordinal * size) : 0;
+                        categoryOrdinals[id] = count + 1;
+                        multipliers[id] = value.getValue() != null ? value.getValue().getDefaultMultiplier() : 1.0;
+                    }
+                }
+                valueIdsByCategory[count++] = valueIds;
+                size *= valueIds.length;
+            }
+        }
+        this.categoryCount = count;
+
+        if (size > MAX_TABLE_SIZE) {
+            this.table = null;
+            return;
+        }
+
+        // 각 조합의 곱을 카테고리 순서대로 계산
+        this.table = new double[(int) size];
+        for (int index = 0; index < table.length; index++) {
+            double product = 1.0;
+            int rest = index;
+            for (int c = 0; c < count; c++) {
+                int radix = valueIdsByCategory[c].length;
+                int ordinal = rest % radix;
+                rest /= radix;
+                if (ordinal != 0)
+                    product *= multipliers[valueIdsByCategory[c][ordinal]];
+            }
+            table[index] = product;
+        }
+    }
+
+    /**
+     * 태그 조합의 멀티플라이어 곱을 반환합니다. 설정에 없는 카테고리/값은 무시됩니다.
+     */
+    double multiplier(DamageTags tags) {
+        int[] ids = tags.valueIds();
+        if (table != null) {
+            int index = 0;
+            for (int id : ids) {
+                if (id < offsets.length)
+                    index += offsets[id];
+            }
+            return table[index];
+        }
+
+        double product = 1.0;
+        for (int c = 1; c <= categoryCount; c++) {
+            for (int id : ids) {
+                if (id < categoryOrdinals.length && categoryOrdinals[id] == c)
+                    product *= multipliers[id];
+            }
+        }
+        return product;
+    }
+}
@@ -0,0 +1,187 @@
+package com.rpgnexus.core.battle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 대미지 컨텍스트 태그 (예: Damage-Kind=melee, Damage-Sort=physical) 의 불변 값 타입입니다.
+ *
+ * (카테고리, 값) 쌍은 전역 ID로 인턴되며 리로드 후에도 ID가 바뀌지 않으므로,
+ * 한 번 만든 DamageTags 상수를 계속 재사용할 수 있습니다. 같은 내용의 태그는 같은 인스턴스를 반환합니다.
+ * 멀티플라이어 계산은 DamageMultiplierTable이 이 ID로 배열 인덱스를 구해 수행합니다.
+ */
+public final class DamageTags {
+
+    /**
+     * 계산 모드를 지정하는 특수 태그 키 (PVP, PVE, ...).
+     */
+    public static final String MODE = "Mode";
+
+    // "category\0value" -> ID, ID -> {category, value}
+    private static final Map<String, Integer> VALUE_IDS = new ConcurrentHashMap<>();
+    private static final List<String[]> VALUES = new ArrayList<>();
+    private static final Map<DamageTags, DamageTags> INTERNED = new ConcurrentHashMap<>();
+
+    public static final DamageTags EMPTY = intern(new DamageTags(new int[0], null));
+
+    private final int[] valueIds; // 오름차순, 카테고리당 최대 하나
+    private final String mode;
+    private final int hash;
+
+    private DamageTags(int[] valueIds, String mode) {
+        this.valueIds = valueIds;
+        this.mode = mode;
+        this.hash = 31 * Arrays.hashCode(valueIds) + Objects.hashCode(mode);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 기존 Map 형식(CategoryKey -> ValueKey, "Mode" 포함)의 태그를 변환합니다.
+     */
+    public static DamageTags of(Map<String, String> tags) {
+        if (tags == null || tags.isEmpty())
+            return EMPTY;
+        Builder builder = builder();
+        for (Map.Entry<String, String> entry : tags.entrySet())
+            builder.with(entry.getKey(), entry.getValue());
+        return builder.build();
+    }
+
+    /**
+     * 카테고리 값을 바꾼 태그를 반환합니다.
+     */
+    public DamageTags with(String category, String value) {
+        Builder builder = builder().mode(mode);
+        for (int id : valueIds)
+            builder.with(categoryOf(id), valueOf(id));
+        return builder.with(category, value).build();
+    }
+
+    /**
+     * @return 지정된 계산 모드, 없으면 null
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * @return 카테고리에 지정된 값, 없으면 null
+     */
+    public String get(String category) {
+        for (int id : valueIds) {
+            if (categoryOf(id).equals(category))
+                return valueOf(id);
+        }
+        return null;
+    }
+
+    int[] valueIds() {
+        return valueIds;
+    }
+
+    /**
+     * (카테고리, 값) 쌍의 전역 ID를 반환합니다. 처음 보는 쌍이면 새 ID를 부여합니다.
+     */
+    static int valueId(String category, String value) {
+        return VALUE_IDS.computeIfAbsent(category + '\0' + value, key -> {
+            synchronized (VALUES) {
+                VALUES.add(new String[] { category, value });
+                return VALUES.size() - 1;
+            }
+        });
+    }
+
+    static int valueCount() {
+        synchronized (VALUES) {
+            return VALUES.size();
+        }
+    }
+
+    static String categoryOf(int id) {
+        synchronized (VALUES) {
+            return VALUES.get(id)[0];
+        }
+    }
+
+    static String valueOf(int id) {
+        synchronized (VALUES) {
+            return VALUES.get(id)[1];
+        }
+    }
+
+    private static DamageTags intern(DamageTags tags) {
+        DamageTags existing = INTERNED.putIfAbsent(tags, tags);
+        return existing != null ? existing : tags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof DamageTags))
+            return false;
+        DamageTags other = (DamageTags) o;
+        return hash == other.hash && Arrays.equals(valueIds, other.valueIds) && Objects.equals(mode, other.mode);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DamageTags{");
+        for (int i = 0; i < valueIds.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(categoryOf(valueIds[i])).append('=').append(valueOf(valueIds[i]));
+        }
+        if (mode != null)
+            sb.append(valueIds.length > 0 ? ", " : "").append(MODE).append('=').append(mode);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * DamageTags 생성기. 같은 카테고리를 다시 지정하면 덮어씁니다.
+     */
+    public static final class Builder {
+        private final Map<String, String> values = new LinkedHashMap<>();
+        private String mode;
+
+        private Builder() {
+        }
+
+        public Builder with(String category, String value) {
+            if (MODE.equals(category))
+                return mode(value);
+            if (value == null)
+                values.remove(category);
+            else
+                values.put(category, value);
+            return this;
+        }
+
+        public Builder mode(String mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        public DamageTags build() {
+            int[] ids = new int[values.size()];
+            int i = 0;
+            for (Map.Entry<String, String> entry : values.entrySet())
+                ids[i++] = valueId(entry.getKey(), entry.getValue());
+            Arrays.sort(ids);
+            return intern(new DamageTags(ids, mode));
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package com.rpgnexus.core.command;
 
 import com.rpgnexus.core.RPGNexusCore;
+import com.rpgnexus.core.data.AutosaveScheduler;
+import com.rpgnexus.core.data.OfflineProfileCache;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.WriteBehindStorage;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
 public class NexusCommand implements CommandExecutor {
 
+    // /nexus profile 에서 한 번에 보여줄 스탯 수
+    private static final int PROFILE_STAT_LIMIT = 20;
+
     private final RPGNexusCore plugin;
 
     public NexusCommand(RPGNexusCore plugin) {
@@ -27,11 +41,118 @@ public class NexusCommand implements CommandExecutor {
             plugin.getCoreManager().reload();
             long elapsed = System.currentTimeMillis() - start;
             sender.sendMessage("§aRPGNexusCore 리로드 완료! (" + elapsed + "ms)");
+            int removed = plugin.getCoreManager().getScriptEngine().getRemovedNodeCount();
+            if (removed > 0)
+                sender.sendMessage("§7수식 최적화: 노드 " + removed + "개 제거 (상세 내용은 콘솔 참고)");
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("storage")) {
+            WriteBehindStorage.Metrics metrics = plugin.getCoreManager().getDataManager().getStorageMetrics();
+            if (metrics == null) {
+                sender.sendMessage("§c저장소가 초기화되지 않았습니다.");
+                return true;
+            }
+            sender.sendMessage("§6[저장소] §7대기: §f" + metrics.getQueueDepth() + " §7기록 중: §f" + metrics.getInFlight());
+            sender.sendMessage("§7요청: §f" + metrics.getRequested() + " §7병합: §f" + metrics.getMerged()
+                    + " §7변경 없음: §f" + metrics.getSkipped() + " §7기록: §f" + metrics.getWritten()
+                    + " §7버림: §c" + metrics.getDropped());
+            sender.sendMessage(String.format("§7배치: §f%d §7기록 시간 평균/최근/최대: §f%.2f / %.2f / %.2fms",
+                    metrics.getBatches(), metrics.getAverageFlushMillis(), metrics.getLastFlushMillis(),
+                    metrics.getMaxFlushMillis()));
+            OfflineProfileCache.Stats offline = plugin.getCoreManager().getDataManager().getOfflineCacheStats();
+            if (offline != null) {
+                sender.sendMessage(String.format("§6[오프라인 캐시] §7항목: §f%d §7(약 %.1fKB) §7로드 중: §f%d",
+                        offline.getSize(), offline.getBytes() / 1024.0, offline.getLoading()));
+                sender.sendMessage("§7적중: §f" + offline.getHits() + " §7실패: §f" + offline.getMisses() + " §7로드: §f"
+                        + offline.getLoads() + " §7제거: §f" + offline.getEvictions());
+            }
+            AutosaveScheduler.Stats autosave = plugin.getCoreManager().getDataManager().getAutosaveStats();
+            if (autosave == null) {
+                sender.sendMessage("§6[자동 저장] §7꺼짐");
+                return true;
+            }
+            sender.sendMessage("§6[자동 저장] §7미저장: §f" + autosave.getDirty() + " §7밀림: §f" + autosave.getBacklog()
+                    + " §7저장: §f" + autosave.getSaved());
+            sender.sendMessage(String.format("§7가장 오래된 변경: §f%.1fs §7(최대 %.1fs) §7예산 초과: §f%d §7대기열 밀림: §f%d",
+                    autosave.getLagMillis() / 1000.0, autosave.getMaxLagMillis() / 1000.0,
+                    autosave.getDeferredByBudget(), autosave.getDeferredByQueue()));
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("profile")) {
+            if (args.length < 2) {
+                sender.sendMessage("§c사용법: /nexus profile <플레이어|UUID> [스탯]");
+                return true;
+            }
+            UUID uuid = resolvePlayer(args[1]);
+            if (uuid == null) {
+                sender.sendMessage("§c플레이어를 찾을 수 없습니다: " + args[1] + " §7(접속한 적 없는 이름은 UUID로 조회)");
+                return true;
+            }
+            String stat = args.length > 2 ? args[2] : null;
+            // 오프라인이면 저장소에서 읽으므로 결과는 메인 스레드로 돌아와 출력
+            plugin.getCoreManager().getDataManager().loadProfile(uuid).whenComplete((profile, error) -> plugin
+                    .getServer().getScheduler().runTask(plugin, () -> showProfile(sender, uuid, profile, error, stat)));
             return true;
         }
 
         sender.sendMessage("§6RPGNexusCore v" + plugin.getPluginMeta().getVersion());
         sender.sendMessage("§7/nexus reload - 설정 및 모듈 리로드");
+        sender.sendMessage("§7/nexus storage - 데이터 저장 대기열 / 자동 저장 상태");
+        sender.sendMessage("§7/nexus profile <플레이어|UUID> [스탯] - 프로필 조회 (오프라인 포함)");
         return true;
     }
+
+    /**
+     * 이름 또는 UUID로 플레이어를 찾습니다. 오프라인 이름은 서버가 기억하는 경우만 (Mojang 조회 없음)
+     *
+     * @return UUID, 찾지 못하면 null
+     */
+    private UUID resolvePlayer(String input) {
+        try {
+            return UUID.fromString(input);
+        } catch (IllegalArgumentException ignored) {
+            // 이름
+        }
+        Player online = Bukkit.getPlayerExact(input);
+        if (online != null)
+            return online.getUniqueId();
+        OfflinePlayer offline = Bukkit.getOfflinePlayerIfCached(input);
+        return offline != null ? offline.getUniqueId() : null;
+    }
+
+    private void showProfile(CommandSender sender, UUID uuid, NexusProfile profile, Throwable error, String stat) {
+        if (error != null || profile == null) {
+            sender.sendMessage("§c프로필 로드 실패: " + uuid + " §7(콘솔 참고)");
+            return;
+        }
+        // 이름순 (등록되지 않은 스탯 포함)
+        Map<String, Double> stats = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        stats.putAll(profile.getStatContainer());
+        boolean online = Bukkit.getPlayer(uuid) != null;
+        sender.sendMessage("§6[프로필] §f" + (profile.getPlayerName() != null ? profile.getPlayerName() : "?") + " §7("
+                + uuid + ", " + (online ? "§a접속 중" : "§7오프라인") + "§7)");
+        if (stats.isEmpty() && profile.getMetaContainer().isEmpty()) {
+            sender.sendMessage("§7저장된 데이터가 없습니다.");
+            return;
+        }
+
+        if (stat != null) {
+            Double value = stats.get(stat);
+            sender.sendMessage(value != null ? "§7" + stat + ": §f" + value : "§c설정되지 않은 스탯: " + stat);
+            return;
+        }
+        sender.sendMessage("§7스탯 " + stats.size() + "개 (미등록 " + profile.getUnknownStats().size() + "개), 메타 "
+                + profile.getMetaContainer().size() + "개");
+        int shown = 0;
+        for (Map.Entry<String, Double> entry : stats.entrySet()) {
+            if (shown++ >= PROFILE_STAT_LIMIT) {
+                sender.sendMessage("§7... 외 " + (stats.size() - PROFILE_STAT_LIMIT) + "개 (/nexus profile "
+                        + uuid + " <스탯>)");
+                break;
+            }
+            sender.sendMessage("§7" + entry.getKey() + ": §f" + entry.getValue());
+        }
+    }
 }
@@ -13,6 +13,7 @@ import com.rpgnexus.core.manager.Manager;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * 설정 파일을 로드하고 저장하며 DTO 객체로 관리하는 매니저입니다.
@@ -22,12 +23,13 @@ public class ConfigManager extends Manager {
 
     private final ObjectMapper mapper;
 
-    private GeneralConfig generalConfig;
-    private BattleConfig battleConfig;
-    private ClassConfig classConfig;
-    private AttributeConfig attributeConfig;
-    private DamageSystemConfig damageSystemConfig;
-    private NormalSystemConfig normalSystemConfig;
+    // 리로드 시 새 객체로 통째로 교체되며, 비동기 스레드(전투 계산 등)에서도 최신 설정을 보도록 volatile
+    private volatile GeneralConfig generalConfig;
+    private volatile BattleConfig battleConfig;
+    private volatile ClassConfig classConfig;
+    private volatile AttributeConfig attributeConfig;
+    private volatile DamageSystemConfig damageSystemConfig;
+    private volatile NormalSystemConfig normalSystemConfig;
 
     private File generalFile;
     private File battleFile;
@@ -107,6 +109,14 @@ public class ConfigManager extends Manager {
         }
     }
 
+    /**
+     * 서버 없이 YAML 스트림을 설정 DTO로 읽습니다. (벤치마크 등에서 jar 내 기본 리소스를 로드할 때 사용)
+     * 셰이딩된 jar에서도 DTO의 Jackson 애너테이션과 같은 (재배치된) Jackson을 사용합니다.
+     */
+    public static <T> T readYaml(InputStream in, Class<T> clazz) throws IOException {
+        return new ObjectMapper(new YAMLFactory()).readValue(in, clazz);
+    }
+
     public void saveConfig(File file, Object configObj) {
         try {
             mapper.writeValue(file, configObj);
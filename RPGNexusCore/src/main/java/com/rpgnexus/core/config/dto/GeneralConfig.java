@@ -3,7 +3,10 @@ package com.rpgnexus.core.config.dto;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,7 +18,14 @@ public class GeneralConfig {
 
     private String language = "ko-KR";
     private boolean debugMode = false;
+    // 수식을 바이트코드로 컴파일 (false면 트리 인터프리터 사용)
+    private boolean formulaCompiler = true;
+    // 컴파일 전 상수 폴딩 / 공통 부분식 제거 / 죽은 분기 제거
+    private boolean formulaOptimizer = true;
     private ServerSettings serverSettings = new ServerSettings();
+    private StorageSettings storageSettings = new StorageSettings();
+    private LeaderboardSettings leaderboardSettings = new LeaderboardSettings();
+    private NetworkSettings networkSettings = new NetworkSettings();
 
     @Data
 
@@ -29,4 +39,101 @@ public class GeneralConfig {
             messages.put("no-permission", "&c권한이 없습니다.");
         }
     }
+
+    /**
+     * 플레이어 데이터 지연 저장 (WriteBehindStorage) 설정.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class StorageSettings {
+        // 저장소 종류: json (userdata/*.json), sqlite (sqliteFile 하나), log (userdata-log/ 세그먼트 로그)
+        private String type = "json";
+        // json 저장소의 파일 형식: json (.json), binary (.bin, BinaryProfileCodec). 바꾸면 저장 시 자동 변환
+        private String format = "json";
+        // 플러그인 폴더 기준 SQLite DB 파일
+        private String sqliteFile = "userdata.db";
+        // SQL 저장소 커넥션 풀 크기
+        private int poolSize = 4;
+        // log 저장소 세그먼트 최대 크기
+        private int logSegmentSizeMb = 64;
+        // log 저장소 압축 검사 주기 (0이면 압축 안 함)
+        private long logCompactionIntervalSeconds = 300;
+        // 살아있는 레코드 비율이 이보다 낮은 세그먼트를 압축
+        private double logCompactionThreshold = 0.5;
+        // 대기 중인 저장을 모아 기록하는 주기
+        private long flushIntervalMillis = 1000;
+        // 한 번에 기록할 최대 프로필 수 (대기 수가 이를 넘으면 주기를 기다리지 않고 기록)
+        private int batchSize = 64;
+        // 저장 실패 시 다시 시도하는 횟수 (초과하면 버리고 다음 저장을 전체 저장으로, 퇴장한 플레이어는 간격을 늘려 계속 재시도)
+        private int maxRetries = 3;
+        // 서버 종료 시 남은 저장 전체를 기다리는 마감 시간 (넘기면 비상 스냅샷으로 남김, 서버 watchdog보다 짧게)
+        private long shutdownTimeoutMillis = 10000;
+        // 서버 종료 시 남은 저장을 동시에 기록하는 스레드 수
+        private int shutdownParallelism = 4;
+        // 접속 전(AsyncPlayerPreLoginEvent) 프로필 로드를 기다리는 최대 시간 (넘기면 접속 후 비동기 로드)
+        private long preloginTimeoutMillis = 5000;
+        // 접속 전에 읽은 프로필을 join까지 보관하는 시간
+        private long handoffTtlSeconds = 60;
+        // 접속 중 변경된 프로필을 저장하는 주기 (변경 후 최대 이만큼 지나면 저장, 0이면 종료/퇴장 시에만 저장)
+        private long autosaveIntervalSeconds = 300;
+        // 저장 시점을 주기 안에서 최대 이만큼 앞당겨 흩어놓음 (한꺼번에 바뀐 프로필이 동시에 저장되지 않도록)
+        private long autosaveJitterSeconds = 120;
+        // 자동 저장 예산: 초당 / 틱당 최대 저장 수 (넘으면 가장 오래된 변경부터)
+        private double autosaveMaxPerSecond = 20;
+        private int autosaveMaxPerTick = 4;
+        // 오프라인 플레이어 프로필 캐시 (PAPI 순위표/홀로그램 등): 최대 항목 수 / 대략적인 최대 메모리
+        private int offlineCacheMaxEntries = 2000;
+        private int offlineCacheMaxMemoryKb = 8192;
+        // 오프라인 캐시 항목을 읽은 뒤 이만큼 지나면 조회 시 뒤에서 다시 읽음 (0이면 다시 읽지 않음)
+        private long offlineCacheRefreshSeconds = 300;
+        // 여러 서버가 같은 저장소(sqlite 파일, 공유 userdata 폴더)를 쓸 때 프로필 임대 사용 (log 저장소는 미지원)
+        private boolean leaseEnabled = false;
+        // 임대 소유자로 쓰는 서버 이름 (비우면 플러그인 폴더의 server-id 파일에 생성한 값, 서버마다 달라야 함)
+        private String serverId = "";
+        // 임대 유효 시간 (1/3마다 연장, 서버가 멈추면 이 시간 뒤 다른 서버가 가져감)
+        private long leaseTtlSeconds = 30;
+        // 다른 서버가 퇴장 저장을 마치고 임대를 내놓기를 기다리는 최대 시간
+        // 기다린 뒤 프로필을 읽을 시간도 필요하므로 preloginTimeoutMillis보다 1초 이상 짧아야 함 (넘으면 줄여서 사용)
+        private long leaseWaitMillis = 3000;
+    }
+
+    /**
+     * 스탯 순위표 (LeaderboardManager) 설정.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class LeaderboardSettings {
+        // 순위표를 만들 스탯 (attributes.yml의 이름, PAPI에서는 소문자로 사용: %nexus_top_level_1_name%)
+        private List<String> attributes = new ArrayList<>(Arrays.asList("Level", "Combat-Ability"));
+        // 접속 중인 플레이어 값을 순위표에 반영하는 주기
+        private long updateIntervalTicks = 20;
+        // leaderboards.dat 저장 주기 (종료 시에도 저장)
+        private long saveIntervalSeconds = 300;
+    }
+
+    /**
+     * 클라이언트 모드와 주고받는 nexus:data 채널 (NetworkManager) 설정.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class NetworkSettings {
+        // 클라이언트가 HELLO로 요청하면 바이너리 형식 사용 (false면 모든 클라이언트에 JSON)
+        private boolean binaryProtocol = true;
+        // 바이너리 클라이언트에 바뀐 필드만 보내는 중에도 이 주기마다 전체 상태를 다시 보냄 (복구용, 0이면 보내지 않음)
+        private long statusKeyframeSeconds = 30;
+        // 플레이어 한 명에게 보내는 HUD 패킷의 초당 최대 바이트 (넘으면 다음 틱으로 미룸, 0이면 제한 없음)
+        private int maxBytesPerSecond = 16384;
+        // 플레이어마다 이 주기로 한 번씩 바라보는 대상을 찾음 (레이 트레이스, 틱마다 일부 플레이어씩 나눠서)
+        private int targetScanIntervalTicks = 10;
+        // 틱당 최대 레이 트레이스 수 (플레이어가 많으면 한 바퀴가 주기보다 길어짐)
+        private int maxTargetRayTracesPerTick = 64;
+        // 대상 정보가 그대로여도 이 주기마다 다시 보냄 (갱신이 끊기면 HUD를 숨기는 클라이언트용, 0이면 보내지 않음)
+        private int targetKeepAliveSeconds = 5;
+        // 클라이언트 요청 (HELLO, 스탯 시트, 엔티티 조회) 플레이어별 초당 허용 수와 한 번에 몰아 보낼 수 있는 수 (넘으면 버림)
+        private double requestsPerSecond = 10;
+        private int requestBurst = 20;
+        // 요청 하나의 최대 크기 / 엔티티 조회 요청 하나의 최대 엔티티 수
+        private int maxRequestBytes = 1024;
+        private int maxRequestEntities = 32;
+    }
 }
@@ -0,0 +1,212 @@
+package com.rpgnexus.core.data;
+
+import com.rpgnexus.core.RPGNexusCore;
+import com.rpgnexus.core.config.dto.GeneralConfig;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.WriteBehindStorage;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 접속 중인 플레이어의 변경된 프로필을 주기적으로 저장합니다. (서버가 비정상 종료되어도 잃는 양을 제한)
+ *
+ * 매 틱 메인 스레드에서 캐시를 훑어, 변경이 생긴 지 (주기 - 지터) 이상 지난 프로필을 저장 대기열에 넣습니다.
+ * 지터는 UUID와 변경 시각으로 정해지므로 한꺼번에 바뀐 프로필도 주기 안에 흩어져 저장됩니다.
+ * 한 틱/초당 저장 수는 토큰 버킷으로 제한하고, 밀리면 가장 오래된 변경부터 저장합니다.
+ * 저장 대기열(WriteBehindStorage)이 밀려 있으면 새로 넣지 않고 기다립니다.
+ */
+public class AutosaveScheduler {
+
+    // 변경 시각을 모르는 프로필은 가장 오래된 것으로 취급
+    private static final Comparator<NexusProfile> OLDEST_FIRST = Comparator.comparingLong(NexusProfile::getDirtySince);
+
+    private final RPGNexusCore plugin;
+    private final Collection<NexusProfile> profiles;
+    private final WriteBehindStorage storage;
+    private final long intervalMillis;
+    private final long jitterMillis;
+    private final double savesPerMilli;
+    private final int maxPerTick;
+    private final int maxQueued;
+
+    private final List<NexusProfile> due = new ArrayList<>();
+    private BukkitTask task;
+    private double tokens;
+    private long lastTickMillis;
+
+    // 지표 (메인 스레드에서만 갱신)
+    private long saved;
+    private long deferredByBudget;
+    private long deferredByQueue;
+    private int dirtyCount;
+    private int backlog;
+    private long lagMillis;
+    private long maxLagMillis;
+
+    /**
+     * @param profiles 접속 중인 프로필 (DataManager 캐시의 뷰, 메인 스레드에서만 순회)
+     */
+    public AutosaveScheduler(RPGNexusCore plugin, Collection<NexusProfile> profiles, WriteBehindStorage storage,
+            GeneralConfig.StorageSettings settings) {
+        this.plugin = plugin;
+        this.profiles = profiles;
+        this.storage = storage;
+        this.intervalMillis = settings.getAutosaveIntervalSeconds() * 1000L;
+        this.jitterMillis = Math.max(0, Math.min(settings.getAutosaveJitterSeconds() * 1000L, intervalMillis));
+        this.savesPerMilli = Math.max(0.001, settings.getAutosaveMaxPerSecond()) / 1000.0;
+        this.maxPerTick = Math.max(1, settings.getAutosaveMaxPerTick());
+        this.maxQueued = Math.max(1, settings.getBatchSize()) * 2;
+    }
+
+    /**
+     * 자동 저장을 시작합니다. 주기가 0 이하면 아무것도 하지 않습니다.
+     */
+    public void start() {
+        if (intervalMillis <= 0 || task != null)
+            return;
+        lastTickMillis = System.currentTimeMillis();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 1L);
+    }
+
+    public void stop() {
+        if (task != null && !task.isCancelled())
+            task.cancel();
+        task = null;
+    }
+
+    public boolean isRunning() {
+        return task != null;
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(maxPerTick, tokens + (now - lastTickMillis) * savesPerMilli);
+        lastTickMillis = now;
+
+        due.clear();
+        int dirty = 0;
+        long oldest = now;
+        for (NexusProfile profile : profiles) {
+            if (!profile.isDirty())
+                continue;
+            dirty++;
+            long since = profile.getDirtySince();
+            if (since == 0) {
+                due.add(profile); // 언제 바뀌었는지 모름: 다음 기회에 저장
+                continue;
+            }
+            oldest = Math.min(oldest, since);
+            if (now >= since + intervalMillis - jitter(profile.getUuid(), since))
+                due.add(profile);
+        }
+        dirtyCount = dirty;
+        backlog = due.size();
+        lagMillis = now - oldest;
+        maxLagMillis = Math.max(maxLagMillis, lagMillis);
+        if (due.isEmpty())
+            return;
+
+        WriteBehindStorage.Metrics metrics = storage.getMetrics();
+        if (metrics.getQueueDepth() + metrics.getInFlight() >= maxQueued) {
+            deferredByQueue++; // 기록이 따라오지 못함: 대기열이 빠질 때까지 쌓지 않음
+            return;
+        }
+        int allowed = (int) tokens;
+        if (allowed < due.size()) {
+            deferredByBudget++;
+            if (allowed == 0)
+                return;
+            due.sort(OLDEST_FIRST);
+        }
+        int count = Math.min(allowed, due.size());
+        for (int i = 0; i < count; i++)
+            storage.save(due.get(i)); // 스냅샷을 뜨고 변경 표시를 비움 -> 다음 틱부터 대상 아님
+        tokens -= count;
+        saved += count;
+        backlog -= count;
+        due.clear();
+    }
+
+    /**
+     * 변경마다 [0, jitterMillis] 안에서 고르게 퍼지는 앞당김 값. 최대 지연은 주기를 넘지 않습니다.
+     */
+    private long jitter(String uuid, long since) {
+        if (jitterMillis == 0)
+            return 0;
+        long hash = (uuid.hashCode() * 0x9E3779B97F4A7C15L) ^ since;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 32;
+        return Math.floorMod(hash, jitterMillis + 1);
+    }
+
+    /**
+     * 자동 저장 지표 (/nexus storage).
+     */
+    public Stats getStats() {
+        return new Stats(saved, dirtyCount, backlog, lagMillis, maxLagMillis, deferredByBudget, deferredByQueue);
+    }
+
+    /**
+     * 자동 저장 지표 스냅샷. 값은 마지막 틱 기준입니다.
+     */
+    public static final class Stats {
+        private final long saved;
+        private final int dirty;
+        private final int backlog;
+        private final long lagMillis;
+        private final long maxLagMillis;
+        private final long deferredByBudget;
+        private final long deferredByQueue;
+
+        private Stats(long saved, int dirty, int backlog, long lagMillis, long maxLagMillis, long deferredByBudget,
+                long deferredByQueue) {
+            this.saved = saved;
+            this.dirty = dirty;
+            this.backlog = backlog;
+            this.lagMillis = lagMillis;
+            this.maxLagMillis = maxLagMillis;
+            this.deferredByBudget = deferredByBudget;
+            this.deferredByQueue = deferredByQueue;
+        }
+
+        /** 자동 저장으로 대기열에 넣은 프로필 수 */
+        public long getSaved() {
+            return saved;
+        }
+
+        /** 저장되지 않은 변경이 있는 접속 중 프로필 수 */
+        public int getDirty() {
+            return dirty;
+        }
+
+        /** 저장할 때가 지났지만 예산 때문에 남은 프로필 수 */
+        public int getBacklog() {
+            return backlog;
+        }
+
+        /** 가장 오래된 미저장 변경의 경과 시간 */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        public long getMaxLagMillis() {
+            return maxLagMillis;
+        }
+
+        /** 초당/틱당 예산을 넘어 저장을 미룬 틱 수 */
+        public long getDeferredByBudget() {
+            return deferredByBudget;
+        }
+
+        /** 저장 대기열이 밀려 저장을 미룬 틱 수 */
+        public long getDeferredByQueue() {
+            return deferredByQueue;
+        }
+    }
+}
@@ -1,28 +1,63 @@
 package com.rpgnexus.core.data;
 
 import com.rpgnexus.core.RPGNexusCore;
+import com.rpgnexus.core.config.dto.GeneralConfig;
+import com.rpgnexus.core.data.codec.ProfileFormat;
 import com.rpgnexus.core.data.dto.NexusProfile;
 import com.rpgnexus.core.data.storage.DataStorage;
 import com.rpgnexus.core.data.storage.JsonDataStorage;
+import com.rpgnexus.core.data.storage.LogDataStorage;
+import com.rpgnexus.core.data.storage.ProfileLeases;
+import com.rpgnexus.core.data.storage.SqliteDataStorage;
+import com.rpgnexus.core.data.storage.WriteBehindStorage;
 import com.rpgnexus.core.manager.Manager;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * 플레이어 데이터를 로드/저장하고 캐시를 관리하는 매니저입니다.
  */
 public class DataManager extends Manager implements Listener {
 
+    // 접속 전 로드 마감 안에서 임대를 기다린 뒤 프로필을 읽는 데 남겨둘 시간
+    private static final long LEASE_READ_MARGIN_MILLIS = 1000;
+
     private final Map<UUID, NexusProfile> profileCache = new ConcurrentHashMap<>();
-    private DataStorage storage;
+    // 접속 전(AsyncPlayerPreLoginEvent)에 미리 읽어둔 프로필 -> PlayerJoinEvent에서 캐시로 옮김
+    private final Map<UUID, Handoff> handoffs = new ConcurrentHashMap<>();
+    // 프로필이 아직 없는 플레이어에게 예약된 작업 (로드 완료 시 메인 스레드에서 실행)
+    private final Map<UUID, List<Consumer<NexusProfile>>> waiting = new ConcurrentHashMap<>();
+    private WriteBehindStorage storage;
+    private GeneralConfig.StorageSettings storageSettings;
+    private AutosaveScheduler autosave;
+    // 접속하지 않은 플레이어 프로필 (읽기 전용, PAPI 등)
+    private OfflineProfileCache offlineCache;
+    // 서버 간 프로필 임대 (leaseEnabled일 때만)
+    private LeaseCoordinator leases;
 
     public DataManager(RPGNexusCore plugin) {
         super(plugin);
@@ -34,9 +69,24 @@ public class DataManager extends Manager implements Listener {
      */
     @Override
     public void enable() {
-        // TODO: Config에서 저장소 타입 설정 읽어오기 가능
-        this.storage = new JsonDataStorage(plugin);
+        // 저장은 write-behind 계층이 전용 스레드에서 모아서 기록
+        GeneralConfig general = plugin.getCoreManager().getConfigManager().getGeneralConfig();
+        GeneralConfig.StorageSettings settings = general != null && general.getStorageSettings() != null
+                ? general.getStorageSettings()
+                : new GeneralConfig.StorageSettings();
+        this.storageSettings = settings;
+        this.storage = new WriteBehindStorage(createBackend(settings), plugin.getLogger(), settings);
         this.storage.initialize();
+        this.leases = createLeaseCoordinator(settings);
+        // 퇴장한 플레이어의 저장은 재시도를 다 써도 버리지 않음 (다시 저장될 일이 없으므로)
+        storage.setOnlineCheck(uuid -> profileCache.containsKey(UUID.fromString(uuid)));
+        if (leases != null)
+            storage.setLeaseHolder(leases); // 모든 저장 경로(자동/퇴장/종료)에서 임대를 잃은 프로필은 기록하지 않음
+        this.autosave = new AutosaveScheduler(plugin, profileCache.values(), storage, settings);
+        this.autosave.start();
+        this.offlineCache = new OfflineProfileCache(storage, plugin.getLogger(), settings.getOfflineCacheMaxEntries(),
+                settings.getOfflineCacheMaxMemoryKb() * 1024L,
+                TimeUnit.SECONDS.toMillis(settings.getOfflineCacheRefreshSeconds()));
         plugin.getServer().getPluginManager().registerEvents(this, plugin); // 이벤트 리스너 등록
 
         // 리로드 시 온라인 플레이어 데이터 로드
@@ -49,34 +99,275 @@ public class DataManager extends Manager implements Listener {
      */
     @Override
     public void disable() {
-        // 모든 캐시 저장
-        for (NexusProfile profile : profileCache.values()) {
-            savePlayerSync(profile); // 종료 시는 동기 저장 권장 (데이터 유실 방지)
-        }
-        profileCache.clear();
+        // 모든 캐시 저장 예약 후, 종료 스레드들이 마감 시간 안에 동시에 기록 (데이터 유실 방지)
+        if (autosave != null)
+            autosave.stop();
         if (storage != null) {
-            storage.close();
+            for (NexusProfile profile : profileCache.values()) {
+                storage.save(profile);
+            }
+            WriteBehindStorage.ShutdownReport report = storage.shutdown(storageSettings.getShutdownTimeoutMillis());
+            plugin.getLogger().info("종료 저장 완료: " + report.getWritten() + "개 기록, 실패 "
+                    + report.getFailures().size() + "개 (" + report.getElapsedMillis() + "ms)");
+            report.getFailures().forEach((uuid, reason) ->
+                    plugin.getLogger().severe("종료 저장 실패: " + uuid + " - " + reason));
+            if (!report.getUnsaved().isEmpty())
+                writeEmergencySnapshots(report.getUnsaved());
+            if (leases != null) {
+                // 저장하지 못한 프로필의 임대는 만료까지 남겨 다른 서버가 바로 읽지 않게 함
+                Set<UUID> unsaved = new HashSet<>();
+                for (NexusProfile profile : report.getUnsaved())
+                    unsaved.add(UUID.fromString(profile.getUuid()));
+                leases.stop(unsaved);
+            }
         }
+        profileCache.clear();
+        if (offlineCache != null)
+            offlineCache.clear();
+        handoffs.clear();
+        waiting.clear();
     }
 
     public NexusProfile getProfile(UUID uuid) {
         return profileCache.get(uuid);
     }
 
+    /**
+     * 접속 여부와 관계없이 프로필을 조회합니다. (PAPI, 순위표 등 읽기 전용 용도)
+     * 오프라인 플레이어는 캐시에 없으면 비동기 로드를 시작하고 null을 반환하므로 다음 조회부터 값이 나옵니다.
+     * 오프라인 프로필은 공유 객체이므로 수정하면 안 됩니다.
+     *
+     * @return 프로필 (저장된 적 없는 플레이어는 빈 프로필), 로드 중이면 null
+     */
+    public NexusProfile getProfileOrCached(UUID uuid) {
+        NexusProfile profile = profileCache.get(uuid);
+        if (profile != null || offlineCache == null)
+            return profile;
+        return offlineCache.getIfPresent(uuid);
+    }
+
+    /**
+     * 접속 여부와 관계없이 프로필을 비동기로 조회합니다. (/nexus profile 등, 읽기 전용)
+     */
+    public CompletableFuture<NexusProfile> loadProfile(UUID uuid) {
+        NexusProfile profile = profileCache.get(uuid);
+        if (profile != null)
+            return CompletableFuture.completedFuture(profile);
+        return offlineCache.get(uuid);
+    }
+
+    /**
+     * 프로필이 준비되면 작업을 실행합니다. 이미 로드되어 있으면 바로 실행하고,
+     * 아직 로드 중이면 로드가 끝난 뒤 메인 스레드에서 실행합니다. (로드 전에 나가면 버려짐)
+     * 메인 스레드에서 호출합니다.
+     */
+    public void whenLoaded(UUID uuid, Consumer<NexusProfile> action) {
+        NexusProfile profile = profileCache.get(uuid);
+        if (profile != null) {
+            action.accept(profile);
+            return;
+        }
+        waiting.computeIfAbsent(uuid, key -> new ArrayList<>()).add(action);
+    }
+
+    /**
+     * 저장소 (지연 저장 계층). 전체 순회 등 캐시를 거치지 않는 읽기용입니다.
+     */
+    public DataStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * 저장 대기열 지표 (/nexus storage).
+     */
+    public WriteBehindStorage.Metrics getStorageMetrics() {
+        return storage != null ? storage.getMetrics() : null;
+    }
+
+    /**
+     * 오프라인 프로필 캐시 지표 (/nexus storage).
+     */
+    public OfflineProfileCache.Stats getOfflineCacheStats() {
+        return offlineCache != null ? offlineCache.getStats() : null;
+    }
+
+    /**
+     * 자동 저장 지표 (/nexus storage). 자동 저장이 꺼져 있으면 null.
+     */
+    public AutosaveScheduler.Stats getAutosaveStats() {
+        return autosave != null && autosave.isRunning() ? autosave.getStats() : null;
+    }
+
     // --- Data Logic ---
 
+    /**
+     * 설정의 storage-settings.type에 맞는 저장소를 생성합니다.
+     */
+    private DataStorage createBackend(GeneralConfig.StorageSettings settings) {
+        String type = settings.getType() != null ? settings.getType().toLowerCase() : "json";
+        switch (type) {
+            case "sqlite":
+                return new SqliteDataStorage(new File(plugin.getDataFolder(), settings.getSqliteFile()),
+                        plugin.getLogger(), settings.getPoolSize());
+            case "log":
+                return new LogDataStorage(new File(plugin.getDataFolder(), "userdata-log"), plugin.getLogger(),
+                        settings.getLogSegmentSizeMb() * 1024 * 1024,
+                        TimeUnit.SECONDS.toMillis(settings.getLogCompactionIntervalSeconds()),
+                        settings.getLogCompactionThreshold());
+            case "json":
+                break;
+            default:
+                plugin.getLogger().warning("알 수 없는 저장소 종류: " + settings.getType() + " (json 사용)");
+                break;
+        }
+        ProfileFormat format = ProfileFormat.fromName(settings.getFormat());
+        if (format == null) {
+            plugin.getLogger().warning("알 수 없는 파일 형식: " + settings.getFormat() + " (json 사용)");
+            format = ProfileFormat.JSON;
+        }
+        return new JsonDataStorage(plugin, format);
+    }
+
+    /**
+     * leaseEnabled면 저장소의 임대 기록으로 LeaseCoordinator를 만듭니다.
+     */
+    private LeaseCoordinator createLeaseCoordinator(GeneralConfig.StorageSettings settings) {
+        if (!settings.isLeaseEnabled())
+            return null;
+        ProfileLeases profileLeases = storage.getLeases();
+        if (profileLeases == null) {
+            plugin.getLogger().warning("이 저장소(" + settings.getType() + ")는 서버 간 임대를 지원하지 않습니다. (임대 사용 안 함)");
+            return null;
+        }
+        String serverId = settings.getServerId();
+        if (serverId == null || serverId.isBlank())
+            serverId = loadServerId();
+        // 임대를 기다리다 접속 전 로드 마감을 넘기면 임대를 얻고도 프로필은 join 이후에 다시 읽게 됨
+        long leaseWait = settings.getLeaseWaitMillis();
+        long maxLeaseWait = Math.max(0, settings.getPreloginTimeoutMillis() - LEASE_READ_MARGIN_MILLIS);
+        if (leaseWait > maxLeaseWait) {
+            plugin.getLogger().warning("leaseWaitMillis(" + leaseWait + ")가 preloginTimeoutMillis("
+                    + settings.getPreloginTimeoutMillis() + ")에 너무 가깝습니다. " + maxLeaseWait + "ms로 줄여서 사용합니다.");
+            leaseWait = maxLeaseWait;
+        }
+        LeaseCoordinator coordinator = new LeaseCoordinator(profileLeases, serverId,
+                TimeUnit.SECONDS.toMillis(settings.getLeaseTtlSeconds()), leaseWait, plugin.getLogger());
+        coordinator.start();
+        plugin.getLogger().info("프로필 임대 사용: 서버 " + serverId);
+        return coordinator;
+    }
+
+    /**
+     * 플러그인 폴더의 server-id 파일 (없으면 새로 만듦). 재시작해도 같은 이름이므로 이전 임대를 바로 다시 얻습니다.
+     */
+    private String loadServerId() {
+        File file = new File(plugin.getDataFolder(), "server-id");
+        try {
+            if (file.exists()) {
+                String id = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+                if (!id.isEmpty())
+                    return id;
+            }
+            String id = UUID.randomUUID().toString();
+            plugin.getDataFolder().mkdirs();
+            Files.write(file.toPath(), id.getBytes(StandardCharsets.UTF_8));
+            return id;
+        } catch (IOException e) {
+            plugin.getLogger().warning("server-id 파일을 읽거나 쓰지 못했습니다. 임시 이름을 사용합니다.");
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * 임대를 얻은 뒤 (사용하지 않으면 바로) 프로필을 읽습니다. 임대를 얻지 못해도 읽기는 진행합니다.
+     */
+    private CompletableFuture<NexusProfile> acquireAndLoad(UUID uuid) {
+        if (leases == null)
+            return storage.load(uuid);
+        return leases.acquire(uuid).handle((lease, error) -> {
+            if (error != null)
+                plugin.getLogger().severe("프로필 임대를 얻지 못했습니다. 다른 서버의 저장과 겹칠 수 있습니다: " + uuid);
+            return null;
+        }).thenCompose(ignored -> storage.load(uuid));
+    }
+
+    /**
+     * 접속 전에 읽지 못한 경우 (리로드 시 온라인 플레이어, 미리 읽은 프로필 만료 등) 비동기로 로드합니다.
+     * 결과는 메인 스레드에서 캐시에 넣고, 그동안 whenLoaded로 예약된 작업을 실행합니다.
+     */
     private void loadPlayer(UUID uuid, String name) {
-        storage.load(uuid).thenAccept(profile -> {
-            if (profile == null) {
-                // 신규 유저 생성
-                profile = new NexusProfile(uuid, name);
+        acquireAndLoad(uuid).whenComplete((loaded, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("데이터 로드 실패: " + uuid);
+                error.printStackTrace();
             }
-            // 이름 업데이트 (변경되었을 수 있음)
-            profile.setPlayerName(name);
-            profileCache.put(uuid, profile);
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (plugin.getServer().getPlayer(uuid) == null) {
+                    // 로드가 끝나기 전에 나감: 캐시에 남기지 않음 (저장할 변경도 없음)
+                    waiting.remove(uuid);
+                    if (leases != null)
+                        leases.releaseAfter(uuid, CompletableFuture.completedFuture(null));
+                    return;
+                }
+                if (!profileCache.containsKey(uuid))
+                    cacheProfile(uuid, name, loaded);
+            });
         });
     }
 
+    /**
+     * 프로필을 캐시에 넣고 대기 중인 작업을 실행합니다. 메인 스레드에서 호출합니다.
+     *
+     * @param loaded 저장소에서 읽은 프로필 (null이면 신규 유저)
+     */
+    private void cacheProfile(UUID uuid, String name, NexusProfile loaded) {
+        NexusProfile profile;
+        if (loaded != null) {
+            profile = loaded;
+            profile.markPersisted(); // 저장된 내용 그대로이므로 이후 변경분만 저장
+        } else {
+            profile = new NexusProfile(uuid, name); // 신규 유저 생성 (첫 저장은 전체 저장)
+        }
+        // 이름 업데이트 (변경되었을 수 있음)
+        profile.setPlayerName(name);
+        profileCache.put(uuid, profile);
+
+        List<Consumer<NexusProfile>> actions = waiting.remove(uuid);
+        if (actions != null) {
+            for (Consumer<NexusProfile> action : actions) {
+                try {
+                    action.accept(profile);
+                } catch (Exception e) {
+                    plugin.getLogger().severe("프로필 로드 후 작업 실패: " + uuid);
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 종료 시 저장하지 못한 프로필을 emergency/시각/UUID.json으로 남깁니다.
+     * JSON 형식이므로 json 저장소라면 userdata/에 그대로 복사해 복구할 수 있습니다.
+     */
+    private void writeEmergencySnapshots(List<NexusProfile> profiles) {
+        File folder = new File(plugin.getDataFolder(),
+                "emergency/" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()));
+        folder.mkdirs();
+        int written = 0;
+        for (NexusProfile profile : profiles) {
+            try {
+                Files.write(new File(folder, profile.getUuid() + ProfileFormat.JSON.getExtension()).toPath(),
+                        ProfileFormat.JSON.encode(profile));
+                written++;
+            } catch (Exception e) {
+                plugin.getLogger().severe("비상 저장 실패: " + profile.getUuid() + " " + profile.getStatContainer());
+                e.printStackTrace();
+            }
+        }
+        plugin.getLogger().severe("저장하지 못한 프로필 " + written + "/" + profiles.size() + "개를 비상 저장했습니다: "
+                + folder.getPath());
+    }
+
     private void savePlayer(UUID uuid) {
         NexusProfile profile = profileCache.get(uuid);
         if (profile != null) {
@@ -84,30 +375,95 @@ public class DataManager extends Manager implements Listener {
         }
     }
 
-    private void savePlayerSync(NexusProfile profile) {
-        // 동기 저장을 위해 join() 사용, 메인 스레드 멈춤 주의 (Disable 시에는 허용)
-        storage.save(profile).join();
-    }
-
     // --- Listeners ---
 
+    /**
+     * 접속 허용이 확정된 뒤(MONITOR) 로그인 스레드에서 프로필을 미리 읽습니다.
+     * 이 이벤트는 메인 스레드가 아니므로 여기서 기다려도 서버가 멈추지 않습니다.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED)
+            return;
+        UUID uuid = event.getUniqueId();
+        long now = System.currentTimeMillis();
+        // 접속하지 않은 플레이어의 프로필 정리 (임대도 반환)
+        handoffs.entrySet().removeIf(entry -> {
+            if (entry.getValue().expiresAt >= now)
+                return false;
+            if (leases != null)
+                leases.releaseAfter(entry.getKey(), CompletableFuture.completedFuture(null));
+            return true;
+        });
+        if (profileCache.containsKey(uuid))
+            return; // 기존 접속이 아직 남아있음: 나간 뒤 저장된 값을 join에서 다시 읽음
+
+        try {
+            // 다른 서버에서 넘어오는 중이면 그 서버의 퇴장 저장이 끝날 때까지 (임대 반환) 기다린 뒤 읽음
+            NexusProfile profile = acquireAndLoad(uuid)
+                    .get(storageSettings.getPreloginTimeoutMillis(), TimeUnit.MILLISECONDS);
+            handoffs.put(uuid, new Handoff(profile,
+                    now + TimeUnit.SECONDS.toMillis(storageSettings.getHandoffTtlSeconds())));
+        } catch (TimeoutException e) {
+            // 저장소가 느림: 접속은 허용하고 join 이후 비동기 로드로 대체
+            plugin.getLogger().warning("접속 전 데이터 로드 시간 초과: " + event.getName() + " (" + uuid + ")");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.getLogger().severe("접속 전 데이터 로드 실패: " + uuid);
+            e.printStackTrace();
+        }
+    }
+
     @EventHandler(priority = EventPriority.LOWEST)
     public void onJoin(PlayerJoinEvent event) {
-        loadPlayer(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+        UUID uuid = event.getPlayer().getUniqueId();
+        offlineCache.invalidate(uuid); // 접속 중에는 온라인 캐시가 기준: 오래된 오프라인 사본을 남기지 않음
+        Handoff handoff = handoffs.remove(uuid);
+        if (handoff != null && handoff.expiresAt >= System.currentTimeMillis()) {
+            // 접속 전에 읽어둔 프로필: join 시점부터 바로 사용 가능
+            cacheProfile(uuid, event.getPlayer().getName(), handoff.profile);
+            return;
+        }
+        loadPlayer(uuid, event.getPlayer().getName());
     }
 
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         UUID uuid = event.getPlayer().getUniqueId();
         NexusProfile profile = profileCache.remove(uuid); // 캐시에서 제거하며 가져옴
+        handoffs.remove(uuid);
+        waiting.remove(uuid);
 
-        if (profile != null) {
-            // 비동기로 데이터 저장 수행
-            // 주의: 서버 종료 시에는 플러그인이 비활성화되므로 동기 저장이 안전할 수 있으나,
-            // 일반적인 로그아웃 상황에서는 서버 렉 방지를 위해 비동기가 권장됨.
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-                storage.save(profile);
-            });
+        if (profile == null) {
+            if (leases != null) // 로드 중에 나감: 로드 완료 쪽에서도 반환하지만 이미 얻은 임대는 여기서 반환
+                leases.releaseAfter(uuid, CompletableFuture.completedFuture(null));
+            return;
+        }
+        if (leases != null && leases.isLost(uuid)) {
+            // 멈춘 사이 다른 서버가 가져감: 더 최신 데이터를 덮어쓰지 않음
+            plugin.getLogger().severe("다른 서버가 임대를 가져간 프로필이므로 저장하지 않습니다: " + event.getPlayer().getName());
+            leases.releaseAfter(uuid, CompletableFuture.completedFuture(null));
+            return;
+        }
+        // 나간 직후 값을 오프라인 캐시에 넣어 순위표 등이 디스크를 다시 읽지 않게 함
+        offlineCache.put(uuid, profile.copy());
+        // 스냅샷만 떠서 대기열에 넣고 반환 (기록은 저장 스레드에서 배치로 수행), 기록되면 임대 반환
+        CompletableFuture<Void> saved = storage.save(profile);
+        if (leases != null)
+            leases.releaseAfter(uuid, saved);
+    }
+
+    /**
+     * 접속 전에 읽은 프로필 (null이면 신규 유저)과 만료 시각.
+     */
+    private static final class Handoff {
+        private final NexusProfile profile;
+        private final long expiresAt;
+
+        private Handoff(NexusProfile profile, long expiresAt) {
+            this.profile = profile;
+            this.expiresAt = expiresAt;
         }
     }
 }
@@ -0,0 +1,193 @@
+package com.rpgnexus.core.data;
+
+import com.rpgnexus.core.data.storage.ProfileLeases;
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * 이 서버가 가진 프로필 임대를 관리합니다. (여러 서버가 저장소를 공유할 때)
+ *
+ * - 로드 전에 임대를 얻습니다. 다른 서버가 아직 퇴장 저장 중이면 짧은 간격으로 다시 시도하며 기다리고,
+ *   waitMillis 안에 내놓지 않으면 (서버 정지 등) 빼앗습니다. 기다리는 동안 스레드를 막지 않습니다.
+ * - 가진 임대는 ttl의 1/3마다 연장하고, 빼앗긴 프로필은 lost로 표시해 더 이상 저장하지 않습니다.
+ *   연장 사이에 빼앗긴 경우는 저장소가 기록 직전에 임대(token)를 다시 확인해 막습니다. (WriteBehindStorage)
+ * - 퇴장 저장이 기록된 뒤에 임대를 내놓으므로, 다음 서버는 항상 마지막 저장 이후의 데이터를 읽습니다.
+ *
+ * 임대 기록 작업은 전용 스레드 하나에서 순서대로 실행합니다. (같은 프로필의 내놓기/다시 얻기가 엇갈리지 않음)
+ */
+public class LeaseCoordinator implements ProfileLeases.Holder {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ProfileLeases leases;
+    private final String owner;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final Logger logger;
+    private final Map<UUID, Lease> held = new ConcurrentHashMap<>();
+    private final Set<UUID> lost = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RPGNexus-Lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param owner      이 서버의 고유 이름
+     * @param waitMillis 다른 서버가 임대를 내놓기를 기다리는 최대 시간 (넘으면 빼앗음)
+     */
+    public LeaseCoordinator(ProfileLeases leases, String owner, long ttlMillis, long waitMillis, Logger logger) {
+        this.leases = leases;
+        this.owner = owner;
+        this.ttlMillis = Math.max(3000, ttlMillis);
+        this.waitMillis = waitMillis;
+        this.logger = logger;
+    }
+
+    public void start() {
+        long interval = ttlMillis / 3;
+        executor.scheduleWithFixedDelay(this::renewAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 남은 임대를 내놓고 종료합니다. 저장하지 못한 프로필의 임대는 만료될 때까지 남겨 다른 서버가 기다리게 합니다.
+     *
+     * @param keep 내놓지 않을 프로필 (종료 저장 실패)
+     */
+    public void stop(Set<UUID> keep) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Lease lease : held.values()) {
+            if (!keep.contains(lease.getUuid()))
+                release(lease);
+        }
+        held.clear();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * 임대를 얻습니다. 다른 서버가 가지고 있으면 내놓을 때까지 (최대 waitMillis) 기다린 뒤 빼앗습니다.
+     *
+     * @return 얻은 임대, 저장소 오류가 계속되면 예외로 완료
+     */
+    public CompletableFuture<Lease> acquire(UUID uuid) {
+        CompletableFuture<Lease> future = new CompletableFuture<>();
+        long deadline = System.currentTimeMillis() + waitMillis;
+        try {
+            executor.execute(() -> attempt(uuid, deadline, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void attempt(UUID uuid, long deadline, CompletableFuture<Lease> future) {
+        boolean force = System.currentTimeMillis() >= deadline;
+        try {
+            Lease lease = leases.acquire(uuid, owner, ttlMillis, force);
+            if (lease.isGranted()) {
+                if (force)
+                    logger.warning("프로필 임대를 기다리다 시간 초과로 가져왔습니다: " + uuid);
+                held.put(uuid, lease);
+                lost.remove(uuid);
+                future.complete(lease);
+                return;
+            }
+            // 다른 서버가 아직 저장 중
+        } catch (Exception e) {
+            if (force) {
+                future.completeExceptionally(e);
+                return;
+            }
+            logger.warning("프로필 임대 요청 실패 (다시 시도): " + uuid + " (" + e.getMessage() + ")");
+        }
+        try {
+            executor.schedule(() -> attempt(uuid, deadline, future), POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 저장이 끝나면 임대를 내놓습니다. (퇴장, 로드 전에 나감 등)
+     * 저장이 실패하면 내놓지 않고 연장도 멈춰 만료까지 남깁니다. (종료 저장 실패의 stop(keep)과 같음)
+     * 바로 내놓으면 다음 서버가 저장되지 않은 이전 데이터를 읽기 때문입니다.
+     *
+     * @param saved 마지막 저장 (없으면 완료된 future)
+     */
+    public void releaseAfter(UUID uuid, CompletableFuture<?> saved) {
+        lost.remove(uuid);
+        Lease lease = held.remove(uuid);
+        if (lease == null)
+            return;
+        saved.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause != null && !(cause instanceof ProfileLeases.LeaseLostException)) {
+                logger.severe("퇴장 저장 실패: 임대를 만료될 때까지 남겨 다른 서버가 이전 데이터를 바로 읽지 않게 합니다: " + uuid);
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    // 그 사이 같은 플레이어가 다시 접속해 이 서버가 다시 얻었으면 내놓지 않음
+                    if (!held.containsKey(uuid))
+                        release(lease);
+                });
+            } catch (RejectedExecutionException e) {
+                // 종료 중: stop()에서 내놓지 않았으므로 여기서 바로 내놓음
+                release(lease);
+            }
+        });
+    }
+
+    @Override
+    public boolean isLost(UUID uuid) {
+        return lost.contains(uuid);
+    }
+
+    @Override
+    public Lease getHeld(UUID uuid) {
+        return held.get(uuid);
+    }
+
+    private void release(Lease lease) {
+        try {
+            leases.release(lease);
+        } catch (Exception e) {
+            logger.warning("프로필 임대 반환 실패 (만료 후 다른 서버가 가져감): " + lease.getUuid() + " (" + e.getMessage()
+                    + ")");
+        }
+    }
+
+    private void renewAll() {
+        if (held.isEmpty())
+            return;
+        try {
+            for (UUID uuid : leases.renew(new ArrayList<>(held.values()), ttlMillis)) {
+                held.remove(uuid);
+                lost.add(uuid);
+                logger.severe("다른 서버가 프로필 임대를 가져갔습니다. 이 서버에서는 더 이상 저장하지 않습니다: " + uuid);
+            }
+        } catch (Exception e) {
+            logger.warning("프로필 임대 연장 실패: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.rpgnexus.core.data;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.DataStorage;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * 접속하지 않은 플레이어 프로필의 읽기 전용 캐시입니다. (PAPI 순위표/홀로그램, 관리자 조회용)
+ *
+ * - 없으면 저장소에서 비동기로 읽고, 같은 UUID를 동시에 요청해도 로드는 한 번만 합니다.
+ * - 읽은 지 refreshMillis가 지난 항목은 기존 값을 그대로 돌려주면서 뒤에서 다시 읽습니다.
+ * - 항목 수와 대략적인 메모리 사용량 중 하나라도 넘으면 가장 오래 쓰이지 않은 항목부터 버립니다. (LRU)
+ * - 저장된 적 없는 플레이어는 빈 프로필로 캐시해 반복 조회가 디스크로 가지 않게 합니다.
+ *
+ * 돌려준 프로필은 여러 호출자가 공유하므로 수정하면 안 됩니다. 모든 메서드는 아무 스레드에서나 호출할 수 있습니다.
+ */
+public class OfflineProfileCache {
+
+    private final DataStorage storage;
+    private final Logger logger;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long refreshMillis;
+
+    // accessOrder = true: 조회할 때마다 맨 뒤로 이동, 맨 앞이 가장 오래 쓰이지 않은 항목
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // 진행 중인 로드 (중복 로드 방지). put/invalidate가 지우면 그 로드 결과는 버려짐
+    private final Map<UUID, CompletableFuture<NexusProfile>> loading = new HashMap<>();
+    private long totalBytes;
+
+    // loading, totalBytes, 지표는 모두 entries 잠금 안에서 갱신
+    private long hits;
+    private long misses;
+    private long loads;
+    private long evictions;
+
+    /**
+     * @param maxEntries    최대 항목 수
+     * @param maxBytes      대략적인 최대 메모리 사용량
+     * @param refreshMillis 이보다 오래된 항목은 조회 시 다시 읽음 (0 이하면 다시 읽지 않음)
+     */
+    public OfflineProfileCache(DataStorage storage, Logger logger, int maxEntries, long maxBytes, long refreshMillis) {
+        this.storage = storage;
+        this.logger = logger;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxBytes = Math.max(1, maxBytes);
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * 캐시된 프로필을 바로 반환합니다. 없으면 로드를 시작하고 null을 반환합니다. (블로킹 없음)
+     *
+     * @return 프로필 (저장된 적 없는 플레이어는 빈 프로필), 로드 중이면 null
+     */
+    public NexusProfile getIfPresent(UUID uuid) {
+        CompletableFuture<NexusProfile> started;
+        synchronized (entries) {
+            Entry entry = entries.get(uuid);
+            if (entry != null) {
+                hits++;
+                if (refreshMillis > 0 && System.currentTimeMillis() - entry.loadedAt > refreshMillis)
+                    startLoad(uuid); // 기존 값은 그대로 쓰고 뒤에서 갱신
+                return entry.profile;
+            }
+            misses++;
+            started = startLoad(uuid);
+        }
+        // 저장 대기 중인 프로필처럼 바로 끝나는 로드면 그 결과를 씀
+        return started.isDone() && !started.isCompletedExceptionally() ? started.getNow(null) : null;
+    }
+
+    /**
+     * 프로필을 비동기로 가져옵니다. 캐시에 있으면 바로 완료된 future를 반환합니다.
+     */
+    public CompletableFuture<NexusProfile> get(UUID uuid) {
+        synchronized (entries) {
+            Entry entry = entries.get(uuid);
+            if (entry != null) {
+                hits++;
+                return CompletableFuture.completedFuture(entry.profile);
+            }
+            misses++;
+            return startLoad(uuid);
+        }
+    }
+
+    /**
+     * 최신 값으로 교체합니다. (퇴장 시 저장한 스냅샷, 진행 중인 로드의 결과는 버림)
+     */
+    public void put(UUID uuid, NexusProfile profile) {
+        Entry entry = new Entry(profile, estimateBytes(profile), System.currentTimeMillis());
+        synchronized (entries) {
+            loading.remove(uuid);
+            insert(uuid, entry);
+        }
+    }
+
+    /**
+     * 항목을 지웁니다. (접속하면 온라인 캐시가 기준이 되므로)
+     */
+    public void invalidate(UUID uuid) {
+        synchronized (entries) {
+            loading.remove(uuid);
+            Entry removed = entries.remove(uuid);
+            if (removed != null)
+                totalBytes -= removed.bytes;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            loading.clear();
+            entries.clear();
+            totalBytes = 0;
+        }
+    }
+
+    /**
+     * 로드를 시작합니다. 같은 UUID의 로드가 진행 중이면 그것을 반환합니다. entries 잠금 안에서 호출합니다.
+     * (저장소 future의 콜백이 바로 실행될 수 있지만 같은 스레드의 재진입이라 잠금과 충돌하지 않음)
+     */
+    private CompletableFuture<NexusProfile> startLoad(UUID uuid) {
+        CompletableFuture<NexusProfile> existing = loading.get(uuid);
+        if (existing != null)
+            return existing;
+        CompletableFuture<NexusProfile> created = new CompletableFuture<>();
+        loading.put(uuid, created);
+        loads++;
+        storage.load(uuid).whenComplete((loaded, error) -> {
+            if (error != null) {
+                logger.warning("오프라인 프로필 로드 실패: " + uuid + " (" + error.getMessage() + ")");
+                synchronized (entries) {
+                    loading.remove(uuid, created);
+                }
+                created.completeExceptionally(error);
+                return;
+            }
+            NexusProfile profile = loaded != null ? loaded : new NexusProfile(uuid, null);
+            Entry entry = new Entry(profile, estimateBytes(profile), System.currentTimeMillis());
+            synchronized (entries) {
+                // put/invalidate가 먼저 일어났으면 더 최신 값이 있으므로 캐시에 넣지 않음
+                if (loading.remove(uuid, created))
+                    insert(uuid, entry);
+            }
+            created.complete(profile);
+        });
+        return created;
+    }
+
+    /**
+     * 항목을 넣고 한도를 넘으면 가장 오래 쓰이지 않은 항목부터 버립니다. entries 잠금 안에서 호출합니다.
+     */
+    private void insert(UUID uuid, Entry entry) {
+        Entry previous = entries.put(uuid, entry);
+        if (previous != null)
+            totalBytes -= previous.bytes;
+        totalBytes += entry.bytes;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && entries.size() > 1) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            totalBytes -= evicted.bytes;
+            evictions++;
+        }
+    }
+
+    /**
+     * 프로필 하나의 대략적인 힙 사용량. (객체 헤더/참조/박싱을 감안한 추정치)
+     */
+    private static long estimateBytes(NexusProfile profile) {
+        long bytes = 256; // 프로필 객체, UUID/이름 문자열, 비트셋 등
+        bytes += 16L * profile.getStatCount() + 64L * profile.getUnknownStats().size();
+        for (Map.Entry<String, Object> meta : profile.getMetaContainer().entrySet()) {
+            bytes += 48 + 2L * meta.getKey().length();
+            Object value = meta.getValue();
+            bytes += value instanceof String ? 48 + 2L * ((String) value).length() : 64;
+        }
+        return bytes;
+    }
+
+    public Stats getStats() {
+        synchronized (entries) {
+            return new Stats(entries.size(), totalBytes, loading.size(), hits, misses, loads, evictions);
+        }
+    }
+
+    private static final class Entry {
+        private final NexusProfile profile;
+        private final long bytes;
+        private final long loadedAt;
+
+        private Entry(NexusProfile profile, long bytes, long loadedAt) {
+            this.profile = profile;
+            this.bytes = bytes;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * 오프라인 캐시 지표 스냅샷.
+     */
+    public static final class Stats {
+        private final int size;
+        private final long bytes;
+        private final int loading;
+        private final long hits;
+        private final long misses;
+        private final long loads;
+        private final long evictions;
+
+        private Stats(int size, long bytes, int loading, long hits, long misses, long loads, long evictions) {
+            this.size = size;
+            this.bytes = bytes;
+            this.loading = loading;
+            this.hits = hits;
+            this.misses = misses;
+            this.loads = loads;
+            this.evictions = evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /** 추정 메모리 사용량 */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /** 진행 중인 로드 수 */
+        public int getLoading() {
+            return loading;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /** 저장소 로드 횟수 (갱신 포함, 중복 요청은 한 번으로 셈) */
+        public long getLoads() {
+            return loads;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.rpgnexus.core.data.codec;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.registry.AttributeKey;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * NexusProfile의 압축 바이너리 형식입니다.
+ *
+ * <pre>
+ * 헤더   : 'R' 'N' 'P' 버전(1바이트)
+ * UUID   : most/least 64비트 (16바이트)
+ * 이름   : 문자열 (null 허용)
+ * 스탯   : varint 개수, 항목마다 varint(이름 길이 << 1 | 정수 여부) + 이름 UTF-8 + 값
+ *          값은 정수면 zigzag varint, 아니면 IEEE 754 8바이트
+ * 메타   : varint 개수, 항목마다 키 문자열 + 타입 태그 + 값 (아래 TAG_* 참고)
+ * 문자열 : varint(UTF-8 길이 + 1), 0이면 null
+ * </pre>
+ *
+ * AttributeKey 순번은 프로세스마다 다르게 부여되므로 파일에는 스탯 이름을 기록합니다.
+ * 쓸 때는 순번 배열을 그대로 순회하며 (이름 바이트는 순번별 캐시), 읽을 때는 이름을 AttributeKey로 해석해 바로 넣습니다.
+ * 등록되지 않은 이름은 순번을 만들지 않고 프로필의 별도 맵에 넣습니다.
+ * 메타 값은 null, Boolean, Integer, Long, Float, Double, String, List, Map(문자열 키)만 지원하며
+ * 그 외 타입이 있으면 encode()가 UnsupportedTypeException을 던집니다 (호출자가 JSON으로 대체).
+ *
+ * 스레드 안전합니다 (상태 없음).
+ */
+public final class BinaryProfileCodec {
+
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = { 'R', 'N', 'P' };
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_FLOAT = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_STRING = 7;
+    private static final int TAG_LIST = 8;
+    private static final int TAG_MAP = 9;
+
+    // 메타 중첩 깊이 제한 (손상된 파일로 인한 스택 오버플로 방지)
+    private static final int MAX_DEPTH = 32;
+
+    // AttributeKey 순번 -> 이름 UTF-8 (순번의 이름은 바뀌지 않으므로 계속 재사용)
+    private static volatile byte[][] nameCache = new byte[0][];
+
+    private BinaryProfileCodec() {
+    }
+
+    /**
+     * 파일 앞부분이 이 형식의 헤더인지 확인합니다.
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length > MAGIC.length && data[0] == MAGIC[0] && data[1] == MAGIC[1] && data[2] == MAGIC[2];
+    }
+
+    public static byte[] encode(NexusProfile profile) throws UnsupportedTypeException {
+        Map<String, Double> unknownStats = profile.getUnknownStats();
+        int statCount = profile.getStatCount() + unknownStats.size();
+        Writer out = new Writer(64 + statCount * 24 + profile.getMetaContainer().size() * 32);
+        out.bytes(MAGIC, 0, MAGIC.length);
+        out.u8(VERSION);
+
+        UUID uuid = UUID.fromString(profile.getUuid());
+        out.fixed64(uuid.getMostSignificantBits());
+        out.fixed64(uuid.getLeastSignificantBits());
+        out.string(profile.getPlayerName());
+
+        out.varint(statCount);
+        for (int ordinal = profile.nextStatOrdinal(0); ordinal >= 0; ordinal = profile.nextStatOrdinal(ordinal + 1))
+            writeStat(out, nameBytes(ordinal), profile.getStatByOrdinal(ordinal));
+        for (Map.Entry<String, Double> entry : unknownStats.entrySet())
+            writeStat(out, entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue());
+
+        Map<String, Object> meta = profile.getMetaContainer();
+        out.varint(meta.size());
+        for (Map.Entry<String, Object> entry : meta.entrySet()) {
+            out.string(entry.getKey());
+            writeValue(out, entry.getValue(), entry.getKey(), 0);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IOException 헤더가 다르거나, 지원하지 않는 버전이거나, 데이터가 손상된 경우
+     */
+    public static NexusProfile decode(byte[] data) throws IOException {
+        if (!isBinary(data))
+            throw new IOException("바이너리 프로필 형식이 아닙니다.");
+        Reader in = new Reader(data, MAGIC.length);
+        int version = in.u8();
+        if (version != VERSION)
+            throw new IOException("지원하지 않는 프로필 형식 버전: " + version);
+
+        UUID uuid = new UUID(in.fixed64(), in.fixed64());
+        NexusProfile profile = new NexusProfile(uuid, in.string());
+
+        int statCount = in.count();
+        for (int i = 0; i < statCount; i++) {
+            long header = in.varint();
+            String name = in.utf8(in.length(header >>> 1));
+            double value = (header & 1) != 0 ? in.zigzag() : Double.longBitsToDouble(in.fixed64());
+            profile.loadStat(name, value);
+        }
+
+        int metaCount = in.count();
+        Map<String, Object> meta = new HashMap<>(Math.max(16, metaCount * 2));
+        for (int i = 0; i < metaCount; i++) {
+            String key = in.string();
+            meta.put(key, readValue(in, 0));
+        }
+        profile.setMetaContainer(meta);
+
+        if (in.remaining() != 0)
+            throw new IOException("프로필 끝에 알 수 없는 데이터 " + in.remaining() + "바이트");
+        return profile;
+    }
+
+    private static void writeStat(Writer out, byte[] name, double value) {
+        long integral = (long) value;
+        // -0.0은 정수로 바꾸면 부호가 사라지므로 그대로 기록
+        boolean isInteger = integral == value && Double.doubleToRawLongBits(value) != Long.MIN_VALUE;
+        out.varint(((long) name.length << 1) | (isInteger ? 1 : 0));
+        out.bytes(name, 0, name.length);
+        if (isInteger)
+            out.zigzag(integral);
+        else
+            out.fixed64(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * 스탯 이름의 UTF-8 바이트 (순번별로 한 번만 인코딩).
+     */
+    private static byte[] nameBytes(int ordinal) {
+        byte[][] cache = nameCache;
+        if (ordinal < cache.length && cache[ordinal] != null)
+            return cache[ordinal];
+        synchronized (BinaryProfileCodec.class) {
+            cache = nameCache;
+            if (ordinal >= cache.length)
+                cache = Arrays.copyOf(cache, Math.max(ordinal + 1, AttributeKey.count()));
+            byte[] name = AttributeKey.byOrdinal(ordinal).getName().getBytes(StandardCharsets.UTF_8);
+            cache[ordinal] = name;
+            nameCache = cache;
+            return name;
+        }
+    }
+
+    private static void writeValue(Writer out, Object value, String path, int depth) throws UnsupportedTypeException {
+        if (depth > MAX_DEPTH)
+            throw new UnsupportedTypeException(path, "중첩이 너무 깊음");
+        if (value == null) {
+            out.u8(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            out.u8((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            // Jackson은 작은 정수를 Integer로 읽으므로 JSON과 같은 결과가 되도록 Integer로 통일
+            out.u8(TAG_INT);
+            out.zigzag(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.u8(TAG_LONG);
+            out.zigzag((Long) value);
+        } else if (value instanceof Float) {
+            out.u8(TAG_FLOAT);
+            out.fixed32(Float.floatToRawIntBits((Float) value));
+        } else if (value instanceof Double) {
+            out.u8(TAG_DOUBLE);
+            out.fixed64(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof String) {
+            out.u8(TAG_STRING);
+            out.string((String) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.u8(TAG_LIST);
+            out.varint(list.size());
+            for (int i = 0; i < list.size(); i++)
+                writeValue(out, list.get(i), path + "[" + i + "]", depth + 1);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.u8(TAG_MAP);
+            out.varint(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String))
+                    throw new UnsupportedTypeException(path, "문자열이 아닌 맵 키 " + entry.getKey());
+                out.string((String) entry.getKey());
+                writeValue(out, entry.getValue(), path + "." + entry.getKey(), depth + 1);
+            }
+        } else {
+            throw new UnsupportedTypeException(path, value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(Reader in, int depth) throws IOException {
+        if (depth > MAX_DEPTH)
+            throw new IOException("메타 중첩이 너무 깊습니다.");
+        int tag = in.u8();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_INT:
+                return (int) in.zigzag();
+            case TAG_LONG:
+                return in.zigzag();
+            case TAG_FLOAT:
+                return Float.intBitsToFloat(in.fixed32());
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(in.fixed64());
+            case TAG_STRING:
+                return in.string();
+            case TAG_LIST: {
+                int size = in.count();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++)
+                    list.add(readValue(in, depth + 1));
+                return list;
+            }
+            case TAG_MAP: {
+                int size = in.count();
+                Map<String, Object> map = new LinkedHashMap<>(Math.max(16, size * 2));
+                for (int i = 0; i < size; i++) {
+                    String key = in.string();
+                    map.put(key, readValue(in, depth + 1));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("알 수 없는 메타 타입 태그: " + tag);
+        }
+    }
+
+    /**
+     * 메타 값에 바이너리 형식이 지원하지 않는 타입이 있을 때 발생합니다.
+     */
+    public static class UnsupportedTypeException extends Exception {
+        public UnsupportedTypeException(String path, String detail) {
+            super("바이너리 형식으로 저장할 수 없는 메타 값 [" + path + "]: " + detail);
+        }
+    }
+
+    /**
+     * 크기가 늘어나는 바이트 버퍼.
+     */
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length)
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+
+        private void u8(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void bytes(byte[] data, int offset, int length) {
+            ensure(length);
+            System.arraycopy(data, offset, buffer, position, length);
+            position += length;
+        }
+
+        private void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        private void fixed32(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8)
+                buffer[position++] = (byte) (value >>> shift);
+        }
+
+        private void fixed64(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8)
+                buffer[position++] = (byte) (value >>> shift);
+        }
+
+        private void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1L);
+            bytes(bytes, 0, bytes.length);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * 범위를 검사하는 바이트 배열 리더. 데이터가 잘리면 IOException.
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private int remaining() {
+            return data.length - position;
+        }
+
+        private void require(int length) throws IOException {
+            if (length < 0 || length > remaining())
+                throw new IOException("프로필 데이터가 잘렸습니다 (위치 " + position + ")");
+        }
+
+        private int u8() throws IOException {
+            require(1);
+            return data[position++] & 0xFF;
+        }
+
+        private long varint() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return result;
+            }
+            throw new IOException("잘못된 varint (위치 " + position + ")");
+        }
+
+        private long zigzag() throws IOException {
+            long raw = varint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        /**
+         * 개수/길이 varint. 남은 바이트보다 클 수 없으므로 손상된 값으로 큰 배열을 만들지 않음.
+         */
+        private int count() throws IOException {
+            return length(varint());
+        }
+
+        private int length(long value) throws IOException {
+            if (value < 0 || value > remaining())
+                throw new IOException("잘못된 길이 " + value + " (위치 " + position + ")");
+            return (int) value;
+        }
+
+        private int fixed32() throws IOException {
+            require(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++)
+                value = (value << 8) | (data[position++] & 0xFF);
+            return value;
+        }
+
+        private long fixed64() throws IOException {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++)
+                value = (value << 8) | (data[position++] & 0xFF);
+            return value;
+        }
+
+        private String utf8(int length) throws IOException {
+            require(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private String string() throws IOException {
+            long header = varint();
+            if (header == 0)
+                return null;
+            return utf8(length(header - 1));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.rpgnexus.core.data.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rpgnexus.core.data.dto.NexusProfile;
+
+import java.io.IOException;
+
+/**
+ * 프로필 파일 형식. JsonDataStorage가 storage-settings.format에 따라 선택합니다.
+ */
+public enum ProfileFormat {
+
+    /**
+     * 기존 Jackson JSON (.json)
+     */
+    JSON(".json") {
+        @Override
+        public byte[] encode(NexusProfile profile) throws IOException {
+            return MAPPER.writeValueAsBytes(profile);
+        }
+    },
+
+    /**
+     * BinaryProfileCodec (.bin)
+     */
+    BINARY(".bin") {
+        @Override
+        public byte[] encode(NexusProfile profile) throws IOException {
+            try {
+                return BinaryProfileCodec.encode(profile);
+            } catch (BinaryProfileCodec.UnsupportedTypeException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    };
+
+    // Jackson ObjectMapper 재사용 (Thread-safe)
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String extension;
+
+    ProfileFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract byte[] encode(NexusProfile profile) throws IOException;
+
+    /**
+     * 어느 형식으로 저장된 데이터든 읽습니다. (바이너리 헤더가 없으면 JSON으로 해석)
+     */
+    public static NexusProfile decode(byte[] data) throws IOException {
+        if (BinaryProfileCodec.isBinary(data))
+            return BinaryProfileCodec.decode(data);
+        return MAPPER.readValue(data, NexusProfile.class);
+    }
+
+    /**
+     * 설정 값(json/binary, 대소문자 무관)에 해당하는 형식.
+     *
+     * @return 형식, 알 수 없는 값이면 null
+     */
+    public static ProfileFormat fromName(String name) {
+        if (name == null)
+            return null;
+        for (ProfileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name))
+                return format;
+        }
+        return null;
+    }
+}
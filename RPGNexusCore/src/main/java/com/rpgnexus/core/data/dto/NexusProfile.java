@@ -1,18 +1,36 @@
 package com.rpgnexus.core.data.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.rpgnexus.core.RPGNexusCore;
+import com.rpgnexus.core.registry.AttributeKey;
 import com.rpgnexus.core.registry.AttributeRegistry;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * 플레이어의 통합 데이터를 담는 DTO 클래스입니다.
  * Dynamic Attribute System이 적용되어, 고정 필드 대신 Map을 사용합니다.
+ *
+ * 스탯은 AttributeKey 순번을 인덱스로 하는 double[]에 저장합니다 (박싱/문자열 해시 없음).
+ * 저장소에서 읽은 스탯 중 등록되지 않은 이름은 순번을 만들지 않고 별도 맵에 보관했다가 그대로 다시 저장하며,
+ * 이후 그 이름이 등록되면 처음 접근할 때 배열로 옮깁니다.
+ * JSON에는 기존과 같은 statContainer 맵 형태로 읽고 씁니다.
  */
 @Data
 @NoArgsConstructor
@@ -22,15 +40,223 @@ public class NexusProfile {
     private String playerName;
 
     // Stat / Attribute Container (e.g. STR, DEX, HP, MP, Level, Exp)
-    // 모든 수치형 데이터는 Double로 관리합니다.
-    private Map<String, Double> statContainer = new HashMap<>();
+    // 모든 수치형 데이터는 double로 관리합니다. AttributeKey 순번 -> 값, present에 설정 여부
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient double[] stats = new double[0];
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient BitSet present = new BitSet();
+
+    // 등록되지 않은 스탯 이름 -> 값 (저장된 철자 그대로, 없으면 null)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient Map<String, Double> unknownStats;
 
     // Metadata Container (e.g. Class Name, Quest Progress, non-numeric data)
     private Map<String, Object> metaContainer = new HashMap<>();
 
+    // 파생 스탯 재계산용 변경 추적 (저장/비교 대상 아님)
+    // changeConsumer가 마지막으로 소비한 이후 setStat으로 값이 바뀐 스탯 순번
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient BitSet changedStats = new BitSet();
+
+    // 저장용 변경 추적: 마지막으로 저장 스냅샷을 뜬 이후 바뀐 스탯 순번 / 메타 키 / 이름
+    // persistAll이면 전체 저장 필요 (신규 프로필, 스탯/메타 통째로 교체, 이전 저장 실패 등)
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient BitSet dirtyStats = new BitSet();
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient Set<String> dirtyMeta = new HashSet<>();
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient boolean dirtyName;
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient boolean persistAll = true;
+
+    // 저장되지 않은 변경이 처음 생긴 시각 (ms, 0이면 변경 없음 또는 시각 미상) - 자동 저장 우선순위/지연 측정용
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient long dirtySince;
+
+    // 변경 목록을 소비하는 쪽 (NormalSystemCalculator). 다른 객체가 소비하면 전체 재계산
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient Object changeConsumer;
+
     public NexusProfile(UUID uuid, String playerName) {
         this.uuid = uuid.toString();
         this.playerName = playerName;
+        this.dirtySince = System.currentTimeMillis(); // 신규 프로필은 아직 저장된 적 없음
+    }
+
+    /**
+     * 복사본을 만듭니다. 비동기 저장 스레드가 메인 스레드의 이후 변경과 경쟁하지 않도록
+     * 저장을 요청한 스레드에서 호출합니다. (metaContainer 값 객체는 얕은 복사, 변경 표시도 복사)
+     */
+    public NexusProfile copy() {
+        NexusProfile copy = new NexusProfile();
+        copy.uuid = uuid;
+        copy.playerName = playerName;
+        copy.stats = stats.clone();
+        copy.present = (BitSet) present.clone();
+        copy.unknownStats = unknownStats != null ? new LinkedHashMap<>(unknownStats) : null;
+        copy.metaContainer = new HashMap<>(metaContainer);
+        copy.dirtyStats = (BitSet) dirtyStats.clone();
+        copy.dirtyMeta = new HashSet<>(dirtyMeta);
+        copy.dirtyName = dirtyName;
+        copy.persistAll = persistAll;
+        copy.dirtySince = dirtySince;
+        return copy;
+    }
+
+    /**
+     * 저장용 스냅샷을 만들고 이 프로필의 변경 표시를 스냅샷으로 옮깁니다.
+     * 이후의 변경만 다음 저장 대상이 됩니다. 스냅샷 저장이 실패하면 저장소가 표시를 다시 합쳐 재시도합니다.
+     */
+    public NexusProfile copyForSave() {
+        NexusProfile copy = copy();
+        markPersisted();
+        return copy;
+    }
+
+    /**
+     * 저장할 변경이 있는지 여부.
+     */
+    @JsonIgnore
+    public boolean isDirty() {
+        return persistAll || dirtyName || !dirtyStats.isEmpty() || !dirtyMeta.isEmpty();
+    }
+
+    /**
+     * 전체를 다시 써야 하는지 여부. false면 변경된 스탯/메타만 써도 됩니다.
+     */
+    @JsonIgnore
+    public boolean isPersistAll() {
+        return persistAll;
+    }
+
+    /**
+     * 저장되지 않은 변경이 처음 생긴 시각 (System.currentTimeMillis 기준).
+     *
+     * @return 시각, 변경이 없거나 언제 생겼는지 모르면 (로드 직후 전체 교체 등) 0
+     */
+    @JsonIgnore
+    public long getDirtySince() {
+        return dirtySince;
+    }
+
+    @JsonIgnore
+    public boolean isNameDirty() {
+        return dirtyName;
+    }
+
+    /**
+     * from 이상에서 저장 후 바뀐 첫 스탯 순번.
+     *
+     * @return 순번, 없으면 -1
+     */
+    public int nextDirtyStat(int from) {
+        return dirtyStats.nextSetBit(from);
+    }
+
+    /**
+     * 저장 후 바뀐 메타 키 (읽기 전용).
+     */
+    @JsonIgnore
+    public Set<String> getDirtyMetaKeys() {
+        return Collections.unmodifiableSet(dirtyMeta);
+    }
+
+    /**
+     * 저장소에서 읽은 직후 호출: 현재 내용이 저장된 내용과 같다고 표시합니다.
+     */
+    public void markPersisted() {
+        dirtyStats.clear();
+        dirtyMeta.clear();
+        dirtyName = false;
+        persistAll = false;
+        dirtySince = 0;
+    }
+
+    /**
+     * 다음 저장이 전체를 쓰도록 합니다. (이전 저장 실패 등)
+     */
+    public void markPersistAll() {
+        persistAll = true;
+        markDirty();
+    }
+
+    /**
+     * 아직 저장되지 않은 이전 스냅샷의 변경 표시를 합칩니다. (저장 대기열에서 스냅샷을 최신 것으로 교체할 때)
+     */
+    public void mergeDirty(NexusProfile older) {
+        dirtyStats.or(older.dirtyStats);
+        dirtyMeta.addAll(older.dirtyMeta);
+        dirtyName |= older.dirtyName;
+        persistAll |= older.persistAll;
+        if (older.dirtySince != 0 && (dirtySince == 0 || older.dirtySince < dirtySince))
+            dirtySince = older.dirtySince;
+    }
+
+    /**
+     * metaContainer의 값 객체(리스트/맵 등)를 직접 수정했을 때 저장 대상으로 표시합니다.
+     */
+    public void markMetaChanged(String key) {
+        dirtyMeta.add(key);
+        markDirty();
+    }
+
+    public void setPlayerName(String playerName) {
+        if (!Objects.equals(this.playerName, playerName)) {
+            dirtyName = true;
+            markDirty();
+        }
+        this.playerName = playerName;
+    }
+
+    /**
+     * 메타를 통째로 교체합니다. (로드 등) 다음 저장은 전체 저장입니다.
+     * getMetaContainer()로 얻은 맵을 직접 수정한 경우 markMetaChanged로 표시해야 저장됩니다.
+     */
+    public void setMetaContainer(Map<String, Object> metaContainer) {
+        this.metaContainer = metaContainer;
+        persistAll = true;
+        markDirty();
     }
 
     /**
@@ -40,11 +266,25 @@ public class NexusProfile {
      * @return 스탯 값 (없으면 기본값 0.0)
      */
     public double getStat(String key) {
+        AttributeKey attributeKey = AttributeKey.find(key);
+        // 한 번도 쓰인 적 없는 이름이면 저장된 값도 없음
+        return attributeKey != null ? getStat(attributeKey) : 0.0;
+    }
+
+    /**
+     * 스탯 값을 가져옵니다. (자주 호출하는 곳은 AttributeKey를 미리 구해 사용)
+     *
+     * @return 스탯 값 (없거나 등록되지 않은 키면 기본값 0.0)
+     */
+    public double getStat(AttributeKey key) {
         if (!isValidAttribute(key)) {
             // 경고를 띄울지, 조용히 처리할지 결정. 여기서는 기본값 리턴.
             return 0.0;
         }
-        return statContainer.getOrDefault(key, 0.0);
+        int ordinal = key.ordinal();
+        if (unknownStats != null && !present.get(ordinal))
+            promote(key);
+        return ordinal < stats.length ? stats[ordinal] : 0.0;
     }
 
     /**
@@ -54,12 +294,137 @@ public class NexusProfile {
      * @param value 설정할 값
      */
     public void setStat(String key, double value) {
-        if (!isValidAttribute(key)) {
+        AttributeRegistry registry = AttributeRegistry.getActive();
+        if (registry != null && !registry.isValid(key)) {
             // 유효하지 않은 키는 저장하지 않음 (Log or Ignore)
             // System.out.println("[Warning] Invalid Attribute Key: " + key);
             return;
         }
-        statContainer.put(key, value);
+        setStat(AttributeKey.of(key), value);
+    }
+
+    /**
+     * 스탯 값을 설정합니다. 등록되지 않은 키는 무시합니다.
+     */
+    public void setStat(AttributeKey key, double value) {
+        if (!isValidAttribute(key))
+            return;
+        if (unknownStats != null)
+            promote(key);
+        int ordinal = key.ordinal();
+        if (ordinal >= stats.length || !present.get(ordinal)
+                || Double.doubleToLongBits(stats[ordinal]) != Double.doubleToLongBits(value))
+            changedStats.set(ordinal);
+        put(ordinal, value);
+    }
+
+    /**
+     * 파생 스탯 계산 결과를 기록합니다. setStat과 같지만 변경 목록에는 남기지 않습니다.
+     * (계산기가 같은 호출 안에서 이 스탯의 하류 항목을 이미 처리한 경우에만 사용)
+     */
+    public void setDerivedStat(AttributeKey key, double value) {
+        if (!isValidAttribute(key))
+            return;
+        if (unknownStats != null)
+            promote(key);
+        put(key.ordinal(), value);
+    }
+
+    /**
+     * 설정된 스탯 전체를 이름 -> 값 맵으로 반환합니다. (JSON 저장/패킷용 복사본, 수정해도 반영되지 않음)
+     */
+    @EqualsAndHashCode.Include
+    @ToString.Include(name = "statContainer")
+    public Map<String, Double> getStatContainer() {
+        Map<String, Double> container = new LinkedHashMap<>();
+        for (int ordinal = present.nextSetBit(0); ordinal >= 0; ordinal = present.nextSetBit(ordinal + 1))
+            container.put(AttributeKey.byOrdinal(ordinal).getName(), stats[ordinal]);
+        if (unknownStats != null)
+            container.putAll(unknownStats);
+        return container;
+    }
+
+    /**
+     * 스탯을 통째로 교체합니다. (JSON 로드 등) 이후 첫 파생 스탯 계산은 전체 재계산입니다.
+     * 기존 JSON과의 호환을 위해 등록 여부와 관계없이 모든 항목을 보존합니다. (등록되지 않은 이름은 별도 맵)
+     */
+    public void setStatContainer(Map<String, Double> statContainer) {
+        Arrays.fill(stats, 0.0);
+        present.clear();
+        unknownStats = null;
+        if (statContainer != null) {
+            for (Map.Entry<String, Double> entry : statContainer.entrySet()) {
+                if (entry.getValue() != null)
+                    putLoaded(entry.getKey(), entry.getValue());
+            }
+        }
+        persistAll = true; // 사라진 스탯이 있을 수 있음
+        markDirty();
+        markAllStatsChanged();
+    }
+
+    /**
+     * 저장된 스탯 하나를 등록 여부와 관계없이 넣습니다. (직렬화 코덱의 로드용, setStatContainer와 같은 규칙)
+     */
+    public void loadStat(String name, double value) {
+        putLoaded(name, value);
+        markAllStatsChanged();
+    }
+
+    /**
+     * 설정된 스탯 수. (등록되지 않은 스탯 제외, getUnknownStats 참고)
+     */
+    @JsonIgnore
+    public int getStatCount() {
+        return present.cardinality();
+    }
+
+    /**
+     * 저장소에서 읽었지만 등록되지 않은 스탯 (읽기 전용). 전체 저장 시 순번 스탯과 함께 다시 기록합니다.
+     */
+    @JsonIgnore
+    public Map<String, Double> getUnknownStats() {
+        return unknownStats != null ? Collections.unmodifiableMap(unknownStats) : Collections.emptyMap();
+    }
+
+    /**
+     * from 이상에서 설정된 첫 스탯 순번을 반환합니다. (맵을 만들지 않고 스탯을 순회하는 직렬화용)
+     *
+     * @return 순번, 없으면 -1
+     */
+    public int nextStatOrdinal(int from) {
+        return present.nextSetBit(from);
+    }
+
+    /**
+     * 순번으로 저장된 값을 그대로 읽습니다. (등록 여부 검사 없음, nextStatOrdinal과 함께 사용)
+     */
+    public double getStatByOrdinal(int ordinal) {
+        return ordinal < stats.length ? stats[ordinal] : 0.0;
+    }
+
+    /**
+     * 다음 파생 스탯 계산을 전체 재계산으로 만듭니다.
+     */
+    public void markAllStatsChanged() {
+        changeConsumer = null;
+    }
+
+    /**
+     * consumer가 마지막으로 호출한 이후 값이 바뀐 스탯 순번을 into에 더하고 목록을 비웁니다.
+     *
+     * @param consumer 변경 목록을 소비하는 객체 (리로드로 바뀌면 전체 재계산)
+     * @return 전체 재계산이 필요하면 false (처음 호출, 다른 consumer, 스탯 교체 후)
+     */
+    public boolean drainChangedStats(Object consumer, BitSet into) {
+        if (changeConsumer != consumer) {
+            changeConsumer = consumer;
+            changedStats.clear();
+            return false;
+        }
+        into.or(changedStats);
+        changedStats.clear();
+        return true;
     }
 
     /**
@@ -72,22 +437,69 @@ public class NexusProfile {
 
     public void setMeta(String key, Object value) {
         metaContainer.put(key, value);
+        dirtyMeta.add(key);
+        markDirty();
     }
 
     // --- Helper Methods ---
 
-    @JsonIgnore
-    private boolean isValidAttribute(String key) {
-        // CoreManager -> AttributeRegistry 접근
-        // 주의: DTO에서 로직 접근은 최소화해야 하나, 요구사항(검증)을 위해 접근.
-        try {
-            AttributeRegistry registry = RPGNexusCore.getInstance().getCoreManager().getAttributeRegistry();
-            if (registry == null)
-                return true; // 레지스트리 로드 전이라면 Pass (안전장치)
-            return registry.isValid(key);
-        } catch (Exception e) {
-            return true; // 플러그인 초기화 중일 수 있음
+    private void put(int ordinal, double value) {
+        if (ordinal >= stats.length)
+            stats = Arrays.copyOf(stats, Math.max(ordinal + 1, AttributeKey.count()));
+        if (!present.get(ordinal) || Double.doubleToLongBits(stats[ordinal]) != Double.doubleToLongBits(value)) {
+            dirtyStats.set(ordinal);
+            markDirty();
+        }
+        stats[ordinal] = value;
+        present.set(ordinal);
+    }
+
+    /**
+     * 저장된 스탯을 넣습니다. 순번은 이미 등록된 이름에만 사용하고 나머지는 별도 맵에 둡니다.
+     */
+    private void putLoaded(String name, double value) {
+        AttributeKey key = AttributeKey.find(name);
+        if (key != null) {
+            put(key.ordinal(), value);
+            return;
         }
+        if (unknownStats == null)
+            unknownStats = new LinkedHashMap<>();
+        unknownStats.put(name, value);
+    }
+
+    /**
+     * 로드 후 새로 등록된 키의 값을 별도 맵에서 배열로 옮깁니다. (저장된 내용은 그대로이므로 변경 표시 없음)
+     */
+    private void promote(AttributeKey key) {
+        Iterator<Map.Entry<String, Double>> iterator = unknownStats.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Double> entry = iterator.next();
+            if (!entry.getKey().equalsIgnoreCase(key.getName()))
+                continue;
+            iterator.remove();
+            int ordinal = key.ordinal();
+            if (ordinal >= stats.length)
+                stats = Arrays.copyOf(stats, Math.max(ordinal + 1, AttributeKey.count()));
+            stats[ordinal] = entry.getValue();
+            present.set(ordinal);
+            break;
+        }
+        if (unknownStats.isEmpty())
+            unknownStats = null;
+    }
+
+    private void markDirty() {
+        if (dirtySince == 0)
+            dirtySince = System.currentTimeMillis();
+    }
+
+    private boolean isValidAttribute(AttributeKey key) {
+        // AttributeRegistry가 로드되면 활성 레지스트리로 공개되므로 플러그인 인스턴스를 거치지 않음
+        AttributeRegistry registry = AttributeRegistry.getActive();
+        if (registry == null)
+            return true; // 레지스트리 로드 전이거나 서버 밖(벤치마크 등)이라면 Pass (안전장치)
+        return registry.isValid(key);
     }
 
     // 편의상 Level 등은 메타나 스탯 중 하나로 약속해서 사용.
@@ -1,12 +1,19 @@
 package com.rpgnexus.core.data.storage;
 
 import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * 플레이어 데이터 저장소 인터페이스입니다.
- * 추후 MySQL, SQLite 등으로 구현체를 교체할 수 있습니다.
+ * 구현체: JsonDataStorage (파일), SqliteDataStorage (내장 DB), LogDataStorage (세그먼트 로그).
+ * 설정의 storage-settings.type으로 선택합니다.
  */
 public interface DataStorage {
 
@@ -26,6 +33,48 @@ public interface DataStorage {
      */
     CompletableFuture<Void> save(NexusProfile profile);
 
+    /**
+     * 여러 프로필을 호출한 스레드에서 바로 저장합니다. (WriteBehindStorage의 배치 기록용)
+     * 구현체는 가능하면 하나의 트랜잭션으로 묶습니다.
+     * 스냅샷에는 마지막 저장 이후의 변경 정보(isPersistAll, nextDirtyStat, getDirtyMetaKeys)가 담겨 있어
+     * 바뀐 부분만 기록할 수 있습니다. isPersistAll()이면 반드시 전체를 기록해야 합니다.
+     *
+     * @param profiles 저장할 프로필 (이미 스냅샷이므로 다른 스레드가 수정하지 않음)
+     * @throws Exception 하나라도 저장하지 못한 경우
+     */
+    default void saveBatch(List<NexusProfile> profiles) throws Exception {
+        for (NexusProfile profile : profiles)
+            save(profile).join();
+    }
+
+    /**
+     * saveBatch와 같지만, 임대가 주어진 프로필은 저장소의 임대 기록이 아직 그 임대(owner, token)일 때만 기록합니다.
+     * 확인과 기록은 그 사이 다른 서버가 임대를 가져갈 수 없도록 함께 (트랜잭션, 잠금 안에서) 수행합니다.
+     * 임대 기록이 없는 저장소(getLeases() == null)는 확인 없이 모두 기록합니다.
+     *
+     * @param leases UUID -> 저장을 요청할 때 이 서버가 가진 임대 (없는 프로필은 확인 없이 기록)
+     * @return 임대를 잃어 기록하지 않은 프로필의 UUID
+     * @throws Exception 하나라도 저장하지 못한 경우
+     */
+    default Set<String> saveBatch(List<NexusProfile> profiles, Map<String, Lease> leases) throws Exception {
+        saveBatch(profiles);
+        return Collections.emptySet();
+    }
+
+    /**
+     * 저장된 모든 프로필의 UUID를 호출한 스레드에서 바로 읽습니다. (순위표 재구축 등 전체 순회용)
+     *
+     * @throws Exception 목록을 읽지 못한 경우
+     */
+    Set<UUID> listProfiles() throws Exception;
+
+    /**
+     * 서버 간 프로필 임대 기록. 여러 서버가 공유할 수 없는 저장소는 null입니다.
+     */
+    default ProfileLeases getLeases() {
+        return null;
+    }
+
     /**
      * 초기 저장소 설정 (테이블 생성 등)
      */
@@ -0,0 +1,146 @@
+package com.rpgnexus.core.data.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 공유 폴더의 파일로 관리하는 임대 기록입니다. (JsonDataStorage용, leases/UUID.lease)
+ *
+ * 읽고-비교하고-쓰는 과정은 폴더의 .lock 파일에 대한 OS 파일 잠금 안에서 수행하므로
+ * 같은 폴더를 공유하는 여러 서버 프로세스 사이에서 원자적입니다.
+ * (네트워크 파일 시스템은 파일 잠금 지원 여부에 따라 보장되지 않을 수 있음)
+ */
+public class FileProfileLeases implements ProfileLeases {
+
+    // 한 JVM 안에서는 FileChannel.lock이 중복 잠금을 허용하지 않으므로 먼저 프로세스 내 잠금을 잡음
+    private static final ReentrantLock PROCESS_LOCK = new ReentrantLock();
+
+    private final File folder;
+    private final File lockFile;
+
+    public FileProfileLeases(File folder) {
+        this.folder = folder;
+        this.lockFile = new File(folder, ".lock");
+    }
+
+    @Override
+    public Lease acquire(UUID uuid, String owner, long ttlMillis, boolean force) throws IOException {
+        return locked(() -> {
+            long now = System.currentTimeMillis();
+            Lease current = read(uuid);
+            if (current != null && !current.getOwner().isEmpty() && !current.getOwner().equals(owner)
+                    && current.getExpiresAt() >= now && !force)
+                return current; // 다른 서버가 가지고 있음
+
+            long token = current == null ? 1
+                    : current.getOwner().equals(owner) ? current.getToken() : current.getToken() + 1;
+            Lease lease = new Lease(uuid, owner, token, now + ttlMillis, true);
+            write(lease);
+            return lease;
+        });
+    }
+
+    @Override
+    public Set<UUID> renew(Collection<Lease> leases, long ttlMillis) throws IOException {
+        return locked(() -> {
+            Set<UUID> lost = new HashSet<>();
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            for (Lease lease : leases) {
+                if (holds(read(lease.getUuid()), lease))
+                    write(new Lease(lease.getUuid(), lease.getOwner(), lease.getToken(), expiresAt, true));
+                else
+                    lost.add(lease.getUuid());
+            }
+            return lost;
+        });
+    }
+
+    @Override
+    public void release(Lease lease) throws IOException {
+        locked(() -> {
+            if (holds(read(lease.getUuid()), lease))
+                write(new Lease(lease.getUuid(), "", lease.getToken(), 0, false));
+            return null;
+        });
+    }
+
+    /**
+     * 임대를 아직 가지고 있을 때만 action을 실행합니다. (프로필 파일 기록 전 확인)
+     * 확인과 실행을 폴더 잠금 안에서 함께 하므로 그 사이 다른 서버가 임대를 가져갈 수 없습니다.
+     *
+     * @return 실행했으면 true, 임대를 잃었으면 false
+     */
+    public boolean runIfHeld(Lease lease, LockedAction<?> action) throws IOException {
+        return locked(() -> {
+            if (!holds(read(lease.getUuid()), lease))
+                return false;
+            action.run();
+            return true;
+        });
+    }
+
+    private static boolean holds(Lease current, Lease lease) {
+        return current != null && current.getOwner().equals(lease.getOwner())
+                && current.getToken() == lease.getToken();
+    }
+
+    // --- 파일 ---
+
+    private Lease read(UUID uuid) throws IOException {
+        File file = new File(folder, uuid + ".lease");
+        if (!file.exists())
+            return null;
+        // owner, token, expiresAt (줄 단위)
+        String[] lines = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).split("\n", -1);
+        if (lines.length < 3)
+            return null; // 손상: 없는 것으로 취급 (다음 acquire가 덮어씀)
+        try {
+            return new Lease(uuid, lines[0], Long.parseLong(lines[1].trim()), Long.parseLong(lines[2].trim()), false);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void write(Lease lease) throws IOException {
+        File file = new File(folder, lease.getUuid() + ".lease");
+        File temp = new File(folder, lease.getUuid() + ".lease.tmp");
+        String content = lease.getOwner() + "\n" + lease.getToken() + "\n" + lease.getExpiresAt() + "\n";
+        Files.write(temp.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // 폴더 잠금 안에서 교체하므로 원자적 이동이 안 되는 파일 시스템에서도 다른 서버가 중간 상태를 읽지 않음
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private <T> T locked(LockedAction<T> action) throws IOException {
+        if (!folder.exists())
+            folder.mkdirs();
+        PROCESS_LOCK.lock();
+        try (RandomAccessFile file = new RandomAccessFile(lockFile, "rw");
+                FileChannel channel = file.getChannel();
+                FileLock ignored = channel.lock()) {
+            return action.run();
+        } finally {
+            PROCESS_LOCK.unlock();
+        }
+    }
+
+    interface LockedAction<T> {
+        T run() throws IOException;
+    }
+}
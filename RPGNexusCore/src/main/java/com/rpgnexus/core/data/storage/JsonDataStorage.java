@@ -1,26 +1,45 @@
 package com.rpgnexus.core.data.storage;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rpgnexus.core.RPGNexusCore;
+import com.rpgnexus.core.data.codec.ProfileFormat;
 import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * JSON 파일 기반의 간단한 데이터 저장소 구현체입니다.
+ * 플레이어마다 파일 하나(userdata/UUID.json 또는 .bin)를 쓰는 간단한 데이터 저장소 구현체입니다.
+ *
+ * 읽을 때는 형식과 관계없이 있는 파일을 읽고, 저장할 때 설정된 형식으로 다시 쓰면서 다른 형식의 파일을 지우므로
+ * 형식을 바꿔도 접속한 플레이어부터 자연스럽게 옮겨집니다.
  */
 public class JsonDataStorage implements DataStorage {
 
     private final RPGNexusCore plugin;
-    private final ObjectMapper mapper;
+    private final ProfileFormat format;
     private final File userDataFolder;
+    private final FileProfileLeases leases;
 
     public JsonDataStorage(RPGNexusCore plugin) {
+        this(plugin, ProfileFormat.JSON);
+    }
+
+    public JsonDataStorage(RPGNexusCore plugin, ProfileFormat format) {
         this.plugin = plugin;
-        this.mapper = new ObjectMapper(); // JSON Mapper
+        this.format = format;
         this.userDataFolder = new File(plugin.getDataFolder(), "userdata");
+        this.leases = new FileProfileLeases(new File(userDataFolder, "leases"));
     }
 
     @Override
@@ -38,13 +57,13 @@ public class JsonDataStorage implements DataStorage {
     @Override
     public CompletableFuture<NexusProfile> load(UUID uuid) {
         return CompletableFuture.supplyAsync(() -> {
-            File file = new File(userDataFolder, uuid.toString() + ".json");
-            if (!file.exists()) {
+            File file = existingFile(uuid.toString());
+            if (file == null) {
                 // Return null to indicate new player or handle in manager
                 return null;
             }
             try {
-                return mapper.readValue(file, NexusProfile.class);
+                return ProfileFormat.decode(Files.readAllBytes(file.toPath()));
             } catch (Exception e) {
                 plugin.getLogger().severe("데이터 로드 실패: " + uuid);
                 e.printStackTrace();
@@ -53,16 +72,124 @@ public class JsonDataStorage implements DataStorage {
         });
     }
 
+    /**
+     * userdata/leases/ 아래의 임대 파일 (userdata 폴더를 여러 서버가 공유할 때).
+     */
+    @Override
+    public ProfileLeases getLeases() {
+        return leases;
+    }
+
+    @Override
+    public Set<UUID> listProfiles() {
+        Set<UUID> uuids = new HashSet<>();
+        File[] files = userDataFolder.listFiles();
+        if (files == null)
+            return uuids;
+        for (File file : files) {
+            String name = file.getName();
+            for (ProfileFormat candidate : ProfileFormat.values()) {
+                if (!name.endsWith(candidate.getExtension()))
+                    continue; // 임시 파일(.tmp) 등
+                try {
+                    uuids.add(UUID.fromString(name.substring(0, name.length() - candidate.getExtension().length())));
+                } catch (IllegalArgumentException ignored) {
+                    // UUID 이름이 아닌 파일
+                }
+            }
+        }
+        return uuids;
+    }
+
     @Override
     public CompletableFuture<Void> save(NexusProfile profile) {
         return CompletableFuture.runAsync(() -> {
             try {
-                File file = new File(userDataFolder, profile.getUuid() + ".json");
-                mapper.writeValue(file, profile);
+                write(profile);
             } catch (Exception e) {
                 plugin.getLogger().severe("데이터 저장 실패: " + profile.getUuid());
                 e.printStackTrace();
             }
         });
     }
+
+    @Override
+    public void saveBatch(List<NexusProfile> profiles) throws Exception {
+        saveBatch(profiles, Collections.emptyMap());
+    }
+
+    /**
+     * 임대가 주어진 프로필은 임대 파일을 다시 확인한 뒤, 임대 폴더 잠금을 쥔 채로 기록합니다.
+     */
+    @Override
+    public Set<String> saveBatch(List<NexusProfile> profiles, Map<String, Lease> held) throws Exception {
+        // 파일 단위라 트랜잭션은 없지만, 실패한 파일이 있어도 나머지는 기록
+        Set<String> lost = new HashSet<>();
+        Exception failure = null;
+        for (NexusProfile profile : profiles) {
+            try {
+                Lease lease = held.get(profile.getUuid());
+                if (lease == null)
+                    write(profile);
+                else if (!leases.runIfHeld(lease, () -> {
+                    write(profile);
+                    return null;
+                }))
+                    lost.add(profile.getUuid());
+            } catch (Exception e) {
+                if (failure == null)
+                    failure = e;
+                else
+                    failure.addSuppressed(e);
+            }
+        }
+        if (failure != null)
+            throw failure;
+        return lost;
+    }
+
+    private void write(NexusProfile profile) throws IOException {
+        ProfileFormat target = format;
+        byte[] data;
+        try {
+            data = target.encode(profile);
+        } catch (IOException e) {
+            if (target == ProfileFormat.JSON)
+                throw e;
+            // 바이너리 형식이 지원하지 않는 메타 값이 있으면 이 프로필만 JSON으로 저장
+            plugin.getLogger().warning(e.getMessage() + " (" + profile.getUuid() + ", JSON으로 저장)");
+            target = ProfileFormat.JSON;
+            data = target.encode(profile);
+        }
+
+        // 임시 파일에 쓴 뒤 교체하여 기록 도중 종료되어도 기존 파일이 깨지지 않도록 함
+        File file = new File(userDataFolder, profile.getUuid() + target.getExtension());
+        File temp = new File(userDataFolder, profile.getUuid() + target.getExtension() + ".tmp");
+        Files.write(temp.toPath(), data);
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // 다른 형식으로 남아있던 이전 파일 정리 (형식 전환)
+        for (ProfileFormat other : ProfileFormat.values()) {
+            if (other != target)
+                Files.deleteIfExists(new File(userDataFolder, profile.getUuid() + other.getExtension()).toPath());
+        }
+    }
+
+    /**
+     * 플레이어의 저장 파일을 찾습니다. 여러 형식이 함께 있으면 (정리 전 종료 등) 가장 최근 파일.
+     */
+    private File existingFile(String uuid) {
+        File latest = null;
+        for (ProfileFormat candidate : ProfileFormat.values()) {
+            File file = new File(userDataFolder, uuid + candidate.getExtension());
+            if (file.exists() && (latest == null || file.lastModified() > latest.lastModified()))
+                latest = file;
+        }
+        return latest;
+    }
 }
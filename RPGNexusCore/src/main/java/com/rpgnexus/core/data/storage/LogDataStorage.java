@@ -0,0 +1,445 @@
+package com.rpgnexus.core.data.storage;
+
+import com.rpgnexus.core.data.codec.ProfileFormat;
+import com.rpgnexus.core.data.dto.NexusProfile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * 프로필을 세그먼트 파일 끝에 이어 쓰는 로그 구조 저장소입니다.
+ *
+ * 세그먼트(profiles-NNNNNN.log)는 메모리 맵으로 열고, 저장은 항상 활성 세그먼트 끝에 순차 기록합니다.
+ * 메모리에 UUID -> 마지막 레코드 위치 인덱스를 두고, 시작 시 세그먼트를 순서대로 훑어 다시 만듭니다.
+ * 같은 플레이어의 이전 레코드는 쓰레기가 되며, 백그라운드 압축이 살아있는 레코드 비율이 낮은
+ * 봉인된 세그먼트의 레코드를 활성 세그먼트로 옮긴 뒤 파일을 지웁니다.
+ *
+ * 레코드: 길이(int) + CRC32(int) + UUID(16바이트) + 본문 (BinaryProfileCodec, 불가능하면 JSON)
+ * 비정상 종료로 잘린 레코드는 CRC로 걸러내고 그 위치부터 다시 씁니다.
+ * 인덱스가 한 프로세스의 메모리에 있으므로 여러 서버가 공유할 수 없습니다. (임대 미지원)
+ */
+public class LogDataStorage implements DataStorage {
+
+    private static final String PREFIX = "profiles-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_SIZE = 4 + 4 + 16;
+    // 쓰기는 writeLock으로 직렬화되므로 로드가 저장에 막히지 않을 정도만
+    private static final int IO_THREADS = 2;
+
+    private final File directory;
+    private final Logger logger;
+    private final int segmentSize;
+    private final long compactionIntervalMillis;
+    private final double compactionThreshold;
+
+    private final Map<UUID, Location> index = new ConcurrentHashMap<>();
+    // 세그먼트 id -> 세그먼트 (쓰기 잠금 안에서만 수정)
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Object writeLock = new Object();
+    private Segment active;
+    private ExecutorService executor;
+    private ScheduledExecutorService compactor;
+
+    /**
+     * @param directory                세그먼트 폴더
+     * @param segmentSize              세그먼트 하나의 최대 크기 (바이트)
+     * @param compactionIntervalMillis 압축 검사 주기 (0 이하면 압축하지 않음)
+     * @param compactionThreshold      살아있는 레코드 비율이 이보다 낮은 봉인 세그먼트를 압축 (0~1)
+     */
+    public LogDataStorage(File directory, Logger logger, int segmentSize, long compactionIntervalMillis,
+            double compactionThreshold) {
+        this.directory = directory;
+        this.logger = logger;
+        this.segmentSize = Math.max(64 * 1024, segmentSize);
+        this.compactionIntervalMillis = compactionIntervalMillis;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @Override
+    public void initialize() {
+        if (!directory.exists())
+            directory.mkdirs();
+        try {
+            synchronized (writeLock) {
+                recover();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("프로필 로그 복구 실패: " + directory, e);
+        }
+
+        // 파일 I/O가 공용 ForkJoinPool을 막지 않도록 전용 스레드에서 로드/저장
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(IO_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "RPGNexus-Log-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (compactionIntervalMillis > 0) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "RPGNexus-LogCompactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            executor.scheduleWithFixedDelay(this::compact, compactionIntervalMillis, compactionIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+            this.compactor = executor;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (writeLock) {
+            if (active != null)
+                active.buffer.force();
+        }
+    }
+
+    @Override
+    public CompletableFuture<NexusProfile> load(UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            Location location = index.get(uuid);
+            if (location == null)
+                return null; // 신규 유저
+            try {
+                return ProfileFormat.decode(location.segment.read(location.offset + HEADER_SIZE, location.length));
+            } catch (Exception e) {
+                logger.severe("데이터 로드 실패: " + uuid);
+                e.printStackTrace();
+                return null;
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(NexusProfile profile) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                saveBatch(Collections.singletonList(profile));
+            } catch (Exception e) {
+                logger.severe("데이터 저장 실패: " + profile.getUuid());
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 모든 프로필을 활성 세그먼트 끝에 이어 쓰고, 배치 끝에 한 번만 디스크에 반영(force)합니다.
+     */
+    @Override
+    public void saveBatch(List<NexusProfile> profiles) throws Exception {
+        // 직렬화는 잠금 밖에서
+        List<byte[]> payloads = new ArrayList<>(profiles.size());
+        for (NexusProfile profile : profiles)
+            payloads.add(encode(profile));
+
+        synchronized (writeLock) {
+            for (int i = 0; i < profiles.size(); i++)
+                append(UUID.fromString(profiles.get(i).getUuid()), payloads.get(i), null);
+            active.buffer.force();
+        }
+    }
+
+    @Override
+    public Set<UUID> listProfiles() {
+        return new HashSet<>(index.keySet());
+    }
+
+    /**
+     * 세그먼트 수, 전체/살아있는 바이트 (디버그/지표용).
+     */
+    public String describe() {
+        synchronized (writeLock) {
+            long total = 0, live = 0;
+            for (Segment segment : segments.values()) {
+                total += segment.end;
+                live += segment.liveBytes.get();
+            }
+            return "segments=" + segments.size() + ", profiles=" + index.size() + ", bytes=" + total + ", live="
+                    + live;
+        }
+    }
+
+    private byte[] encode(NexusProfile profile) throws IOException {
+        try {
+            return ProfileFormat.BINARY.encode(profile);
+        } catch (IOException e) {
+            // 바이너리 형식이 지원하지 않는 메타 값 -> JSON (읽을 때 헤더로 구분)
+            return ProfileFormat.JSON.encode(profile);
+        }
+    }
+
+    /**
+     * 레코드를 활성 세그먼트 끝에 쓰고 인덱스를 갱신합니다. writeLock 안에서 호출합니다.
+     *
+     * @param expected null이 아니면 인덱스가 아직 이 위치를 가리킬 때만 기록 (압축용)
+     */
+    private void append(UUID uuid, byte[] payload, Location expected) throws IOException {
+        if (expected != null && index.get(uuid) != expected)
+            return; // 압축 도중 더 새로운 저장이 들어옴
+
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize)
+            throw new IOException("프로필 레코드가 세그먼트보다 큼: " + uuid + " (" + recordSize + " bytes)");
+        if (active.end + recordSize > segmentSize)
+            roll();
+
+        CRC32 crc = new CRC32();
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        MappedByteBuffer buffer = active.buffer;
+        int offset = active.end;
+        buffer.putLong(offset + 8, most);
+        buffer.putLong(offset + 16, least);
+        buffer.put(offset + HEADER_SIZE, payload);
+        crc.update(buffer.slice(offset + 8, 16 + payload.length));
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // 길이를 마지막에 써서, 중간에 멈춘 레코드는 길이 0 또는 CRC 불일치로 보이게 함
+        buffer.putInt(offset, payload.length);
+        active.end += recordSize;
+
+        track(uuid, new Location(active, offset, payload.length));
+    }
+
+    private void track(UUID uuid, Location location) {
+        location.segment.liveBytes.addAndGet(location.size());
+        Location previous = index.put(uuid, location);
+        if (previous != null)
+            previous.segment.liveBytes.addAndGet(-previous.size());
+    }
+
+    /**
+     * 활성 세그먼트를 봉인하고 새 세그먼트를 엽니다.
+     */
+    private void roll() throws IOException {
+        active.seal();
+        active = Segment.create(directory, active.id + 1, segmentSize);
+        segments.put(active.id, active);
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        TreeMap<Integer, File> ordered = new TreeMap<>();
+        if (files != null) {
+            for (File file : files) {
+                String id = file.getName().substring(PREFIX.length(), file.getName().length() - SUFFIX.length());
+                try {
+                    ordered.put(Integer.parseInt(id), file);
+                } catch (NumberFormatException ignored) {
+                    logger.warning("알 수 없는 로그 파일 무시: " + file.getName());
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, File> entry : ordered.entrySet()) {
+            boolean last = entry.getKey().equals(ordered.lastKey());
+            Segment segment = Segment.open(entry.getValue(), entry.getKey(), last ? segmentSize : 0);
+            segments.put(segment.id, segment);
+            scan(segment, last);
+        }
+
+        if (segments.isEmpty()) {
+            active = Segment.create(directory, 1, segmentSize);
+            segments.put(active.id, active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        logger.info("프로필 로그 로드: " + describe());
+    }
+
+    /**
+     * 세그먼트의 유효한 레코드를 인덱스에 반영하고 끝 위치를 정합니다.
+     */
+    private void scan(Segment segment, boolean last) {
+        MappedByteBuffer buffer = segment.buffer;
+        int capacity = buffer.capacity();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || length > capacity - offset - HEADER_SIZE)
+                break;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(offset + 8, 16 + length));
+            if ((int) crc.getValue() != buffer.getInt(offset + 4))
+                break;
+            UUID uuid = new UUID(buffer.getLong(offset + 8), buffer.getLong(offset + 16));
+            track(uuid, new Location(segment, offset, length));
+            offset += HEADER_SIZE + length;
+        }
+        segment.end = offset;
+
+        if (offset + 4 > capacity || buffer.getInt(offset) == 0)
+            return; // 정상적인 끝 (봉인 시 잘리지 않은 0 영역 포함)
+        if (!last) {
+            // 봉인된 세그먼트는 이어 쓰지 않으므로 그대로 두고 (압축으로 지우지도 않음), 이후 레코드가 빠졌음을 알림
+            logger.warning("프로필 로그 " + segment.file.getName() + "가 위치 " + offset + "에서 손상되어 이후 "
+                    + (capacity - offset) + "바이트의 레코드를 읽지 않습니다.");
+            segment.damaged = true;
+            return;
+        }
+
+        // 기록 도중 종료된 레코드: 이어 쓸 자리를 비워 다음 복구 때 잘못 읽지 않도록 함
+        logger.warning("프로필 로그 " + segment.file.getName() + "의 손상된 끝부분을 잘라냅니다. (위치 " + offset + ")");
+        for (int i = offset; i < capacity; i++)
+            buffer.put(i, (byte) 0);
+        buffer.force();
+    }
+
+    /**
+     * 살아있는 비율이 낮은 봉인 세그먼트를 압축합니다. 압축 스레드(와 테스트)에서 호출됩니다.
+     */
+    void compact() {
+        List<Segment> candidates = new ArrayList<>();
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                if (segment != active && !segment.damaged && segment.end > 0
+                        && segment.liveBytes.get() < segment.end * compactionThreshold)
+                    candidates.add(segment);
+            }
+        }
+
+        for (Segment segment : candidates) {
+            try {
+                long start = System.nanoTime();
+                int moved = 0;
+                // 봉인된 세그먼트는 더 바뀌지 않으므로 잠금 밖에서 읽고, 옮기는 레코드마다 잠금
+                for (Map.Entry<UUID, Location> entry : index.entrySet()) {
+                    Location location = entry.getValue();
+                    if (location.segment != segment)
+                        continue;
+                    byte[] payload = segment.read(location.offset + HEADER_SIZE, location.length);
+                    synchronized (writeLock) {
+                        append(entry.getKey(), payload, location);
+                    }
+                    moved++;
+                }
+                synchronized (writeLock) {
+                    active.buffer.force();
+                    segments.remove(segment.id);
+                }
+                // 매핑은 GC가 해제하므로 진행 중인 읽기는 안전함 (Windows에서는 삭제가 실패할 수 있으며 다음 시작 때 다시 압축)
+                if (!segment.file.delete())
+                    segment.file.deleteOnExit();
+                logger.info("프로필 로그 압축: " + segment.file.getName() + " (레코드 " + moved + "개 이동, "
+                        + (System.nanoTime() - start) / 1_000_000 + "ms)");
+            } catch (Exception e) {
+                logger.severe("프로필 로그 압축 실패: " + segment.file.getName());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 인덱스 항목: 레코드 위치 (불변, 압축 시 비교용으로 참조 동일성 사용).
+     */
+    private static final class Location {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private int size() {
+            return HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * 메모리 맵으로 연 세그먼트 파일 하나.
+     */
+    private static final class Segment {
+        private final int id;
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private final AtomicLong liveBytes = new AtomicLong();
+        // 기록된 끝 위치 (writeLock 안에서만 수정)
+        private int end;
+        // 복구 중 읽지 못한 레코드가 있음 (수동 복구를 위해 압축하지 않음)
+        private boolean damaged;
+
+        private Segment(int id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        private static Segment create(File directory, int id, int size) throws IOException {
+            return open(new File(directory, String.format("%s%06d%s", PREFIX, id, SUFFIX)), id, size);
+        }
+
+        /**
+         * @param size 0이면 현재 파일 크기 그대로 (봉인된 세그먼트), 아니면 이 크기로 확장해 엶
+         */
+        private static Segment open(File file, int id, int size) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+                long length = size > 0 ? Math.max(size, channel.size()) : channel.size();
+                // 매핑은 채널을 닫아도 유지됨
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                return new Segment(id, file, buffer);
+            }
+        }
+
+        private byte[] read(int offset, int length) {
+            byte[] data = new byte[length];
+            buffer.get(offset, data);
+            return data;
+        }
+
+        /**
+         * 디스크에 반영하고 사용하지 않은 끝부분을 잘라냅니다. (읽기 전용이 되므로 매핑은 그대로 사용)
+         */
+        private void seal() throws IOException {
+            buffer.force();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.getChannel().truncate(end);
+            } catch (IOException e) {
+                // 매핑된 파일을 자를 수 없는 OS (Windows): 끝부분은 0으로 남아 복구 시 무시됨
+            }
+        }
+    }
+}
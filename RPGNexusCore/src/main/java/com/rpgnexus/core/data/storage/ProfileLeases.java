@@ -0,0 +1,104 @@
+package com.rpgnexus.core.data.storage;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 여러 서버(BungeeCord/Velocity)가 같은 저장소를 쓸 때 프로필 소유권을 나누는 임대(lease) 기록입니다.
+ *
+ * 서버는 프로필을 읽기 전에 임대를 얻고, 퇴장 저장이 기록된 뒤에 내놓습니다.
+ * 다른 서버가 임대를 가진 동안은 그 서버의 저장이 아직 끝나지 않은 것이므로 읽지 않고 기다립니다.
+ * 임대를 새로 얻을 때마다 token이 증가하므로, 만료되어 빼앗긴 서버는 renew와 저장 시 확인(fencing)에서 이를 알 수 있습니다.
+ *
+ * 모든 메서드는 호출한 스레드에서 바로 기록하므로 메인 스레드에서 호출하면 안 됩니다.
+ */
+public interface ProfileLeases {
+
+    /**
+     * 임대를 얻습니다. 내놓았거나 만료된 임대, 이미 owner가 가진 임대는 바로 얻습니다.
+     *
+     * @param force 다른 서버가 가지고 있어도 빼앗음 (기다려도 내놓지 않는 경우)
+     * @return 결과 (실패하면 현재 소유 서버 정보)
+     */
+    Lease acquire(UUID uuid, String owner, long ttlMillis, boolean force) throws Exception;
+
+    /**
+     * 가진 임대의 만료 시각을 늘립니다.
+     *
+     * @return 더 이상 가지고 있지 않은 (빼앗긴) 프로필
+     */
+    Set<UUID> renew(Collection<Lease> leases, long ttlMillis) throws Exception;
+
+    /**
+     * 임대를 내놓습니다. 그 사이 빼앗겼으면 아무것도 하지 않습니다.
+     */
+    void release(Lease lease) throws Exception;
+
+    /**
+     * 이 서버가 프로필마다 가진 임대. 저장소가 기록 직전에 임대를 확인(fencing)할 수 있도록 넘겨줍니다.
+     */
+    interface Holder {
+
+        /**
+         * 다른 서버가 임대를 가져간 프로필인지 여부. (이 서버의 값으로 덮어쓰면 안 됨)
+         */
+        boolean isLost(UUID uuid);
+
+        /**
+         * @return 지금 가진 임대, 임대 없이 쓰는 프로필이면 null
+         */
+        Lease getHeld(UUID uuid);
+    }
+
+    /**
+     * 다른 서버가 임대를 가져가 저장을 기록하지 않았을 때의 실패 원인입니다. (저장 실패와 달리 다시 시도하지 않음)
+     */
+    final class LeaseLostException extends IllegalStateException {
+        public LeaseLostException(String uuid) {
+            super("다른 서버가 임대를 가져간 프로필입니다: " + uuid);
+        }
+    }
+
+    /**
+     * 임대 기록.
+     */
+    final class Lease {
+        private final UUID uuid;
+        private final String owner;
+        private final long token;
+        private final long expiresAt;
+        private final boolean granted;
+
+        public Lease(UUID uuid, String owner, long token, long expiresAt, boolean granted) {
+            this.uuid = uuid;
+            this.owner = owner;
+            this.token = token;
+            this.expiresAt = expiresAt;
+            this.granted = granted;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        /** 현재 소유 서버 */
+        public String getOwner() {
+            return owner;
+        }
+
+        /** 임대를 얻을 때마다 증가하는 번호 (소유 확인용) */
+        public long getToken() {
+            return token;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        /** 요청한 서버가 임대를 얻었는지 여부 */
+        public boolean isGranted() {
+            return granted;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.rpgnexus.core.data.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 고정 크기의 작은 JDBC 커넥션 풀입니다.
+ * 커넥션은 필요할 때 최대 size개까지 만들어지고, 반환된 커넥션은 다음 대여자가 재사용합니다.
+ *
+ * 외부 풀 라이브러리(HikariCP 등)를 셰이드하지 않기 위한 최소 구현이며,
+ * 로컬 파일 DB(SQLite)처럼 커넥션이 거의 끊기지 않는 환경을 전제로 합니다.
+ */
+public class SqlConnectionPool implements AutoCloseable {
+
+    /**
+     * 새 커넥션을 만든 직후 호출 (PRAGMA 설정 등).
+     */
+    public interface Initializer {
+        void initialize(Connection connection) throws SQLException;
+    }
+
+    private final String url;
+    private final int size;
+    private final long borrowTimeoutMillis;
+    private final Initializer initializer;
+    private final BlockingQueue<Connection> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final List<Connection> all = new ArrayList<>();
+    private volatile boolean closed;
+
+    public SqlConnectionPool(String url, int size, long borrowTimeoutMillis, Initializer initializer) {
+        this.url = url;
+        this.size = Math.max(1, size);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.initializer = initializer;
+        this.idle = new ArrayBlockingQueue<>(this.size);
+    }
+
+    /**
+     * 커넥션을 빌립니다. 사용 후 반드시 release()로 반환합니다.
+     *
+     * @throws SQLException 풀이 닫혔거나, 대기 시간 안에 커넥션을 얻지 못한 경우
+     */
+    public Connection borrow() throws SQLException {
+        if (closed)
+            throw new SQLException("커넥션 풀이 닫혔습니다.");
+
+        Connection connection = idle.poll();
+        if (connection == null && tryReserve()) {
+            try {
+                return open();
+            } catch (SQLException | RuntimeException e) {
+                created.decrementAndGet();
+                throw e;
+            }
+        }
+        if (connection == null) {
+            try {
+                connection = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("커넥션 대기 중 인터럽트", e);
+            }
+            if (connection == null)
+                throw new SQLException("커넥션 대기 시간 초과 (" + borrowTimeoutMillis + "ms)");
+        }
+
+        // 끊긴 커넥션은 버리고 새로 연결
+        if (connection.isClosed() || !connection.isValid(1)) {
+            discard(connection);
+            try {
+                return open(); // 버린 커넥션의 자리를 그대로 사용
+            } catch (SQLException | RuntimeException e) {
+                created.decrementAndGet();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * 빌린 커넥션을 반환합니다. 트랜잭션이 남아있으면 롤백합니다.
+     */
+    public void release(Connection connection) {
+        if (connection == null)
+            return;
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(connection);
+            created.decrementAndGet();
+            return;
+        }
+        if (closed || !idle.offer(connection)) {
+            discard(connection);
+            created.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (all) {
+            for (Connection connection : all)
+                quietClose(connection);
+            all.clear();
+        }
+        idle.clear();
+    }
+
+    // 새 커넥션을 만들 자리가 남아있으면 한 자리를 예약
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = created.get();
+            if (current >= size)
+                return false;
+        } while (!created.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try {
+            if (initializer != null)
+                initializer.initialize(connection);
+        } catch (SQLException e) {
+            quietClose(connection);
+            throw e;
+        }
+        synchronized (all) {
+            all.add(connection);
+        }
+        return connection;
+    }
+
+    private void discard(Connection connection) {
+        synchronized (all) {
+            all.remove(connection);
+        }
+        quietClose(connection);
+    }
+
+    private static void quietClose(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
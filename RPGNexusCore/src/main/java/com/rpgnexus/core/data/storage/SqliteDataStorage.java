@@ -0,0 +1,478 @@
+package com.rpgnexus.core.data.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
+import com.rpgnexus.core.registry.AttributeKey;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * 내장 SQLite 파일 DB 기반의 데이터 저장소 구현체입니다.
+ * (sqlite-jdbc 드라이버는 Paper 서버에 포함되어 있으므로 별도로 셰이드하지 않음)
+ *
+ * 스키마
+ * - profiles(uuid, player_name, meta, updated_at): 프로필 한 행, 메타는 JSON 문자열
+ * - profile_stats(uuid, attribute, value, revision): 스탯 하나당 한 행 (플레이어 간 조회/정렬용 인덱스 포함)
+ *
+ * 저장은 배치 하나를 한 트랜잭션으로 묶어 prepared statement 배치 upsert로 기록합니다.
+ * 임대와 함께 저장하면 같은 트랜잭션 안에서 profile_leases의 owner/token을 먼저 확인하고, 빼앗긴 프로필은 쓰지 않습니다.
+ * 전체 저장(NexusProfile.isPersistAll())은 저장마다 revision을 새로 부여하고, 같은 revision으로 다시 쓰이지 않은
+ * 스탯 행은 삭제된 것으로 보고 지웁니다. 그 외에는 바뀐 스탯 행과 (바뀐 경우) 프로필 행만 씁니다.
+ */
+public class SqliteDataStorage implements DataStorage {
+
+    /**
+     * 스키마 마이그레이션. 인덱스 i의 문장들이 user_version i -> i + 1로 올립니다.
+     * 이미 배포된 항목은 수정하지 말고 뒤에 추가합니다.
+     */
+    private static final String[][] MIGRATIONS = {
+            {
+                    "CREATE TABLE IF NOT EXISTS profiles ("
+                            + "uuid TEXT PRIMARY KEY, "
+                            + "player_name TEXT, "
+                            + "meta TEXT, "
+                            + "updated_at INTEGER NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS profile_stats ("
+                            + "uuid TEXT NOT NULL, "
+                            + "attribute TEXT NOT NULL, "
+                            + "value REAL NOT NULL, "
+                            + "revision INTEGER NOT NULL, "
+                            + "PRIMARY KEY (uuid, attribute)) WITHOUT ROWID",
+                    "CREATE INDEX IF NOT EXISTS idx_profile_stats_attribute ON profile_stats (attribute, value)",
+            },
+            // v2: 변경분 저장은 스탯 행을 이름으로 덮어쓰므로, 속성 이름을 AttributeKey처럼 대소문자 무시로 비교
+            {
+                    "CREATE TABLE profile_stats_v2 ("
+                            + "uuid TEXT NOT NULL, "
+                            + "attribute TEXT NOT NULL COLLATE NOCASE, "
+                            + "value REAL NOT NULL, "
+                            + "revision INTEGER NOT NULL, "
+                            + "PRIMARY KEY (uuid, attribute)) WITHOUT ROWID",
+                    "INSERT OR REPLACE INTO profile_stats_v2 SELECT uuid, attribute, value, revision FROM profile_stats",
+                    "DROP TABLE profile_stats",
+                    "ALTER TABLE profile_stats_v2 RENAME TO profile_stats",
+                    "CREATE INDEX IF NOT EXISTS idx_profile_stats_attribute ON profile_stats (attribute, value)",
+            },
+            // v3: 서버 간 프로필 임대 (owner가 빈 문자열이면 내놓은 상태)
+            {
+                    "CREATE TABLE IF NOT EXISTS profile_leases ("
+                            + "uuid TEXT PRIMARY KEY, "
+                            + "owner TEXT NOT NULL, "
+                            + "token INTEGER NOT NULL, "
+                            + "expires_at INTEGER NOT NULL)",
+            },
+    };
+
+    private static final String UPSERT_PROFILE = "INSERT INTO profiles (uuid, player_name, meta, updated_at) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT(uuid) DO UPDATE SET "
+            + "player_name = excluded.player_name, meta = excluded.meta, updated_at = excluded.updated_at";
+    private static final String UPSERT_STAT = "INSERT INTO profile_stats (uuid, attribute, value, revision) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT(uuid, attribute) DO UPDATE SET "
+            + "value = excluded.value, revision = excluded.revision";
+    private static final String TOUCH_PROFILE = "UPDATE profiles SET updated_at = ? WHERE uuid = ?";
+    private static final String DELETE_STALE_STATS = "DELETE FROM profile_stats WHERE uuid = ? AND revision <> ?";
+    private static final String SELECT_PROFILE = "SELECT player_name, meta FROM profiles WHERE uuid = ?";
+    // 내놓았거나 만료되었거나 이미 내 것이면 (또는 force) 가져감. 소유 서버가 바뀔 때만 token 증가
+    private static final String ACQUIRE_LEASE = "INSERT INTO profile_leases (uuid, owner, token, expires_at) "
+            + "VALUES (?, ?, 1, ?) ON CONFLICT(uuid) DO UPDATE SET owner = excluded.owner, "
+            + "token = CASE WHEN profile_leases.owner = excluded.owner THEN profile_leases.token "
+            + "ELSE profile_leases.token + 1 END, expires_at = excluded.expires_at "
+            + "WHERE profile_leases.owner = excluded.owner OR profile_leases.owner = '' "
+            + "OR profile_leases.expires_at < ? OR ?";
+    private static final String SELECT_LEASE = "SELECT owner, token, expires_at FROM profile_leases WHERE uuid = ?";
+    private static final String RENEW_LEASE = "UPDATE profile_leases SET expires_at = ? "
+            + "WHERE uuid = ? AND owner = ? AND token = ?";
+    // 값을 바꾸지 않는 조건부 쓰기: 임대를 아직 가졌으면 1행, 빼앗겼으면 0행 (저장 트랜잭션의 쓰기 잠금도 여기서 잡음)
+    private static final String FENCE_LEASE = "UPDATE profile_leases SET expires_at = expires_at "
+            + "WHERE uuid = ? AND owner = ? AND token = ?";
+    private static final String RELEASE_LEASE = "UPDATE profile_leases SET owner = '', expires_at = 0 "
+            + "WHERE uuid = ? AND owner = ? AND token = ?";
+    private static final String SELECT_UUIDS = "SELECT uuid FROM profiles";
+    private static final String SELECT_STATS = "SELECT attribute, value FROM profile_stats WHERE uuid = ?";
+
+    private static final TypeReference<Map<String, Object>> META_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private final File databaseFile;
+    private final Logger logger;
+    private final int poolSize;
+    private final ObjectMapper mapper = new ObjectMapper();
+    // 저장 배치마다 증가 (프로세스 재시작 후에도 이전 값보다 크도록 현재 시각에서 시작)
+    private final AtomicLong revision = new AtomicLong(System.currentTimeMillis());
+    private SqlConnectionPool pool;
+    private ExecutorService executor;
+    private final ProfileLeases leases = new SqlLeases();
+
+    /**
+     * @param databaseFile DB 파일 (없으면 생성)
+     * @param poolSize     커넥션 풀 / 로드 스레드 수
+     */
+    public SqliteDataStorage(File databaseFile, Logger logger, int poolSize) {
+        this.databaseFile = databaseFile;
+        this.logger = logger;
+        this.poolSize = Math.max(1, poolSize);
+    }
+
+    @Override
+    public void initialize() {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("SQLite JDBC 드라이버를 찾을 수 없습니다.", e);
+        }
+        File parent = databaseFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists())
+            parent.mkdirs();
+
+        this.pool = new SqlConnectionPool("jdbc:sqlite:" + databaseFile.getAbsolutePath(), poolSize, 10_000,
+                connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        // WAL: 기록 중에도 다른 커넥션이 읽을 수 있음, busy_timeout: 쓰기 잠금 대기
+                        statement.execute("PRAGMA journal_mode=WAL");
+                        statement.execute("PRAGMA synchronous=NORMAL");
+                        statement.execute("PRAGMA busy_timeout=5000");
+                    }
+                });
+
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "RPGNexus-SQLite-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            migrate();
+        } catch (SQLException e) {
+            close();
+            throw new IllegalStateException("SQLite 스키마 마이그레이션 실패: " + databaseFile, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (pool != null)
+            pool.close();
+    }
+
+    @Override
+    public CompletableFuture<NexusProfile> load(UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return read(uuid.toString());
+            } catch (Exception e) {
+                logger.severe("데이터 로드 실패: " + uuid);
+                e.printStackTrace();
+                return null;
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(NexusProfile profile) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                saveBatch(Collections.singletonList(profile));
+            } catch (Exception e) {
+                logger.severe("데이터 저장 실패: " + profile.getUuid());
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public void saveBatch(List<NexusProfile> profiles) throws Exception {
+        saveBatch(profiles, Collections.emptyMap());
+    }
+
+    /**
+     * 임대 확인은 같은 트랜잭션의 첫 문장(FENCE_LEASE)으로 합니다. 쓰기 문장이므로 이때 DB 쓰기 잠금을 잡고,
+     * 커밋할 때까지 다른 서버의 임대 얻기(ACQUIRE_LEASE)가 끼어들 수 없습니다.
+     */
+    @Override
+    public Set<String> saveBatch(List<NexusProfile> profiles, Map<String, Lease> leases) throws Exception {
+        if (profiles.isEmpty())
+            return Collections.emptySet();
+        long batchRevision = revision.incrementAndGet();
+        long now = System.currentTimeMillis();
+
+        Connection connection = pool.borrow();
+        try {
+            connection.setAutoCommit(false);
+            Set<String> lost = leases.isEmpty() ? Collections.emptySet() : fence(connection, profiles, leases);
+            try (PreparedStatement upsertProfile = connection.prepareStatement(UPSERT_PROFILE);
+                    PreparedStatement touchProfile = connection.prepareStatement(TOUCH_PROFILE);
+                    PreparedStatement upsertStat = connection.prepareStatement(UPSERT_STAT);
+                    PreparedStatement deleteStale = connection.prepareStatement(DELETE_STALE_STATS)) {
+                for (NexusProfile profile : profiles) {
+                    String uuid = profile.getUuid();
+                    if (lost.contains(uuid))
+                        continue;
+                    boolean full = profile.isPersistAll();
+
+                    // 프로필 행: 이름/메타가 바뀌었을 때만 다시 씀 (메타는 JSON 한 칸이므로 통째로)
+                    if (full || profile.isNameDirty() || !profile.getDirtyMetaKeys().isEmpty()) {
+                        upsertProfile.setString(1, uuid);
+                        upsertProfile.setString(2, profile.getPlayerName());
+                        upsertProfile.setString(3, mapper.writeValueAsString(profile.getMetaContainer()));
+                        upsertProfile.setLong(4, now);
+                        upsertProfile.addBatch();
+                    } else {
+                        touchProfile.setLong(1, now);
+                        touchProfile.setString(2, uuid);
+                        touchProfile.addBatch();
+                    }
+
+                    // 스탯: 전체 저장이면 모든 행 + 사라진 행 삭제, 아니면 바뀐 행만
+                    for (int ordinal = full ? profile.nextStatOrdinal(0) : profile.nextDirtyStat(0); ordinal >= 0;
+                            ordinal = full ? profile.nextStatOrdinal(ordinal + 1) : profile.nextDirtyStat(ordinal + 1)) {
+                        upsertStat.setString(1, uuid);
+                        upsertStat.setString(2, AttributeKey.byOrdinal(ordinal).getName());
+                        upsertStat.setDouble(3, profile.getStatByOrdinal(ordinal));
+                        upsertStat.setLong(4, batchRevision);
+                        upsertStat.addBatch();
+                    }
+
+                    if (full) {
+                        for (Map.Entry<String, Double> entry : profile.getUnknownStats().entrySet()) {
+                            upsertStat.setString(1, uuid);
+                            upsertStat.setString(2, entry.getKey());
+                            upsertStat.setDouble(3, entry.getValue());
+                            upsertStat.setLong(4, batchRevision);
+                            upsertStat.addBatch();
+                        }
+                        deleteStale.setString(1, uuid);
+                        deleteStale.setLong(2, batchRevision);
+                        deleteStale.addBatch();
+                    }
+                }
+                upsertProfile.executeBatch();
+                touchProfile.executeBatch();
+                upsertStat.executeBatch();
+                deleteStale.executeBatch();
+            }
+            connection.commit();
+            return lost;
+        } finally {
+            pool.release(connection); // 커밋되지 않았으면 롤백
+        }
+    }
+
+    /**
+     * 임대가 주어진 프로필마다 임대 기록이 아직 같은 owner/token인지 확인합니다.
+     *
+     * @return 임대를 잃은 프로필의 UUID
+     */
+    private static Set<String> fence(Connection connection, List<NexusProfile> profiles, Map<String, Lease> leases)
+            throws SQLException {
+        Set<String> lost = new HashSet<>();
+        List<String> order = new ArrayList<>();
+        try (PreparedStatement fence = connection.prepareStatement(FENCE_LEASE)) {
+            for (NexusProfile profile : profiles) {
+                Lease lease = leases.get(profile.getUuid());
+                if (lease == null)
+                    continue;
+                fence.setString(1, profile.getUuid());
+                fence.setString(2, lease.getOwner());
+                fence.setLong(3, lease.getToken());
+                fence.addBatch();
+                order.add(profile.getUuid());
+            }
+            if (order.isEmpty())
+                return lost;
+            int[] counts = fence.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0)
+                    lost.add(order.get(i));
+            }
+        }
+        return lost;
+    }
+
+    @Override
+    public ProfileLeases getLeases() {
+        return leases;
+    }
+
+    @Override
+    public Set<UUID> listProfiles() throws Exception {
+        Set<UUID> uuids = new HashSet<>();
+        Connection connection = pool.borrow();
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(SELECT_UUIDS)) {
+            while (result.next())
+                uuids.add(UUID.fromString(result.getString(1)));
+        } finally {
+            pool.release(connection);
+        }
+        return uuids;
+    }
+
+    private NexusProfile read(String uuid) throws Exception {
+        Connection connection = pool.borrow();
+        try {
+            NexusProfile profile;
+            try (PreparedStatement select = connection.prepareStatement(SELECT_PROFILE)) {
+                select.setString(1, uuid);
+                try (ResultSet result = select.executeQuery()) {
+                    if (!result.next())
+                        return null; // 신규 유저
+                    profile = new NexusProfile(UUID.fromString(uuid), result.getString(1));
+                    String meta = result.getString(2);
+                    profile.setMetaContainer(meta != null ? mapper.readValue(meta, META_TYPE) : new HashMap<>());
+                }
+            }
+
+            Map<String, Double> stats = new LinkedHashMap<>();
+            try (PreparedStatement select = connection.prepareStatement(SELECT_STATS)) {
+                select.setString(1, uuid);
+                try (ResultSet result = select.executeQuery()) {
+                    while (result.next())
+                        stats.put(result.getString(1), result.getDouble(2));
+                }
+            }
+            profile.setStatContainer(stats);
+            return profile;
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    private void migrate() throws SQLException {
+        Connection connection = pool.borrow();
+        try {
+            int version;
+            try (Statement statement = connection.createStatement();
+                    ResultSet result = statement.executeQuery("PRAGMA user_version")) {
+                version = result.next() ? result.getInt(1) : 0;
+            }
+            if (version > MIGRATIONS.length)
+                throw new SQLException("DB 스키마 버전(" + version + ")이 플러그인이 아는 버전(" + MIGRATIONS.length
+                        + ")보다 높습니다.");
+
+            for (int target = version; target < MIGRATIONS.length; target++) {
+                connection.setAutoCommit(false);
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : MIGRATIONS[target])
+                        statement.execute(sql);
+                    statement.execute("PRAGMA user_version = " + (target + 1));
+                }
+                connection.commit();
+                connection.setAutoCommit(true);
+                logger.info("SQLite 스키마 마이그레이션: v" + target + " -> v" + (target + 1));
+            }
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    /**
+     * profile_leases 테이블의 임대 기록. 얻기는 조건부 upsert 한 문장이라 여러 서버가 동시에 시도해도 원자적입니다.
+     */
+    private final class SqlLeases implements ProfileLeases {
+
+        @Override
+        public Lease acquire(UUID uuid, String owner, long ttlMillis, boolean force) throws SQLException {
+            long now = System.currentTimeMillis();
+            Connection connection = pool.borrow();
+            try {
+                try (PreparedStatement acquire = connection.prepareStatement(ACQUIRE_LEASE)) {
+                    acquire.setString(1, uuid.toString());
+                    acquire.setString(2, owner);
+                    acquire.setLong(3, now + ttlMillis);
+                    acquire.setLong(4, now);
+                    acquire.setBoolean(5, force);
+                    acquire.executeUpdate();
+                }
+                try (PreparedStatement select = connection.prepareStatement(SELECT_LEASE)) {
+                    select.setString(1, uuid.toString());
+                    try (ResultSet result = select.executeQuery()) {
+                        if (!result.next())
+                            throw new SQLException("임대 기록이 없습니다: " + uuid);
+                        String current = result.getString(1);
+                        return new Lease(uuid, current, result.getLong(2), result.getLong(3), owner.equals(current));
+                    }
+                }
+            } finally {
+                pool.release(connection);
+            }
+        }
+
+        @Override
+        public Set<UUID> renew(Collection<Lease> held, long ttlMillis) throws SQLException {
+            Set<UUID> lost = new HashSet<>();
+            if (held.isEmpty())
+                return lost;
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            List<Lease> order = new ArrayList<>(held);
+            Connection connection = pool.borrow();
+            try {
+                connection.setAutoCommit(false);
+                try (PreparedStatement renew = connection.prepareStatement(RENEW_LEASE)) {
+                    for (Lease lease : order) {
+                        renew.setLong(1, expiresAt);
+                        renew.setString(2, lease.getUuid().toString());
+                        renew.setString(3, lease.getOwner());
+                        renew.setLong(4, lease.getToken());
+                        renew.addBatch();
+                    }
+                    int[] counts = renew.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0)
+                            lost.add(order.get(i).getUuid());
+                    }
+                }
+                connection.commit();
+            } finally {
+                pool.release(connection);
+            }
+            return lost;
+        }
+
+        @Override
+        public void release(Lease lease) throws SQLException {
+            Connection connection = pool.borrow();
+            try (PreparedStatement release = connection.prepareStatement(RELEASE_LEASE)) {
+                release.setString(1, lease.getUuid().toString());
+                release.setString(2, lease.getOwner());
+                release.setLong(3, lease.getToken());
+                release.executeUpdate();
+            } finally {
+                pool.release(connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,657 @@
+package com.rpgnexus.core.data.storage;
+
+import com.rpgnexus.core.config.dto.GeneralConfig.StorageSettings;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * 다른 DataStorage 앞에 두는 지연 저장(write-behind) 계층입니다.
+ *
+ * save()는 호출한 스레드에서 프로필 스냅샷만 만들어 대기열에 넣고 바로 반환합니다.
+ * 같은 플레이어의 저장이 기록 전에 다시 요청되면 최신 스냅샷 하나로 합쳐지며 (변경 표시는 합집합),
+ * 전용 스레드 하나가 주기마다 (또는 대기 수가 batchSize를 넘으면 즉시) 배치 단위로 기록합니다.
+ * 마지막 저장 이후 바뀐 것이 없는 프로필(NexusProfile.isDirty() == false)은 기록하지 않습니다.
+ *
+ * 기록 전/기록 중인 프로필을 load()하면 디스크 대신 대기 중인 스냅샷을 반환하므로,
+ * 나갔다가 바로 다시 접속해도 이전 데이터를 읽지 않습니다.
+ *
+ * 서버 간 임대를 쓰면 (setLeaseHolder) 다른 서버가 가져간 프로필의 저장은 받지 않고, 받은 저장은 그때 가진 임대와 함께
+ * 기록해 하위 저장소가 기록 직전에 임대를 다시 확인하게 합니다. (대기 중에 빼앗긴 저장도 덮어쓰지 않음)
+ */
+public class WriteBehindStorage implements DataStorage {
+
+    // 마감 후 인터럽트한 기록 스레드가 빠져나오기를 기다리는 시간
+    private static final long STOP_GRACE_MILLIS = 1000;
+    // 접속 중이 아닌 프로필의 재시도 간격 상한
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 60_000;
+
+    private final DataStorage delegate;
+    private final Logger logger;
+    private final StorageSettings settings;
+    private final ScheduledExecutorService writer;
+
+    // UUID -> 기록 대기 중인 저장, 기록 중인 스냅샷
+    private final Map<String, PendingSave> pending = new ConcurrentHashMap<>();
+    private final Map<String, NexusProfile> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // 종료 중 기록에 실패한 저장 (shutdown 결과로 보고)
+    private final Queue<PendingSave> shutdownFailures = new ConcurrentLinkedQueue<>();
+    // 저장이 버려진 UUID: 다음 저장은 변경분이 아닌 전체 저장
+    private final Set<String> needsFull = ConcurrentHashMap.newKeySet();
+    private volatile ProfileLeases.Holder leaseHolder;
+    private volatile Predicate<String> onlineCheck;
+    private volatile boolean closed;
+
+    // 지표
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong flushNanosTotal = new AtomicLong();
+    private final AtomicLong flushNanosMax = new AtomicLong();
+    private volatile long flushNanosLast;
+
+    public WriteBehindStorage(DataStorage delegate, Logger logger, StorageSettings settings) {
+        this.delegate = delegate;
+        this.logger = logger;
+        this.settings = settings != null ? settings : new StorageSettings();
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "RPGNexus-Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 종료 후에는 주기 작업을 더 실행하지 않고, 이미 넣은 마지막 기록만 수행
+        executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.writer = Executors.unconfigurableScheduledExecutorService(executor);
+    }
+
+    @Override
+    public void initialize() {
+        delegate.initialize();
+        long interval = Math.max(50, settings.getFlushIntervalMillis());
+        writer.scheduleWithFixedDelay(this::flushPending, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * shutdown(shutdownTimeoutMillis)과 같습니다. 저장하지 못한 프로필은 로그만 남깁니다.
+     */
+    @Override
+    public void close() {
+        ShutdownReport report = shutdown(settings.getShutdownTimeoutMillis());
+        if (!report.getUnsaved().isEmpty())
+            logger.severe("데이터 저장 실패: " + report.getUnsaved().size() + "개 프로필을 저장하지 못했습니다.");
+    }
+
+    /**
+     * 새 저장을 막고, 대기 중인 저장을 배치로 나눠 종료 전용 스레드들(shutdownParallelism)에서 동시에 기록한 뒤
+     * 하위 저장소를 닫습니다. 모든 기록은 하나의 마감 시간 안에서 기다립니다.
+     * 마감 후 인터럽트해도 끝나지 않은 기록 스레드가 있으면 아직 하위 저장소를 쓰는 중이므로 닫지 않습니다.
+     *
+     * @param timeoutMillis 전체 마감 시간
+     * @return 결과 (마감까지 기록하지 못했거나 실패한 프로필의 스냅샷 포함)
+     */
+    public ShutdownReport shutdown(long timeoutMillis) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        closed = true;
+        long writtenBefore = written.sum();
+
+        // 1. 주기 기록 중지 (진행 중인 기록은 마감 안에서 기다림)
+        writer.shutdown();
+        boolean stopped = awaitStopped(writer, deadline);
+
+        // 2. 남은 저장을 배치로 나눠 동시에 기록
+        int batchSize = Math.max(1, settings.getBatchSize());
+        List<List<PendingSave>> batches = new ArrayList<>();
+        List<PendingSave> batch = new ArrayList<>(batchSize);
+        for (String key : new ArrayList<>(pending.keySet())) {
+            List<PendingSave> target = batch;
+            pending.computeIfPresent(key, (k, save) -> {
+                inFlight.put(k, save.snapshot);
+                target.add(save);
+                return null;
+            });
+            if (batch.size() >= batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty())
+            batches.add(batch);
+
+        List<PendingSave> taken = new ArrayList<>();
+        for (List<PendingSave> each : batches)
+            taken.addAll(each);
+        if (!batches.isEmpty()) {
+            int parallelism = Math.max(1, Math.min(settings.getShutdownParallelism(), batches.size()));
+            AtomicInteger threadId = new AtomicInteger();
+            ExecutorService flushers = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "RPGNexus-Shutdown-" + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (List<PendingSave> each : batches)
+                flushers.execute(() -> commit(each));
+            flushers.shutdown();
+            stopped &= awaitStopped(flushers, deadline);
+        }
+
+        // 3. 결과 정리: 마감까지 끝나지 않은 저장 + 종료 중 실패한 저장
+        List<NexusProfile> unsaved = new ArrayList<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (NexusProfile snapshot : inFlight.values()) {
+            failures.put(snapshot.getUuid(), "마감 시간 초과");
+            unsaved.add(snapshot);
+        }
+        for (PendingSave save : taken) {
+            if (!save.future.isDone()) {
+                dropped.increment();
+                save.future.completeExceptionally(new TimeoutException("종료 저장 마감 시간 초과"));
+            }
+        }
+        for (PendingSave save : shutdownFailures) {
+            failures.put(save.snapshot.getUuid(), failureMessage(save.future));
+            unsaved.add(save.snapshot);
+        }
+        // 종료 중에는 재시도하지 않으므로 남은 항목은 shutdown 이후 들어온 것 (정상이라면 없음)
+        for (PendingSave save : pending.values()) {
+            dropped.increment();
+            save.future.completeExceptionally(new IllegalStateException("저장소가 닫혔습니다."));
+            failures.put(save.snapshot.getUuid(), "저장소가 닫힌 뒤 요청됨");
+            unsaved.add(save.snapshot);
+        }
+        pending.clear();
+
+        if (stopped)
+            delegate.close();
+        else
+            logger.severe("종료 마감 후에도 기록 중인 스레드가 있어 하위 저장소를 닫지 않습니다.");
+        return new ShutdownReport(written.sum() - writtenBefore, failures, unsaved,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public CompletableFuture<NexusProfile> load(UUID uuid) {
+        String key = uuid.toString();
+        // 대기열에서 빠지기 전에 inFlight에 들어가므로 pending -> inFlight 순서로 보면 빈틈이 없음
+        PendingSave save = pending.get(key);
+        NexusProfile snapshot = save != null ? save.snapshot : inFlight.get(key);
+        if (snapshot != null)
+            return CompletableFuture.completedFuture(snapshot.copy());
+        return delegate.load(uuid);
+    }
+
+    /**
+     * 저장을 예약합니다. 스냅샷은 호출한 스레드에서 만들어지므로 이후의 변경은 반영되지 않습니다.
+     *
+     * @return 이 스냅샷(또는 합쳐진 더 최신 스냅샷)이 기록되면 완료되는 future
+     */
+    @Override
+    public CompletableFuture<Void> save(NexusProfile profile) {
+        requested.increment();
+        if (closed) {
+            dropped.increment();
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("저장소가 닫혔습니다: " + profile.getUuid()));
+            return failed;
+        }
+
+        ProfileLeases.Holder holder = leaseHolder;
+        Lease lease = null;
+        if (holder != null) {
+            UUID uuid = UUID.fromString(profile.getUuid());
+            if (holder.isLost(uuid)) {
+                // 다른 서버가 가져감: 이 서버의 변경은 버리고 (자동 저장이 다시 고르지 않게) 변경 표시도 비움
+                dropped.increment();
+                profile.markPersisted();
+                CompletableFuture<Void> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new ProfileLeases.LeaseLostException(uuid.toString()));
+                return failed;
+            }
+            lease = holder.getHeld(uuid);
+        }
+
+        // 이전 저장이 버려졌으면 변경 표시도 함께 사라졌으므로 전체 저장
+        boolean forceFull = needsFull.remove(profile.getUuid());
+        if (!profile.isDirty() && !forceFull) {
+            // 바뀐 것이 없음: 기록하지 않음 (대기 중인 저장이 있으면 그 완료를 기다리게 함)
+            skipped.increment();
+            PendingSave existing = pending.get(profile.getUuid());
+            return existing != null ? existing.future : CompletableFuture.completedFuture(null);
+        }
+
+        NexusProfile snapshot = profile.copyForSave();
+        if (forceFull)
+            snapshot.markPersistAll();
+        Lease held = lease;
+        PendingSave save = pending.compute(snapshot.getUuid(), (key, existing) -> {
+            if (existing == null)
+                return new PendingSave(snapshot, held);
+            // 아직 기록되지 않은 이전 스냅샷의 변경분도 함께 기록
+            merged.increment();
+            snapshot.mergeDirty(existing.snapshot);
+            existing.snapshot = snapshot;
+            existing.lease = held;
+            existing.attempts = 0;
+            existing.retryAt = 0;
+            return existing;
+        });
+
+        if (pending.size() >= settings.getBatchSize())
+            requestFlush();
+        return save.future;
+    }
+
+    /**
+     * 주기를 기다리지 않고 대기 중인 저장을 모두 기록합니다.
+     *
+     * @return 기록이 끝나면 완료되는 future
+     */
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            writer.execute(() -> {
+                flushPending();
+                done.complete(null);
+            });
+        } catch (RejectedExecutionException e) {
+            done.complete(null); // 닫힐 때 이미 기록됨
+        }
+        return done;
+    }
+
+    @Override
+    public ProfileLeases getLeases() {
+        return delegate.getLeases();
+    }
+
+    /**
+     * 이 서버가 가진 임대를 알려줄 곳을 정합니다. (임대를 쓰지 않으면 호출하지 않음)
+     * 이후 임대를 잃은 프로필의 저장은 거부하고, 나머지는 저장 시점의 임대로 하위 저장소에서 확인한 뒤 기록합니다.
+     */
+    public void setLeaseHolder(ProfileLeases.Holder holder) {
+        this.leaseHolder = holder;
+    }
+
+    /**
+     * 접속 중인 프로필인지 알려줄 곳을 정합니다. (UUID 문자열, 기록 스레드에서 호출)
+     * 재시도를 다 써도 접속 중인 프로필은 버리고 다음 저장을 전체 저장으로 하지만, 접속 중이 아닌 프로필은
+     * 다시 저장될 일이 없으므로 버리지 않고 간격을 늘려가며 (최대 MAX_RETRY_BACKOFF_MILLIS) 계속 재시도합니다.
+     * 종료할 때까지 기록하지 못하면 shutdown() 결과의 unsaved로 넘어가 비상 저장됩니다.
+     * 정하지 않으면 모두 접속 중으로 봅니다.
+     */
+    public void setOnlineCheck(Predicate<String> onlineCheck) {
+        this.onlineCheck = onlineCheck;
+    }
+
+    /**
+     * 저장소의 프로필과 아직 기록되지 않은 프로필을 합친 목록.
+     */
+    @Override
+    public Set<UUID> listProfiles() throws Exception {
+        Set<UUID> uuids = delegate.listProfiles();
+        for (String key : pending.keySet())
+            uuids.add(UUID.fromString(key));
+        for (String key : inFlight.keySet())
+            uuids.add(UUID.fromString(key));
+        return uuids;
+    }
+
+    public Metrics getMetrics() {
+        long batchCount = batches.sum();
+        return new Metrics(pending.size(), inFlight.size(), requested.sum(), merged.sum(), skipped.sum(), written.sum(),
+                dropped.sum(), batchCount,
+                batchCount > 0 ? flushNanosTotal.get() / batchCount / 1_000_000.0 : 0.0,
+                flushNanosLast / 1_000_000.0, flushNanosMax.get() / 1_000_000.0);
+    }
+
+    /**
+     * shutdown()된 실행기가 마감까지 끝나기를 기다리고, 넘기면 인터럽트한 뒤 잠시 더 기다립니다.
+     *
+     * @return 모든 작업이 끝났으면 true (false면 하위 저장소를 아직 쓰고 있을 수 있음)
+     */
+    private static boolean awaitStopped(ExecutorService executor, long deadline) {
+        try {
+            if (executor.awaitTermination(remaining(deadline), TimeUnit.NANOSECONDS))
+                return true;
+            executor.shutdownNow();
+            return executor.awaitTermination(STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return executor.isTerminated();
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private static String failureMessage(CompletableFuture<Void> future) {
+        try {
+            future.join();
+            return "";
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        }
+    }
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true))
+            return;
+        try {
+            writer.execute(this::flushPending);
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+        }
+    }
+
+    /**
+     * 기록 스레드에서만 호출됩니다.
+     */
+    private void flushPending() {
+        flushRequested.set(false);
+        int batchSize = Math.max(1, settings.getBatchSize());
+        // 이번 회차에 있던 키만 기록 (실패해 다시 들어간 저장은 다음 회차에 재시도)
+        List<String> keys = new ArrayList<>(pending.keySet());
+        List<PendingSave> batch = new ArrayList<>(Math.min(batchSize, keys.size()));
+        long now = System.nanoTime();
+        for (String key : keys) {
+            // 종료가 시작되면 남은 저장은 shutdown()이 나눠서 동시에 기록
+            if (closed && batch.isEmpty())
+                break;
+            // 합치기와 원자적으로 꺼내며, 꺼내기 전에 inFlight에 올려 load()가 놓치지 않게 함
+            pending.computeIfPresent(key, (k, save) -> {
+                if (save.retryAt - now > 0)
+                    return save; // 재시도 간격이 아직 지나지 않음
+                inFlight.put(k, save.snapshot);
+                batch.add(save);
+                return null;
+            });
+            if (batch.size() >= batchSize) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            commit(batch);
+    }
+
+    private void commit(List<PendingSave> batch) {
+        long start = System.nanoTime();
+        List<NexusProfile> profiles = new ArrayList<>(batch.size());
+        Map<String, Lease> leases = new HashMap<>();
+        for (PendingSave save : batch) {
+            profiles.add(save.snapshot);
+            if (save.lease != null)
+                leases.put(save.snapshot.getUuid(), save.lease);
+        }
+
+        try {
+            Set<String> lost = delegate.saveBatch(profiles, leases);
+            for (PendingSave save : batch) {
+                if (lost.contains(save.snapshot.getUuid()))
+                    fenced(save);
+                else
+                    completed(save);
+            }
+        } catch (Exception batchFailure) {
+            // 어느 프로필이 문제인지 모르므로 하나씩 다시 기록
+            for (PendingSave save : batch) {
+                try {
+                    String key = save.snapshot.getUuid();
+                    Set<String> lost = delegate.saveBatch(Collections.singletonList(save.snapshot),
+                            save.lease != null ? Collections.singletonMap(key, save.lease) : Collections.emptyMap());
+                    if (lost.isEmpty())
+                        completed(save);
+                    else
+                        fenced(save);
+                } catch (Exception e) {
+                    failed(save, e);
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        batches.increment();
+        flushNanosLast = elapsed;
+        flushNanosTotal.addAndGet(elapsed);
+        flushNanosMax.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private void completed(PendingSave save) {
+        written.increment();
+        inFlight.remove(save.snapshot.getUuid(), save.snapshot);
+        save.future.complete(null);
+    }
+
+    /**
+     * 기록하려던 사이 다른 서버가 임대를 가져감: 더 최신 데이터를 덮어쓰지 않도록 재시도하지 않고 버립니다.
+     */
+    private void fenced(PendingSave save) {
+        String key = save.snapshot.getUuid();
+        inFlight.remove(key, save.snapshot);
+        dropped.increment();
+        logger.severe("다른 서버가 임대를 가져간 프로필이므로 기록하지 않았습니다: " + key);
+        save.future.completeExceptionally(new ProfileLeases.LeaseLostException(key));
+    }
+
+    private void failed(PendingSave save, Exception cause) {
+        String key = save.snapshot.getUuid();
+        inFlight.remove(key, save.snapshot);
+        boolean exhausted = ++save.attempts > settings.getMaxRetries();
+        if (closed || (exhausted && isOnline(key))) {
+            // 종료 중에는 재시도하지 않고 호출자(shutdown)가 비상 스냅샷을 남김
+            dropped.increment();
+            logger.severe("데이터 저장 실패" + (closed ? "" : " (재시도 " + settings.getMaxRetries() + "회 초과, 버림)")
+                    + ": " + key);
+            cause.printStackTrace();
+            save.future.completeExceptionally(cause);
+            needsFull.add(key);
+            if (closed)
+                shutdownFailures.add(save);
+            return;
+        }
+        if (exhausted) {
+            // 접속 중이 아님 (퇴장 저장): 버리면 이 세션이 사라지므로 간격을 늘려가며 계속 재시도
+            int doublings = Math.min(save.attempts - settings.getMaxRetries(), 16);
+            long delay = Math.min(MAX_RETRY_BACKOFF_MILLIS, Math.max(50, settings.getFlushIntervalMillis()) << doublings);
+            save.retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            logger.warning("데이터 저장 실패 (접속 중이 아니므로 버리지 않음), " + delay + "ms 후 다시 시도합니다 ("
+                    + save.attempts + "회): " + key);
+        } else {
+            logger.warning("데이터 저장 실패, 다음 기록 때 다시 시도합니다 (" + save.attempts + "/"
+                    + settings.getMaxRetries() + "): " + key);
+        }
+        // 그 사이 새 저장이 들어왔으면 그쪽이 더 최신이므로, 이 저장의 완료는 새 저장에 맡김
+        pending.compute(key, (k, newer) -> {
+            if (newer == null)
+                return save;
+            newer.snapshot.mergeDirty(save.snapshot); // 실패한 스냅샷의 변경분을 잃지 않도록
+            newer.future.whenComplete((ignored, error) -> {
+                if (error != null)
+                    save.future.completeExceptionally(error);
+                else
+                    save.future.complete(null);
+            });
+            return newer;
+        });
+    }
+
+    private boolean isOnline(String key) {
+        Predicate<String> check = onlineCheck;
+        return check == null || check.test(key);
+    }
+
+    /**
+     * 기록 대기 중인 저장 (같은 플레이어의 요청은 하나로 합쳐짐).
+     * 필드는 pending.compute 안이나 기록 스레드에서만 바뀝니다.
+     */
+    private static final class PendingSave {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private volatile NexusProfile snapshot;
+        // 저장을 요청할 때 가진 임대 (임대를 쓰지 않으면 null)
+        private volatile Lease lease;
+        private int attempts;
+        // 이 시각(System.nanoTime) 전에는 기록하지 않음 (접속 중이 아닌 프로필의 재시도 간격, 0이면 바로)
+        private volatile long retryAt;
+
+        private PendingSave(NexusProfile snapshot, Lease lease) {
+            this.snapshot = snapshot;
+            this.lease = lease;
+        }
+    }
+
+    /**
+     * shutdown() 결과.
+     */
+    public static final class ShutdownReport {
+        private final long written;
+        private final Map<String, String> failures;
+        private final List<NexusProfile> unsaved;
+        private final long elapsedMillis;
+
+        private ShutdownReport(long written, Map<String, String> failures, List<NexusProfile> unsaved,
+                long elapsedMillis) {
+            this.written = written;
+            this.failures = Collections.unmodifiableMap(failures);
+            this.unsaved = Collections.unmodifiableList(unsaved);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /** 종료 중에 기록된 프로필 수 */
+        public long getWritten() {
+            return written;
+        }
+
+        /** UUID -> 실패 사유 */
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+
+        /** 저장하지 못한 프로필 스냅샷 (비상 저장용) */
+        public List<NexusProfile> getUnsaved() {
+            return unsaved;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    /**
+     * 지연 저장 지표 스냅샷.
+     */
+    public static final class Metrics {
+        private final int queueDepth;
+        private final int inFlight;
+        private final long requested;
+        private final long merged;
+        private final long skipped;
+        private final long written;
+        private final long dropped;
+        private final long batches;
+        private final double averageFlushMillis;
+        private final double lastFlushMillis;
+        private final double maxFlushMillis;
+
+        private Metrics(int queueDepth, int inFlight, long requested, long merged, long skipped, long written,
+                long dropped, long batches, double averageFlushMillis, double lastFlushMillis, double maxFlushMillis) {
+            this.queueDepth = queueDepth;
+            this.inFlight = inFlight;
+            this.requested = requested;
+            this.merged = merged;
+            this.skipped = skipped;
+            this.written = written;
+            this.dropped = dropped;
+            this.batches = batches;
+            this.averageFlushMillis = averageFlushMillis;
+            this.lastFlushMillis = lastFlushMillis;
+            this.maxFlushMillis = maxFlushMillis;
+        }
+
+        /** 기록 대기 중인 프로필 수 */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /** 기록 중인 프로필 수 */
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        /** save() 호출 수 */
+        public long getRequested() {
+            return requested;
+        }
+
+        /** 기록 전에 더 최신 스냅샷으로 합쳐진 저장 수 */
+        public long getMerged() {
+            return merged;
+        }
+
+        /** 바뀐 것이 없어 기록하지 않은 저장 수 */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /** 실제로 기록된 프로필 수 */
+        public long getWritten() {
+            return written;
+        }
+
+        /** 재시도 초과, 종료, 임대를 잃어 버려진 저장 수 */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /** 배치 기록 횟수 */
+        public long getBatches() {
+            return batches;
+        }
+
+        public double getAverageFlushMillis() {
+            return averageFlushMillis;
+        }
+
+        public double getLastFlushMillis() {
+            return lastFlushMillis;
+        }
+
+        public double getMaxFlushMillis() {
+            return maxFlushMillis;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.rpgnexus.core.leaderboard;
+
+import com.rpgnexus.core.RPGNexusCore;
+import com.rpgnexus.core.config.dto.GeneralConfig;
+import com.rpgnexus.core.data.DataManager;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.DataStorage;
+import com.rpgnexus.core.manager.Manager;
+import com.rpgnexus.core.registry.AttributeKey;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 스탯별 순위표를 관리하는 매니저입니다. (%nexus_top_level_1_name%, %nexus_rank_combat-ability% 등)
+ *
+ * 모든 저장된 플레이어를 스탯마다 RankTree 하나에 넣어두고, 접속 중인 플레이어의 값은 주기적으로(기본 1초)
+ * 다시 읽어 바뀐 것만 갱신합니다. 퇴장 시에도 마지막 값을 반영합니다.
+ * 순위표는 leaderboards.dat에 주기적으로/종료 시 저장하며, 파일이 없거나 새 스탯이 추가되면
+ * 저장소 전체를 한 번 읽어 백그라운드에서 재구축합니다.
+ *
+ * 조회 메서드는 아무 스레드에서나 호출할 수 있습니다. (순위표마다 잠금)
+ */
+public class LeaderboardManager extends Manager implements Listener {
+
+    private static final int FILE_MAGIC = 0x524E4C42; // "RNLB"
+    private static final int FILE_VERSION = 1;
+    // 재구축 시 동시에 요청하는 로드 수
+    private static final int REBUILD_CHUNK = 64;
+
+    // 소문자 스탯 이름 -> 순위표
+    private final Map<String, Board> boards = new LinkedHashMap<>();
+    private File file;
+    private BukkitTask updateTask;
+    private BukkitTask saveTask;
+    private Thread rebuildThread;
+
+    public LeaderboardManager(RPGNexusCore plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public void enable() {
+        GeneralConfig general = plugin.getCoreManager().getConfigManager().getGeneralConfig();
+        GeneralConfig.LeaderboardSettings settings = general != null && general.getLeaderboardSettings() != null
+                ? general.getLeaderboardSettings()
+                : new GeneralConfig.LeaderboardSettings();
+        this.file = new File(plugin.getDataFolder(), "leaderboards.dat");
+        for (String attribute : settings.getAttributes()) {
+            AttributeKey key = AttributeKey.of(attribute);
+            boards.putIfAbsent(attribute.toLowerCase(), new Board(key));
+        }
+        if (boards.isEmpty())
+            return;
+
+        List<Board> missing = load();
+        if (!missing.isEmpty())
+            startRebuild(missing);
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        this.updateTask = Bukkit.getScheduler().runTaskTimer(plugin, this::updateOnline,
+                settings.getUpdateIntervalTicks(), Math.max(1, settings.getUpdateIntervalTicks()));
+        long saveTicks = Math.max(1, settings.getSaveIntervalSeconds()) * 20L;
+        this.saveTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::save, saveTicks, saveTicks);
+    }
+
+    @Override
+    public void disable() {
+        if (updateTask != null)
+            updateTask.cancel();
+        if (saveTask != null)
+            saveTask.cancel();
+        if (rebuildThread != null) {
+            rebuildThread.interrupt(); // 완료되지 않은 재구축은 다음 시작 때 다시 함
+            try {
+                rebuildThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!boards.isEmpty()) {
+            updateOnline(); // DataManager보다 먼저 종료되므로 접속 중인 프로필이 아직 캐시에 있음
+            save();
+        }
+        boards.clear();
+    }
+
+    /**
+     * 순위표가 있는 스탯인지 여부.
+     */
+    public boolean isTracked(String attribute) {
+        return boards.containsKey(attribute.toLowerCase());
+    }
+
+    /**
+     * 플레이어의 순위 (공동 순위).
+     *
+     * @return 순위, 순위표가 없거나 순위에 없으면 0
+     */
+    public int getRank(String attribute, UUID uuid) {
+        Board board = boards.get(attribute.toLowerCase());
+        if (board == null)
+            return 0;
+        synchronized (board) {
+            return board.tree.rankOf(uuid);
+        }
+    }
+
+    /**
+     * position위 (1부터) 항목.
+     *
+     * @return 항목, 없으면 null
+     */
+    public RankTree.Entry getEntry(String attribute, int position) {
+        Board board = boards.get(attribute.toLowerCase());
+        if (board == null)
+            return null;
+        synchronized (board) {
+            return board.tree.get(position - 1);
+        }
+    }
+
+    /**
+     * 상위 limit명.
+     */
+    public List<RankTree.Entry> getTop(String attribute, int limit) {
+        Board board = boards.get(attribute.toLowerCase());
+        if (board == null)
+            return Collections.emptyList();
+        synchronized (board) {
+            return board.tree.top(limit);
+        }
+    }
+
+    /**
+     * 순위표에 오른 플레이어 수.
+     */
+    public int getSize(String attribute) {
+        Board board = boards.get(attribute.toLowerCase());
+        if (board == null)
+            return 0;
+        synchronized (board) {
+            return board.tree.size();
+        }
+    }
+
+    // --- Update ---
+
+    /**
+     * 접속 중인 플레이어의 현재 값을 반영합니다. 값이 그대로면 트리를 건드리지 않습니다.
+     */
+    private void updateOnline() {
+        DataManager dataManager = plugin.getCoreManager().getDataManager();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            NexusProfile profile = dataManager.getProfile(player.getUniqueId());
+            if (profile != null)
+                update(player.getUniqueId(), profile);
+        }
+    }
+
+    private void update(UUID uuid, NexusProfile profile) {
+        for (Board board : boards.values()) {
+            double value = profile.getStat(board.key);
+            synchronized (board) {
+                board.tree.update(uuid, profile.getPlayerName(), value);
+            }
+        }
+    }
+
+    // DataManager.onQuit(NORMAL)이 캐시에서 지우기 전에 마지막 값 반영
+    @EventHandler(priority = EventPriority.LOW)
+    public void onQuit(PlayerQuitEvent event) {
+        NexusProfile profile = plugin.getCoreManager().getDataManager().getProfile(event.getPlayer().getUniqueId());
+        if (profile != null)
+            update(event.getPlayer().getUniqueId(), profile);
+    }
+
+    // --- Rebuild ---
+
+    /**
+     * 저장소의 모든 프로필을 읽어 순위표를 채웁니다. 그 사이 갱신된 플레이어는 최신 값을 유지합니다.
+     */
+    private void startRebuild(List<Board> targets) {
+        DataStorage storage = plugin.getCoreManager().getDataManager().getStorage();
+        for (Board board : targets)
+            board.rebuilding = true;
+        rebuildThread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                List<UUID> uuids = new ArrayList<>(storage.listProfiles());
+                for (int from = 0; from < uuids.size(); from += REBUILD_CHUNK) {
+                    if (Thread.currentThread().isInterrupted())
+                        return;
+                    List<UUID> chunk = uuids.subList(from, Math.min(from + REBUILD_CHUNK, uuids.size()));
+                    List<CompletableFuture<NexusProfile>> loads = new ArrayList<>(chunk.size());
+                    for (UUID uuid : chunk)
+                        loads.add(storage.load(uuid));
+                    for (int i = 0; i < chunk.size(); i++) {
+                        NexusProfile profile = loads.get(i).join();
+                        if (profile == null)
+                            continue;
+                        for (Board board : targets) {
+                            double value = profile.getStat(board.key);
+                            synchronized (board) {
+                                board.tree.putIfAbsent(chunk.get(i), profile.getPlayerName(), value);
+                            }
+                        }
+                    }
+                }
+                plugin.getLogger().info("순위표 재구축 완료: " + uuids.size() + "명 ("
+                        + (System.currentTimeMillis() - start) + "ms)");
+                for (Board board : targets)
+                    board.rebuilding = false;
+                save();
+            } catch (Exception e) {
+                plugin.getLogger().severe("순위표 재구축 실패");
+                e.printStackTrace();
+            }
+        }, "RPGNexus-Leaderboard");
+        rebuildThread.setDaemon(true);
+        rebuildThread.start();
+    }
+
+    // --- Persistence ---
+
+    /**
+     * leaderboards.dat을 읽습니다.
+     *
+     * @return 파일에 없어 재구축해야 하는 순위표
+     */
+    private List<Board> load() {
+        List<Board> missing = new ArrayList<>(boards.values());
+        if (!file.exists())
+            return missing;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION)
+                throw new IOException("알 수 없는 파일 형식");
+            int boardCount = in.readInt();
+            for (int b = 0; b < boardCount; b++) {
+                Board board = boards.get(in.readUTF().toLowerCase());
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    UUID uuid = new UUID(in.readLong(), in.readLong());
+                    String name = in.readBoolean() ? in.readUTF() : null;
+                    double value = in.readDouble();
+                    if (board != null)
+                        board.tree.update(uuid, name, value);
+                }
+                missing.remove(board); // 설정에서 빠진 순위표는 읽고 버림
+            }
+        } catch (EOFException e) {
+            plugin.getLogger().warning("순위표 파일이 잘려 있습니다. 전체를 다시 구축합니다.");
+            return resetAll();
+        } catch (IOException e) {
+            plugin.getLogger().warning("순위표 파일을 읽지 못했습니다. 전체를 다시 구축합니다. (" + e.getMessage() + ")");
+            return resetAll();
+        }
+        return missing;
+    }
+
+    private List<Board> resetAll() {
+        for (Board board : boards.values())
+            board.tree.clear();
+        return new ArrayList<>(boards.values());
+    }
+
+    /**
+     * 순위표를 임시 파일에 쓴 뒤 교체합니다. (순위표마다 잠금 안에서 복사본을 떠서 씀)
+     * 재구축이 끝나지 않은 순위표는 파일에서 빼므로, 중단되거나 실패하면 다음 시작 때 다시 재구축합니다.
+     */
+    private synchronized void save() {
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                List<Board> snapshot = new ArrayList<>(boards.size());
+                for (Board board : boards.values()) {
+                    if (!board.rebuilding)
+                        snapshot.add(board);
+                }
+                out.writeInt(snapshot.size());
+                for (Board board : snapshot) {
+                    List<RankTree.Entry> entries;
+                    synchronized (board) {
+                        entries = board.tree.entries();
+                    }
+                    out.writeUTF(board.key.getName());
+                    out.writeInt(entries.size());
+                    for (RankTree.Entry entry : entries) {
+                        out.writeLong(entry.getUuid().getMostSignificantBits());
+                        out.writeLong(entry.getUuid().getLeastSignificantBits());
+                        out.writeBoolean(entry.getName() != null);
+                        if (entry.getName() != null)
+                            out.writeUTF(entry.getName());
+                        out.writeDouble(entry.getValue());
+                    }
+                }
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("순위표 저장 실패: " + file.getName());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 스탯 하나의 순위표.
+     */
+    private static final class Board {
+        private final AttributeKey key;
+        private final RankTree tree = new RankTree();
+        // 저장소 전체를 읽어 채우는 중 (완료 전에는 파일에 쓰지 않음)
+        private volatile boolean rebuilding;
+
+        private Board(AttributeKey key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.rpgnexus.core.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 값 내림차순으로 정렬된 순위 트리입니다. (서브트리 크기를 가진 treap)
+ * 갱신/순위 조회/N번째 조회가 모두 O(log n)이고, 상위 N명 조회는 O(log n + N)입니다.
+ * 값이 같으면 UUID 순으로 정렬하되, 순위는 공동 순위(1, 2, 2, 4 ...)로 계산합니다.
+ *
+ * 스레드 안전하지 않으므로 호출하는 쪽에서 동기화합니다.
+ */
+public class RankTree {
+
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private Node root;
+    private long seed = 0x2545F4914F6CDD1DL;
+
+    /**
+     * 값을 넣거나 바꿉니다.
+     *
+     * @return 순서가 바뀌었을 수 있으면 true (이름만 바뀌었거나 그대로면 false)
+     */
+    public boolean update(UUID uuid, String name, double value) {
+        Node existing = nodes.get(uuid);
+        if (existing != null) {
+            existing.name = name;
+            if (Double.doubleToLongBits(existing.value) == Double.doubleToLongBits(value))
+                return false;
+            root = remove(root, existing);
+        }
+        Node node = new Node(uuid, name, value, nextPriority());
+        nodes.put(uuid, node);
+        root = insert(root, node);
+        return true;
+    }
+
+    /**
+     * 아직 없을 때만 넣습니다. (재구축 중 이미 더 최신 값이 들어온 플레이어는 건너뜀)
+     */
+    public boolean putIfAbsent(UUID uuid, String name, double value) {
+        if (nodes.containsKey(uuid))
+            return false;
+        return update(uuid, name, value);
+    }
+
+    public boolean remove(UUID uuid) {
+        Node node = nodes.remove(uuid);
+        if (node == null)
+            return false;
+        root = remove(root, node);
+        return true;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean contains(UUID uuid) {
+        return nodes.containsKey(uuid);
+    }
+
+    /**
+     * 플레이어의 순위. 값이 더 큰 플레이어 수 + 1 (공동 순위)
+     *
+     * @return 순위, 순위표에 없으면 0
+     */
+    public int rankOf(UUID uuid) {
+        Node node = nodes.get(uuid);
+        if (node == null)
+            return 0;
+        int greater = 0;
+        Node current = root;
+        while (current != null) {
+            if (Double.compare(current.value, node.value) > 0) {
+                greater += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return greater + 1;
+    }
+
+    /**
+     * 정렬 순서상 index번째 (0부터) 항목.
+     *
+     * @return 항목, 범위를 벗어나면 null
+     */
+    public Entry get(int index) {
+        if (index < 0 || index >= size(root))
+            return null;
+        Node current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current.toEntry();
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * 상위 limit개 항목 (정렬 순서).
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> result = new ArrayList<>(Math.max(0, Math.min(limit, size(root))));
+        collect(root, result, limit);
+        return result;
+    }
+
+    /**
+     * 전체 항목 (정렬 순서, 파일 저장용).
+     */
+    public List<Entry> entries() {
+        return top(Integer.MAX_VALUE);
+    }
+
+    public void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    private static void collect(Node node, List<Entry> into, int limit) {
+        if (node == null || into.size() >= limit)
+            return;
+        collect(node.left, into, limit);
+        if (into.size() < limit)
+            into.add(node.toEntry());
+        collect(node.right, into, limit);
+    }
+
+    // --- treap ---
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null)
+            return node;
+        if (node.priority > tree.priority) {
+            Node[] parts = split(tree, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            node.update();
+            return node;
+        }
+        if (compare(node, tree) < 0)
+            tree.left = insert(tree.left, node);
+        else
+            tree.right = insert(tree.right, node);
+        tree.update();
+        return tree;
+    }
+
+    private static Node remove(Node tree, Node node) {
+        if (tree == null)
+            return null;
+        if (tree == node)
+            return merge(tree.left, tree.right);
+        if (compare(node, tree) < 0)
+            tree.left = remove(tree.left, node);
+        else
+            tree.right = remove(tree.right, node);
+        tree.update();
+        return tree;
+    }
+
+    /**
+     * key보다 앞 / 뒤로 나눕니다.
+     */
+    private static Node[] split(Node tree, Node key) {
+        if (tree == null)
+            return new Node[2];
+        if (compare(tree, key) < 0) {
+            Node[] parts = split(tree.right, key);
+            tree.right = parts[0];
+            tree.update();
+            parts[0] = tree;
+            return parts;
+        }
+        Node[] parts = split(tree.left, key);
+        tree.left = parts[1];
+        tree.update();
+        parts[1] = tree;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null)
+            return right;
+        if (right == null)
+            return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    // 값 내림차순, 같으면 UUID 오름차순
+    private static int compare(Node a, Node b) {
+        int byValue = Double.compare(b.value, a.value);
+        return byValue != 0 ? byValue : a.uuid.compareTo(b.uuid);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private int nextPriority() {
+        // xorshift (java.util.Random의 동기화 비용 없이 균일한 우선순위)
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) (seed >>> 32);
+    }
+
+    private static final class Node {
+        private final UUID uuid;
+        private String name;
+        private final double value;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(UUID uuid, String name, double value, int priority) {
+            this.uuid = uuid;
+            this.name = name;
+            this.value = value;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + RankTree.size(left) + RankTree.size(right);
+        }
+
+        private Entry toEntry() {
+            return new Entry(uuid, name, value);
+        }
+    }
+
+    /**
+     * 순위표 항목 (읽기 전용 사본).
+     */
+    public static final class Entry {
+        private final UUID uuid;
+        private final String name;
+        private final double value;
+
+        public Entry(UUID uuid, String name, double value) {
+            this.uuid = uuid;
+            this.name = name;
+            this.value = value;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        /** 마지막으로 본 플레이어 이름 (모르면 null) */
+        public String getName() {
+            return name;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+}
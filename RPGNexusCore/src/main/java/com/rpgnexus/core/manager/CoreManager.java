@@ -5,6 +5,7 @@ import com.rpgnexus.core.battle.BattleManager;
 import com.rpgnexus.core.config.ConfigManager;
 import com.rpgnexus.core.data.DataManager;
 import com.rpgnexus.core.hook.HookManager;
+import com.rpgnexus.core.leaderboard.LeaderboardManager;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,6 +21,7 @@ public class CoreManager extends Manager {
     private ConfigManager configManager;
     private HookManager hookManager;
     private DataManager dataManager;
+    private LeaderboardManager leaderboardManager;
     private BattleManager battleManager;
     private com.rpgnexus.core.network.NetworkManager networkManager;
 
@@ -52,6 +54,10 @@ public class CoreManager extends Manager {
         this.dataManager = new DataManager(plugin);
         registerManager(dataManager);
 
+        // 2.5 LeaderboardManager 초기화 (DataManager 이후 활성화, 먼저 비활성화)
+        this.leaderboardManager = new LeaderboardManager(plugin);
+        registerManager(leaderboardManager);
+
         // 3. BattleManager 초기화
         this.battleManager = new BattleManager(plugin);
         registerManager(battleManager);
@@ -134,6 +140,10 @@ public class CoreManager extends Manager {
         return dataManager;
     }
 
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+
     public com.rpgnexus.core.battle.BattleManager getBattleManager() {
         return battleManager;
     }
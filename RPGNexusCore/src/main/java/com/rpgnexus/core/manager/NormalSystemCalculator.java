@@ -0,0 +1,377 @@
+package com.rpgnexus.core.manager;
+
+import com.rpgnexus.core.config.dto.NormalSystemConfig;
+import com.rpgnexus.core.config.dto.NormalSystemConfig.SystemDef;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.registry.AttributeKey;
+import com.rpgnexus.core.script.FormulaOptimizer;
+import com.rpgnexus.core.script.FormulaParser.ConstantNode;
+import com.rpgnexus.core.script.FormulaParser.Node;
+import com.rpgnexus.core.script.FormulaPipeline;
+import com.rpgnexus.core.script.FormulaToolkit;
+import com.rpgnexus.core.script.compiler.CompiledFormula;
+import com.rpgnexus.core.script.compiler.SlotLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * normal-system.yml 하나(Health/Mana/Exp)를 컴파일한 불변 계산기입니다.
+ * 플러그인에 의존하지 않으므로 NormalSystemManager 외에 벤치마크에서도 직접 생성해 사용할 수 있습니다.
+ *
+ * 컴파일 시 Calculate 항목마다 Definition의 %player-status#X% 매핑부터 이어지는 의존 그래프를 만들어두고,
+ * update()는 NexusProfile이 추적한 변경 스탯의 하류에 있는 항목과 그 계산에 필요한 스텝만 다시 실행합니다.
+ * (처음 계산하거나 리로드로 계산기가 바뀐 경우에는 전체 재계산)
+ */
+public final class NormalSystemCalculator {
+
+    private static final String DEFINITIONS = "Definitions.";
+    private static final String TOOLS = "Tools.";
+
+    // update() 호출마다 새로 만들지 않도록 스레드별로 재사용하는 변경 스탯 순번
+    private static final ThreadLocal<BitSet> CHANGED = ThreadLocal.withInitial(BitSet::new);
+
+    private final NormalSystemConfig source;
+    private final CompiledSystem health;
+    private final CompiledSystem mana;
+    private final CompiledSystem exp;
+
+    public NormalSystemCalculator(NormalSystemConfig source, FormulaToolkit toolkit) {
+        this.source = source;
+        this.health = compile(toolkit, "Health", source.getPlayerHealthSystem());
+        this.mana = compile(toolkit, "Mana", source.getPlayerManaSystem());
+        this.exp = compile(toolkit, "Exp", source.getPlayerExpSystem());
+
+        // 결과 스탯을 같은 시스템이나 앞선 시스템이 읽으면 이번 호출에서는 반영되지 않으므로 다음 update()까지 변경으로 남김
+        CompiledSystem[] order = { health, mana, exp };
+        for (int k = 0; k < order.length; k++) {
+            if (order[k] == null)
+                continue;
+            for (OutputStep output : order[k].outputs) {
+                if (output.statKey == null)
+                    continue;
+                for (int j = 0; j <= k && !output.feedsBack; j++) {
+                    if (order[j] == null)
+                        continue;
+                    for (OutputStep reader : order[j].outputs) {
+                        if (Arrays.binarySearch(reader.inputStats, output.statKey.ordinal()) >= 0) {
+                            output.feedsBack = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public NormalSystemConfig getSource() {
+        return source;
+    }
+
+    /**
+     * 프로필의 파생 스탯(Max Health, Max Mana 등) 중 입력 스탯이 바뀐 항목을 다시 계산합니다.
+     * 전체를 다시 계산하려면 먼저 NexusProfile.markAllStatsChanged()를 호출합니다.
+     */
+    public void update(NexusProfile profile) {
+        BitSet changed = CHANGED.get();
+        changed.clear();
+        if (!profile.drainChangedStats(this, changed))
+            changed = null;
+        else if (changed.isEmpty())
+            return;
+
+        // 앞 시스템의 결과가 뒤 시스템의 입력이면 같은 호출에서 반영되도록 changed에 누적
+        if (health != null)
+            changed = processSystem(profile, health, changed);
+
+        if (mana != null)
+            changed = processSystem(profile, mana, changed);
+
+        if (exp != null)
+            processSystem(profile, exp, changed);
+    }
+
+    /**
+     * @param changed 바뀐 스탯 순번 (null이면 전체 재계산)
+     * @return 이 시스템의 결과로 바뀐 스탯을 더한 changed
+     */
+    private BitSet processSystem(NexusProfile profile, CompiledSystem system, BitSet changed) {
+        // 0. 다시 계산할 Calculate 항목과 필요한 스텝 (null이면 전체)
+        boolean[] dirty = null;
+        int[] stepIndexes = null;
+        if (changed != null) {
+            int dirtyCount = 0;
+            for (int i = 0; i < system.outputs.size(); i++) {
+                if (system.outputs.get(i).dependsOn(changed))
+                    dirtyCount++;
+            }
+            if (dirtyCount == 0)
+                return changed;
+            if (dirtyCount < system.outputs.size()) {
+                dirty = new boolean[system.outputs.size()];
+                for (int i = 0; i < dirty.length; i++)
+                    dirty[i] = system.outputs.get(i).dependsOn(changed);
+                // 같은 스탯에 뒤에서 다시 쓰는 항목은 앞 항목을 다시 계산하면 함께 다시 써야 결과가 같음
+                for (int i = 0; i < dirty.length; i++) {
+                    AttributeKey statKey = system.outputs.get(i).statKey;
+                    for (int j = i + 1; dirty[i] && statKey != null && j < dirty.length; j++) {
+                        if (!dirty[j] && statKey == system.outputs.get(j).statKey) {
+                            dirty[j] = true;
+                            dirtyCount++;
+                        }
+                    }
+                }
+                if (dirtyCount < dirty.length)
+                    stepIndexes = system.stepsFor(dirty, dirtyCount);
+                else
+                    dirty = null;
+            }
+        }
+
+        // Definitions that map to %player-status...% are bound to frame slots at compile
+        // time, so loading the frame pulls every referenced stat straight from the profile.
+        double[] frame = system.layout.frame();
+        system.layout.load(frame, profile, null); // No defender in normal system
+
+        // 1. Definition Phase -> 2. Tools Phase (Intermediate calculations)
+        // 최적화로 끌어올린 공통 부분식 스텝이 사이에 끼어 있으므로 한 목록으로 실행
+        int stepCount = stepIndexes != null ? stepIndexes.length : system.steps.size();
+        for (int i = 0; i < stepCount; i++) {
+            FormulaStep step = system.steps.get(stepIndexes != null ? stepIndexes[i] : i);
+            if (step.formula == null)
+                continue;
+            try {
+                frame[step.slot] = step.formula.eval(frame);
+            } catch (Exception e) {
+                if (step.tool) {
+                    e.printStackTrace();
+                } else {
+                    // Ignore or log error
+                    frame[step.slot] = 0.0;
+                }
+            }
+        }
+
+        // 3. Calculate Phase (Final Output to Attributes)
+        for (int i = 0; i < system.outputs.size(); i++) {
+            OutputStep output = system.outputs.get(i);
+            if (output.formula == null || (dirty != null && !dirty[i]))
+                continue;
+            try {
+                double result = output.formula.eval(frame);
+
+                // Apply result to Profile (target stat resolved from Definitions at compile time)
+                if (output.statKey != null) {
+                    if (changed != null && Double.doubleToLongBits(profile.getStat(output.statKey))
+                            != Double.doubleToLongBits(result))
+                        changed.set(output.statKey.ordinal());
+                    // 뒤 시스템은 changed로 이번 호출에서 반영하므로, 되먹임이 없으면 변경 목록에 남기지 않음
+                    if (output.feedsBack)
+                        profile.setStat(output.statKey, result);
+                    else
+                        profile.setDerivedStat(output.statKey, result);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return changed;
+    }
+
+    private static CompiledSystem compile(FormulaToolkit toolkit, String systemName, SystemDef systemDef) {
+        return systemDef != null ? new CompiledSystem(systemName, systemDef, toolkit) : null;
+    }
+
+    /**
+     * 변수 하나에 값을 쓰는 컴파일된 수식.
+     */
+    private static final class FormulaStep {
+        private final int slot;
+        private final CompiledFormula formula; // 파싱 실패한 Tools 항목은 null (건너뜀)
+        private final boolean tool; // 오류 시 Definitions는 0.0 기록, Tools는 기존 값 유지
+
+        private FormulaStep(int slot, CompiledFormula formula, boolean tool) {
+            this.slot = slot;
+            this.formula = formula;
+            this.tool = tool;
+        }
+    }
+
+    /**
+     * Calculate 항목: 결과를 기록할 스탯 이름 (Definition이 %player-status#X% 인 경우).
+     */
+    private static final class OutputStep {
+        private final AttributeKey statKey;
+        private final CompiledFormula formula;
+        private final int[] inputStats; // 결과가 (간접적으로) 읽는 프로필 스탯 순번 (오름차순)
+        private final int[] steps;      // 결과 계산에 필요한 스텝 인덱스 (오름차순)
+        private boolean feedsBack;      // 결과 스탯을 같은/앞선 시스템이 읽음 (계산기 생성자에서 설정)
+
+        private OutputStep(AttributeKey statKey, CompiledFormula formula, int[] inputStats, int[] steps) {
+            this.statKey = statKey;
+            this.formula = formula;
+            this.inputStats = inputStats;
+            this.steps = steps;
+        }
+
+        /**
+         * 입력 스탯이 바뀌었거나, 결과 스탯이 다른 곳에서 덮어써져 다시 기록해야 하는지.
+         */
+        private boolean dependsOn(BitSet changed) {
+            if (statKey != null && changed.get(statKey.ordinal()))
+                return true;
+            for (int stat : inputStats) {
+                if (changed.get(stat))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 시스템(Health/Mana/Exp) 하나를 컴파일한 결과.
+     * Definitions -> Tools -> Calculate 전체를 FormulaOptimizer로 최적화한 뒤 컴파일합니다.
+     */
+    private static final class CompiledSystem {
+        private final SlotLayout layout = new SlotLayout();
+        private final List<FormulaStep> steps = new ArrayList<>();
+        private final List<OutputStep> outputs = new ArrayList<>();
+
+        private CompiledSystem(String systemName, SystemDef source, FormulaToolkit toolkit) {
+            List<FormulaOptimizer.Entry> stepEntries = new ArrayList<>();
+            Map<String, String> definitionMap = source.getDefinition();
+            if (definitionMap != null) {
+                for (Map.Entry<String, String> entry : definitionMap.entrySet()) {
+                    Node root = parseOrNull(toolkit, systemName, entry.getValue());
+                    // 파싱 실패한 Definition은 기존과 동일하게 0.0
+                    stepEntries.add(new FormulaOptimizer.Entry(entry.getKey(), DEFINITIONS + entry.getKey(),
+                            root != null ? root : new ConstantNode(0.0)));
+                }
+            }
+
+            if (source.getTools() != null) {
+                for (Map.Entry<String, String> entry : source.getTools().entrySet()) {
+                    stepEntries.add(new FormulaOptimizer.Entry(entry.getKey(), TOOLS + entry.getKey(),
+                            parseOrNull(toolkit, systemName, entry.getValue())));
+                }
+            }
+
+            List<FormulaOptimizer.Entry> resultEntries = new ArrayList<>();
+            List<AttributeKey> statKeys = new ArrayList<>();
+            if (source.getCalculate() != null) {
+                for (Map.Entry<String, String> entry : source.getCalculate().entrySet()) {
+                    String targetVarName = entry.getKey(); // e.g. main-health-status-max
+                    AttributeKey statKey = null;
+                    if (definitionMap != null && definitionMap.containsKey(targetVarName)) {
+                        String mapping = definitionMap.get(targetVarName);
+                        // mapping: %player-status#Max-Health%
+                        if (mapping.startsWith("%player-status#") && mapping.endsWith("%")) {
+                            statKey = AttributeKey.of(mapping.substring(15, mapping.length() - 1));
+                        }
+                    }
+                    statKeys.add(statKey);
+                    resultEntries.add(new FormulaOptimizer.Entry(targetVarName, "Calculate." + targetVarName,
+                            parseOrNull(toolkit, systemName, entry.getValue())));
+                }
+            }
+
+            FormulaOptimizer.Result optimized = toolkit.optimize(systemName + "-System", stepEntries, resultEntries,
+                    false);
+            for (FormulaOptimizer.Entry step : optimized.getSteps()) {
+                steps.add(new FormulaStep(layout.slotOf(step.getName()), compileOrNull(toolkit, step),
+                        step.getLabel().startsWith(TOOLS)));
+            }
+
+            // 스텝별 의존성: 선언 순서대로 실행하므로 변수는 앞선 마지막 할당을, 없으면 프레임 초기값(바인딩된 스탯)을 읽음
+            // 실패한 Tools 스텝은 이전 값을 유지하므로 같은 이름의 이전 할당에도 의존하는 것으로 취급
+            List<FormulaOptimizer.Entry> optimizedSteps = optimized.getSteps();
+            Map<String, Integer> lastAssigned = new HashMap<>();
+            List<BitSet> stepDependencies = new ArrayList<>(optimizedSteps.size());
+            List<BitSet> stepStats = new ArrayList<>(optimizedSteps.size());
+            for (int i = 0; i < optimizedSteps.size(); i++) {
+                FormulaOptimizer.Entry step = optimizedSteps.get(i);
+                BitSet dependencies = new BitSet();
+                BitSet stats = new BitSet();
+                if (steps.get(i).formula != null) {
+                    Set<String> names = new LinkedHashSet<>(FormulaPipeline.variables(step.getNode()));
+                    names.add(step.getName());
+                    for (String name : names)
+                        addDependency(name, lastAssigned, stepDependencies, stepStats, dependencies, stats);
+                    lastAssigned.put(step.getName(), i);
+                }
+                stepDependencies.add(dependencies);
+                stepStats.add(stats);
+            }
+
+            for (int i = 0; i < optimized.getResults().size(); i++) {
+                FormulaOptimizer.Entry result = optimized.getResults().get(i);
+                BitSet dependencies = new BitSet();
+                BitSet stats = new BitSet();
+                if (result.getNode() != null) {
+                    for (String name : FormulaPipeline.variables(result.getNode()))
+                        addDependency(name, lastAssigned, stepDependencies, stepStats, dependencies, stats);
+                }
+                outputs.add(new OutputStep(statKeys.get(i), compileOrNull(toolkit, result),
+                        stats.stream().toArray(), dependencies.stream().toArray()));
+            }
+            layout.freeze();
+        }
+
+        /**
+         * 변수 name을 읽을 때의 의존성을 dependencies/stats에 더합니다.
+         */
+        private void addDependency(String name, Map<String, Integer> lastAssigned, List<BitSet> stepDependencies,
+                List<BitSet> stepStats, BitSet dependencies, BitSet stats) {
+            Integer assigned = lastAssigned.get(name);
+            if (assigned != null) {
+                dependencies.set(assigned);
+                dependencies.or(stepDependencies.get(assigned));
+                stats.or(stepStats.get(assigned));
+                return;
+            }
+            int slot = layout.indexOf(name);
+            AttributeKey stat = slot >= 0 ? layout.statOf(slot) : null;
+            if (stat != null)
+                stats.set(stat.ordinal());
+        }
+
+        /**
+         * 다시 계산할 Calculate 항목들에 필요한 스텝 인덱스 (오름차순).
+         */
+        private int[] stepsFor(boolean[] dirty, int dirtyCount) {
+            if (dirtyCount == 1) {
+                for (int i = 0; i < dirty.length; i++) {
+                    if (dirty[i])
+                        return outputs.get(i).steps;
+                }
+            }
+            BitSet union = new BitSet(steps.size());
+            for (int i = 0; i < dirty.length; i++) {
+                if (dirty[i]) {
+                    for (int step : outputs.get(i).steps)
+                        union.set(step);
+                }
+            }
+            return union.stream().toArray();
+        }
+
+        private Node parseOrNull(FormulaToolkit toolkit, String systemName, String expression) {
+            try {
+                return toolkit.parse(expression);
+            } catch (Exception e) {
+                toolkit.getLogger().warning("Normal-System 수식 파싱 실패 [" + systemName + "]: " + expression);
+                return null;
+            }
+        }
+
+        private CompiledFormula compileOrNull(FormulaToolkit toolkit, FormulaOptimizer.Entry entry) {
+            return entry.getNode() != null ? toolkit.compile(entry.getNode(), layout, entry.getLabel()) : null;
+        }
+    }
+}
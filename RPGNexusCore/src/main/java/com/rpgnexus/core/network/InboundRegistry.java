@@ -0,0 +1,86 @@
+package com.rpgnexus.core.network;
+
+import com.rpgnexus.core.network.packet.PacketType;
+import com.rpgnexus.core.network.packet.RequestPacket;
+import com.rpgnexus.core.network.protocol.PacketEncoder;
+import com.rpgnexus.core.network.protocol.PacketReader;
+import org.bukkit.entity.Player;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 클라이언트 요청 패킷 종류별 읽기/처리 등록표입니다.
+ * 등록하지 않은 패킷 id는 읽지 않고 버리므로, 등록표가 곧 클라이언트가 보낼 수 있는 요청 목록입니다.
+ *
+ * decode는 어느 스레드에서나 호출할 수 있고 (Bukkit API 사용 안 함), dispatch는 메인 스레드에서 호출합니다.
+ */
+public class InboundRegistry {
+
+    /**
+     * 요청 id 뒤의 본문을 읽습니다. 잘못된 입력은 IllegalArgumentException.
+     */
+    public interface Reader<T extends RequestPacket> {
+        T read(int requestId, PacketReader in);
+    }
+
+    /**
+     * 읽은 요청을 처리합니다. (메인 스레드)
+     */
+    public interface Handler<T extends RequestPacket> {
+        void handle(Player player, T request);
+    }
+
+    private final Map<PacketType, Registration<?>> registrations = new EnumMap<>(PacketType.class);
+
+    public <T extends RequestPacket> void register(PacketType type, Reader<T> reader, Handler<T> handler) {
+        registrations.put(type, new Registration<>(reader, handler));
+    }
+
+    /**
+     * 프레임이 등록된 요청인지 헤더만 보고 확인합니다. (읽기 전에 걸러냄)
+     */
+    public boolean accepts(byte[] frame) {
+        if (frame.length < 3 || (frame[0] & 0xFF) != PacketEncoder.VERSION)
+            return false;
+        PacketType type = PacketType.byId(frame[1] & 0xFF);
+        return type != null && registrations.containsKey(type);
+    }
+
+    /**
+     * 요청 프레임 [버전][패킷 id][요청 id][본문]을 읽습니다.
+     *
+     * @throws IllegalArgumentException 등록되지 않았거나 형식이 잘못되었을 때
+     */
+    public RequestPacket decode(byte[] frame) {
+        if (!accepts(frame))
+            throw new IllegalArgumentException("등록되지 않은 요청");
+        PacketReader in = PacketReader.wrap(frame, 2, frame.length - 2);
+        Registration<?> registration = registrations.get(PacketType.byId(frame[1] & 0xFF));
+        RequestPacket request = registration.reader.read((int) in.varint(0xFFFFFFFFL), in);
+        in.expectEnd();
+        return request;
+    }
+
+    public void dispatch(Player player, RequestPacket request) {
+        Registration<?> registration = registrations.get(request.getType());
+        if (registration != null)
+            registration.dispatch(player, request);
+    }
+
+    private static final class Registration<T extends RequestPacket> {
+        private final Reader<T> reader;
+        private final Handler<T> handler;
+
+        private Registration(Reader<T> reader, Handler<T> handler) {
+            this.reader = reader;
+            this.handler = handler;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void dispatch(Player player, RequestPacket request) {
+            // reader가 만든 요청만 들어오므로 타입이 맞음
+            handler.handle(player, (T) request);
+        }
+    }
+}
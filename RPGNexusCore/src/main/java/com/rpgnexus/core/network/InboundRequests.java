@@ -0,0 +1,197 @@
+package com.rpgnexus.core.network;
+
+import com.rpgnexus.core.data.DataManager;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.network.packet.EntityInfoPacket;
+import com.rpgnexus.core.network.packet.EntityInfoRequestPacket;
+import com.rpgnexus.core.network.packet.PacketType;
+import com.rpgnexus.core.network.packet.PlayerStatusPacket;
+import com.rpgnexus.core.network.packet.RequestPacket;
+import com.rpgnexus.core.network.packet.StatSheetPacket;
+import com.rpgnexus.core.network.packet.StatSheetRequestPacket;
+import com.rpgnexus.core.network.packet.TargetInfoPacket;
+import org.bukkit.Bukkit;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Monster;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * 클라이언트가 nexus:data로 보낸 요청을 처리합니다. (바이너리 형식을 협상한 클라이언트만)
+ *
+ * - 받는 즉시 (메인 스레드) 크기, 등록 여부, 플레이어별 토큰 버킷만 확인하고 넘치면 읽지 않고 버립니다.
+ * - 읽기는 전용 스레드에서 하고, 읽은 요청은 다음 틱 시작에 메인 스레드에서 처리합니다.
+ * - 응답은 요청 id를 담아 일반 대기열로 보내므로 한 틱의 응답은 다른 패킷과 함께 묶음 하나로 나가고 바이트 예산도 따릅니다.
+ * - 엔티티 조회는 한 요청에 여러 id를 받아 응답 하나로 돌려주며, 요청한 플레이어 근처의 엔티티만 알려줍니다.
+ */
+public class InboundRequests {
+
+    // 엔티티 조회로 알려주는 범위 (클라이언트가 볼 수 있는 거리 밖의 정보는 주지 않음)
+    private static final double INSPECT_RANGE = 32;
+    private static final int DECODE_QUEUE_SIZE = 1024;
+
+    private final NetworkManager networkManager;
+    private final DataManager dataManager;
+    private final Logger logger;
+    private final double requestsPerSecond;
+    private final double burst;
+    private final int maxRequestBytes;
+    private final InboundRegistry registry = new InboundRegistry();
+    // 플레이어별 토큰 버킷 (메인 스레드에서만 사용)
+    private final Map<UUID, Bucket> buckets = new HashMap<>();
+    // 읽기가 끝나 처리를 기다리는 요청
+    private final Queue<Decoded> decoded = new ConcurrentLinkedQueue<>();
+    private final ThreadPoolExecutor decoder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(DECODE_QUEUE_SIZE), runnable -> {
+                Thread thread = new Thread(runnable, "RPGNexus-Network");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public InboundRequests(NetworkManager networkManager, DataManager dataManager, Logger logger,
+            double requestsPerSecond, int burst, int maxRequestBytes, int maxRequestEntities) {
+        this.networkManager = networkManager;
+        this.dataManager = dataManager;
+        this.logger = logger;
+        this.requestsPerSecond = Math.max(0.1, requestsPerSecond);
+        this.burst = Math.max(1, burst);
+        this.maxRequestBytes = maxRequestBytes;
+
+        registry.register(PacketType.STAT_SHEET_REQUEST, StatSheetRequestPacket::read, this::onStatSheet);
+        registry.register(PacketType.ENTITY_INFO_REQUEST,
+                (requestId, in) -> EntityInfoRequestPacket.read(requestId, in, maxRequestEntities),
+                this::onEntityInfo);
+    }
+
+    /**
+     * 요청 프레임을 받습니다. (메인 스레드, 처리는 다음 틱)
+     *
+     * @return 받아들였으면 true (요청이 아니거나, 너무 크거나, 한도를 넘으면 false)
+     */
+    public boolean receive(Player player, byte[] frame) {
+        if (frame.length > maxRequestBytes || !registry.accepts(frame))
+            return false;
+        UUID uuid = player.getUniqueId();
+        if (!allow(player))
+            return false;
+        try {
+            decoder.execute(() -> {
+                try {
+                    decoded.add(new Decoded(uuid, registry.decode(frame)));
+                } catch (IllegalArgumentException e) {
+                    logger.fine("잘못된 요청 무시 (" + uuid + "): " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return false; // 읽기 대기열이 가득 참 (종료 중 포함)
+        }
+        return true;
+    }
+
+    /**
+     * 플레이어의 요청 허용량에서 하나를 씁니다. (요청 외에 HELLO 등 서버가 답하는 메시지도 같은 한도를 따름, 메인 스레드)
+     *
+     * @return 허용량이 남아 있었으면 true
+     */
+    public boolean allow(Player player) {
+        return buckets.computeIfAbsent(player.getUniqueId(), key -> new Bucket(burst)).tryTake(requestsPerSecond, burst);
+    }
+
+    /**
+     * 읽기가 끝난 요청을 처리합니다. (매 틱, NetworkManager가 대기열을 보내기 전에 호출)
+     */
+    public void tick() {
+        Decoded next;
+        while ((next = decoded.poll()) != null) {
+            Player player = Bukkit.getPlayer(next.uuid);
+            if (player != null)
+                registry.dispatch(player, next.request);
+        }
+    }
+
+    public void remove(UUID uuid) {
+        buckets.remove(uuid);
+    }
+
+    public void stop() {
+        decoder.shutdownNow();
+        decoded.clear();
+        buckets.clear();
+    }
+
+    // --- 요청 처리 ---
+
+    private void onStatSheet(Player player, StatSheetRequestPacket request) {
+        NexusProfile profile = dataManager.getProfile(player.getUniqueId());
+        PlayerStatusPacket.Payload status = profile != null ? new PlayerStatusPacket(profile).getPayload() : null;
+        networkManager.sendPacket(player, new StatSheetPacket(request.getRequestId(), status));
+    }
+
+    private void onEntityInfo(Player player, EntityInfoRequestPacket request) {
+        Map<Integer, LivingEntity> nearby = new HashMap<>();
+        for (Entity entity : player.getNearbyEntities(INSPECT_RANGE, INSPECT_RANGE, INSPECT_RANGE)) {
+            if (entity instanceof LivingEntity living)
+                nearby.put(entity.getEntityId(), living);
+        }
+        List<EntityInfoPacket.Entry> entries = new ArrayList<>(request.getEntityIds().length);
+        for (int entityId : request.getEntityIds()) {
+            LivingEntity target = nearby.get(entityId);
+            TargetInfoPacket.Payload info = null;
+            if (target != null) {
+                AttributeInstance attribute = target.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+                double health = target.getHealth();
+                info = new TargetInfoPacket.Payload(entityId, target.getName(), health,
+                        attribute != null ? attribute.getValue() : health, target instanceof Monster);
+            }
+            entries.add(new EntityInfoPacket.Entry(entityId, info));
+        }
+        networkManager.sendPacket(player, new EntityInfoPacket(request.getRequestId(), entries));
+    }
+
+    /**
+     * 요청 허용량. 초당 requestsPerSecond개씩 차고 burst개까지 모입니다.
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        private boolean tryTake(double perSecond, double burst) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) / 1_000_000_000.0 * perSecond);
+            refilledAt = now;
+            if (tokens < 1)
+                return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private static final class Decoded {
+        private final UUID uuid;
+        private final RequestPacket request;
+
+        private Decoded(UUID uuid, RequestPacket request) {
+            this.uuid = uuid;
+            this.request = request;
+        }
+    }
+}
@@ -3,13 +3,13 @@ package com.rpgnexus.core.network;
 import com.rpgnexus.core.RPGNexusCore;
 import com.rpgnexus.core.data.DataManager;
 import com.rpgnexus.core.data.dto.NexusProfile;
-import com.rpgnexus.core.network.packet.PlayerStatusPacket;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerExpChangeEvent;
 import org.bukkit.event.player.PlayerLevelChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 public class NetworkListener implements Listener {
 
@@ -36,18 +36,29 @@ public class NetworkListener implements Listener {
     @EventHandler(priority = EventPriority.MONITOR)
     public void onJoin(PlayerJoinEvent event) {
         // 접속 시 초기 데이터 전송 (약간의 딜레이 권장)
+        // 프로필 로드가 늦어지면 로드 완료 후 전송 (그 전에 나가면 취소)
+        org.bukkit.entity.Player player = event.getPlayer();
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            sendUpdate(event.getPlayer(), 0);
+            if (player.isOnline())
+                dataManager.whenLoaded(player.getUniqueId(), profile -> sendUpdate(player, profile, 0));
         }, 20L);
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        networkManager.removeSession(event.getPlayer().getUniqueId());
+    }
+
     private void sendUpdate(org.bukkit.entity.Player player, int expDelta) {
         NexusProfile profile = dataManager.getProfile(player.getUniqueId());
-        if (profile != null) {
-            // TODO: Exp update logic in profile
-            double currentExp = profile.getStat("experience");
-            profile.setStat("experience", currentExp + expDelta);
-            networkManager.sendPacket(player, new PlayerStatusPacket(profile));
-        }
+        if (profile != null)
+            sendUpdate(player, profile, expDelta);
+    }
+
+    private void sendUpdate(org.bukkit.entity.Player player, NexusProfile profile, int expDelta) {
+        // TODO: Exp update logic in profile
+        double currentExp = profile.getStat("experience");
+        profile.setStat("experience", currentExp + expDelta);
+        networkManager.requestStatus(player);
     }
 }
@@ -1,23 +1,41 @@
 package com.rpgnexus.core.network;
 
 import com.rpgnexus.core.RPGNexusCore;
+import com.rpgnexus.core.config.dto.GeneralConfig;
 import com.rpgnexus.core.manager.Manager;
+import com.rpgnexus.core.network.packet.AttributeTablePacket;
+import com.rpgnexus.core.network.packet.HelloPacket;
 import com.rpgnexus.core.network.packet.Packet;
-import com.rpgnexus.core.network.packet.TargetInfoPacket;
+import com.rpgnexus.core.network.packet.PacketType;
+import com.rpgnexus.core.network.protocol.PacketDecoder;
+import com.rpgnexus.core.network.protocol.PacketEncoder;
+import com.rpgnexus.core.network.protocol.WireFormat;
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.LivingEntity;
-import org.bukkit.entity.Monster;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.messaging.PluginMessageListener;
 import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
-import org.bukkit.attribute.Attribute;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NetworkManager extends Manager implements PluginMessageListener {
 
     private static final String CHANNEL = "nexus:data";
-    private BukkitTask heartbeatTask;
+    private BukkitTask flushTask;
+    private StatusSync statusSync;
+    private TargetTracker targetTracker;
+    private InboundRequests inboundRequests;
+    // 플레이어별 전송 형식과 보낼 패킷 대기열
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+    // 틱마다 충전하는 바이트 예산 (0이면 제한 없음)
+    private double bytesPerTick;
+    private double maxBudget;
 
     public NetworkManager(RPGNexusCore plugin) {
         super(plugin);
@@ -28,59 +46,215 @@ public class NetworkManager extends Manager implements PluginMessageListener {
         Bukkit.getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
         Bukkit.getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
 
+        GeneralConfig.NetworkSettings settings = plugin.getCoreManager().getConfigManager().getGeneralConfig()
+                .getNetworkSettings();
+        statusSync = new StatusSync(this, plugin.getCoreManager().getDataManager(),
+                settings.getStatusKeyframeSeconds() * 20);
+        // 최대 1초 분량까지 모아둘 수 있음 (잠깐 몰리는 패킷은 바로 보냄)
+        bytesPerTick = Math.max(0, settings.getMaxBytesPerSecond()) / 20.0;
+        maxBudget = Math.max(0, settings.getMaxBytesPerSecond());
+
+        targetTracker = new TargetTracker(this, settings.getTargetScanIntervalTicks(),
+                settings.getMaxTargetRayTracesPerTick(), settings.getTargetKeepAliveSeconds() * 20L);
+
+        inboundRequests = new InboundRequests(this, plugin.getCoreManager().getDataManager(), plugin.getLogger(),
+                settings.getRequestsPerSecond(), settings.getRequestBurst(), settings.getMaxRequestBytes(),
+                settings.getMaxRequestEntities());
+
         plugin.getServer().getPluginManager().registerEvents(new NetworkListener(plugin), plugin);
+        plugin.getServer().getPluginManager().registerEvents(targetTracker, plugin);
 
-        startHeartbeat();
+        // 한 틱 동안 모인 패킷을 틱마다 플레이어별 메시지 하나로 보냄
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, 1L, 1L);
     }
 
     @Override
     public void disable() {
-        if (heartbeatTask != null && !heartbeatTask.isCancelled()) {
-            heartbeatTask.cancel();
+        if (flushTask != null && !flushTask.isCancelled()) {
+            flushTask.cancel();
         }
+        if (statusSync != null)
+            statusSync.clear();
+        if (targetTracker != null)
+            targetTracker.clear();
+        if (inboundRequests != null)
+            inboundRequests.stop();
         Bukkit.getMessenger().unregisterOutgoingPluginChannel(plugin);
         Bukkit.getMessenger().unregisterIncomingPluginChannel(plugin);
+        sessions.clear();
     }
 
+    /**
+     * 패킷을 대기열에 넣습니다. 이번 틱 끝에 다른 패킷과 함께 보내며,
+     * 같은 종류의 최신 값만 의미 있는 패킷(타겟 정보, 전체 상태)은 아직 보내지 않은 이전 패킷을 대체합니다.
+     * 메인 스레드에서 호출합니다.
+     */
     public void sendPacket(Player player, Packet packet) {
         if (player == null || !player.isOnline())
             return;
-        player.sendPluginMessage(plugin, CHANNEL, packet.toBytes());
+        Session session = sessions.computeIfAbsent(player.getUniqueId(), uuid -> new Session(maxBudget));
+        session.queue.removeIf(packet::supersedes);
+        session.queue.add(packet);
+    }
+
+    /**
+     * 상태 패킷(전체/차이)이 아직 대기열에 있는지 여부. (있으면 새 차이를 만들지 않고 다음 틱으로 미룸)
+     */
+    boolean isStatusQueued(UUID uuid) {
+        Session session = sessions.get(uuid);
+        if (session == null)
+            return false;
+        for (Packet packet : session.queue) {
+            if (packet.getType() == PacketType.PLAYER_STATUS || packet.getType() == PacketType.PLAYER_STATUS_DELTA)
+                return true;
+        }
+        return false;
     }
 
-    private void startHeartbeat() {
-        // Bukkit API(엔티티 조회, 체력 확인 등)는 반드시 메인 스레드에서 실행되어야 하므로 비동기(Asynchronously)가 아닌
-        // 동기 작업으로 스케줄링합니다.
-        // 최적화를 위해 주기를 1초(20 ticks)로 설정했으나, 플레이어가 많다면 틱이 튀지 않도록 주의해야 합니다.
-        this.heartbeatTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                Entity target = getTarget(player);
-                if (target instanceof LivingEntity livingTarget) {
-                    boolean isEnemy = target instanceof Monster; // 간단한 적대적 몹 판별 로직
-
-                    // 타겟 정보 패킷 생성
-                    TargetInfoPacket packet = new TargetInfoPacket(
-                            target.getEntityId(),
-                            target.getName(),
-                            livingTarget.getHealth(),
-                            livingTarget.getAttribute(Attribute.GENERIC_MAX_HEALTH).getValue(), // Deprecated 메서드 대신
-                                                                                                // Attribute 사용
-                            isEnemy);
-                    sendPacket(player, packet);
+    /**
+     * 매 틱: 받은 요청을 처리하고 타겟/상태 패킷을 만든 뒤, 플레이어마다 예산 안에서 대기열을 보냅니다.
+     * 바이너리 클라이언트에는 묶음 프레임 하나로, JSON 클라이언트에는 (구버전 모드는 묶음을 모르므로) 패킷마다 보냅니다.
+     */
+    private void flush() {
+        inboundRequests.tick();
+        targetTracker.tick();
+        statusSync.tick();
+        for (Iterator<Map.Entry<UUID, Session>> it = sessions.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<UUID, Session> entry = it.next();
+            Session session = entry.getValue();
+            session.budget = Math.min(maxBudget, session.budget + bytesPerTick);
+            if (session.queue.isEmpty())
+                continue;
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) {
+                it.remove();
+                continue;
+            }
+            List<byte[]> frames = new ArrayList<>();
+            // 예산이 남아 있으면 다음 패킷을 보냄 (큰 패킷이 영원히 밀리지 않도록 예산은 음수까지 쓸 수 있음)
+            while (!session.queue.isEmpty() && (bytesPerTick == 0 || session.budget > 0)) {
+                Packet packet = session.queue.poll();
+                if (packet.getType() == PacketType.HELLO) {
+                    // 협상 답장: 형식과 관계없이 바이너리, 묶지 않고 먼저 (클라이언트는 이 답장을 보고 형식을 바꿈)
+                    byte[] hello = PacketEncoder.encode(packet, WireFormat.BINARY);
+                    session.budget -= hello.length;
+                    player.sendPluginMessage(plugin, CHANNEL, hello);
+                    continue;
+                }
+                int before = frames.size();
+                if (session.format == WireFormat.BINARY) {
+                    // 클라이언트가 아직 모르는 속성 순번이 있으면 그 구간의 이름 표를 먼저 보냄
+                    int maxOrdinal = packet.getMaxAttributeOrdinal();
+                    if (maxOrdinal >= session.sentAttributes) {
+                        frames.add(PacketEncoder.encode(
+                                AttributeTablePacket.range(session.sentAttributes, maxOrdinal), WireFormat.BINARY));
+                        session.sentAttributes = maxOrdinal + 1;
+                    }
                 }
+                frames.add(PacketEncoder.encode(packet, session.format));
+                for (int i = before; i < frames.size(); i++)
+                    session.budget -= frames.get(i).length;
             }
-        }, 0L, 20L); // 1초(20 ticks) 주기
+            if (frames.isEmpty())
+                continue;
+            if (session.format == WireFormat.BINARY) {
+                player.sendPluginMessage(plugin, CHANNEL, PacketEncoder.bundle(frames));
+            } else {
+                for (byte[] frame : frames)
+                    player.sendPluginMessage(plugin, CHANNEL, frame);
+            }
+        }
+    }
+
+    /**
+     * 플레이어 상태 패킷을 이번 틱 끝에 보내도록 예약합니다. (같은 틱의 요청은 하나로, 바뀐 것이 없으면 보내지 않음)
+     */
+    public void requestStatus(Player player) {
+        if (statusSync != null && player != null && player.isOnline())
+            statusSync.request(player);
+    }
+
+    /**
+     * 플레이어가 협상한 형식.
+     */
+    public WireFormat getWireFormat(Player player) {
+        Session session = sessions.get(player.getUniqueId());
+        return session != null ? session.format : WireFormat.JSON;
     }
 
-    private Entity getTarget(Player player) {
-        // RayTrace (최대 거리 20)
-        return player.getTargetEntity(20);
+    /**
+     * 퇴장한 플레이어의 협상 상태와 보내지 못한 패킷을 지웁니다. (다시 접속하면 클라이언트가 다시 HELLO를 보냄)
+     */
+    public void removeSession(UUID uuid) {
+        sessions.remove(uuid);
+        if (statusSync != null)
+            statusSync.remove(uuid);
+        if (targetTracker != null)
+            targetTracker.remove(uuid);
+        if (inboundRequests != null)
+            inboundRequests.remove(uuid);
     }
 
     @Override
     public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, @NotNull byte[] message) {
         if (!channel.equals(CHANNEL))
             return;
-        // Client -> Server 패킷 처리 로직 (필요 시 구현)
+        int requested = PacketDecoder.readHello(message);
+        if (requested >= 0) {
+            // HELLO도 답장과 상태 재전송을 부르므로 요청과 같은 한도를 따름
+            if (inboundRequests.allow(player))
+                onHello(player, requested);
+            return;
+        }
+        // 요청/응답은 바이너리 형식을 협상한 클라이언트만 (응답이 바이너리 전용)
+        if (getWireFormat(player) == WireFormat.BINARY)
+            inboundRequests.receive(player, message);
+    }
+
+    /**
+     * 클라이언트가 지원하는 최고 버전을 보내면 이 서버가 지원하는 버전 중 가장 높은 것으로 답합니다.
+     * 바이너리를 쓸 수 없으면 (비활성화, 너무 낮은 버전) 버전 0으로 답하고 JSON을 유지합니다.
+     * 이미 협상한 형식과 같은 HELLO를 다시 보내면 무시합니다. (답장, 속성 표, 전체 상태를 다시 보내지 않음)
+     */
+    private void onHello(Player player, int requestedVersion) {
+        boolean enabled = plugin.getCoreManager().getConfigManager().getGeneralConfig().getNetworkSettings()
+                .isBinaryProtocol();
+        int version = enabled ? Math.min(requestedVersion, PacketEncoder.VERSION) : 0;
+        WireFormat format = version == PacketEncoder.VERSION ? WireFormat.BINARY : WireFormat.JSON;
+        Session session = sessions.computeIfAbsent(player.getUniqueId(), uuid -> new Session(maxBudget));
+        if (session.negotiated && session.format == format)
+            return;
+        session.negotiated = true;
+        // 답장은 대기열 맨 앞에 넣어 바이트 예산 안에서 다른 패킷보다 먼저 보냄 (flush에서 항상 바이너리 프레임 하나로)
+        HelloPacket reply = new HelloPacket(version);
+        session.queue.removeIf(reply::supersedes);
+        session.queue.addFirst(reply);
+        if (session.format == format)
+            return; // 첫 HELLO지만 JSON 그대로: 다시 보낼 것이 없음
+        // 대기 중인 패킷은 보낼 때 인코딩하므로 새 형식으로 나감. 속성 표는 처음부터 다시 보냄
+        session.format = format;
+        session.sentAttributes = 0;
+        // 차이 패킷은 이전 형식의 상태 기준이므로 버리고 아래에서 전체 상태를 다시 보냄
+        session.queue.removeIf(packet -> packet.getType() == PacketType.PLAYER_STATUS_DELTA);
+        // 형식이 바뀌었으므로 다음 상태는 전체로 다시 보냄
+        statusSync.reset(player.getUniqueId());
+    }
+
+    /**
+     * 플레이어 연결 상태.
+     */
+    private static final class Session {
+        private WireFormat format = WireFormat.JSON;
+        // HELLO에 답한 적이 있는지 (같은 형식의 HELLO 반복은 무시)
+        private boolean negotiated;
+        // 클라이언트에 이름 표를 보낸 속성 순번 수 (0부터 이 값 미만까지 보냄, 바이너리 전용)
+        private int sentAttributes;
+        private final ArrayDeque<Packet> queue = new ArrayDeque<>();
+        // 남은 바이트 예산 (틱마다 충전)
+        private double budget;
+
+        private Session(double budget) {
+            this.budget = budget;
+        }
     }
 }
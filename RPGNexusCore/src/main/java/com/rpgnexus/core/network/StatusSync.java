@@ -0,0 +1,141 @@
+package com.rpgnexus.core.network;
+
+import com.rpgnexus.core.data.DataManager;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.network.packet.PlayerStatusDeltaPacket;
+import com.rpgnexus.core.network.packet.PlayerStatusPacket;
+import com.rpgnexus.core.network.protocol.WireFormat;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 플레이어 상태 패킷 동기화입니다.
+ *
+ * - 상태 전송 요청은 모아 두었다가 틱마다 한 번 보냅니다. (경험치 구슬 여러 개를 한 틱에 먹어도 패킷 하나)
+ * - 플레이어마다 마지막으로 보낸 상태를 기억하고, 바뀐 것이 없으면 보내지 않습니다.
+ * - 바이너리 클라이언트에는 바뀐 필드만 (PlayerStatusDeltaPacket), JSON 클라이언트에는 기존처럼 전체 상태를 보냅니다.
+ * - 주기적으로 전체 상태(키프레임)를 다시 보내 클라이언트가 상태를 잃어도 복구되게 합니다.
+ *
+ * plugin message는 연결 순서대로 빠짐없이 전달되므로 마지막으로 보낸 상태를 클라이언트가 가진 상태로 봅니다.
+ * 모든 메서드는 메인 스레드에서 호출합니다. (tick은 NetworkManager가 대기열을 보내기 직전에 호출)
+ */
+public class StatusSync {
+
+    private static final long KEYFRAME_CHECK_TICKS = 20;
+
+    private final NetworkManager networkManager;
+    private final DataManager dataManager;
+    private final long keyframeTicks;
+    private final Map<UUID, ClientState> states = new HashMap<>();
+    private final Set<UUID> pending = new LinkedHashSet<>();
+    private long tick;
+
+    /**
+     * @param keyframeTicks 전체 상태를 다시 보내는 주기 (0 이하면 보내지 않음)
+     */
+    public StatusSync(NetworkManager networkManager, DataManager dataManager, long keyframeTicks) {
+        this.networkManager = networkManager;
+        this.dataManager = dataManager;
+        this.keyframeTicks = keyframeTicks > 0 ? keyframeTicks : Long.MAX_VALUE;
+    }
+
+    /**
+     * 이번 틱 끝에 상태를 보내도록 예약합니다. 같은 틱의 요청은 하나로 합쳐집니다.
+     */
+    public void request(Player player) {
+        pending.add(player.getUniqueId());
+    }
+
+    /**
+     * 다음 전송을 전체 상태로 만듭니다. (전송 형식이 바뀌었을 때 등)
+     */
+    public void reset(UUID uuid) {
+        if (states.remove(uuid) != null)
+            pending.add(uuid);
+    }
+
+    public void remove(UUID uuid) {
+        states.remove(uuid);
+        pending.remove(uuid);
+    }
+
+    public void clear() {
+        states.clear();
+        pending.clear();
+    }
+
+    /**
+     * 매 틱 호출: 키프레임이 된 플레이어를 더하고 예약된 상태를 보냅니다.
+     */
+    public void tick() {
+        tick++;
+        if (tick % KEYFRAME_CHECK_TICKS == 0) {
+            for (Map.Entry<UUID, ClientState> entry : states.entrySet()) {
+                if (tick >= entry.getValue().nextKeyframe)
+                    pending.add(entry.getKey());
+            }
+        }
+        if (pending.isEmpty())
+            return;
+        List<UUID> due = new ArrayList<>(pending);
+        pending.clear();
+        for (UUID uuid : due) {
+            // 이전 상태 패킷이 예산 때문에 아직 대기 중이면 다음 틱에 (그 사이 변경까지 합쳐서) 보냄
+            if (networkManager.isStatusQueued(uuid)) {
+                pending.add(uuid);
+                continue;
+            }
+            Player player = Bukkit.getPlayer(uuid);
+            NexusProfile profile = dataManager.getProfile(uuid);
+            // 아직 로드 전이면 건너뜀 (로드 후 접속 처리에서 다시 요청)
+            if (player != null && profile != null)
+                send(player, profile);
+        }
+    }
+
+    private void send(Player player, NexusProfile profile) {
+        PlayerStatusPacket current = new PlayerStatusPacket(profile);
+        boolean binary = networkManager.getWireFormat(player) == WireFormat.BINARY;
+        ClientState state = states.get(player.getUniqueId());
+        if (state == null || tick >= state.nextKeyframe) {
+            sendFull(player, current, binary, state);
+            return;
+        }
+        PlayerStatusDeltaPacket delta = PlayerStatusDeltaPacket.between(state.sent, current.getPayload());
+        if (delta == null)
+            return;
+        if (!binary) {
+            sendFull(player, current, false, state); // 구버전 모드는 차이 패킷을 모름
+            return;
+        }
+        networkManager.sendPacket(player, delta);
+        state.sent = current.getPayload();
+    }
+
+    private void sendFull(Player player, PlayerStatusPacket packet, boolean binary, ClientState state) {
+        if (state == null) {
+            state = new ClientState();
+            states.put(player.getUniqueId(), state);
+        }
+        networkManager.sendPacket(player, packet);
+        state.sent = packet.getPayload();
+        // JSON 클라이언트는 매번 전체 상태를 받으므로 키프레임이 필요 없음
+        state.nextKeyframe = binary && keyframeTicks != Long.MAX_VALUE ? tick + keyframeTicks : Long.MAX_VALUE;
+    }
+
+    /**
+     * 클라이언트에 마지막으로 보낸 상태.
+     */
+    private static final class ClientState {
+        private PlayerStatusPacket.Payload sent;
+        private long nextKeyframe;
+    }
+}
@@ -0,0 +1,197 @@
+package com.rpgnexus.core.network;
+
+import com.rpgnexus.core.network.packet.TargetInfoPacket;
+import org.bukkit.Bukkit;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Monster;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 플레이어가 바라보는 대상(타겟 HUD)을 추적해 바뀔 때만 TargetInfoPacket을 보냅니다.
+ *
+ * - 레이 트레이스는 플레이어를 순서대로 돌며 틱마다 일부만 수행합니다. (scanInterval 틱에 한 바퀴, 틱당 최대 maxPerTick)
+ * - 대상이 바뀌거나 이름/체력/최대 체력이 바뀌었을 때만 보냅니다.
+ * - 추적 중인 엔티티가 피해를 입거나 회복하면 다음 스캔을 기다리지 않고 다음 틱에 바로 보냅니다.
+ *
+ * 모든 메서드는 메인 스레드에서 호출합니다. (tick은 NetworkManager가 대기열을 보내기 직전에 호출)
+ */
+public class TargetTracker implements Listener {
+
+    private static final int RANGE = 20;
+
+    private final NetworkManager networkManager;
+    private final int scanInterval;
+    private final int maxPerTick;
+    private final long keepAliveTicks;
+    // 스캔 순서 (앞에서 꺼내 스캔하고 뒤로 보냄)
+    private final ArrayDeque<UUID> ring = new ArrayDeque<>();
+    private final Map<UUID, Tracked> tracked = new HashMap<>();
+    // 엔티티 id -> 그 엔티티를 보고 있는 플레이어
+    private final Map<Integer, Set<UUID>> watchers = new HashMap<>();
+    // 이번 틱에 피해/회복 이벤트가 있었던 추적 중인 엔티티 (체력은 이벤트 뒤에 바뀌므로 다음 틱에 읽음)
+    private final Set<Integer> changedEntities = new HashSet<>();
+    private long tick;
+
+    /**
+     * @param keepAliveTicks 그대로인 대상 정보를 다시 보내는 주기 (0 이하면 보내지 않음)
+     */
+    public TargetTracker(NetworkManager networkManager, int scanInterval, int maxPerTick, long keepAliveTicks) {
+        this.networkManager = networkManager;
+        this.scanInterval = Math.max(1, scanInterval);
+        this.maxPerTick = Math.max(1, maxPerTick);
+        this.keepAliveTicks = keepAliveTicks > 0 ? keepAliveTicks : Long.MAX_VALUE;
+        for (Player player : Bukkit.getOnlinePlayers())
+            add(player.getUniqueId()); // 리로드
+    }
+
+    public void tick() {
+        tick++;
+        if (!changedEntities.isEmpty()) {
+            for (Integer entityId : changedEntities) {
+                Set<UUID> players = watchers.get(entityId);
+                if (players == null)
+                    continue;
+                for (UUID uuid : players) {
+                    Tracked state = tracked.get(uuid);
+                    Player player = Bukkit.getPlayer(uuid);
+                    if (state != null && player != null && state.target != null)
+                        update(player, state, state.target);
+                }
+            }
+            changedEntities.clear();
+        }
+
+        int scans = Math.min(maxPerTick, (ring.size() + scanInterval - 1) / scanInterval);
+        for (int i = 0; i < scans && !ring.isEmpty(); i++) {
+            UUID uuid = ring.poll();
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                remove(uuid);
+                continue;
+            }
+            ring.add(uuid);
+            scan(player, tracked.get(uuid));
+        }
+    }
+
+    private void scan(Player player, Tracked state) {
+        Entity entity = player.getTargetEntity(RANGE);
+        LivingEntity target = entity instanceof LivingEntity living ? living : null;
+        if (!isSame(target, state.target)) {
+            unwatch(player.getUniqueId(), state);
+            if (target == null)
+                return; // 대상 없음 (기존처럼 보내지 않음, 클라이언트가 알아서 숨김)
+            watchers.computeIfAbsent(target.getEntityId(), id -> new HashSet<>()).add(player.getUniqueId());
+            state.sentAt = Long.MIN_VALUE; // 새 대상은 항상 보냄
+        }
+        if (target != null) {
+            state.target = target;
+            update(player, state, target);
+        }
+    }
+
+    private void update(Player player, Tracked state, LivingEntity target) {
+        String name = target.getName();
+        double health = target.getHealth();
+        AttributeInstance attribute = target.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        double maxHealth = attribute != null ? attribute.getValue() : health;
+        boolean changed = state.sentAt == Long.MIN_VALUE || health != state.health || maxHealth != state.maxHealth
+                || !Objects.equals(name, state.name);
+        if (!changed && tick - state.sentAt < keepAliveTicks)
+            return;
+        state.name = name;
+        state.health = health;
+        state.maxHealth = maxHealth;
+        state.sentAt = tick;
+        boolean isEnemy = target instanceof Monster; // 간단한 적대적 몹 판별 로직
+        networkManager.sendPacket(player,
+                new TargetInfoPacket(target.getEntityId(), name, health, maxHealth, isEnemy));
+    }
+
+    private static boolean isSame(LivingEntity a, LivingEntity b) {
+        return a == null ? b == null : b != null && a.getEntityId() == b.getEntityId();
+    }
+
+    private void unwatch(UUID uuid, Tracked state) {
+        if (state.target == null)
+            return;
+        int entityId = state.target.getEntityId();
+        Set<UUID> players = watchers.get(entityId);
+        if (players != null) {
+            players.remove(uuid);
+            if (players.isEmpty())
+                watchers.remove(entityId);
+        }
+        state.target = null;
+    }
+
+    private void add(UUID uuid) {
+        if (tracked.putIfAbsent(uuid, new Tracked()) == null)
+            ring.add(uuid);
+    }
+
+    public void remove(UUID uuid) {
+        Tracked state = tracked.remove(uuid);
+        if (state == null)
+            return;
+        unwatch(uuid, state);
+        ring.remove(uuid);
+    }
+
+    public void clear() {
+        ring.clear();
+        tracked.clear();
+        watchers.clear();
+        changedEntities.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        add(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDamage(EntityDamageEvent event) {
+        markChanged(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onRegainHealth(EntityRegainHealthEvent event) {
+        markChanged(event.getEntity());
+    }
+
+    private void markChanged(Entity entity) {
+        // 전투 중에는 이벤트가 많으므로 아무도 보지 않는 엔티티는 바로 무시
+        int entityId = entity.getEntityId();
+        if (watchers.containsKey(entityId))
+            changedEntities.add(entityId);
+    }
+
+    /**
+     * 플레이어가 보고 있는 대상과 마지막으로 보낸 값.
+     */
+    private static final class Tracked {
+        private LivingEntity target;
+        private String name;
+        private double health;
+        private double maxHealth;
+        private long sentAt = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rpgnexus.core.network.packet;
+
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import com.rpgnexus.core.registry.AttributeKey;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 속성 순번 -> 이름 표 (바이너리 형식 전용). 스탯은 이름 대신 순번으로 보내므로,
+ * 클라이언트가 모르는 순번이 생길 때마다 이어지는 구간(from부터)만 보냅니다.
+ * 순번은 서버 프로세스마다 다르므로 접속(세션)마다 처음부터 다시 보냅니다.
+ */
+@Getter
+public class AttributeTablePacket extends Packet {
+
+    private final Payload payload;
+
+    public AttributeTablePacket(int from, List<String> names) {
+        super(PacketType.ATTRIBUTE_TABLE);
+        this.payload = new Payload(from, names);
+    }
+
+    /**
+     * from부터 to(포함)까지 순번의 표를 만듭니다.
+     */
+    public static AttributeTablePacket range(int from, int to) {
+        String[] names = new String[Math.max(0, to - from + 1)];
+        for (int i = 0; i < names.length; i++)
+            names[i] = AttributeKey.byOrdinal(from + i).getName();
+        return new AttributeTablePacket(from, List.of(names));
+    }
+
+    @Override
+    public void write(PacketBuffer out) {
+        out.varint(payload.from);
+        out.varint(payload.names.size());
+        for (String name : payload.names)
+            out.string(name);
+    }
+
+    @Getter
+    public static class Payload {
+        private final int from;
+        private final List<String> names;
+
+        public Payload(int from, List<String> names) {
+            this.from = from;
+            this.names = names;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.rpgnexus.core.network.packet;
+
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * EntityInfoRequestPacket의 응답. 요청한 순서대로 엔티티마다 정보를 담으며, 찾지 못한 (범위 밖, 사라짐) 엔티티는 info가 null입니다.
+ * 본문: 요청 id, 개수, (찾음 여부, 찾았으면 타겟 패킷과 같은 구성 / 아니면 엔티티 id) 반복
+ */
+@Getter
+public class EntityInfoPacket extends Packet {
+
+    private final Payload payload;
+
+    public EntityInfoPacket(int requestId, List<Entry> entities) {
+        super(PacketType.ENTITY_INFO);
+        this.payload = new Payload(requestId, entities);
+    }
+
+    @Override
+    public void write(PacketBuffer out) {
+        out.varint(payload.requestId & 0xFFFFFFFFL);
+        out.varint(payload.entities.size());
+        for (Entry entry : payload.entities) {
+            out.bool(entry.info != null);
+            if (entry.info != null)
+                entry.info.write(out);
+            else
+                out.varint(entry.entityId & 0xFFFFFFFFL);
+        }
+    }
+
+    @Getter
+    public static class Payload {
+        private final int requestId;
+        private final List<Entry> entities;
+
+        public Payload(int requestId, List<Entry> entities) {
+            this.requestId = requestId;
+            this.entities = entities;
+        }
+    }
+
+    @Getter
+    public static class Entry {
+        private final int entityId;
+        private final TargetInfoPacket.Payload info;
+
+        public Entry(int entityId, TargetInfoPacket.Payload info) {
+            this.entityId = entityId;
+            this.info = info;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.rpgnexus.core.network.packet;
+
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import com.rpgnexus.core.network.protocol.PacketReader;
+import lombok.Getter;
+
+/**
+ * 여러 엔티티의 HUD 정보를 한 번에 요청합니다. 응답은 EntityInfoPacket 하나.
+ * 본문: 개수, 엔티티 id 반복
+ */
+@Getter
+public class EntityInfoRequestPacket extends RequestPacket {
+
+    private final int[] entityIds;
+
+    public EntityInfoRequestPacket(int requestId, int[] entityIds) {
+        super(PacketType.ENTITY_INFO_REQUEST, requestId);
+        this.entityIds = entityIds;
+    }
+
+    /**
+     * @param maxEntities 한 요청의 최대 엔티티 수 (넘으면 형식 오류)
+     */
+    public static EntityInfoRequestPacket read(int requestId, PacketReader in, int maxEntities) {
+        int[] entityIds = new int[in.varint(maxEntities)];
+        for (int i = 0; i < entityIds.length; i++)
+            entityIds[i] = (int) in.varint(0xFFFFFFFFL);
+        return new EntityInfoRequestPacket(requestId, entityIds);
+    }
+
+    @Override
+    protected void writeBody(PacketBuffer out) {
+        out.varint(entityIds.length);
+        for (int entityId : entityIds)
+            out.varint(entityId & 0xFFFFFFFFL);
+    }
+}
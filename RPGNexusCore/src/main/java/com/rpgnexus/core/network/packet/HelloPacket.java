@@ -0,0 +1,41 @@
+package com.rpgnexus.core.network.packet;
+
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import lombok.Getter;
+
+/**
+ * 바이너리 형식 협상 패킷. 클라이언트가 지원하는 최고 버전을 보내면 서버는 사용할 버전으로 답하고,
+ * 이후 이 플레이어에게는 바이너리 형식으로 보냅니다. (보내지 않는 구버전 모드는 계속 JSON)
+ */
+@Getter
+public class HelloPacket extends Packet {
+
+    private final Payload payload;
+
+    public HelloPacket(int version) {
+        super(PacketType.HELLO);
+        this.payload = new Payload(version);
+    }
+
+    /**
+     * 아직 보내지 않은 이전 답장은 새 답장으로 대체합니다. (협상 결과는 마지막 것만 의미 있음)
+     */
+    @Override
+    public boolean supersedes(Packet queued) {
+        return queued.getType() == PacketType.HELLO;
+    }
+
+    @Override
+    public void write(PacketBuffer out) {
+        out.varint(payload.version);
+    }
+
+    @Getter
+    public static class Payload {
+        private final int version;
+
+        public Payload(int version) {
+            this.version = version;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.rpgnexus.core.network.packet;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rpgnexus.core.network.protocol.PacketBuffer;
 import lombok.Getter;
 
-import java.nio.charset.StandardCharsets;
-
 @Getter
 public abstract class Packet {
 
@@ -19,15 +19,38 @@ public abstract class Packet {
     }
 
     /**
-     * 패킷을 JSON Byte Array로 변환합니다.
+     * 패킷을 JSON Byte Array로 변환합니다. (바이너리 형식을 협상하지 않은 구버전 클라이언트 모드용)
      * { "type": "...", "payload": { ... } } 구조를 만듭니다.
      */
     public byte[] toBytes() {
         try {
-            return mapper.writeValueAsString(this).getBytes(StandardCharsets.UTF_8);
+            return mapper.writeValueAsBytes(this);
         } catch (JsonProcessingException e) {
             e.printStackTrace();
             return new byte[0];
         }
     }
+
+    /**
+     * 바이너리 형식의 payload를 기록합니다. (버전/패킷 id 헤더는 PacketEncoder가 기록)
+     * 필드 순서가 곧 형식이므로 바꿀 때는 PacketEncoder.VERSION을 올리고 PacketDecoder도 함께 고칩니다.
+     */
+    public abstract void write(PacketBuffer out);
+
+    /**
+     * payload가 참조하는 가장 큰 속성 순번. 클라이언트가 아직 모르는 순번이 있으면 먼저 속성 표를 보냅니다.
+     *
+     * @return 순번, 속성을 참조하지 않으면 -1
+     */
+    @JsonIgnore
+    public int getMaxAttributeOrdinal() {
+        return -1;
+    }
+
+    /**
+     * 아직 보내지 않고 대기 중인 queued를 이 패킷으로 대체해도 되는지 여부. (최신 값만 의미 있는 패킷)
+     */
+    public boolean supersedes(Packet queued) {
+        return false;
+    }
 }
@@ -1,6 +1,43 @@
 package com.rpgnexus.core.network.packet;
 
+/**
+ * 패킷 종류. id는 바이너리 형식의 패킷 id 바이트이므로 한 번 정한 값은 바꾸지 않습니다.
+ * (JSON 형식에서는 기존처럼 이름으로 기록)
+ */
 public enum PacketType {
-    TARGET_INFO,
-    PLAYER_STATUS
+    HELLO(0),
+    TARGET_INFO(1),
+    PLAYER_STATUS(2),
+    ATTRIBUTE_TABLE(3),
+    PLAYER_STATUS_DELTA(4),
+    BUNDLE(5),
+    // 클라이언트 요청과 응답 (요청 id로 짝을 맞춤)
+    STAT_SHEET_REQUEST(6),
+    STAT_SHEET(7),
+    ENTITY_INFO_REQUEST(8),
+    ENTITY_INFO(9);
+
+    private static final PacketType[] BY_ID = new PacketType[10];
+
+    static {
+        for (PacketType type : values())
+            BY_ID[type.id] = type;
+    }
+
+    private final int id;
+
+    PacketType(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return id에 해당하는 종류, 모르는 id면 null
+     */
+    public static PacketType byId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
 }
@@ -0,0 +1,190 @@
+package com.rpgnexus.core.network.packet;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import com.rpgnexus.core.registry.AttributeKey;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 마지막으로 보낸 상태 패킷 이후 바뀐 필드만 담은 패킷입니다. (바이너리 형식 전용)
+ * 클라이언트는 직전 상태에 이 패킷을 덮어써서 현재 상태를 만듭니다.
+ */
+@Getter
+public class PlayerStatusDeltaPacket extends Packet {
+
+    // 바뀐 기본 필드 비트 (기록 순서)
+    private static final int CURRENT_MANA = 1;
+    private static final int MAX_MANA = 1 << 1;
+    private static final int CURRENT_EXP = 1 << 2;
+    private static final int MAX_EXP = 1 << 3;
+    private static final int LEVEL = 1 << 4;
+
+    private final Payload payload;
+
+    private PlayerStatusDeltaPacket(Payload payload) {
+        super(PacketType.PLAYER_STATUS_DELTA);
+        this.payload = payload;
+    }
+
+    /**
+     * 두 상태의 차이를 만듭니다.
+     *
+     * @return 차이 패킷, 바뀐 것이 없으면 null
+     */
+    public static PlayerStatusDeltaPacket between(PlayerStatusPacket.Payload previous,
+            PlayerStatusPacket.Payload current) {
+        int mask = 0;
+        if (!same(previous.getCurrentMana(), current.getCurrentMana()))
+            mask |= CURRENT_MANA;
+        if (!same(previous.getMaxMana(), current.getMaxMana()))
+            mask |= MAX_MANA;
+        if (!same(previous.getCurrentExp(), current.getCurrentExp()))
+            mask |= CURRENT_EXP;
+        if (!same(previous.getMaxExp(), current.getMaxExp()))
+            mask |= MAX_EXP;
+        if (previous.getLevel() != current.getLevel())
+            mask |= LEVEL;
+
+        // 두 순번 배열 모두 오름차순이므로 한 번에 병합하며 비교
+        int[] oldOrdinals = previous.getOrdinals();
+        double[] oldValues = previous.getValues();
+        int[] newOrdinals = current.getOrdinals();
+        double[] newValues = current.getValues();
+        int[] changed = new int[newOrdinals.length];
+        double[] changedValues = new double[newOrdinals.length];
+        int[] removed = new int[oldOrdinals.length];
+        int changedCount = 0;
+        int removedCount = 0;
+        int i = 0;
+        int j = 0;
+        while (i < oldOrdinals.length || j < newOrdinals.length) {
+            if (j >= newOrdinals.length || (i < oldOrdinals.length && oldOrdinals[i] < newOrdinals[j])) {
+                removed[removedCount++] = oldOrdinals[i++];
+            } else if (i >= oldOrdinals.length || newOrdinals[j] < oldOrdinals[i]) {
+                changed[changedCount] = newOrdinals[j];
+                changedValues[changedCount++] = newValues[j++];
+            } else {
+                if (!same(oldValues[i], newValues[j])) {
+                    changed[changedCount] = newOrdinals[j];
+                    changedValues[changedCount++] = newValues[j];
+                }
+                i++;
+                j++;
+            }
+        }
+        if (mask == 0 && changedCount == 0 && removedCount == 0)
+            return null;
+        return new PlayerStatusDeltaPacket(new Payload(mask, current,
+                Arrays.copyOf(changed, changedCount), Arrays.copyOf(changedValues, changedCount),
+                Arrays.copyOf(removed, removedCount)));
+    }
+
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    @Override
+    public void write(PacketBuffer out) {
+        int mask = payload.mask;
+        out.u8(mask);
+        if ((mask & CURRENT_MANA) != 0)
+            out.number(payload.source.getCurrentMana());
+        if ((mask & MAX_MANA) != 0)
+            out.number(payload.source.getMaxMana());
+        if ((mask & CURRENT_EXP) != 0)
+            out.number(payload.source.getCurrentExp());
+        if ((mask & MAX_EXP) != 0)
+            out.number(payload.source.getMaxExp());
+        if ((mask & LEVEL) != 0)
+            out.zigzag(payload.source.getLevel());
+        // 바뀐 스탯: 개수, (순번 차이, 값) 반복 / 사라진 스탯: 개수, 순번 차이 반복
+        out.varint(payload.changed.length);
+        int previous = 0;
+        for (int i = 0; i < payload.changed.length; i++) {
+            out.varint(payload.changed[i] - previous);
+            out.number(payload.changedValues[i]);
+            previous = payload.changed[i];
+        }
+        out.varint(payload.removed.length);
+        previous = 0;
+        for (int ordinal : payload.removed) {
+            out.varint(ordinal - previous);
+            previous = ordinal;
+        }
+    }
+
+    @Override
+    public int getMaxAttributeOrdinal() {
+        int max = payload.changed.length == 0 ? -1 : payload.changed[payload.changed.length - 1];
+        if (payload.removed.length > 0)
+            max = Math.max(max, payload.removed[payload.removed.length - 1]);
+        return max;
+    }
+
+    /**
+     * JSON으로 볼 때는 바뀐 필드만 나타납니다. (디버그/참조 디코더 비교용)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Payload {
+        private final int mask;
+        private final PlayerStatusPacket.Payload source;
+        private final int[] changed;
+        private final double[] changedValues;
+        private final int[] removed;
+
+        private Payload(int mask, PlayerStatusPacket.Payload source, int[] changed, double[] changedValues,
+                int[] removed) {
+            this.mask = mask;
+            this.source = source;
+            this.changed = changed;
+            this.changedValues = changedValues;
+            this.removed = removed;
+        }
+
+        public Double getCurrentMana() {
+            return (mask & CURRENT_MANA) != 0 ? source.getCurrentMana() : null;
+        }
+
+        public Double getMaxMana() {
+            return (mask & MAX_MANA) != 0 ? source.getMaxMana() : null;
+        }
+
+        public Double getCurrentExp() {
+            return (mask & CURRENT_EXP) != 0 ? source.getCurrentExp() : null;
+        }
+
+        public Double getMaxExp() {
+            return (mask & MAX_EXP) != 0 ? source.getMaxExp() : null;
+        }
+
+        public Integer getLevel() {
+            return (mask & LEVEL) != 0 ? source.getLevel() : null;
+        }
+
+        /**
+         * 바뀌거나 새로 생긴 스탯 이름 -> 값
+         */
+        public Map<String, Double> getStats() {
+            Map<String, Double> stats = new LinkedHashMap<>();
+            for (int i = 0; i < changed.length; i++)
+                stats.put(AttributeKey.byOrdinal(changed[i]).getName(), changedValues[i]);
+            return stats;
+        }
+
+        /**
+         * 사라진 스탯 이름
+         */
+        public List<String> getRemoved() {
+            List<String> names = new ArrayList<>(removed.length);
+            for (int ordinal : removed)
+                names.add(AttributeKey.byOrdinal(ordinal).getName());
+            return names;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.rpgnexus.core.network.packet;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import com.rpgnexus.core.registry.AttributeKey;
 import lombok.Getter;
+
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Getter
@@ -11,13 +16,40 @@ public class PlayerStatusPacket extends Packet {
 
     public PlayerStatusPacket(NexusProfile profile) {
         super(PacketType.PLAYER_STATUS);
+        // 스탯은 이름 맵 대신 순번/값 배열로 복사 (JSON으로 보낼 때만 맵을 만듦)
+        int count = profile.getStatCount();
+        int[] ordinals = new int[count];
+        double[] values = new double[count];
+        int index = 0;
+        for (int ordinal = profile.nextStatOrdinal(0); ordinal >= 0 && index < count;
+                ordinal = profile.nextStatOrdinal(ordinal + 1)) {
+            ordinals[index] = ordinal;
+            values[index++] = profile.getStatByOrdinal(ordinal);
+        }
         this.payload = new Payload(
                 profile.getStat("mana"),
                 profile.getStat("max_mana"),
                 profile.getStat("exp"),
                 1000.0, // TODO: Max Exp Calculation formula required
                 (int) profile.getStat("level"),
-                profile.getStatContainer());
+                ordinals,
+                values);
+    }
+
+    @Override
+    public void write(PacketBuffer out) {
+        payload.write(out);
+    }
+
+    @Override
+    public boolean supersedes(Packet queued) {
+        // 전체 상태이므로 앞서 대기 중인 차이 패킷도 필요 없음
+        return queued.getType() == PacketType.PLAYER_STATUS || queued.getType() == PacketType.PLAYER_STATUS_DELTA;
+    }
+
+    @Override
+    public int getMaxAttributeOrdinal() {
+        return payload.getMaxOrdinal();
     }
 
     @Getter
@@ -27,16 +59,58 @@ public class PlayerStatusPacket extends Packet {
         private final double currentExp;
         private final double maxExp;
         private final int level;
-        private final Map<String, Double> stats;
+        // 설정된 스탯 순번 (오름차순)과 값. 변경 비교용으로 그대로 노출하므로 수정하지 않습니다.
+        @JsonIgnore
+        private final int[] ordinals;
+        @JsonIgnore
+        private final double[] values;
 
         public Payload(double currentMana, double maxMana, double currentExp, double maxExp, int level,
-                Map<String, Double> stats) {
+                int[] ordinals, double[] values) {
             this.currentMana = currentMana;
             this.maxMana = maxMana;
             this.currentExp = currentExp;
             this.maxExp = maxExp;
             this.level = level;
-            this.stats = stats;
+            this.ordinals = ordinals;
+            this.values = values;
+        }
+
+        /**
+         * 바이너리 형식으로 기록합니다. (상태 패킷, 스탯 시트 응답 공용)
+         */
+        public void write(PacketBuffer out) {
+            out.number(currentMana);
+            out.number(maxMana);
+            out.number(currentExp);
+            out.number(maxExp);
+            out.zigzag(level);
+            // 스탯: 개수, (순번, 값) 반복. 순번은 오름차순이므로 앞 순번과의 차이를 기록
+            out.varint(ordinals.length);
+            int previous = 0;
+            for (int i = 0; i < ordinals.length; i++) {
+                out.varint(ordinals[i] - previous);
+                out.number(values[i]);
+                previous = ordinals[i];
+            }
+        }
+
+        /**
+         * 가장 큰 스탯 순번, 스탯이 없으면 -1
+         */
+        @JsonIgnore
+        public int getMaxOrdinal() {
+            return ordinals.length == 0 ? -1 : ordinals[ordinals.length - 1];
+        }
+
+        /**
+         * 스탯 이름 -> 값 (JSON 형식용)
+         */
+        public Map<String, Double> getStats() {
+            Map<String, Double> stats = new LinkedHashMap<>();
+            for (int i = 0; i < ordinals.length; i++)
+                stats.put(AttributeKey.byOrdinal(ordinals[i]).getName(), values[i]);
+            return stats;
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.rpgnexus.core.network.packet;
+
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import lombok.Getter;
+
+/**
+ * 클라이언트가 보내는 요청 패킷. 프레임: [버전][패킷 id][요청 id][본문]
+ * 서버는 같은 요청 id를 응답에 담아 돌려주므로 클라이언트는 여러 요청을 동시에 보내고 응답을 짝지을 수 있습니다.
+ * (write는 클라이언트 구현과 검증용이며, 서버는 InboundRegistry로 읽습니다)
+ */
+@Getter
+public abstract class RequestPacket extends Packet {
+
+    private final int requestId;
+
+    protected RequestPacket(PacketType type, int requestId) {
+        super(type);
+        this.requestId = requestId;
+    }
+
+    @Override
+    public final void write(PacketBuffer out) {
+        out.varint(requestId & 0xFFFFFFFFL);
+        writeBody(out);
+    }
+
+    protected abstract void writeBody(PacketBuffer out);
+}
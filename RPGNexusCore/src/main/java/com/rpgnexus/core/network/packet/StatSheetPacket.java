@@ -0,0 +1,45 @@
+package com.rpgnexus.core.network.packet;
+
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import lombok.Getter;
+
+/**
+ * StatSheetRequestPacket의 응답. 본문: 요청 id, 프로필 있음 여부, (있으면) 상태 패킷과 같은 구성
+ */
+@Getter
+public class StatSheetPacket extends Packet {
+
+    private final Payload payload;
+
+    /**
+     * @param status 현재 상태, 프로필이 아직 로드되지 않았으면 null
+     */
+    public StatSheetPacket(int requestId, PlayerStatusPacket.Payload status) {
+        super(PacketType.STAT_SHEET);
+        this.payload = new Payload(requestId, status);
+    }
+
+    @Override
+    public void write(PacketBuffer out) {
+        out.varint(payload.requestId & 0xFFFFFFFFL);
+        out.bool(payload.status != null);
+        if (payload.status != null)
+            payload.status.write(out);
+    }
+
+    @Override
+    public int getMaxAttributeOrdinal() {
+        return payload.status != null ? payload.status.getMaxOrdinal() : -1;
+    }
+
+    @Getter
+    public static class Payload {
+        private final int requestId;
+        private final PlayerStatusPacket.Payload status;
+
+        public Payload(int requestId, PlayerStatusPacket.Payload status) {
+            this.requestId = requestId;
+            this.status = status;
+        }
+    }
+}
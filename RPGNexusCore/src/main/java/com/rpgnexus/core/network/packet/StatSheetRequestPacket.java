@@ -0,0 +1,22 @@
+package com.rpgnexus.core.network.packet;
+
+import com.rpgnexus.core.network.protocol.PacketBuffer;
+import com.rpgnexus.core.network.protocol.PacketReader;
+
+/**
+ * 자신의 전체 스탯 시트 요청 (본문 없음). 응답은 StatSheetPacket.
+ */
+public class StatSheetRequestPacket extends RequestPacket {
+
+    public StatSheetRequestPacket(int requestId) {
+        super(PacketType.STAT_SHEET_REQUEST, requestId);
+    }
+
+    public static StatSheetRequestPacket read(int requestId, PacketReader in) {
+        return new StatSheetRequestPacket(requestId);
+    }
+
+    @Override
+    protected void writeBody(PacketBuffer out) {
+    }
+}
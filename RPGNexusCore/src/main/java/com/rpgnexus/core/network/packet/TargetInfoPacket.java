@@ -1,5 +1,6 @@
 package com.rpgnexus.core.network.packet;
 
+import com.rpgnexus.core.network.protocol.PacketBuffer;
 import lombok.Getter;
 
 @Getter
@@ -12,6 +13,16 @@ public class TargetInfoPacket extends Packet {
         this.payload = new Payload(entityId, name, health, maxHealth, isEnemy);
     }
 
+    @Override
+    public boolean supersedes(Packet queued) {
+        return queued.getType() == PacketType.TARGET_INFO;
+    }
+
+    @Override
+    public void write(PacketBuffer out) {
+        payload.write(out);
+    }
+
     @Getter
     public static class Payload {
         private final int entityId;
@@ -27,5 +38,16 @@ public class TargetInfoPacket extends Packet {
             this.maxHealth = maxHealth;
             this.isEnemy = isEnemy;
         }
+
+        /**
+         * 바이너리 형식으로 기록합니다. (타겟 패킷, 엔티티 조회 응답 공용)
+         */
+        public void write(PacketBuffer out) {
+            out.varint(entityId & 0xFFFFFFFFL);
+            out.string(name);
+            out.number(health);
+            out.number(maxHealth);
+            out.bool(isEnemy);
+        }
     }
 }
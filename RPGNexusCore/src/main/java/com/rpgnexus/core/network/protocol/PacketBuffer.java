@@ -0,0 +1,118 @@
+package com.rpgnexus.core.network.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 바이너리 패킷을 쓰는 버퍼입니다. 스레드마다 하나를 재사용하므로 (acquire) 패킷마다 버퍼를 새로 만들지 않습니다.
+ *
+ * <pre>
+ * varint : 7비트씩 little-endian, 상위 비트가 1이면 다음 바이트 계속
+ * number : 정수(|v| < 2^53)면 varint(zigzag(v) << 1), 아니면 0x01 + IEEE 754 8바이트 (big-endian)
+ * string : varint(UTF-8 길이 + 1), 0이면 null
+ * </pre>
+ */
+public final class PacketBuffer {
+
+    private static final int INITIAL_CAPACITY = 256;
+    // 이보다 커진 버퍼는 반환 시 버림 (큰 패킷 하나 때문에 스레드마다 큰 버퍼가 남지 않게)
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final double MAX_EXACT_INTEGER = 0x1p53;
+
+    private static final ThreadLocal<PacketBuffer> POOL = ThreadLocal.withInitial(PacketBuffer::new);
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    private PacketBuffer() {
+    }
+
+    /**
+     * 현재 스레드의 버퍼를 비워서 반환합니다. toByteArray()로 결과를 복사한 뒤에는 다시 쓰지 않습니다.
+     */
+    public static PacketBuffer acquire() {
+        PacketBuffer pooled = POOL.get();
+        if (pooled.buffer.capacity() > MAX_RETAINED_CAPACITY)
+            pooled.buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        pooled.buffer.clear();
+        return pooled;
+    }
+
+    public PacketBuffer u8(int value) {
+        ensure(1);
+        buffer.put((byte) value);
+        return this;
+    }
+
+    public PacketBuffer bool(boolean value) {
+        return u8(value ? 1 : 0);
+    }
+
+    public PacketBuffer varint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return this;
+    }
+
+    public PacketBuffer zigzag(long value) {
+        return varint((value << 1) ^ (value >> 63));
+    }
+
+    public PacketBuffer fixed64(long value) {
+        ensure(8);
+        buffer.putLong(value);
+        return this;
+    }
+
+    public PacketBuffer number(double value) {
+        // 범위는 long으로 바꾸기 전에 확인 (-2^63 이하는 Long.MIN_VALUE로 포화되어 abs가 음수가 됨)
+        // -0.0은 정수로 바꾸면 부호가 사라지므로 실수로 기록
+        if (Math.abs(value) < MAX_EXACT_INTEGER && Double.doubleToRawLongBits(value) != Long.MIN_VALUE) {
+            long integral = (long) value;
+            if (integral == value)
+                return varint(((integral << 1) ^ (integral >> 63)) << 1);
+        }
+        u8(1);
+        return fixed64(Double.doubleToRawLongBits(value));
+    }
+
+    public PacketBuffer string(String value) {
+        if (value == null)
+            return varint(0);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        varint(bytes.length + 1L);
+        ensure(bytes.length);
+        buffer.put(bytes);
+        return this;
+    }
+
+    public PacketBuffer bytes(byte[] source, int offset, int length) {
+        ensure(length);
+        buffer.put(source, offset, length);
+        return this;
+    }
+
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * 지금까지 쓴 내용의 복사본. (plugin message는 배열을 넘겨받아 보관하므로 복사가 필요)
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes)
+            return;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
@@ -0,0 +1,207 @@
+package com.rpgnexus.core.network.protocol;
+
+import com.rpgnexus.core.network.packet.PacketType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 바이너리 프레임의 참조 디코더입니다. 클라이언트 모드 구현과 형식 검증의 기준이 됩니다.
+ *
+ * 받은 속성 표를 기억하므로 한 연결(세션)마다 하나씩 사용합니다.
+ * 결과는 JSON 형식과 같은 { "type": ..., "payload": { ... } } 모양의 맵이므로 두 형식을 그대로 비교할 수 있습니다.
+ * 스레드 안전하지 않습니다.
+ */
+public class PacketDecoder {
+
+    private final List<String> attributes = new ArrayList<>();
+
+    /**
+     * @return { "type": 패킷 이름, "payload": 필드 맵 }
+     * @throws IllegalArgumentException 버전이 다르거나, 모르는 패킷이거나, 프레임이 잘렸을 때
+     */
+    public Map<String, Object> decode(byte[] frame) {
+        PacketReader in = PacketReader.wrap(frame);
+        int version = in.u8();
+        PacketType type = type(in);
+        // HELLO는 버전과 관계없이 같은 구성 (버전 협상용)
+        if (type != PacketType.HELLO && version != PacketEncoder.VERSION)
+            throw new IllegalArgumentException("지원하지 않는 버전: " + version);
+        return packet(type, in);
+    }
+
+    private static PacketType type(PacketReader in) {
+        int id = in.u8();
+        PacketType type = PacketType.byId(id);
+        if (type == null)
+            throw new IllegalArgumentException("알 수 없는 패킷 id: " + id);
+        return type;
+    }
+
+    // 패킷 id 뒤의 payload를 끝까지 읽음
+    private Map<String, Object> packet(PacketType type, PacketReader in) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        switch (type) {
+            case HELLO -> payload.put("version", in.varint(Integer.MAX_VALUE));
+            case TARGET_INFO -> payload = target(in);
+            case PLAYER_STATUS -> payload = status(in);
+            case PLAYER_STATUS_DELTA -> {
+                int mask = in.u8();
+                if ((mask & 1) != 0)
+                    payload.put("currentMana", in.number());
+                if ((mask & 1 << 1) != 0)
+                    payload.put("maxMana", in.number());
+                if ((mask & 1 << 2) != 0)
+                    payload.put("currentExp", in.number());
+                if ((mask & 1 << 3) != 0)
+                    payload.put("maxExp", in.number());
+                if ((mask & 1 << 4) != 0)
+                    payload.put("level", (int) in.zigzag());
+                payload.put("stats", stats(in));
+                int count = count(in);
+                List<String> removed = new ArrayList<>(count);
+                int ordinal = 0;
+                for (int i = 0; i < count; i++) {
+                    ordinal = nextOrdinal(in, ordinal);
+                    removed.add(attribute(ordinal));
+                }
+                payload.put("removed", removed);
+            }
+            case ATTRIBUTE_TABLE -> {
+                // 표는 이어서만 보내므로 from은 지금까지 받은 표의 끝을 넘지 않음 (빈 순번을 무한히 채우지 않게)
+                int from = in.varint(attributes.size());
+                int count = count(in);
+                List<String> names = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String name = in.string();
+                    names.add(name);
+                    if (from + i < attributes.size())
+                        attributes.set(from + i, name);
+                    else
+                        attributes.add(name);
+                }
+                payload.put("from", from);
+                payload.put("names", names);
+            }
+            case BUNDLE -> {
+                // 개수, (길이, 패킷 id + payload) 반복. 묶음 안의 묶음은 없음
+                int count = count(in);
+                List<Map<String, Object>> packets = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    PacketReader inner = in.slice(in.varint(in.remaining()));
+                    PacketType innerType = type(inner);
+                    if (innerType == PacketType.BUNDLE)
+                        throw new IllegalArgumentException("묶음 안의 묶음");
+                    packets.add(packet(innerType, inner));
+                }
+                payload.put("packets", packets);
+            }
+            case STAT_SHEET -> {
+                payload.put("requestId", (int) in.varint(0xFFFFFFFFL));
+                payload.put("status", in.bool() ? status(in) : null);
+            }
+            case ENTITY_INFO -> {
+                payload.put("requestId", (int) in.varint(0xFFFFFFFFL));
+                int count = count(in);
+                List<Map<String, Object>> entities = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    if (in.bool()) {
+                        Map<String, Object> info = target(in);
+                        entry.put("entityId", info.get("entityId"));
+                        entry.put("info", info);
+                    } else {
+                        entry.put("entityId", (int) in.varint(0xFFFFFFFFL));
+                        entry.put("info", null);
+                    }
+                    entities.add(entry);
+                }
+                payload.put("entities", entities);
+            }
+            case STAT_SHEET_REQUEST, ENTITY_INFO_REQUEST ->
+                throw new IllegalArgumentException("서버가 보내지 않는 패킷: " + type);
+        }
+        in.expectEnd();
+
+        Map<String, Object> packet = new LinkedHashMap<>();
+        packet.put("type", type.name());
+        packet.put("payload", payload);
+        return packet;
+    }
+
+    /**
+     * 받은 속성 표의 순번 -> 이름. (받지 않은 순번은 null)
+     */
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * 프레임이 HELLO이면 요청한 버전을 반환합니다. (서버가 클라이언트 협상 요청을 읽을 때 사용)
+     *
+     * @return 버전, HELLO가 아니거나 잘렸으면 -1
+     */
+    public static int readHello(byte[] frame) {
+        if (frame.length < 3 || (frame[1] & 0xFF) != PacketType.HELLO.getId())
+            return -1;
+        try {
+            long version = PacketReader.wrap(frame, 2, frame.length - 2).varint();
+            return version < 0 || version > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) version;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, Object> target(PacketReader in) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("entityId", (int) in.varint(0xFFFFFFFFL));
+        payload.put("name", in.string());
+        payload.put("health", in.number());
+        payload.put("maxHealth", in.number());
+        payload.put("enemy", in.bool());
+        return payload;
+    }
+
+    private Map<String, Object> status(PacketReader in) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("currentMana", in.number());
+        payload.put("maxMana", in.number());
+        payload.put("currentExp", in.number());
+        payload.put("maxExp", in.number());
+        payload.put("level", (int) in.zigzag());
+        payload.put("stats", stats(in));
+        return payload;
+    }
+
+    // 개수, (순번 차이, 값) 반복
+    private Map<String, Double> stats(PacketReader in) {
+        Map<String, Double> stats = new LinkedHashMap<>();
+        int count = count(in);
+        int ordinal = 0;
+        for (int i = 0; i < count; i++) {
+            ordinal = nextOrdinal(in, ordinal);
+            stats.put(attribute(ordinal), in.number());
+        }
+        return stats;
+    }
+
+    /**
+     * 목록의 개수. 항목마다 1바이트 이상이므로 남은 바이트 수를 넘으면 형식 오류입니다. (미리 크게 할당하지 않게)
+     */
+    private static int count(PacketReader in) {
+        return in.varint(in.remaining());
+    }
+
+    // 앞 순번과의 차이를 더한 순번 (표 밖이면 attribute()에서 거부)
+    private int nextOrdinal(PacketReader in, int previous) {
+        return previous + in.varint(attributes.size());
+    }
+
+    private String attribute(int ordinal) {
+        if (ordinal < 0 || ordinal >= attributes.size() || attributes.get(ordinal) == null)
+            throw new IllegalArgumentException("속성 표에 없는 순번: " + ordinal);
+        return attributes.get(ordinal);
+    }
+}
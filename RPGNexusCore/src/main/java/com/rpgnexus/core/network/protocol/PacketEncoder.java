@@ -0,0 +1,50 @@
+package com.rpgnexus.core.network.protocol;
+
+import com.rpgnexus.core.network.packet.Packet;
+import com.rpgnexus.core.network.packet.PacketType;
+
+import java.util.List;
+
+/**
+ * 패킷을 nexus:data 채널 형식으로 변환합니다.
+ *
+ * 바이너리 프레임: [버전 1바이트][패킷 id 1바이트][payload]
+ * 묶음 프레임: [버전][BUNDLE id][개수] (길이, [패킷 id][payload]) 반복 - 한 틱에 보내는 패킷을 메시지 하나로
+ * JSON 프레임은 항상 '{'(0x7B)로 시작하므로 첫 바이트로 두 형식을 구분할 수 있습니다.
+ */
+public final class PacketEncoder {
+
+    /** 현재 바이너리 형식 버전. payload 구성이 바뀌면 올립니다. */
+    public static final int VERSION = 1;
+
+    private PacketEncoder() {
+    }
+
+    public static byte[] encode(Packet packet, WireFormat format) {
+        if (format == WireFormat.JSON)
+            return packet.toBytes();
+        PacketBuffer out = PacketBuffer.acquire();
+        out.u8(VERSION);
+        out.u8(packet.getType().getId());
+        packet.write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 바이너리 프레임 여러 개를 묶음 프레임 하나로 합칩니다. (프레임이 하나면 그대로 반환)
+     */
+    public static byte[] bundle(List<byte[]> frames) {
+        if (frames.size() == 1)
+            return frames.get(0);
+        PacketBuffer out = PacketBuffer.acquire();
+        out.u8(VERSION);
+        out.u8(PacketType.BUNDLE.getId());
+        out.varint(frames.size());
+        for (byte[] frame : frames) {
+            // 각 프레임의 버전 바이트는 묶음 헤더와 같으므로 빼고 기록
+            out.varint(frame.length - 1);
+            out.bytes(frame, 1, frame.length - 1);
+        }
+        return out.toByteArray();
+    }
+}
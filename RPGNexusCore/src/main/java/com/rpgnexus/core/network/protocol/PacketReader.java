@@ -0,0 +1,117 @@
+package com.rpgnexus.core.network.protocol;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 바이너리 패킷을 읽는 쪽입니다. 형식은 PacketBuffer와 같습니다.
+ * 클라이언트가 보낸 데이터도 읽으므로 잘리거나 잘못된 입력은 모두 IllegalArgumentException으로 알립니다.
+ */
+public final class PacketReader {
+
+    private final ByteBuffer in;
+
+    private PacketReader(ByteBuffer in) {
+        this.in = in;
+    }
+
+    public static PacketReader wrap(byte[] bytes) {
+        return new PacketReader(ByteBuffer.wrap(bytes));
+    }
+
+    public static PacketReader wrap(byte[] bytes, int offset, int length) {
+        return new PacketReader(ByteBuffer.wrap(bytes, offset, length).slice());
+    }
+
+    public int u8() {
+        require(1);
+        return in.get() & 0xFF;
+    }
+
+    public boolean bool() {
+        return u8() != 0;
+    }
+
+    public long varint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = u8();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("varint가 너무 깁니다");
+    }
+
+    /**
+     * 0 이상 max 이하의 varint (개수, 길이, id 등)
+     */
+    public int varint(int max) {
+        return (int) varint((long) max);
+    }
+
+    /**
+     * 0 이상 max 이하의 varint
+     */
+    public long varint(long max) {
+        long value = varint();
+        if (value < 0 || value > max)
+            throw new IllegalArgumentException("범위를 벗어난 값: " + value + " (최대 " + max + ")");
+        return value;
+    }
+
+    public long zigzag() {
+        long value = varint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public double number() {
+        long header = varint();
+        if ((header & 1) == 0) {
+            long value = header >>> 1;
+            return (value >>> 1) ^ -(value & 1);
+        }
+        if (header != 1)
+            throw new IllegalArgumentException("잘못된 숫자 헤더: " + header);
+        require(8);
+        return Double.longBitsToDouble(in.getLong());
+    }
+
+    public String string() {
+        int length = varint(Integer.MAX_VALUE);
+        if (length == 0)
+            return null;
+        require(length - 1);
+        byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 다음 length바이트를 따로 읽는 reader를 만들고 그만큼 건너뜁니다. (묶음 안의 패킷)
+     */
+    public PacketReader slice(int length) {
+        require(length);
+        PacketReader inner = new PacketReader(in.slice(in.position(), length));
+        in.position(in.position() + length);
+        return inner;
+    }
+
+    public int remaining() {
+        return in.remaining();
+    }
+
+    /**
+     * 끝까지 읽었는지 확인합니다. (뒤에 남은 바이트는 형식 오류)
+     */
+    public void expectEnd() {
+        if (in.hasRemaining())
+            throw new IllegalArgumentException("프레임 끝에 남은 바이트: " + in.remaining());
+    }
+
+    private void require(int bytes) {
+        if (in.remaining() < bytes)
+            throw new IllegalArgumentException("잘린 프레임", new BufferUnderflowException());
+    }
+}
@@ -0,0 +1,11 @@
+package com.rpgnexus.core.network.protocol;
+
+/**
+ * nexus:data 채널로 보내는 형식.
+ */
+public enum WireFormat {
+    /** { "type": ..., "payload": ... } UTF-8 JSON (기본값, HELLO를 보내지 않는 구버전 모드) */
+    JSON,
+    /** [버전][패킷 id][payload] (HELLO로 협상한 클라이언트) */
+    BINARY
+}
@@ -3,6 +3,8 @@ package com.rpgnexus.core.papi;
 import com.rpgnexus.core.RPGNexusCore;
 import com.rpgnexus.core.data.DataManager;
 import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.leaderboard.LeaderboardManager;
+import com.rpgnexus.core.leaderboard.RankTree;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
@@ -11,15 +13,18 @@ import org.jetbrains.annotations.Nullable;
 /**
  * PlaceholderAPI 확장 클래스입니다.
  * %nexus_stat_str% 등의 변수를 지원합니다.
+ * 순위표: %nexus_top_level_1_name%, %nexus_top_level_1_value%, %nexus_rank_combat-ability%
  */
 public class NexusPapiExpansion extends PlaceholderExpansion {
 
     private final RPGNexusCore plugin;
     private final DataManager dataManager;
+    private final LeaderboardManager leaderboardManager;
 
     public NexusPapiExpansion(RPGNexusCore plugin) {
         this.plugin = plugin;
         this.dataManager = plugin.getCoreManager().getDataManager();
+        this.leaderboardManager = plugin.getCoreManager().getLeaderboardManager();
     }
 
     @Override // PAPI가 로드될 때 호출
@@ -49,11 +54,21 @@ public class NexusPapiExpansion extends PlaceholderExpansion {
 
     @Override
     public @Nullable String onRequest(OfflinePlayer player, @NotNull String params) {
+        // 순위표: 요청한 플레이어와 무관 (홀로그램 등에서 player 없이 호출됨)
+        if (params.startsWith("top_"))
+            return topPlaceholder(params.substring(4));
+
         if (player == null)
             return null;
 
-        NexusProfile profile = dataManager.getProfile(player.getUniqueId());
-        // 오프라인 플레이어 지원의 경우 dataManager에서 로드 로직 필요하나, 우선 온라인 캐시 기준
+        if (params.startsWith("rank_")) {
+            // rank_combat-ability -> 공동 순위, 순위에 없으면 -
+            int rank = leaderboardManager.getRank(params.substring(5), player.getUniqueId());
+            return rank > 0 ? String.valueOf(rank) : "-";
+        }
+
+        // 오프라인 플레이어는 읽기 전용 캐시에서 조회 (처음 한 번은 로드를 시작하고 Loading...)
+        NexusProfile profile = dataManager.getProfileOrCached(player.getUniqueId());
         if (profile == null)
             return "Loading...";
 
@@ -77,4 +92,36 @@ public class NexusPapiExpansion extends PlaceholderExpansion {
 
         return null;
     }
+
+    /**
+     * top_<스탯>_<순위>_name / top_<스탯>_<순위>_value (스탯 이름에 _가 있어도 되도록 뒤에서부터 자름)
+     */
+    private String topPlaceholder(String params) {
+        int fieldAt = params.lastIndexOf('_');
+        int positionAt = fieldAt > 0 ? params.lastIndexOf('_', fieldAt - 1) : -1;
+        if (positionAt <= 0)
+            return null;
+        String attribute = params.substring(0, positionAt);
+        if (!leaderboardManager.isTracked(attribute))
+            return null;
+        int position;
+        try {
+            position = Integer.parseInt(params.substring(positionAt + 1, fieldAt));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        RankTree.Entry entry = leaderboardManager.getEntry(attribute, position);
+        String field = params.substring(fieldAt + 1);
+        if (field.equalsIgnoreCase("name"))
+            return entry != null && entry.getName() != null ? entry.getName() : "-";
+        if (field.equalsIgnoreCase("value")) {
+            if (entry == null)
+                return "-";
+            double value = entry.getValue();
+            return value == Math.rint(value) && !Double.isInfinite(value) ? String.valueOf((long) value)
+                    : String.format("%.1f", value);
+        }
+        return null;
+    }
 }
@@ -15,5 +15,6 @@ public class AttributeDefinition {
     private final String path; // Config Path (예: Battle-Status.Combat-Ability)
     private final String displayName; // 표시 이름
     private final double defaultValue; // 기본값
+    private final AttributeKey attributeKey; // 프로필 스탯 배열 인덱스 핸들
 
 }
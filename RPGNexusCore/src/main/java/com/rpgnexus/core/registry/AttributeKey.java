@@ -0,0 +1,103 @@
+package com.rpgnexus.core.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 속성(스탯) 이름의 인턴된 핸들입니다. 이름마다 전역 순번(ordinal)이 하나씩 부여되며,
+ * NexusProfile은 이 순번을 인덱스로 하는 double[]에 스탯을 저장합니다.
+ *
+ * 순번은 프로세스가 살아있는 동안 바뀌지 않으므로 (리로드로 속성이 사라져도 유지)
+ * 자주 호출하는 쪽은 AttributeKey를 한 번 구해 상수처럼 재사용하면 문자열 조회를 건너뜁니다.
+ * 이름은 AttributeRegistry와 같이 대소문자를 구분하지 않습니다.
+ *
+ * 순번은 한 번 부여되면 회수되지 않고 모든 프로필의 배열 크기를 늘리므로, of()는 설정/코드에 등장하는 이름
+ * (AttributeRegistry, 수식 변수, 리더보드 등)에만 사용합니다. 저장된 프로필처럼 외부에서 들어온 이름은
+ * find()로 조회하고, 없으면 순번 없이 다룹니다 (NexusProfile의 등록되지 않은 스탯 맵).
+ */
+public final class AttributeKey {
+
+    // 입력된 철자 그대로 -> 키 (소문자 변환 없이 바로 찾기 위함), 소문자 -> 키
+    private static final Map<String, AttributeKey> BY_SPELLING = new ConcurrentHashMap<>();
+    private static final Map<String, AttributeKey> BY_LOOKUP = new ConcurrentHashMap<>();
+    private static final List<AttributeKey> BY_ORDINAL = new ArrayList<>();
+
+    private final String name;
+    private final String lookupKey;
+    private final int ordinal;
+
+    private AttributeKey(String name, String lookupKey, int ordinal) {
+        this.name = name;
+        this.lookupKey = lookupKey;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * 이름을 등록하고 키를 반환합니다. 처음 보는 이름이면 새 순번을 부여합니다.
+     * 설정/코드에서 정의한 이름에만 사용하세요 (저장 데이터의 이름은 find).
+     */
+    public static AttributeKey of(String name) {
+        AttributeKey key = BY_SPELLING.get(name);
+        if (key != null)
+            return key;
+        key = BY_LOOKUP.computeIfAbsent(name.toLowerCase(), lookup -> {
+            synchronized (BY_ORDINAL) {
+                AttributeKey created = new AttributeKey(name, lookup, BY_ORDINAL.size());
+                BY_ORDINAL.add(created);
+                return created;
+            }
+        });
+        BY_SPELLING.putIfAbsent(name, key);
+        return key;
+    }
+
+    /**
+     * 이미 순번이 부여된 키를 찾습니다.
+     *
+     * @return 키, 한 번도 사용되지 않은 이름이면 null
+     */
+    public static AttributeKey find(String name) {
+        AttributeKey key = BY_SPELLING.get(name);
+        return key != null ? key : BY_LOOKUP.get(name.toLowerCase());
+    }
+
+    public static AttributeKey byOrdinal(int ordinal) {
+        synchronized (BY_ORDINAL) {
+            return BY_ORDINAL.get(ordinal);
+        }
+    }
+
+    /**
+     * 지금까지 부여된 순번 수 (= 다음 순번).
+     */
+    public static int count() {
+        synchronized (BY_ORDINAL) {
+            return BY_ORDINAL.size();
+        }
+    }
+
+    /**
+     * 처음 등록된 철자 그대로의 이름 (JSON 저장 시 사용).
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 소문자 조회 키 (AttributeRegistry/AttributeDefinition의 key).
+     */
+    public String getLookupKey() {
+        return lookupKey;
+    }
+
+    public int ordinal() {
+        return ordinal;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -9,10 +9,18 @@ import java.util.Map;
  * 속성(Attribute) 등록소입니다.
  * attributes.yml (AttributeConfig) 데이터를 기반으로 속성을 메모리에 등록합니다.
  * 이제 재귀적으로 파싱하여 임의의 깊이와 구조를 지원합니다.
+ *
+ * 등록된 속성마다 AttributeKey 순번을 부여하고, 순번 -> 등록 여부 배열로 검증합니다.
+ * 로드가 끝나면 활성 레지스트리로 공개되어 NexusProfile이 플러그인 인스턴스를 거치지 않고 검증에 사용합니다.
  */
 public class AttributeRegistry {
 
-    private final Map<String, AttributeDefinition> attributes = new HashMap<>();
+    // 마지막으로 로드를 마친 레지스트리 (없으면 검증하지 않음)
+    private static volatile AttributeRegistry active;
+
+    // 리로드 시 새 객체로 통째로 교체 (비동기 스레드에서도 읽음)
+    private volatile Map<String, AttributeDefinition> attributes = new HashMap<>();
+    private volatile boolean[] registered = new boolean[0]; // AttributeKey 순번 -> 등록 여부
     private final RPGNexusCore plugin;
     private final AttributeConfig attributeConfig;
 
@@ -25,21 +33,37 @@ public class AttributeRegistry {
      * Config에서 속성 정의를 로드합니다.
      */
     public void loadAttributes() {
-        attributes.clear();
+        Map<String, AttributeDefinition> loaded = new HashMap<>();
 
         if (attributeConfig == null || attributeConfig.getPlayerStatusData() == null) {
             plugin.getLogger().warning("속성 설정이 비어있습니다.");
-            return;
+        } else {
+            // Start recursive parsing from root
+            parseRecursive(loaded, attributeConfig.getPlayerStatusData(), "");
+            plugin.getLogger().info("총 " + loaded.size() + "개의 속성이 로드되었습니다.");
         }
 
-        // Start recursive parsing from root
-        parseRecursive(attributeConfig.getPlayerStatusData(), "");
+        boolean[] mask = new boolean[AttributeKey.count()];
+        for (AttributeDefinition definition : loaded.values())
+            mask[definition.getAttributeKey().ordinal()] = true;
+
+        this.attributes = loaded;
+        this.registered = mask;
+        active = this;
+    }
 
-        plugin.getLogger().info("총 " + attributes.size() + "개의 속성이 로드되었습니다.");
+    /**
+     * 마지막으로 로드된 레지스트리를 반환합니다.
+     *
+     * @return 레지스트리, 아직 로드되지 않았거나 서버 밖(벤치마크 등)이면 null
+     */
+    public static AttributeRegistry getActive() {
+        return active;
     }
 
     @SuppressWarnings("unchecked")
-    private void parseRecursive(Map<String, Object> currentMap, String parentPath) {
+    private void parseRecursive(Map<String, AttributeDefinition> attributes, Map<String, Object> currentMap,
+            String parentPath) {
         for (Map.Entry<String, Object> entry : currentMap.entrySet()) {
             String key = entry.getKey();
             Object value = entry.getValue();
@@ -54,10 +78,10 @@ public class AttributeRegistry {
                 // We check for specific keys that define an attribute.
                 // User said: display-name, default, status-value
                 if (isAttributeDefinition(childMap)) {
-                    registerAttribute(key, currentPath, childMap);
+                    registerAttribute(attributes, key, currentPath, childMap);
                 } else {
                     // It's a directory/category, recurse deeper
-                    parseRecursive(childMap, currentPath);
+                    parseRecursive(attributes, childMap, currentPath);
                 }
             } else {
                 // Unexpected structure or scalar value where map expected, ignore
@@ -70,14 +94,16 @@ public class AttributeRegistry {
         return map.containsKey("default") || map.containsKey("status-value") || map.containsKey("display-name");
     }
 
-    private void registerAttribute(String key, String path, Map<String, Object> data) {
+    private void registerAttribute(Map<String, AttributeDefinition> attributes, String key, String path,
+            Map<String, Object> data) {
         String internalKey = key; // Keep case sensitive or not? Usually keys are case-insensitive in lookup
 
         // For consistency with previous logic, let's lowercase internal keys but keep
         // display names
         // But if user wants arbitrary keys, maybe case sensitivity matters?
         // Let's stick to lowercasing for internal lookup to avoid confusion.
-        String lookupKey = internalKey.toLowerCase();
+        AttributeKey attributeKey = AttributeKey.of(internalKey);
+        String lookupKey = attributeKey.getLookupKey();
 
         if (attributes.containsKey(lookupKey)) {
             plugin.getLogger().warning("중복된 속성 키 감지: " + lookupKey + " (" + path + ")");
@@ -91,7 +117,7 @@ public class AttributeRegistry {
             defaultValue = ((Number) defaultObj).doubleValue();
         }
 
-        AttributeDefinition def = new AttributeDefinition(lookupKey, path, displayName, defaultValue);
+        AttributeDefinition def = new AttributeDefinition(lookupKey, path, displayName, defaultValue, attributeKey);
         attributes.put(lookupKey, def);
 
         // Debug logging (optional)
@@ -102,6 +128,14 @@ public class AttributeRegistry {
         return attributes.containsKey(key.toLowerCase());
     }
 
+    /**
+     * 순번 배열 조회만 하므로 문자열 버전보다 빠릅니다.
+     */
+    public boolean isValid(AttributeKey key) {
+        boolean[] mask = registered;
+        return key.ordinal() < mask.length && mask[key.ordinal()];
+    }
+
     public AttributeDefinition getAttribute(String key) {
         return attributes.get(key.toLowerCase());
     }
@@ -0,0 +1,531 @@
+package com.rpgnexus.core.script;
+
+import com.rpgnexus.core.script.FormulaParser.BinaryOpNode;
+import com.rpgnexus.core.script.FormulaParser.ConstantNode;
+import com.rpgnexus.core.script.FormulaParser.FunctionNode;
+import com.rpgnexus.core.script.FormulaParser.Node;
+import com.rpgnexus.core.script.FormulaParser.VariableNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 파싱 직후, 컴파일/캐싱 전에 수식 시스템(Definitions -> Tools -> Calculate)을 최적화합니다.
+ *
+ * 1. 상수 폴딩 + 상수 전파: base_exp_req: "100" 이후의 base_exp_req 참조는 100으로 치환됩니다.
+ * 2. 죽은 분기 제거: 조건이 상수인 if(...)와 좌변이 상수인 OR은 실행될 쪽만 남깁니다.
+ * 3. 공통 부분식 제거: 시스템 전체에서 두 번 이상 등장하는 동일한 부분식은
+ *    임시 변수($cseN) 스텝으로 한 번만 계산합니다.
+ *
+ * 평가 결과는 인터프리터와 동일해야 하므로 random()이 포함된 식, 인자 수 오류로 예외가 날 수 있는 식은
+ * 폴딩/공유하지 않습니다.
+ *
+ * 인스턴스에 상태가 없으므로 여러 스레드가 하나의 인스턴스를 공유해도 됩니다.
+ */
+public class FormulaOptimizer {
+
+    public static final String TEMP_PREFIX = "$cse";
+
+    // 이 크기(노드 수) 이상인 부분식만 임시 변수로 끌어올림
+    private static final int MIN_SHARED_SIZE = 3;
+    private static final int MAX_HOIST_ROUNDS = 64;
+
+    /**
+     * 변수 하나에 대한 할당 (또는 결과) 수식.
+     */
+    public static class Entry {
+        private final String name;
+        private final String label;
+        private Node node;
+        private boolean temporary;
+
+        /**
+         * @param name  값을 쓸 변수 이름
+         * @param label 리포트에 표시할 이름 (예: Tools.pvp_step_base_damage)
+         * @param node  파싱된 수식 (파싱 실패 시 null)
+         */
+        public Entry(String name, String label, Node node) {
+            this.name = name;
+            this.label = label;
+            this.node = node;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public Node getNode() {
+            return node;
+        }
+
+        /**
+         * 공통 부분식을 끌어올린 임시 변수 스텝인지 여부.
+         */
+        public boolean isTemporary() {
+            return temporary;
+        }
+    }
+
+    /**
+     * 최적화 결과.
+     */
+    public static class Result {
+        private final List<Entry> steps;
+        private final List<Entry> results;
+        private final Map<String, int[]> nodeCounts; // label -> {before, after}
+        private final int hoisted;
+
+        private Result(List<Entry> steps, List<Entry> results, Map<String, int[]> nodeCounts, int hoisted) {
+            this.steps = steps;
+            this.results = results;
+            this.nodeCounts = nodeCounts;
+            this.hoisted = hoisted;
+        }
+
+        /**
+         * 실행 순서대로의 할당 스텝 (끌어올린 임시 변수 스텝 포함).
+         */
+        public List<Entry> getSteps() {
+            return steps;
+        }
+
+        public List<Entry> getResults() {
+            return results;
+        }
+
+        /**
+         * 수식별 노드 수 (before, after). 임시 변수 스텝은 포함하지 않습니다.
+         */
+        public Map<String, int[]> getNodeCounts() {
+            return nodeCounts;
+        }
+
+        /**
+         * 임시 변수로 끌어올린 공통 부분식 개수.
+         */
+        public int getHoisted() {
+            return hoisted;
+        }
+
+        /**
+         * 시스템 전체에서 제거된 노드 수 (임시 변수 스텝의 노드는 다시 더함).
+         */
+        public int getRemovedNodes() {
+            int removed = 0;
+            for (int[] count : nodeCounts.values())
+                removed += count[0] - count[1];
+            for (Entry step : steps) {
+                if (step.temporary)
+                    removed -= size(step.node);
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * 수식 시스템을 최적화합니다. 입력 Entry의 노드는 변경되지 않습니다.
+     *
+     * @param steps            실행 순서대로의 할당 (Definitions, Tools)
+     * @param results          스텝 이후 평가되는 결과 수식 (Calculate)
+     * @param exclusiveResults 결과 수식 중 하나만 평가되는지 여부 (Damage-System의 모드별 Final_Damage)
+     */
+    public Result optimize(List<Entry> steps, List<Entry> results, boolean exclusiveResults) {
+        Map<String, int[]> nodeCounts = new LinkedHashMap<>();
+        Map<String, Double> constants = new HashMap<>();
+
+        // 1 + 2. 상수 폴딩/전파, 죽은 분기 제거 (실행 순서대로)
+        List<Entry> newSteps = new ArrayList<>();
+        for (Entry step : steps) {
+            Node folded = step.node != null ? fold(step.node, constants) : null;
+            if (folded instanceof ConstantNode)
+                constants.put(step.name, ((ConstantNode) folded).getValue());
+            else
+                constants.remove(step.name);
+            newSteps.add(new Entry(step.name, step.label, folded));
+        }
+        List<Entry> newResults = new ArrayList<>();
+        for (Entry result : results) {
+            newResults.add(new Entry(result.name, result.label, result.node != null ? fold(result.node, constants) : null));
+        }
+
+        // 3. 공통 부분식 제거
+        Interner interner = new Interner();
+        for (Entry entry : newSteps)
+            entry.node = interner.intern(entry.node);
+        for (Entry entry : newResults)
+            entry.node = interner.intern(entry.node);
+        int hoisted = hoistCommonSubexpressions(newSteps, newResults, exclusiveResults, interner);
+
+        int index = 0;
+        for (Entry step : newSteps) {
+            if (!step.temporary)
+                nodeCounts.put(step.label, new int[] { size(steps.get(index++).node), size(step.node) });
+        }
+        for (int i = 0; i < results.size(); i++) {
+            nodeCounts.put(results.get(i).label, new int[] { size(results.get(i).node), size(newResults.get(i).node) });
+        }
+
+        return new Result(newSteps, newResults, nodeCounts, hoisted);
+    }
+
+    /**
+     * 단일 수식에 상수 폴딩과 죽은 분기 제거만 적용합니다. (임시 변수 스텝을 둘 수 없는 독립 수식용)
+     */
+    public Node optimize(Node root) {
+        return fold(root, Collections.emptyMap());
+    }
+
+    /**
+     * 최적화 없이 입력을 그대로 담은 결과를 생성합니다.
+     */
+    public static Result unoptimized(List<Entry> steps, List<Entry> results) {
+        Map<String, int[]> nodeCounts = new LinkedHashMap<>();
+        for (Entry step : steps)
+            nodeCounts.put(step.label, new int[] { size(step.node), size(step.node) });
+        for (Entry result : results)
+            nodeCounts.put(result.label, new int[] { size(result.node), size(result.node) });
+        return new Result(new ArrayList<>(steps), new ArrayList<>(results), nodeCounts, 0);
+    }
+
+    // --- Constant Folding / Dead Branch Pruning ---
+
+    private Node fold(Node node, Map<String, Double> constants) {
+        if (node instanceof VariableNode) {
+            Double value = constants.get(((VariableNode) node).getName());
+            return value != null ? new ConstantNode(value) : node;
+        }
+        if (node instanceof BinaryOpNode)
+            return foldBinary((BinaryOpNode) node, constants);
+        if (node instanceof FunctionNode)
+            return foldFunction((FunctionNode) node, constants);
+        return node;
+    }
+
+    private Node foldBinary(BinaryOpNode node, Map<String, Double> constants) {
+        Node left = fold(node.getLeft(), constants);
+        String op = node.getOp();
+
+        if (op.equals("OR") && left instanceof ConstantNode) {
+            // 좌변이 상수면 결과가 정해짐 (l != 0 ? l : r)
+            return ((ConstantNode) left).getValue() != 0.0 ? left : fold(node.getRight(), constants);
+        }
+
+        Node right = fold(node.getRight(), constants);
+        Node rebuilt = left == node.getLeft() && right == node.getRight() ? node : new BinaryOpNode(left, op, right);
+
+        if (left instanceof ConstantNode && right instanceof ConstantNode)
+            return evaluateConstant(rebuilt);
+
+        // 결과가 비트 단위로 동일한 항등식만 적용 (x + 0 은 -0.0 때문에 제외)
+        if (right instanceof ConstantNode) {
+            double r = ((ConstantNode) right).getValue();
+            if ((op.equals("*") || op.equals("/")) && r == 1.0)
+                return left;
+            if (op.equals("-") && Double.doubleToRawLongBits(r) == 0L)
+                return left;
+        }
+        if (left instanceof ConstantNode && op.equals("*") && ((ConstantNode) left).getValue() == 1.0)
+            return right;
+
+        return rebuilt;
+    }
+
+    private Node foldFunction(FunctionNode node, Map<String, Double> constants) {
+        String funcName = node.getName().toLowerCase(Locale.ROOT);
+        List<Node> args = node.getArgs();
+
+        if (funcName.equals("if") && args.size() >= 3) {
+            Node condition = fold(args.get(0), constants);
+            if (condition instanceof ConstantNode) {
+                // 실행되지 않는 분기 제거
+                return fold(args.get(((ConstantNode) condition).getValue() != 0.0 ? 1 : 2), constants);
+            }
+        }
+
+        boolean changed = false;
+        boolean allConstant = true;
+        List<Node> folded = new ArrayList<>(args.size());
+        for (Node arg : args) {
+            Node f = fold(arg, constants);
+            changed |= f != arg;
+            allConstant &= f instanceof ConstantNode;
+            folded.add(f);
+        }
+        Node rebuilt = changed ? new FunctionNode(node.getName(), folded) : node;
+
+        if (funcName.equals("random"))
+            return rebuilt;
+        if (allConstant)
+            return evaluateConstant(rebuilt);
+        if (!funcName.equals("if") && !funcName.equals("max") && !funcName.equals("min") && isSafe(rebuilt)) {
+            // 알 수 없는 함수는 인자를 평가한 뒤 항상 0
+            return new ConstantNode(0);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * 상수 노드만으로 이루어진 식을 인터프리터로 평가합니다. 예외가 나면 (인자 수 오류 등) 그대로 둡니다.
+     */
+    private Node evaluateConstant(Node node) {
+        try {
+            return new ConstantNode(node.evaluate(Collections.emptyMap()));
+        } catch (RuntimeException e) {
+            return node;
+        }
+    }
+
+    // --- Common Subexpression Elimination ---
+
+    private int hoistCommonSubexpressions(List<Entry> steps, List<Entry> results, boolean exclusiveResults,
+            Interner interner) {
+        int hoisted = 0;
+        for (int round = 0; round < MAX_HOIST_ROUNDS; round++) {
+            Candidate best = findCandidate(steps, results, exclusiveResults);
+            if (best == null)
+                break;
+
+            String temp = TEMP_PREFIX + hoisted++;
+            Node replacement = interner.intern(new VariableNode(temp));
+            for (Entry entry : steps)
+                entry.node = replace(entry.node, best.node, replacement, interner);
+            for (Entry entry : results)
+                entry.node = replace(entry.node, best.node, replacement, interner);
+            Entry step = new Entry(temp, temp, best.node);
+            step.temporary = true;
+            steps.add(best.insertAt, step);
+        }
+        return hoisted;
+    }
+
+    private Candidate findCandidate(List<Entry> steps, List<Entry> results, boolean exclusiveResults) {
+        // 부분식 -> 등장 위치 (스텝 인덱스, 결과는 steps.size() + i)
+        Map<Node, List<Integer>> occurrences = new IdentityHashMap<>();
+        for (int i = 0; i < steps.size(); i++)
+            collect(steps.get(i).node, i, occurrences);
+        for (int i = 0; i < results.size(); i++)
+            collect(results.get(i).node, steps.size() + i, occurrences);
+
+        Candidate best = null;
+        for (Map.Entry<Node, List<Integer>> entry : occurrences.entrySet()) {
+            List<Integer> positions = entry.getValue();
+            Node node = entry.getKey();
+            if (positions.size() < 2 || !isSafe(node) || !isPure(node))
+                continue;
+            int nodeSize = size(node);
+            if (nodeSize < MIN_SHARED_SIZE)
+                continue;
+
+            int first = positions.get(0);
+            int last = positions.get(positions.size() - 1);
+            if (exclusiveResults && first >= steps.size()) {
+                // 서로 다른 모드의 Final_Damage에만 등장 -> 한 번의 계산에서 한 번만 쓰임
+                Set<Integer> distinct = new HashSet<>(positions);
+                if (distinct.size() > 1)
+                    continue;
+            }
+
+            // 첫 등장 이전에 계산해도 값이 같아야 함: 사이에서 참조 변수가 다시 할당되면 안 됨
+            Set<String> variables = new HashSet<>();
+            variables(node, variables);
+            int end = Math.min(last, steps.size());
+            boolean stable = true;
+            for (int i = Math.min(first, steps.size()); i < end && stable; i++) {
+                if (variables.contains(steps.get(i).name))
+                    stable = false;
+            }
+            if (!stable)
+                continue;
+
+            if (best == null || nodeSize > best.size)
+                best = new Candidate(node, Math.min(first, steps.size()), nodeSize);
+        }
+        return best;
+    }
+
+    private void collect(Node node, int position, Map<Node, List<Integer>> occurrences) {
+        if (node == null)
+            return;
+        if (node instanceof BinaryOpNode || node instanceof FunctionNode)
+            occurrences.computeIfAbsent(node, k -> new ArrayList<>()).add(position);
+        for (Node child : children(node))
+            collect(child, position, occurrences);
+    }
+
+    private Node replace(Node node, Node target, Node replacement, Interner interner) {
+        if (node == null)
+            return null;
+        if (node == target)
+            return replacement;
+        if (node instanceof BinaryOpNode) {
+            BinaryOpNode binary = (BinaryOpNode) node;
+            Node left = replace(binary.getLeft(), target, replacement, interner);
+            Node right = replace(binary.getRight(), target, replacement, interner);
+            if (left == binary.getLeft() && right == binary.getRight())
+                return node;
+            return interner.intern(new BinaryOpNode(left, binary.getOp(), right));
+        }
+        if (node instanceof FunctionNode) {
+            FunctionNode function = (FunctionNode) node;
+            boolean changed = false;
+            List<Node> args = new ArrayList<>(function.getArgs().size());
+            for (Node arg : function.getArgs()) {
+                Node r = replace(arg, target, replacement, interner);
+                changed |= r != arg;
+                args.add(r);
+            }
+            return changed ? interner.intern(new FunctionNode(function.getName(), args)) : node;
+        }
+        return node;
+    }
+
+    private static final class Candidate {
+        private final Node node;
+        private final int insertAt;
+        private final int size;
+
+        private Candidate(Node node, int insertAt, int size) {
+            this.node = node;
+            this.insertAt = insertAt;
+            this.size = size;
+        }
+    }
+
+    /**
+     * 구조적으로 동일한 노드를 하나의 인스턴스로 합칩니다 (hash-consing).
+     * random()을 포함한 노드는 호출마다 값이 다르므로 합치지 않습니다.
+     */
+    private static final class Interner {
+        private final Map<String, Node> table = new HashMap<>();
+        private final Map<Node, Integer> ids = new IdentityHashMap<>();
+
+        Node intern(Node node) {
+            if (node == null)
+                return null;
+            String key;
+            if (node instanceof ConstantNode) {
+                key = "C" + Double.doubleToRawLongBits(((ConstantNode) node).getValue());
+            } else if (node instanceof VariableNode) {
+                key = "V" + ((VariableNode) node).getName();
+            } else if (node instanceof BinaryOpNode) {
+                BinaryOpNode binary = (BinaryOpNode) node;
+                Node left = intern(binary.getLeft());
+                Node right = intern(binary.getRight());
+                if (left != binary.getLeft() || right != binary.getRight())
+                    node = new BinaryOpNode(left, binary.getOp(), right);
+                key = "B" + binary.getOp() + "(" + id(left) + "," + id(right) + ")";
+            } else if (node instanceof FunctionNode) {
+                FunctionNode function = (FunctionNode) node;
+                boolean changed = false;
+                List<Node> args = new ArrayList<>(function.getArgs().size());
+                StringBuilder sb = new StringBuilder("F").append(function.getName().toLowerCase(Locale.ROOT)).append('(');
+                for (Node arg : function.getArgs()) {
+                    Node interned = intern(arg);
+                    changed |= interned != arg;
+                    args.add(interned);
+                    sb.append(id(interned)).append(',');
+                }
+                if (changed)
+                    node = new FunctionNode(function.getName(), args);
+                key = sb.append(')').toString();
+            } else {
+                return node;
+            }
+
+            if (!isPure(node)) {
+                id(node);
+                return node;
+            }
+            Node existing = table.putIfAbsent(key, node);
+            if (existing != null)
+                return existing;
+            id(node);
+            return node;
+        }
+
+        private int id(Node node) {
+            return ids.computeIfAbsent(node, k -> ids.size());
+        }
+    }
+
+    // --- Node Helpers ---
+
+    private static List<Node> children(Node node) {
+        if (node instanceof BinaryOpNode)
+            return List.of(((BinaryOpNode) node).getLeft(), ((BinaryOpNode) node).getRight());
+        if (node instanceof FunctionNode)
+            return ((FunctionNode) node).getArgs();
+        return Collections.emptyList();
+    }
+
+    /**
+     * 트리 크기 (공유 노드도 등장 횟수만큼 셈).
+     */
+    static int size(Node node) {
+        if (node == null)
+            return 0;
+        int size = 1;
+        for (Node child : children(node))
+            size += size(child);
+        return size;
+    }
+
+    /**
+     * random()을 포함하지 않는지 확인합니다.
+     */
+    private static boolean isPure(Node node) {
+        if (node instanceof FunctionNode && ((FunctionNode) node).getName().equalsIgnoreCase("random"))
+            return false;
+        for (Node child : children(node)) {
+            if (!isPure(child))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 평가 중 예외(함수 인자 수 오류)가 발생할 수 없는지 확인합니다.
+     */
+    private static boolean isSafe(Node node) {
+        if (node instanceof FunctionNode) {
+            FunctionNode function = (FunctionNode) node;
+            int size = function.getArgs().size();
+            switch (function.getName().toLowerCase(Locale.ROOT)) {
+                case "max":
+                case "min":
+                case "random":
+                    if (size < 2)
+                        return false;
+                    break;
+                case "if":
+                    if (size < 3)
+                        return false;
+                    break;
+            }
+        }
+        for (Node child : children(node)) {
+            if (!isSafe(child))
+                return false;
+        }
+        return true;
+    }
+
+    private static void variables(Node node, Set<String> out) {
+        if (node instanceof VariableNode)
+            out.add(((VariableNode) node).getName());
+        for (Node child : children(node))
+            variables(child, out);
+    }
+}
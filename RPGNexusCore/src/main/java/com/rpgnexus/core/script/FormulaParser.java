@@ -22,6 +22,10 @@ public class FormulaParser {
             this.value = value;
         }
 
+        public double getValue() {
+            return value;
+        }
+
         @Override
         public double evaluate(Map<String, Double> context) {
             return value;
@@ -35,6 +39,10 @@ public class FormulaParser {
             this.name = name;
         }
 
+        public String getName() {
+            return name;
+        }
+
         @Override
         public double evaluate(Map<String, Double> context) {
             return context.getOrDefault(name, 0.0);
@@ -51,6 +59,18 @@ public class FormulaParser {
             this.right = right;
         }
 
+        public Node getLeft() {
+            return left;
+        }
+
+        public String getOp() {
+            return op;
+        }
+
+        public Node getRight() {
+            return right;
+        }
+
         @Override
         public double evaluate(Map<String, Double> context) {
             double l = left.evaluate(context);
@@ -98,6 +118,14 @@ public class FormulaParser {
             this.args = args;
         }
 
+        public String getName() {
+            return name;
+        }
+
+        public List<Node> getArgs() {
+            return args;
+        }
+
         @Override
         public double evaluate(Map<String, Double> context) {
             String funcName = name.toLowerCase();
@@ -147,12 +175,24 @@ public class FormulaParser {
     }
 
     // --- Parser State ---
-    private String expression;
+    // 파싱 상태는 parse() 호출마다 만드는 별도 인스턴스에만 존재하므로,
+    // 공유된 FormulaParser는 여러 스레드에서 동시에 parse()를 호출해도 안전합니다.
+    private final String expression;
     private int pos = -1, ch;
 
-    public Node parse(String expression) {
+    public FormulaParser() {
+        this(null);
+    }
+
+    private FormulaParser(String expression) {
         this.expression = expression;
-        this.pos = -1;
+    }
+
+    public Node parse(String expression) {
+        return new FormulaParser(expression).parseRoot();
+    }
+
+    private Node parseRoot() {
         nextChar();
         Node root = parseExpression();
         if (pos < expression.length())
@@ -190,7 +230,7 @@ public class FormulaParser {
     private Node parseLogicalOr() {
         Node x = parseEquality();
         for (;;) {
-            if (eatString(" OR ")) // Case-insensitive handling might be needed but assuming strict for now
+            if (eatWord("OR")) // Case-insensitive handling might be needed but assuming strict for now
                 x = new BinaryOpNode(x, "OR", parseEquality());
             else
                 return x;
@@ -292,6 +332,28 @@ public class FormulaParser {
         return x;
     }
 
+    /**
+     * 앞뒤가 공백으로 구분된 키워드를 읽습니다. (예: "a OR b")
+     * 앞선 eat()가 실패하면서 공백을 이미 소비했을 수 있으므로, 공백을 건너뛴 뒤 직전 문자로 구분 여부를 확인합니다.
+     */
+    private boolean eatWord(String word) {
+        int savedPos = pos;
+        int savedCh = ch;
+        while (ch == ' ')
+            nextChar();
+
+        boolean separated = pos > 0 && expression.charAt(pos - 1) == ' ';
+        if (separated && expression.startsWith(word, pos) && pos + word.length() < expression.length()
+                && expression.charAt(pos + word.length()) == ' ') {
+            for (int i = 0; i < word.length(); i++)
+                nextChar();
+            return true;
+        }
+        pos = savedPos;
+        ch = savedCh;
+        return false;
+    }
+
     private boolean eatString(String s) {
         int savedPos = pos;
         int savedCh = ch;
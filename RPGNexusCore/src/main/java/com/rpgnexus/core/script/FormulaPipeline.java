@@ -0,0 +1,223 @@
+package com.rpgnexus.core.script;
+
+import com.rpgnexus.core.script.FormulaParser.BinaryOpNode;
+import com.rpgnexus.core.script.FormulaParser.ConstantNode;
+import com.rpgnexus.core.script.FormulaParser.FunctionNode;
+import com.rpgnexus.core.script.FormulaParser.Node;
+import com.rpgnexus.core.script.FormulaParser.VariableNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Definitions -> Tools 할당 목록을 결과 수식(Final_Damage 등) 하나를 위한 프로그램으로 정렬합니다.
+ *
+ * - 결과 수식이 (간접적으로) 참조하는 스텝만 남깁니다.
+ * - 선언 순서가 아닌 의존성 순서로 정렬하므로 뒤에 선언된 변수를 먼저 참조해도 됩니다.
+ * - 순환 참조는 경고로 보고하고, 순환을 닫는 참조는 프레임 초기값(0 또는 Java에서 넘긴 값)을 읽습니다.
+ *
+ * 같은 이름이 여러 번 할당되면 (Definitions와 Tools 양쪽 등) 각 할당을 name@index 로 구분합니다.
+ * 스텝 안의 참조는 그 스텝보다 앞선 마지막 할당을, 없으면 가장 마지막 할당을 가리키며,
+ * 이름의 첫 할당이 자기 자신을 참조하는 경우(x: "x * 2")에는 프레임 초기값을 읽습니다.
+ */
+public class FormulaPipeline {
+
+    private static final String VERSION_SEPARATOR = "@";
+    private static final int INPUT = -1;
+
+    /**
+     * 정렬된 프로그램.
+     */
+    public static class Schedule {
+        private final List<FormulaOptimizer.Entry> steps;
+        private final FormulaOptimizer.Entry result;
+        private final List<String> cycles;
+
+        private Schedule(List<FormulaOptimizer.Entry> steps, FormulaOptimizer.Entry result, List<String> cycles) {
+            this.steps = steps;
+            this.result = result;
+            this.cycles = cycles;
+        }
+
+        /**
+         * 결과 계산에 필요한 스텝 (실행 순서).
+         */
+        public List<FormulaOptimizer.Entry> getSteps() {
+            return steps;
+        }
+
+        public FormulaOptimizer.Entry getResult() {
+            return result;
+        }
+
+        /**
+         * 발견된 순환 참조 (예: "a -> b -> a").
+         */
+        public List<String> getCycles() {
+            return cycles;
+        }
+    }
+
+    /**
+     * @param steps  선언 순서대로의 할당 (노드가 null이면 0.0으로 취급)
+     * @param result 결과 수식
+     */
+    public Schedule schedule(List<FormulaOptimizer.Entry> steps, FormulaOptimizer.Entry result) {
+        int count = steps.size();
+        Node[] nodes = new Node[count];
+        Map<String, List<Integer>> assignments = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Node node = steps.get(i).getNode();
+            nodes[i] = node != null ? node : new ConstantNode(0.0);
+            assignments.computeIfAbsent(steps.get(i).getName(), k -> new ArrayList<>()).add(i);
+        }
+
+        // 1. 참조 해석: 스텝별 변수 이름 -> 스텝 인덱스 (INPUT이면 프레임 초기값)
+        List<Map<String, Integer>> references = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Integer> resolved = new LinkedHashMap<>();
+            for (String name : variables(nodes[i]))
+                resolved.put(name, resolve(assignments.get(name), i));
+            references.add(resolved);
+        }
+        Map<String, Integer> resultReferences = new LinkedHashMap<>();
+        for (String name : variables(result.getNode())) {
+            List<Integer> assigned = assignments.get(name);
+            resultReferences.put(name, assigned != null ? assigned.get(assigned.size() - 1) : INPUT);
+        }
+
+        // 2. 결과에서 출발하는 깊이 우선 탐색 (후위 순서 = 실행 순서)
+        List<Integer> order = new ArrayList<>();
+        List<String> cycles = new ArrayList<>();
+        int[] state = new int[count]; // 0: 미방문, 1: 방문 중, 2: 완료
+        List<Integer> path = new ArrayList<>();
+        for (int target : resultReferences.values()) {
+            if (target != INPUT)
+                visit(target, steps, references, state, path, order, cycles);
+        }
+
+        // 3. 프레임 초기값을 읽는 이름과 여러 번 할당되는 이름은 스텝마다 별도 슬롯을 사용
+        Set<String> renamed = new HashSet<>();
+        for (Map.Entry<String, List<Integer>> entry : assignments.entrySet()) {
+            if (entry.getValue().size() > 1)
+                renamed.add(entry.getKey());
+        }
+        for (int i : order) {
+            for (Map.Entry<String, Integer> reference : references.get(i).entrySet()) {
+                if (reference.getValue() == INPUT && assignments.containsKey(reference.getKey()))
+                    renamed.add(reference.getKey());
+            }
+        }
+
+        List<FormulaOptimizer.Entry> scheduled = new ArrayList<>(order.size());
+        for (int i : order) {
+            FormulaOptimizer.Entry step = steps.get(i);
+            scheduled.add(new FormulaOptimizer.Entry(target(steps, i, renamed), step.getLabel(),
+                    rewrite(nodes[i], references.get(i), steps, renamed)));
+        }
+        FormulaOptimizer.Entry rewrittenResult = new FormulaOptimizer.Entry(result.getName(), result.getLabel(),
+                rewrite(result.getNode(), resultReferences, steps, renamed));
+        return new Schedule(scheduled, rewrittenResult, cycles);
+    }
+
+    private int resolve(List<Integer> assigned, int step) {
+        if (assigned == null)
+            return INPUT;
+        int previous = INPUT;
+        for (int index : assigned) {
+            if (index < step)
+                previous = index;
+        }
+        if (previous != INPUT || assigned.contains(step))
+            return previous; // 자기 자신을 처음 할당하는 스텝이면 프레임 초기값
+        return assigned.get(assigned.size() - 1);
+    }
+
+    private void visit(int step, List<FormulaOptimizer.Entry> steps, List<Map<String, Integer>> references,
+            int[] state, List<Integer> path, List<Integer> order, List<String> cycles) {
+        if (state[step] == 2)
+            return;
+        state[step] = 1;
+        path.add(step);
+        for (Map.Entry<String, Integer> reference : references.get(step).entrySet()) {
+            int target = reference.getValue();
+            if (target == INPUT)
+                continue;
+            if (state[target] == 1) {
+                // 순환을 닫는 참조는 프레임 초기값을 읽도록 끊음
+                StringBuilder cycle = new StringBuilder();
+                for (int i = path.indexOf(target); i < path.size(); i++)
+                    cycle.append(steps.get(path.get(i)).getLabel()).append(" -> ");
+                cycles.add(cycle.append(steps.get(target).getLabel()).toString());
+                reference.setValue(INPUT);
+                continue;
+            }
+            visit(target, steps, references, state, path, order, cycles);
+        }
+        path.remove(path.size() - 1);
+        state[step] = 2;
+        order.add(step);
+    }
+
+    private String target(List<FormulaOptimizer.Entry> steps, int step, Set<String> renamed) {
+        String name = steps.get(step).getName();
+        return renamed.contains(name) ? name + VERSION_SEPARATOR + step : name;
+    }
+
+    private Node rewrite(Node node, Map<String, Integer> references, List<FormulaOptimizer.Entry> steps,
+            Set<String> renamed) {
+        if (node instanceof VariableNode) {
+            String name = ((VariableNode) node).getName();
+            Integer target = references.get(name);
+            if (target == null || target == INPUT || !renamed.contains(name))
+                return node;
+            return new VariableNode(target(steps, target, renamed));
+        }
+        if (node instanceof BinaryOpNode) {
+            BinaryOpNode binary = (BinaryOpNode) node;
+            Node left = rewrite(binary.getLeft(), references, steps, renamed);
+            Node right = rewrite(binary.getRight(), references, steps, renamed);
+            return left == binary.getLeft() && right == binary.getRight() ? node
+                    : new BinaryOpNode(left, binary.getOp(), right);
+        }
+        if (node instanceof FunctionNode) {
+            FunctionNode function = (FunctionNode) node;
+            boolean changed = false;
+            List<Node> args = new ArrayList<>(function.getArgs().size());
+            for (Node arg : function.getArgs()) {
+                Node rewritten = rewrite(arg, references, steps, renamed);
+                changed |= rewritten != arg;
+                args.add(rewritten);
+            }
+            return changed ? new FunctionNode(function.getName(), args) : node;
+        }
+        return node;
+    }
+
+    /**
+     * 수식이 참조하는 변수 이름 (등장 순서).
+     */
+    public static Set<String> variables(Node node) {
+        Set<String> out = new LinkedHashSet<>();
+        collect(node, out);
+        return out;
+    }
+
+    private static void collect(Node node, Set<String> out) {
+        if (node instanceof VariableNode) {
+            out.add(((VariableNode) node).getName());
+        } else if (node instanceof BinaryOpNode) {
+            collect(((BinaryOpNode) node).getLeft(), out);
+            collect(((BinaryOpNode) node).getRight(), out);
+        } else if (node instanceof FunctionNode) {
+            for (Node arg : ((FunctionNode) node).getArgs())
+                collect(arg, out);
+        }
+    }
+}
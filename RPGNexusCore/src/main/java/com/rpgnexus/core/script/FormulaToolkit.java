@@ -0,0 +1,249 @@
+package com.rpgnexus.core.script;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.script.compiler.CompiledFormula;
+import com.rpgnexus.core.script.compiler.FormulaCompiler;
+import com.rpgnexus.core.script.compiler.InterpretedFormula;
+import com.rpgnexus.core.script.compiler.InterpretedProgram;
+import com.rpgnexus.core.script.compiler.SlotLayout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * 파서 -> 최적화 -> 컴파일러로 이어지는 수식 처리 도구 모음입니다.
+ * 플러그인/서버에 의존하지 않으므로 ScriptEngine 외에 벤치마크 등에서도 그대로 사용할 수 있습니다.
+ *
+ * 파서/최적화기/컴파일러는 상태가 없고 캐시는 락 없이 게시되므로, 비동기 스레드에서도 호출할 수 있습니다.
+ */
+public class FormulaToolkit {
+
+    private final FormulaParser parser = new FormulaParser();
+    private final FormulaCompiler compiler = new FormulaCompiler();
+    private final FormulaOptimizer optimizer = new FormulaOptimizer();
+    private final FormulaPipeline pipeline = new FormulaPipeline();
+    // 리로드 시 새 맵으로 교체 (진행 중이던 컴파일 결과는 이전 맵에 들어가 버려짐)
+    private volatile Map<String, Compiled> formulaCache = new ConcurrentHashMap<>();
+    // 시스템 이름 -> 최적화로 제거된 노드 수 (컴파일될 때마다 덮어씀)
+    private final Map<String, Integer> removedNodes = new ConcurrentHashMap<>();
+
+    private final Logger logger;
+    private final BooleanSupplier compilerEnabled;
+    private final BooleanSupplier optimizerEnabled;
+    private final Consumer<String> debug;
+
+    /**
+     * 컴파일러와 최적화기를 모두 사용하는 도구 모음을 생성합니다.
+     */
+    public FormulaToolkit(Logger logger) {
+        this(logger, () -> true, () -> true, logger::fine);
+    }
+
+    /**
+     * @param compilerEnabled  바이트코드 컴파일 여부 (false면 트리 인터프리터)
+     * @param optimizerEnabled 최적화 여부
+     * @param debug            디버그 메시지 출력
+     */
+    public FormulaToolkit(Logger logger, BooleanSupplier compilerEnabled, BooleanSupplier optimizerEnabled,
+            Consumer<String> debug) {
+        this.logger = logger;
+        this.compilerEnabled = compilerEnabled;
+        this.optimizerEnabled = optimizerEnabled;
+        this.debug = debug;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * 독립 수식 캐시를 비웁니다.
+     */
+    public void clearCache() {
+        formulaCache = new ConcurrentHashMap<>();
+    }
+
+    public boolean isCompilerEnabled() {
+        return compilerEnabled.getAsBoolean();
+    }
+
+    private boolean isOptimizerEnabled() {
+        return optimizerEnabled.getAsBoolean();
+    }
+
+    /**
+     * 수식을 계산합니다.
+     * 변수명 규칙:
+     * - attacker_Key / defender_Key : 각 프로필의 스탯
+     * - player-status#Key#$attacker$ / player-status#Key#$defender$
+     * 
+     * @param formula 수식 문자열 (예: "%attacker_str% * 2")
+     * @param caster  시전자 (attacker)
+     * @param target  대상 (defender)
+     * @return 계산 결과
+     */
+    public double calculate(String formula, NexusProfile caster, NexusProfile target) {
+        if (formula == null || formula.isEmpty())
+            return 0.0;
+
+        try {
+            // 1. 컴파일된 수식 가져오기 (캐시 확인)
+            // computeIfAbsent는 컴파일 동안 버킷을 잠그므로, 락 없이 조회 후 putIfAbsent로 게시
+            Map<String, Compiled> cache = formulaCache;
+            Compiled compiled = cache.get(formula);
+            if (compiled == null) {
+                compiled = compileStandalone(formula);
+                Compiled existing = cache.putIfAbsent(formula, compiled);
+                if (existing != null)
+                    compiled = existing;
+            }
+
+            // 2. 프레임 구성 (프로필 스탯 -> 슬롯)
+            double[] frame = compiled.layout.frame();
+            compiled.layout.load(frame, caster, target);
+
+            // 3. 평가
+            return compiled.formula.eval(frame);
+
+        } catch (Exception e) {
+            logger.warning("수식 계산 오류 [" + formula + "]: " + e.getMessage());
+            return 0.0;
+        }
+    }
+
+    /**
+     * 수식을 파싱하여 주어진 레이아웃에 바인딩/컴파일합니다.
+     * DamageCalculator, NormalSystemCalculator처럼 여러 수식이 하나의 프레임을 공유할 때 사용합니다.
+     *
+     * @throws RuntimeException 수식 파싱 실패 시
+     */
+    public CompiledFormula compile(String expression, SlotLayout layout) {
+        return compile(parse(expression), layout, expression);
+    }
+
+    /**
+     * 이미 파싱(최적화)된 수식을 레이아웃에 바인딩/컴파일합니다.
+     *
+     * @param label 디버그 로그에 표시할 이름
+     */
+    public CompiledFormula compile(FormulaParser.Node root, SlotLayout layout, String label) {
+        if (!isCompilerEnabled())
+            return compiler.interpret(root, layout);
+
+        CompiledFormula compiled = compiler.compile(root, layout);
+        if (compiled instanceof InterpretedFormula) {
+            debug.accept("수식 바이트코드 컴파일 실패, 인터프리터 사용: " + label);
+        }
+        return compiled;
+    }
+
+    /**
+     * 할당 스텝들과 결과 수식 하나를 의존성 순서로 정렬/최적화하여 하나의 프로그램으로 컴파일합니다.
+     * 결과 계산에 필요 없는 스텝은 제외되며, 순환 참조는 경고로 보고합니다.
+     *
+     * @param programName 로그/통계에 사용할 이름 (예: Damage-System/PVP)
+     * @param steps       선언 순서대로의 할당 (Definitions, Tools)
+     * @param result      결과 수식
+     * @param layout      프로그램이 사용할 슬롯 레이아웃
+     */
+    public CompiledFormula compileProgram(String programName, List<FormulaOptimizer.Entry> steps,
+            FormulaOptimizer.Entry result, SlotLayout layout) {
+        FormulaPipeline.Schedule schedule = pipeline.schedule(steps, result);
+        for (String cycle : schedule.getCycles())
+            logger.warning("수식 순환 참조 [" + programName + "]: " + cycle);
+
+        FormulaOptimizer.Result optimized = optimize(programName, schedule.getSteps(),
+                Collections.singletonList(schedule.getResult()), false);
+        List<String> targets = new ArrayList<>();
+        List<FormulaParser.Node> nodes = new ArrayList<>();
+        for (FormulaOptimizer.Entry step : optimized.getSteps()) {
+            targets.add(step.getName());
+            nodes.add(step.getNode());
+        }
+        FormulaParser.Node root = optimized.getResults().get(0).getNode();
+
+        if (!isCompilerEnabled())
+            return compiler.interpretProgram(targets, nodes, root, layout);
+
+        CompiledFormula compiled = compiler.compileProgram(targets, nodes, root, layout);
+        if (compiled instanceof InterpretedProgram) {
+            debug.accept("프로그램 바이트코드 컴파일 실패, 인터프리터 사용: " + programName);
+        }
+        return compiled;
+    }
+
+    /**
+     * @throws RuntimeException 수식 파싱 실패 시
+     */
+    public FormulaParser.Node parse(String expression) {
+        return parser.parse(expression);
+    }
+
+    /**
+     * 수식 시스템(Definitions -> Tools -> Calculate)을 최적화하고 수식별 제거 노드 수를 로그로 남깁니다.
+     * formulaOptimizer가 꺼져 있으면 입력을 그대로 반환합니다.
+     *
+     * @param systemName       로그/통계에 사용할 시스템 이름 (예: Damage-System)
+     * @param exclusiveResults 결과 수식 중 하나만 평가되는지 여부
+     */
+    public FormulaOptimizer.Result optimize(String systemName, List<FormulaOptimizer.Entry> steps,
+            List<FormulaOptimizer.Entry> results, boolean exclusiveResults) {
+        if (!isOptimizerEnabled()) {
+            removedNodes.remove(systemName);
+            return FormulaOptimizer.unoptimized(steps, results);
+        }
+
+        FormulaOptimizer.Result result = optimizer.optimize(steps, results, exclusiveResults);
+        for (Map.Entry<String, int[]> entry : result.getNodeCounts().entrySet()) {
+            int[] count = entry.getValue();
+            if (count[0] != count[1])
+                logger.info("[수식 최적화] " + systemName + " " + entry.getKey() + ": " + count[0] + " -> "
+                        + count[1] + " 노드");
+        }
+        int removed = result.getRemovedNodes();
+        if (removed != 0 || result.getHoisted() > 0)
+            logger.info("[수식 최적화] " + systemName + ": 노드 " + removed + "개 제거, 공통 부분식 "
+                    + result.getHoisted() + "개 공유");
+        removedNodes.put(systemName, removed);
+        return result;
+    }
+
+    /**
+     * 현재 컴파일된 시스템들에서 최적화로 제거된 노드 수의 합.
+     */
+    public int getRemovedNodeCount() {
+        int total = 0;
+        for (int removed : removedNodes.values())
+            total += removed;
+        return total;
+    }
+
+    private Compiled compileStandalone(String formula) {
+        SlotLayout layout = new SlotLayout(true);
+        FormulaParser.Node root = parse(formula);
+        if (isOptimizerEnabled())
+            root = optimizer.optimize(root);
+        CompiledFormula compiled = compile(root, layout, formula);
+        layout.freeze();
+        return new Compiled(layout, compiled);
+    }
+
+    /**
+     * 수식별 슬롯 레이아웃과 컴파일 결과.
+     */
+    private static final class Compiled {
+        private final SlotLayout layout;
+        private final CompiledFormula formula;
+
+        private Compiled(SlotLayout layout, CompiledFormula formula) {
+            this.layout = layout;
+            this.formula = formula;
+        }
+    }
+}
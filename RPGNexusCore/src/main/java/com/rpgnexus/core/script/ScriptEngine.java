@@ -3,89 +3,106 @@ package com.rpgnexus.core.script;
 import com.rpgnexus.core.RPGNexusCore;
 import com.rpgnexus.core.data.dto.NexusProfile;
 import com.rpgnexus.core.manager.Manager;
+import com.rpgnexus.core.script.compiler.CompiledFormula;
+import com.rpgnexus.core.script.compiler.SlotLayout;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 
 /**
  * 수식 계산을 담당하는 엔진입니다.
- * FormulaParser를 사용하여 수식을 컴파일하고 캐싱합니다.
+ * FormulaParser로 파싱한 수식을 FormulaCompiler로 바이트코드 컴파일하여 캐싱합니다.
+ * (general.yml의 formulaCompiler가 false면 트리 인터프리터를 사용합니다.)
+ *
+ * 변수는 컴파일 시점에 SlotLayout 슬롯으로 바인딩되므로, 평가 시에는
+ * 재사용 double[] 프레임을 프로필에서 직접 채워 Map을 만들지 않습니다.
+ *
+ * 파싱과 컴파일 사이에 FormulaOptimizer를 거치며 (general.yml의 formulaOptimizer),
+ * 시스템별로 제거된 노드 수를 기록해 /nexus reload 시 보고합니다.
+ *
+ * 실제 처리는 플러그인에 의존하지 않는 FormulaToolkit이 담당하며, 이 매니저는 설정/로그를 연결합니다.
  */
 public class ScriptEngine extends Manager {
 
-    private final FormulaParser parser = new FormulaParser();
-    private final Map<String, FormulaParser.Node> formulaCache = new ConcurrentHashMap<>();
+    private final FormulaToolkit toolkit;
 
     public ScriptEngine(RPGNexusCore plugin) {
         super(plugin);
+        this.toolkit = new FormulaToolkit(plugin.getLogger(),
+                () -> plugin.getCoreManager().getConfigManager().getGeneralConfig().isFormulaCompiler(),
+                () -> plugin.getCoreManager().getConfigManager().getGeneralConfig().isFormulaOptimizer(),
+                plugin::debug);
     }
 
     @Override
     public void enable() {
-        plugin.getLogger().info("NexusScriptEngine 활성화됨 (Custom Parser)");
+        plugin.getLogger().info("NexusScriptEngine 활성화됨 ("
+                + (toolkit.isCompilerEnabled() ? "Bytecode Compiler" : "Custom Parser") + ")");
     }
 
     @Override
     public void disable() {
-        formulaCache.clear();
+        toolkit.clearCache();
     }
 
     @Override
     public void reload() {
-        formulaCache.clear();
+        toolkit.clearCache();
+    }
+
+    public FormulaToolkit getToolkit() {
+        return toolkit;
     }
 
     /**
      * 수식을 계산합니다.
-     * 
-     * @param formula 수식 문자열 (예: "%attacker_str% * 2")
-     * @param caster  시전자 (attacker)
-     * @param target  대상 (defender)
-     * @return 계산 결과
+     *
+     * @see FormulaToolkit#calculate(String, NexusProfile, NexusProfile)
      */
     public double calculate(String formula, NexusProfile caster, NexusProfile target) {
-        if (formula == null || formula.isEmpty())
-            return 0.0;
-
-        try {
-            // 1. AST 가져오기 (캐시 확인)
-            FormulaParser.Node root = formulaCache.computeIfAbsent(formula, parser::parse);
-
-            // 2. 컨텍스트 구성
-            Map<String, Double> context = buildContext(caster, target);
-
-            // 3. 평가
-            return root.evaluate(context);
+        return toolkit.calculate(formula, caster, target);
+    }
 
-        } catch (Exception e) {
-            plugin.getLogger().warning("수식 계산 오류 [" + formula + "]: " + e.getMessage());
-            return 0.0;
-        }
+    /**
+     * @see FormulaToolkit#compile(String, SlotLayout)
+     */
+    public CompiledFormula compile(String expression, SlotLayout layout) {
+        return toolkit.compile(expression, layout);
     }
 
     /**
-     * 컨텍스트 맵을 빌드합니다.
-     * 변수명 규칙:
-     * - attacker_Key (소문자, 언더바)
-     * - defender_Key
+     * @see FormulaToolkit#compile(FormulaParser.Node, SlotLayout, String)
      */
-    private Map<String, Double> buildContext(NexusProfile caster, NexusProfile target) {
-        Map<String, Double> context = new HashMap<>();
+    public CompiledFormula compile(FormulaParser.Node root, SlotLayout layout, String label) {
+        return toolkit.compile(root, layout, label);
+    }
 
-        if (caster != null) {
-            // statContainer의 모든 키를 attacker_XXX 로 매핑
-            caster.getStatContainer().forEach((k, v) -> context.put("attacker_" + k, v));
-        }
+    /**
+     * @see FormulaToolkit#compileProgram(String, List, FormulaOptimizer.Entry, SlotLayout)
+     */
+    public CompiledFormula compileProgram(String programName, List<FormulaOptimizer.Entry> steps,
+            FormulaOptimizer.Entry result, SlotLayout layout) {
+        return toolkit.compileProgram(programName, steps, result, layout);
+    }
 
-        if (target != null) {
-            target.getStatContainer().forEach((k, v) -> context.put("defender_" + k, v));
-        }
+    /**
+     * @see FormulaToolkit#parse(String)
+     */
+    public FormulaParser.Node parse(String expression) {
+        return toolkit.parse(expression);
+    }
 
-        // 추가: Config의 path 기반 변수 매핑을 원한다면 여기서 처리
-        // 현재 FormulaParser는 %var%를 지원하며, AttributeRegistry 키는 소문자+언더바(combat_ability)
-        // 사용자는 %attacker_combat_ability% 처럼 사용해야 함.
+    /**
+     * @see FormulaToolkit#optimize(String, List, List, boolean)
+     */
+    public FormulaOptimizer.Result optimize(String systemName, List<FormulaOptimizer.Entry> steps,
+            List<FormulaOptimizer.Entry> results, boolean exclusiveResults) {
+        return toolkit.optimize(systemName, steps, results, exclusiveResults);
+    }
 
-        return context;
+    /**
+     * 현재 컴파일된 시스템들에서 최적화로 제거된 노드 수의 합.
+     */
+    public int getRemovedNodeCount() {
+        return toolkit.getRemovedNodeCount();
     }
 }
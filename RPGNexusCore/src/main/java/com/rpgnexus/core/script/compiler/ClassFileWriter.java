@@ -0,0 +1,411 @@
+package com.rpgnexus.core.script.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 수식 전용 최소 클래스 파일 작성기입니다.
+ * 인터페이스 하나를 구현하고 (기본 생성자 + 메서드 하나)만 가지는 클래스를 만듭니다.
+ * 수식 코드의 피연산자 스택에는 double만 올라가므로, StackMapTable 프레임은
+ * "locals = [this, double[]], stack = double x N" 형태로만 기록합니다.
+ */
+final class ClassFileWriter {
+
+    // --- Opcodes ---
+    static final int ICONST_0 = 0x03;
+    static final int DCONST_0 = 0x0e;
+    static final int DCONST_1 = 0x0f;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int LDC2_W = 0x14;
+    static final int DLOAD_2 = 0x28;
+    static final int ALOAD_0 = 0x2a;
+    static final int ALOAD_1 = 0x2b;
+    static final int DALOAD = 0x31;
+    static final int DSTORE_2 = 0x49;
+    static final int DASTORE = 0x52;
+    static final int POP2 = 0x58;
+    static final int DUP2 = 0x5c;
+    static final int DADD = 0x63;
+    static final int DSUB = 0x67;
+    static final int DMUL = 0x6b;
+    static final int DDIV = 0x6f;
+    static final int DCMPL = 0x97;
+    static final int DCMPG = 0x98;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9a;
+    static final int IFLT = 0x9b;
+    static final int IFGE = 0x9c;
+    static final int IFGT = 0x9d;
+    static final int IFLE = 0x9e;
+    static final int GOTO = 0xa7;
+    static final int DRETURN = 0xaf;
+    static final int RETURN = 0xb1;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+
+    private static final int CLASS_VERSION = 52; // Java 8 (StackMapTable 필수)
+    private static final int MAX_BRANCH_CODE = Short.MAX_VALUE;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final int thisClass;
+    private final int superClass;
+    private final int interfaceClass;
+    private final int doubleArrayClass;
+
+    ClassFileWriter(String internalName, String interfaceName) {
+        this.thisClass = pool.classRef(internalName);
+        this.superClass = pool.classRef("java/lang/Object");
+        this.interfaceClass = pool.classRef(interfaceName);
+        this.doubleArrayClass = pool.classRef("[D");
+    }
+
+    Code newCode() {
+        return new Code();
+    }
+
+    /**
+     * 클래스 파일 바이트를 생성합니다.
+     *
+     * @param methodName 구현 메서드 이름
+     * @param methodDesc 구현 메서드 디스크립터 (인자는 double[] 하나)
+     * @param body       메서드 본문
+     */
+    byte[] toByteArray(String methodName, String methodDesc, Code body) {
+        int codeAttr = pool.utf8("Code");
+        int frameAttr = pool.utf8("StackMapTable");
+        int initName = pool.utf8("<init>");
+        int initDesc = pool.utf8("()V");
+        int objectInit = pool.methodRef("java/lang/Object", "<init>", "()V");
+        int bodyName = pool.utf8(methodName);
+        int bodyDesc = pool.utf8(methodDesc);
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            pool.write(out);
+            out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(interfaceClass);
+            out.writeShort(0); // fields
+            out.writeShort(2); // methods
+
+            // public <init>()V
+            out.writeShort(0x0001);
+            out.writeShort(initName);
+            out.writeShort(initDesc);
+            out.writeShort(1);
+            out.writeShort(codeAttr);
+            out.writeInt(2 + 2 + 4 + 5 + 2 + 2);
+            out.writeShort(1); // max_stack
+            out.writeShort(1); // max_locals
+            out.writeInt(5);
+            out.writeByte(ALOAD_0);
+            out.writeByte(INVOKESPECIAL);
+            out.writeShort(objectInit);
+            out.writeByte(RETURN);
+            out.writeShort(0); // exception table
+            out.writeShort(0); // attributes
+
+            // public <methodName>([D)D
+            byte[] code = Arrays.copyOf(body.code, body.size);
+            byte[] frames = body.encodeFrames();
+            out.writeShort(0x0001);
+            out.writeShort(bodyName);
+            out.writeShort(bodyDesc);
+            out.writeShort(1);
+            out.writeShort(codeAttr);
+            int frameAttrLength = frames.length == 0 ? 0 : 2 + 4 + frames.length;
+            out.writeInt(2 + 2 + 4 + code.length + 2 + 2 + frameAttrLength);
+            out.writeShort(body.maxWords);
+            out.writeShort(body.maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            if (frames.length == 0) {
+                out.writeShort(0);
+            } else {
+                out.writeShort(1);
+                out.writeShort(frameAttr);
+                out.writeInt(frames.length);
+                out.write(frames);
+            }
+
+            out.writeShort(0); // class attributes
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 분기 대상 위치입니다.
+     */
+    static final class Label {
+        private int position = -1;
+        private final List<Integer> fixups = new ArrayList<>();
+    }
+
+    /**
+     * 메서드 본문 버퍼. 스택 깊이(double 개수)를 추적하여 max_stack과 프레임을 계산합니다.
+     */
+    final class Code {
+
+        private byte[] code = new byte[64];
+        private int size;
+        private final TreeMap<Integer, Integer> frames = new TreeMap<>();
+        private int depth; // 스택에 쌓인 double 개수
+        private int maxWords;
+        private int maxLocals = 2; // this, double[]
+
+        int depth() {
+            return depth;
+        }
+
+        int position() {
+            return size;
+        }
+
+        void op(int opcode) {
+            if (size == code.length)
+                code = Arrays.copyOf(code, size * 2);
+            code[size++] = (byte) opcode;
+        }
+
+        private void u2(int value) {
+            op(value >>> 8);
+            op(value);
+        }
+
+        /**
+         * 스택 깊이 변화를 기록합니다.
+         *
+         * @param doubles   증감할 double 개수
+         * @param transientWords 순간적으로 추가로 점유하는 워드 수 (배열 참조, 인덱스 등)
+         */
+        void stack(int doubles, int transientWords) {
+            maxWords = Math.max(maxWords, depth * 2 + transientWords);
+            depth += doubles;
+            if (depth < 0)
+                throw new IllegalStateException("Stack underflow");
+            maxWords = Math.max(maxWords, depth * 2);
+        }
+
+        void useLocals(int count) {
+            maxLocals = Math.max(maxLocals, count);
+        }
+
+        void pushConstant(double value) {
+            if (Double.doubleToRawLongBits(value) == 0L) {
+                op(DCONST_0);
+            } else if (value == 1.0) {
+                op(DCONST_1);
+            } else {
+                op(LDC2_W);
+                u2(pool.doubleConst(value));
+            }
+            stack(1, 0);
+        }
+
+        void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                op(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                op(BIPUSH);
+                op(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                op(SIPUSH);
+                u2(value);
+            } else {
+                op(LDC_W);
+                u2(pool.integerConst(value));
+            }
+        }
+
+        /**
+         * slots[index] 값을 스택에 올립니다.
+         */
+        void loadSlot(int index) {
+            op(ALOAD_1);
+            pushInt(index);
+            op(DALOAD);
+            stack(1, 2);
+        }
+
+        /**
+         * 스택 최상단 double을 slots[index]에 저장합니다. (임시 로컬 2번 사용)
+         */
+        void storeSlot(int index) {
+            op(DSTORE_2);
+            op(ALOAD_1);
+            pushInt(index);
+            op(DLOAD_2);
+            op(DASTORE);
+            useLocals(4);
+            stack(-1, 4);
+        }
+
+        void invokeStatic(String owner, String name, String desc, int argDoubles) {
+            op(INVOKESTATIC);
+            u2(pool.methodRef(owner, name, desc));
+            stack(1 - argDoubles, 0);
+        }
+
+        void jump(int opcode, Label label) {
+            int at = size;
+            op(opcode);
+            if (label.position >= 0) {
+                u2(label.position - at);
+            } else {
+                label.fixups.add(at);
+                u2(0);
+            }
+        }
+
+        /**
+         * 현재 위치에 라벨을 놓고 현재 스택 깊이로 프레임을 기록합니다.
+         */
+        void mark(Label label) {
+            int at = size;
+            label.position = at;
+            for (int fixup : label.fixups) {
+                int offset = at - fixup;
+                code[fixup + 1] = (byte) (offset >>> 8);
+                code[fixup + 2] = (byte) offset;
+            }
+            Integer previous = frames.put(at, depth);
+            if (previous != null && previous != depth)
+                throw new IllegalStateException("Inconsistent stack at " + at);
+        }
+
+        /**
+         * 분기 후 도달 불가능한 지점에서 스택 깊이를 재설정합니다. (goto 직후 등)
+         */
+        void resetDepth(int doubles) {
+            depth = doubles;
+        }
+
+        private byte[] encodeFrames() throws IOException {
+            if (size > MAX_BRANCH_CODE && !frames.isEmpty())
+                throw new IllegalStateException("Formula too large for branch offsets");
+            if (frames.isEmpty())
+                return new byte[0];
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(frames.size());
+            int previous = -1;
+            for (Map.Entry<Integer, Integer> frame : frames.entrySet()) {
+                out.writeByte(255); // full_frame
+                out.writeShort(previous < 0 ? frame.getKey() : frame.getKey() - previous - 1);
+                out.writeShort(2);
+                out.writeByte(7);
+                out.writeShort(thisClass);
+                out.writeByte(7);
+                out.writeShort(doubleArrayClass);
+                out.writeShort(frame.getValue());
+                for (int i = 0; i < frame.getValue(); i++)
+                    out.writeByte(3); // Double
+                previous = frame.getKey();
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * 중복 제거되는 상수 풀.
+     */
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        private int add(String key, int width, Writer writer) {
+            Integer index = entries.get(key);
+            if (index != null)
+                return index;
+            try {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            int assigned = count;
+            count += width;
+            entries.put(key, assigned);
+            return assigned;
+        }
+
+        int utf8(String value) {
+            return add("U" + value, 1, o -> {
+                o.writeByte(1);
+                o.writeUTF(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return add("C" + internalName, 1, o -> {
+                o.writeByte(7);
+                o.writeShort(name);
+            });
+        }
+
+        int methodRef(String owner, String name, String desc) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descIndex = utf8(desc);
+            int nameAndType = add("N" + name + ":" + desc, 1, o -> {
+                o.writeByte(12);
+                o.writeShort(nameIndex);
+                o.writeShort(descIndex);
+            });
+            return add("M" + owner + "." + name + desc, 1, o -> {
+                o.writeByte(10);
+                o.writeShort(ownerIndex);
+                o.writeShort(nameAndType);
+            });
+        }
+
+        int doubleConst(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            return add("D" + bits, 2, o -> {
+                o.writeByte(6);
+                o.writeLong(bits);
+            });
+        }
+
+        int integerConst(int value) {
+            return add("I" + value, 1, o -> {
+                o.writeByte(3);
+                o.writeInt(value);
+            });
+        }
+
+        void write(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(count);
+            target.write(bytes.toByteArray());
+        }
+
+        private interface Writer {
+            void write(DataOutputStream out) throws IOException;
+        }
+    }
+}
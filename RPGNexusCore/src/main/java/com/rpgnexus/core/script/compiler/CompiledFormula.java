@@ -0,0 +1,16 @@
+package com.rpgnexus.core.script.compiler;
+
+/**
+ * 컴파일된 수식입니다.
+ * 변수는 이름 대신 SlotLayout이 부여한 슬롯 인덱스로 double[] 프레임에서 읽습니다.
+ */
+public interface CompiledFormula {
+
+    /**
+     * 수식을 평가합니다.
+     *
+     * @param slots SlotLayout 순서대로 채워진 변수 값 프레임
+     * @return 계산 결과
+     */
+    double eval(double[] slots);
+}
@@ -0,0 +1,339 @@
+package com.rpgnexus.core.script.compiler;
+
+import com.rpgnexus.core.script.FormulaParser.BinaryOpNode;
+import com.rpgnexus.core.script.FormulaParser.ConstantNode;
+import com.rpgnexus.core.script.FormulaParser.FunctionNode;
+import com.rpgnexus.core.script.FormulaParser.Node;
+import com.rpgnexus.core.script.FormulaParser.VariableNode;
+import com.rpgnexus.core.script.compiler.ClassFileWriter.Code;
+import com.rpgnexus.core.script.compiler.ClassFileWriter.Label;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * FormulaParser AST를 JVM 바이트코드로 컴파일하는 백엔드입니다.
+ * 수식마다 CompiledFormula를 구현하는 히든 클래스를 정의하며,
+ * 연산자/함수 분기는 컴파일 시점에 모두 결정되므로 평가 시에는 문자열 비교가 없습니다.
+ *
+ * 컴파일이 불가능한 수식(인자 수 오류 등)은 InterpretedFormula로 폴백하여
+ * 기존 인터프리터와 동일한 동작(런타임 예외 포함)을 유지합니다.
+ */
+public class FormulaCompiler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String CLASS_NAME = "com/rpgnexus/core/script/compiler/GeneratedFormula";
+    private static final String INTERFACE_NAME = "com/rpgnexus/core/script/compiler/CompiledFormula";
+    private static final String RUNTIME_NAME = "com/rpgnexus/core/script/compiler/FormulaRuntime";
+
+    /**
+     * 수식을 컴파일합니다. 바이트코드 생성에 실패하면 인터프리터로 폴백합니다.
+     *
+     * @param root   파싱된 수식
+     * @param layout 변수 슬롯 레이아웃 (수식에 등장하는 변수가 여기에 등록됩니다)
+     */
+    public CompiledFormula compile(Node root, SlotLayout layout) {
+        bindVariables(root, layout);
+        try {
+            return generate(root, layout);
+        } catch (RuntimeException e) {
+            return new InterpretedFormula(root, layout);
+        }
+    }
+
+    /**
+     * 여러 할당 스텝과 결과 수식을 하나의 메서드로 컴파일합니다.
+     * 스텝은 주어진 순서대로 프레임 슬롯에 기록되며, 결과 수식의 값을 반환합니다.
+     * 바이트코드 생성에 실패하면 InterpretedProgram으로 폴백합니다.
+     *
+     * @param targets 스텝별 대상 변수 이름
+     * @param steps   스텝별 수식 (targets와 같은 순서)
+     * @param result  마지막에 평가할 결과 수식
+     */
+    public CompiledFormula compileProgram(List<String> targets, List<Node> steps, Node result, SlotLayout layout) {
+        bindProgram(targets, steps, result, layout);
+        try {
+            return generateProgram(targets, steps, result, layout);
+        } catch (RuntimeException e) {
+            return new InterpretedProgram(targets, steps, result, layout);
+        }
+    }
+
+    /**
+     * 인터프리터 기반 프로그램을 생성합니다. (컴파일러 비활성화 시)
+     */
+    public CompiledFormula interpretProgram(List<String> targets, List<Node> steps, Node result, SlotLayout layout) {
+        bindProgram(targets, steps, result, layout);
+        return new InterpretedProgram(targets, steps, result, layout);
+    }
+
+    /**
+     * 인터프리터 기반 CompiledFormula를 생성합니다. (컴파일러 비활성화 시)
+     */
+    public CompiledFormula interpret(Node root, SlotLayout layout) {
+        bindVariables(root, layout);
+        return new InterpretedFormula(root, layout);
+    }
+
+    /**
+     * 히든 클래스를 생성합니다.
+     *
+     * @throws UnsupportedOperationException 컴파일할 수 없는 노드가 포함된 경우
+     */
+    public CompiledFormula generate(Node root, SlotLayout layout) {
+        ClassFileWriter writer = new ClassFileWriter(CLASS_NAME, INTERFACE_NAME);
+        Code code = writer.newCode();
+        emit(code, root, layout);
+        code.op(ClassFileWriter.DRETURN);
+        return define(writer.toByteArray("eval", "([D)D", code));
+    }
+
+    /**
+     * 프로그램 전체를 하나의 히든 클래스로 생성합니다.
+     *
+     * @throws UnsupportedOperationException 컴파일할 수 없는 노드가 포함된 경우
+     */
+    public CompiledFormula generateProgram(List<String> targets, List<Node> steps, Node result, SlotLayout layout) {
+        ClassFileWriter writer = new ClassFileWriter(CLASS_NAME, INTERFACE_NAME);
+        Code code = writer.newCode();
+        for (int i = 0; i < steps.size(); i++) {
+            emit(code, steps.get(i), layout);
+            code.storeSlot(layout.slotOf(targets.get(i)));
+        }
+        emit(code, result, layout);
+        code.op(ClassFileWriter.DRETURN);
+        return define(writer.toByteArray("eval", "([D)D", code));
+    }
+
+    private CompiledFormula define(byte[] classBytes) {
+        try {
+            // STRONG 옵션 없이 정의하므로 참조가 사라지면 (리로드 후) 클래스도 언로드됩니다.
+            MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(classBytes, true);
+            return (CompiledFormula) hidden
+                    .findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new UnsupportedOperationException("Hidden class definition failed", e);
+        }
+    }
+
+    private void bindProgram(List<String> targets, List<Node> steps, Node result, SlotLayout layout) {
+        for (int i = 0; i < steps.size(); i++) {
+            bindVariables(steps.get(i), layout);
+            layout.slotOf(targets.get(i));
+        }
+        bindVariables(result, layout);
+    }
+
+    private void bindVariables(Node node, SlotLayout layout) {
+        if (node instanceof VariableNode) {
+            layout.slotOf(((VariableNode) node).getName());
+        } else if (node instanceof BinaryOpNode) {
+            bindVariables(((BinaryOpNode) node).getLeft(), layout);
+            bindVariables(((BinaryOpNode) node).getRight(), layout);
+        } else if (node instanceof FunctionNode) {
+            for (Node arg : ((FunctionNode) node).getArgs())
+                bindVariables(arg, layout);
+        }
+    }
+
+    // --- Code Generation ---
+
+    private void emit(Code code, Node node, SlotLayout layout) {
+        if (node instanceof ConstantNode) {
+            code.pushConstant(((ConstantNode) node).getValue());
+        } else if (node instanceof VariableNode) {
+            code.loadSlot(layout.slotOf(((VariableNode) node).getName()));
+        } else if (node instanceof BinaryOpNode) {
+            emitBinary(code, (BinaryOpNode) node, layout);
+        } else if (node instanceof FunctionNode) {
+            emitFunction(code, (FunctionNode) node, layout);
+        } else {
+            throw new UnsupportedOperationException("Unknown node: " + node.getClass().getName());
+        }
+    }
+
+    private void emitBinary(Code code, BinaryOpNode node, SlotLayout layout) {
+        String op = node.getOp();
+        int base = code.depth();
+
+        emit(code, node.getLeft(), layout);
+
+        if (op.equals("OR")) {
+            // l != 0 이면 l, 아니면 r
+            Label end = new Label();
+            code.op(ClassFileWriter.DUP2);
+            code.stack(1, 0);
+            code.pushConstant(0.0);
+            code.op(ClassFileWriter.DCMPL);
+            code.stack(-2, 0);
+            code.jump(ClassFileWriter.IFNE, end);
+            code.op(ClassFileWriter.POP2);
+            code.stack(-1, 0);
+            emit(code, node.getRight(), layout);
+            code.mark(end);
+            return;
+        }
+
+        emit(code, node.getRight(), layout);
+
+        switch (op) {
+            case "+":
+                code.op(ClassFileWriter.DADD);
+                code.stack(-1, 0);
+                break;
+            case "-":
+                code.op(ClassFileWriter.DSUB);
+                code.stack(-1, 0);
+                break;
+            case "*":
+                code.op(ClassFileWriter.DMUL);
+                code.stack(-1, 0);
+                break;
+            case "/":
+                emitSafeDivide(code, base);
+                break;
+            case ">":
+                emitCompare(code, base, ClassFileWriter.DCMPL, ClassFileWriter.IFGT);
+                break;
+            case "<":
+                emitCompare(code, base, ClassFileWriter.DCMPG, ClassFileWriter.IFLT);
+                break;
+            case ">=":
+                emitCompare(code, base, ClassFileWriter.DCMPL, ClassFileWriter.IFGE);
+                break;
+            case "<=":
+                emitCompare(code, base, ClassFileWriter.DCMPG, ClassFileWriter.IFLE);
+                break;
+            case "==":
+                emitCompare(code, base, ClassFileWriter.DCMPL, ClassFileWriter.IFEQ);
+                break;
+            case "!=":
+                emitCompare(code, base, ClassFileWriter.DCMPL, ClassFileWriter.IFNE);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unknown operator: " + op);
+        }
+    }
+
+    /**
+     * r == 0 ? 0 : l / r
+     */
+    private void emitSafeDivide(Code code, int base) {
+        Label divide = new Label();
+        Label end = new Label();
+        code.op(ClassFileWriter.DUP2);
+        code.pushConstant(0.0);
+        code.stack(1, 0); // dup2
+        code.op(ClassFileWriter.DCMPL);
+        code.stack(-2, 0);
+        code.jump(ClassFileWriter.IFNE, divide);
+        code.op(ClassFileWriter.POP2);
+        code.op(ClassFileWriter.POP2);
+        code.stack(-2, 0);
+        code.pushConstant(0.0);
+        code.jump(ClassFileWriter.GOTO, end);
+        code.resetDepth(base + 2);
+        code.mark(divide);
+        code.op(ClassFileWriter.DDIV);
+        code.stack(-1, 0);
+        code.mark(end);
+    }
+
+    /**
+     * 비교 결과를 1.0 / 0.0 으로 변환합니다. NaN 처리는 Java 비교 연산자와 동일합니다.
+     */
+    private void emitCompare(Code code, int base, int compareOp, int trueJump) {
+        Label isTrue = new Label();
+        Label end = new Label();
+        code.op(compareOp);
+        code.stack(-2, 0);
+        code.jump(trueJump, isTrue);
+        code.pushConstant(0.0);
+        code.jump(ClassFileWriter.GOTO, end);
+        code.resetDepth(base);
+        code.mark(isTrue);
+        code.pushConstant(1.0);
+        code.mark(end);
+    }
+
+    private void emitFunction(Code code, FunctionNode node, SlotLayout layout) {
+        String funcName = node.getName().toLowerCase(Locale.ROOT);
+        List<Node> args = node.getArgs();
+        int base = code.depth();
+
+        switch (funcName) {
+            case "if": {
+                requireArgs(node, 3);
+                Label otherwise = new Label();
+                Label end = new Label();
+                emit(code, args.get(0), layout);
+                code.pushConstant(0.0);
+                code.op(ClassFileWriter.DCMPL);
+                code.stack(-2, 0);
+                code.jump(ClassFileWriter.IFEQ, otherwise);
+                emit(code, args.get(1), layout);
+                code.jump(ClassFileWriter.GOTO, end);
+                code.resetDepth(base);
+                code.mark(otherwise);
+                emit(code, args.get(2), layout);
+                code.mark(end);
+                return;
+            }
+            case "max":
+            case "min":
+            case "random": {
+                requireArgs(node, 2);
+                // 인터프리터와 동일하게 모든 인자를 평가하되 앞의 두 개만 사용
+                for (Node arg : args)
+                    emit(code, arg, layout);
+                for (int i = 2; i < args.size(); i++) {
+                    code.op(ClassFileWriter.POP2);
+                    code.stack(-1, 0);
+                }
+                if (funcName.equals("random"))
+                    code.invokeStatic(RUNTIME_NAME, "random", "(DD)D", 2);
+                else
+                    code.invokeStatic("java/lang/Math", funcName, "(DD)D", 2);
+                return;
+            }
+            default:
+                // 알 수 없는 함수는 인터프리터와 동일하게 0
+                for (Node arg : args)
+                    validate(arg);
+                code.pushConstant(0.0);
+        }
+    }
+
+    private void requireArgs(FunctionNode node, int count) {
+        if (node.getArgs().size() < count)
+            throw new UnsupportedOperationException("Function '" + node.getName() + "' requires " + count
+                    + " arguments.");
+    }
+
+    /**
+     * 코드 생성 없이 하위 함수의 인자 수만 검증합니다.
+     */
+    private void validate(Node node) {
+        if (node instanceof BinaryOpNode) {
+            validate(((BinaryOpNode) node).getLeft());
+            validate(((BinaryOpNode) node).getRight());
+        } else if (node instanceof FunctionNode) {
+            FunctionNode function = (FunctionNode) node;
+            switch (function.getName().toLowerCase(Locale.ROOT)) {
+                case "if":
+                    requireArgs(function, 3);
+                    break;
+                case "max":
+                case "min":
+                case "random":
+                    requireArgs(function, 2);
+                    break;
+            }
+            for (Node arg : function.getArgs())
+                validate(arg);
+        }
+    }
+}
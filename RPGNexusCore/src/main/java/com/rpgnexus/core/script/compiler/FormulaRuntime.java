@@ -0,0 +1,18 @@
+package com.rpgnexus.core.script.compiler;
+
+/**
+ * 생성된 수식 클래스가 호출하는 런타임 헬퍼입니다.
+ * 인터프리터(FormulaParser.FunctionNode)와 동일한 의미를 유지해야 합니다.
+ */
+public final class FormulaRuntime {
+
+    private FormulaRuntime() {
+    }
+
+    /**
+     * random(min, max)
+     */
+    public static double random(double min, double max) {
+        return min + Math.random() * (max - min);
+    }
+}
@@ -0,0 +1,96 @@
+package com.rpgnexus.core.script.compiler;
+
+import com.rpgnexus.core.script.FormulaParser.Node;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 기존 트리 인터프리터(Node.evaluate)를 CompiledFormula 형태로 감싼 폴백 구현입니다.
+ * 바이트코드 생성이 불가능한 수식이나 컴파일러가 꺼져 있을 때 사용되며, 결과 비교의 기준이 됩니다.
+ */
+public class InterpretedFormula implements CompiledFormula {
+
+    private final Node root;
+    private final SlotLayout layout;
+
+    public InterpretedFormula(Node root, SlotLayout layout) {
+        this.root = root;
+        this.layout = layout;
+    }
+
+    @Override
+    public double eval(double[] slots) {
+        return root.evaluate(new FrameView(slots));
+    }
+
+    /**
+     * 프레임을 이름 기반 Map으로 보이게 하는 읽기 전용 뷰.
+     */
+    private class FrameView extends AbstractMap<String, Double> {
+
+        private final double[] slots;
+
+        FrameView(double[] slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public Double get(Object key) {
+            int slot = layout.indexOf((String) key);
+            return slot >= 0 && slot < slots.length ? slots[slot] : null;
+        }
+
+        @Override
+        public Double getOrDefault(Object key, Double defaultValue) {
+            Double value = get(key);
+            return value != null ? value : defaultValue;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return Math.min(layout.size(), slots.length);
+        }
+
+        /**
+         * 슬롯 순서대로 (변수 이름, 현재 값)을 보여주는 읽기 전용 집합.
+         */
+        @Override
+        public Set<Entry<String, Double>> entrySet() {
+            return new AbstractSet<Entry<String, Double>>() {
+                @Override
+                public Iterator<Entry<String, Double>> iterator() {
+                    return new Iterator<Entry<String, Double>>() {
+                        private int slot;
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < FrameView.this.size();
+                        }
+
+                        @Override
+                        public Entry<String, Double> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            int index = slot++;
+                            return new SimpleImmutableEntry<>(layout.nameOf(index), slots[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return FrameView.this.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.rpgnexus.core.script.compiler;
+
+import com.rpgnexus.core.script.FormulaParser.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 할당 스텝 목록 + 결과 수식을 트리 인터프리터로 실행하는 폴백 구현입니다.
+ * 스텝에서 예외가 발생하면 기존 동작과 동일하게 해당 변수에 0.0을 기록하고 계속 진행합니다.
+ */
+public class InterpretedProgram implements CompiledFormula {
+
+    private final int[] slots;
+    private final List<InterpretedFormula> steps = new ArrayList<>();
+    private final InterpretedFormula result;
+
+    public InterpretedProgram(List<String> targets, List<Node> steps, Node result, SlotLayout layout) {
+        this.slots = new int[targets.size()];
+        for (int i = 0; i < targets.size(); i++) {
+            this.slots[i] = layout.slotOf(targets.get(i));
+            this.steps.add(new InterpretedFormula(steps.get(i), layout));
+        }
+        this.result = new InterpretedFormula(result, layout);
+    }
+
+    @Override
+    public double eval(double[] frame) {
+        for (int i = 0; i < slots.length; i++) {
+            try {
+                frame[slots[i]] = steps.get(i).eval(frame);
+            } catch (Exception e) {
+                frame[slots[i]] = 0.0;
+            }
+        }
+        return result.eval(frame);
+    }
+}
@@ -0,0 +1,174 @@
+package com.rpgnexus.core.script.compiler;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.registry.AttributeKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 수식 변수 이름 -> 프레임 슬롯 인덱스 매핑입니다.
+ * 컴파일 시점에 처음 등장한 순서대로 슬롯을 부여하며, 평가 시에는 문자열 조회 없이 인덱스만 사용합니다.
+ *
+ * 슬롯을 부여할 때 이름을 해석하여 프로필 스탯을 직접 읽는 슬롯을 바인딩합니다.
+ * - %player-status#Stat% / %player-status#Stat#$attacker$% / %player-status#Stat#$defender$%
+ * - attacker_Stat / defender_Stat (prefixedStats 레이아웃에서만, ScriptEngine 규칙)
+ * 나머지 이름은 호출자가 직접 값을 쓰는 로컬 슬롯입니다.
+ *
+ * 컴파일이 끝나면 freeze()로 고정합니다. 고정된 레이아웃은 읽기 전용이므로
+ * 여러 스레드가 동시에 프레임을 채우고 평가해도 안전합니다 (프레임은 스레드별).
+ */
+public class SlotLayout {
+
+    private static final String PLAYER_STATUS = "player-status#";
+    private static final String ATTACKER_PREFIX = "attacker_";
+    private static final String DEFENDER_PREFIX = "defender_";
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<StatBinding> bindings = new ArrayList<>();
+    private final boolean prefixedStats;
+    private boolean frozen;
+
+    // 스레드별 재사용 프레임 (평가마다 배열을 할당하지 않기 위함)
+    private final ThreadLocal<double[]> frames = new ThreadLocal<>();
+
+    public SlotLayout() {
+        this(false);
+    }
+
+    /**
+     * @param prefixedStats attacker_/defender_ 접두사 변수를 프로필 스탯으로 바인딩할지 여부
+     */
+    public SlotLayout(boolean prefixedStats) {
+        this.prefixedStats = prefixedStats;
+    }
+
+    /**
+     * 변수의 슬롯을 반환합니다. 처음 보는 이름이면 새 슬롯을 할당하고 바인딩을 해석합니다.
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            if (frozen)
+                throw new IllegalStateException("SlotLayout is frozen: " + name);
+            slot = names.size();
+            slots.put(name, slot);
+            names.add(name);
+            bind(slot, name);
+        }
+        return slot;
+    }
+
+    /**
+     * 더 이상 슬롯을 추가하지 않도록 고정합니다. 다른 스레드에 공개하기 전에 호출합니다.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * 이미 할당된 슬롯을 조회합니다.
+     *
+     * @return 슬롯 인덱스, 없으면 -1
+     */
+    public int indexOf(String name) {
+        Integer slot = slots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * 슬롯에 바인딩된 프로필 스탯 이름을 반환합니다. (공격자/방어자 구분 없음)
+     *
+     * @return 스탯 이름, 로컬 슬롯이면 null
+     */
+    public AttributeKey statOf(int slot) {
+        for (int i = 0; i < bindings.size(); i++) {
+            if (bindings.get(i).slot == slot)
+                return bindings.get(i).stat;
+        }
+        return null;
+    }
+
+    public String nameOf(int slot) {
+        return names.get(slot);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * 이 레이아웃 크기에 맞는 빈 프레임을 생성합니다.
+     */
+    public double[] newFrame() {
+        return new double[names.size()];
+    }
+
+    /**
+     * 현재 스레드의 재사용 프레임을 반환합니다. 내용은 load() 호출 전까지 이전 값이 남아있습니다.
+     */
+    public double[] frame() {
+        double[] frame = frames.get();
+        if (frame == null || frame.length != names.size()) {
+            frame = newFrame();
+            frames.set(frame);
+        }
+        return frame;
+    }
+
+    /**
+     * 프레임을 초기화하고 바인딩된 슬롯을 프로필 스탯으로 채웁니다.
+     * 로컬 슬롯은 0.0으로 초기화됩니다.
+     *
+     * @param frame    대상 프레임
+     * @param attacker 공격자 (또는 일반 시스템의 대상 플레이어)
+     * @param defender 방어자 (없으면 null)
+     */
+    public void load(double[] frame, NexusProfile attacker, NexusProfile defender) {
+        Arrays.fill(frame, 0.0);
+        for (int i = 0; i < bindings.size(); i++) {
+            StatBinding binding = bindings.get(i);
+            NexusProfile profile = binding.defender ? defender : attacker;
+            if (profile != null)
+                frame[binding.slot] = profile.getStat(binding.stat);
+        }
+    }
+
+    private void bind(int slot, String name) {
+        if (name.startsWith(PLAYER_STATUS)) {
+            // Format: player-status#StatName or player-status#StatName#$attacker$
+            String[] parts = name.split("#");
+            String statName = parts.length > 1 ? parts[1] : "";
+            String target = parts.length > 2 ? parts[2] : "$attacker$";
+            bindings.add(new StatBinding(slot, target.equals("$defender$"), AttributeKey.of(statName)));
+        } else if (prefixedStats && name.startsWith(ATTACKER_PREFIX)) {
+            bindings.add(new StatBinding(slot, false, AttributeKey.of(name.substring(ATTACKER_PREFIX.length()))));
+        } else if (prefixedStats && name.startsWith(DEFENDER_PREFIX)) {
+            bindings.add(new StatBinding(slot, true, AttributeKey.of(name.substring(DEFENDER_PREFIX.length()))));
+        }
+    }
+
+    /**
+     * 슬롯 <- 프로필 스탯 바인딩.
+     */
+    private static final class StatBinding {
+        private final int slot;
+        private final boolean defender;
+        private final AttributeKey stat; // 컴파일 시 순번으로 해석 (평가 시 문자열 조회 없음)
+
+        private StatBinding(int slot, boolean defender, AttributeKey stat) {
+            this.slot = slot;
+            this.defender = defender;
+            this.stat = stat;
+        }
+    }
+}
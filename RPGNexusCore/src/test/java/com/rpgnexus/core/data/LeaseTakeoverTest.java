@@ -0,0 +1,239 @@
+package com.rpgnexus.core.data;
+
+import com.rpgnexus.core.config.dto.GeneralConfig.StorageSettings;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.DataStorage;
+import com.rpgnexus.core.data.storage.ProfileLeases;
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
+import com.rpgnexus.core.data.storage.SqliteDataStorage;
+import com.rpgnexus.core.data.storage.WriteBehindStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 같은 SQLite 파일을 쓰는 두 서버(임대 관리 + 지연 저장)에서 임대를 빼앗긴 서버의 저장이 기록되지 않는지,
+ * 퇴장 저장이 실패하면 다음 서버가 만료까지 기다리는지 확인합니다.
+ */
+class LeaseTakeoverTest {
+
+    private static final Logger LOGGER = Logger.getLogger("LeaseTakeoverTest");
+    private static final long TTL_MILLIS = 3000;
+
+    @TempDir
+    Path directory;
+
+    private final List<Server> servers = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        for (Server server : servers)
+            server.close();
+    }
+
+    @Test
+    void takenOverProfileIsNeverOverwritten() throws Exception {
+        File file = directory.resolve("shared.db").toFile();
+        Server a = open(file, "server-a");
+        Server b = open(file, "server-b");
+        UUID uuid = UUID.randomUUID();
+
+        // A가 임대를 얻고 저장
+        assertTrue(a.leases.acquire(uuid).get(5, TimeUnit.SECONDS).isGranted());
+        NexusProfile onA = new NexusProfile(uuid, "tester");
+        onA.setStat("LeaseTest-Value", 1.0);
+        a.saveAndFlush(onA).get(5, TimeUnit.SECONDS);
+
+        // A가 멈춘 사이 B가 기다리지 않고 빼앗아 (token 증가) 읽고 저장
+        assertTrue(b.leases.acquire(uuid).get(5, TimeUnit.SECONDS).isGranted());
+        NexusProfile onB = b.storage.load(uuid).get(5, TimeUnit.SECONDS);
+        assertEquals(1.0, onB.getStatContainer().get("LeaseTest-Value"));
+        onB.markPersisted();
+        onB.setStat("LeaseTest-Value", 2.0);
+        b.saveAndFlush(onB).get(5, TimeUnit.SECONDS);
+
+        // A는 아직 모름 (연장 전): 저장은 받지만 기록 직전 임대 확인에서 막힘
+        assertFalse(a.leases.isLost(uuid));
+        onA.setStat("LeaseTest-Value", 99.0);
+        ExecutionException fenced = assertThrows(ExecutionException.class,
+                () -> a.saveAndFlush(onA).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, fenced.getCause());
+        assertEquals(2.0, b.backend.load(uuid).get(5, TimeUnit.SECONDS).getStatContainer().get("LeaseTest-Value"));
+
+        // 연장에서 빼앗긴 것을 알면 저장 자체를 받지 않음
+        a.leases.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!a.leases.isLost(uuid) && System.currentTimeMillis() < deadline)
+            Thread.sleep(50);
+        assertTrue(a.leases.isLost(uuid));
+        onA.setStat("LeaseTest-Value", 100.0);
+        CompletableFuture<Void> rejected = a.storage.save(onA);
+        assertTrue(rejected.isCompletedExceptionally());
+        assertFalse(onA.isDirty());
+        assertEquals(0, a.storage.getMetrics().getQueueDepth());
+
+        // A의 종료는 B의 임대를 건드리지 않음: B는 계속 저장 가능
+        a.close();
+        onB.setStat("LeaseTest-Value", 3.0);
+        b.saveAndFlush(onB).get(5, TimeUnit.SECONDS);
+        assertEquals(3.0, b.backend.load(uuid).get(5, TimeUnit.SECONDS).getStatContainer().get("LeaseTest-Value"));
+    }
+
+    @Test
+    void failedQuitSaveKeepsLeaseUntilExpiry() throws Exception {
+        File file = directory.resolve("failed.db").toFile();
+        Server a = open(file, "server-a");
+        // 기다리는 서버: 시간 초과로 빼앗지 않고 내놓거나 만료될 때까지 기다림
+        Server b = open(file, "server-b", 10_000);
+        UUID saved = UUID.randomUUID();
+        UUID failed = UUID.randomUUID();
+
+        // 퇴장 저장이 기록되면 임대를 바로 내놓음
+        assertTrue(a.leases.acquire(saved).get(5, TimeUnit.SECONDS).isGranted());
+        NexusProfile quit = new NexusProfile(saved, "saved");
+        quit.setStat("LeaseTest-Value", 1.0);
+        CompletableFuture<Void> written = a.storage.save(quit);
+        a.leases.releaseAfter(saved, written);
+        a.storage.flush().join();
+        written.get(5, TimeUnit.SECONDS);
+        assertTrue(b.leases.acquire(saved).get(2, TimeUnit.SECONDS).isGranted());
+
+        // 퇴장 저장이 실패하면 내놓지 않음: B는 만료(ttl)까지 기다린 뒤에야 얻음
+        long acquiredAt = System.currentTimeMillis();
+        assertTrue(a.leases.acquire(failed).get(5, TimeUnit.SECONDS).isGranted());
+        NexusProfile lost = new NexusProfile(failed, "failed");
+        lost.setStat("LeaseTest-Value", 2.0);
+        a.backend.failing = true;
+        CompletableFuture<Void> failing = a.storage.save(lost);
+        a.leases.releaseAfter(failed, failing);
+        a.storage.flush().join();
+        assertTrue(failing.isCompletedExceptionally());
+
+        CompletableFuture<Lease> waiting = b.leases.acquire(failed);
+        Thread.sleep(TTL_MILLIS / 2);
+        assertFalse(waiting.isDone());
+        assertTrue(waiting.get(TTL_MILLIS * 2, TimeUnit.MILLISECONDS).isGranted());
+        assertTrue(System.currentTimeMillis() - acquiredAt >= TTL_MILLIS);
+    }
+
+    private Server open(File file, String owner) {
+        return open(file, owner, 0);
+    }
+
+    private Server open(File file, String owner, long waitMillis) {
+        Server server = new Server(file, owner, waitMillis);
+        servers.add(server);
+        return server;
+    }
+
+    /**
+     * 서버 하나의 저장 구성. (DataManager와 같은 순서로 조립)
+     */
+    private static final class Server {
+        private final FlakyStorage backend;
+        private final WriteBehindStorage storage;
+        private final LeaseCoordinator leases;
+        private boolean closed;
+
+        /**
+         * @param waitMillis 0이면 기다리지 않고 바로 빼앗음 (멈춘 서버를 기다리다 시간 초과된 상황)
+         */
+        private Server(File file, String owner, long waitMillis) {
+            backend = new FlakyStorage(new SqliteDataStorage(file, LOGGER, 1));
+            StorageSettings settings = new StorageSettings();
+            settings.setMaxRetries(0);
+            storage = new WriteBehindStorage(backend, LOGGER, settings);
+            storage.initialize();
+            leases = new LeaseCoordinator(storage.getLeases(), owner, TTL_MILLIS, waitMillis, LOGGER);
+            storage.setLeaseHolder(leases);
+        }
+
+        private CompletableFuture<Void> saveAndFlush(NexusProfile profile) {
+            CompletableFuture<Void> saved = storage.save(profile);
+            storage.flush().join();
+            return saved;
+        }
+
+        private void close() {
+            if (closed)
+                return;
+            closed = true;
+            leases.stop(Collections.emptySet());
+            storage.shutdown(5000);
+        }
+    }
+
+    /**
+     * failing이면 기록만 실패하는 저장소. (읽기와 임대는 그대로)
+     */
+    private static final class FlakyStorage implements DataStorage {
+        private final DataStorage delegate;
+        private volatile boolean failing;
+
+        private FlakyStorage(DataStorage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<NexusProfile> load(UUID uuid) {
+            return delegate.load(uuid);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(NexusProfile profile) {
+            return delegate.save(profile);
+        }
+
+        @Override
+        public void saveBatch(List<NexusProfile> profiles) throws Exception {
+            saveBatch(profiles, Collections.emptyMap());
+        }
+
+        @Override
+        public Set<String> saveBatch(List<NexusProfile> profiles, Map<String, Lease> leases) throws Exception {
+            if (failing)
+                throw new IOException("저장소 장애 (테스트)");
+            return delegate.saveBatch(profiles, leases);
+        }
+
+        @Override
+        public Set<UUID> listProfiles() throws Exception {
+            return delegate.listProfiles();
+        }
+
+        @Override
+        public ProfileLeases getLeases() {
+            return delegate.getLeases();
+        }
+
+        @Override
+        public void initialize() {
+            delegate.initialize();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.rpgnexus.core.data.codec;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.registry.AttributeKey;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 바이너리 프로필 형식의 왕복(스탯 값, 등록되지 않은 스탯, 메타 타입)과 손상된 입력 거부를 확인합니다.
+ */
+class BinaryProfileCodecTest {
+
+    // 정수로 줄여 쓰는 값과 8바이트 그대로 쓰는 값이 섞이도록
+    private static final double[] STAT_VALUES = { 0.0, -0.0, 1.0, -7.0, 42.0, 1e15, -1e18, 0x1p63, 0.1, -2.5,
+            1e300, Double.MIN_VALUE, Double.NaN, Double.longBitsToDouble(0x7FF8_0000_0000_1234L),
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+
+    @Test
+    void statValuesRoundTripBitForBit() throws Exception {
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        List<AttributeKey> keys = new ArrayList<>();
+        for (int i = 0; i < STAT_VALUES.length; i++) {
+            AttributeKey key = AttributeKey.of("CodecTest-Stat" + i);
+            keys.add(key);
+            profile.setStat(key, STAT_VALUES[i]);
+        }
+
+        NexusProfile decoded = BinaryProfileCodec.decode(BinaryProfileCodec.encode(profile));
+        assertEquals(profile.getUuid(), decoded.getUuid());
+        assertEquals("tester", decoded.getPlayerName());
+        assertEquals(STAT_VALUES.length, decoded.getStatCount());
+        for (int i = 0; i < STAT_VALUES.length; i++)
+            assertEquals(Double.doubleToRawLongBits(STAT_VALUES[i]),
+                    Double.doubleToRawLongBits(decoded.getStat(keys.get(i))), "스탯 " + keys.get(i).getName());
+    }
+
+    @Test
+    void integralStatsAreWrittenShorter() throws Exception {
+        AttributeKey key = AttributeKey.of("CodecTest-Size");
+        int integral = encodedSize(key, 3.0);
+        assertTrue(integral < encodedSize(key, 3.5), "정수 스탯이 varint로 기록되지 않음");
+        // -0.0은 부호를 잃지 않도록 8바이트로 기록
+        assertEquals(encodedSize(key, 3.5), encodedSize(key, -0.0));
+        assertEquals(integral, encodedSize(key, 0.0));
+    }
+
+    @Test
+    void unknownStatsKeepTheirNames() throws Exception {
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), null);
+        profile.setStat(AttributeKey.of("CodecTest-Known"), 2.0);
+        int before = AttributeKey.count();
+        profile.loadStat("CodecTest-Removed", 7.25);
+        profile.loadStat("CodecTest-능력치", -3.0);
+
+        NexusProfile decoded = BinaryProfileCodec.decode(BinaryProfileCodec.encode(profile));
+        assertNull(decoded.getPlayerName());
+        assertEquals(2.0, decoded.getStat(AttributeKey.of("CodecTest-Known")));
+        assertEquals(Map.of("CodecTest-Removed", 7.25, "CodecTest-능력치", -3.0), decoded.getUnknownStats());
+        assertEquals(before, AttributeKey.count());
+        assertNull(AttributeKey.find("CodecTest-Removed"));
+    }
+
+    @Test
+    void everyMetaTypeRoundTrips() throws Exception {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("level", 3);
+        nested.put("tags", List.of("a", "", "한글"));
+        nested.put("none", null);
+        List<Object> mixed = new ArrayList<>(Arrays.asList(1, 2L, 3.5f, 4.5, "five", true, null));
+        mixed.add(List.of());
+        mixed.add(Map.of());
+
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.setMeta("null", null);
+        profile.setMeta("false", false);
+        profile.setMeta("true", true);
+        profile.setMeta("int", Integer.MIN_VALUE);
+        profile.setMeta("long", Long.MAX_VALUE);
+        profile.setMeta("float", -1.25f);
+        profile.setMeta("floatNaN", Float.NaN);
+        profile.setMeta("double", Math.PI);
+        profile.setMeta("doubleNegativeZero", -0.0);
+        profile.setMeta("string", "클래스: warrior");
+        profile.setMeta("empty", "");
+        profile.setMeta("list", mixed);
+        profile.setMeta("map", nested);
+
+        NexusProfile decoded = BinaryProfileCodec.decode(BinaryProfileCodec.encode(profile));
+        assertEquals(profile.getMetaContainer(), decoded.getMetaContainer());
+        assertTrue(decoded.getMetaContainer().containsKey("null"));
+        assertEquals(Integer.class, decoded.getMeta("int").getClass());
+        assertEquals(Long.class, decoded.getMeta("long").getClass());
+        assertEquals(Float.class, decoded.getMeta("float").getClass());
+        assertEquals(Double.doubleToRawLongBits(-0.0),
+                Double.doubleToRawLongBits(decoded.<Double>getMeta("doubleNegativeZero")));
+        // 맵은 기록한 순서를 유지
+        assertEquals(List.copyOf(nested.keySet()), List.copyOf(decoded.<Map<String, Object>>getMeta("map").keySet()));
+    }
+
+    @Test
+    void smallIntegersAreReadAsInteger() throws Exception {
+        // JSON(Jackson)과 같은 결과가 되도록 Short/Byte는 Integer로 읽힘
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.setMeta("short", (short) -12);
+        profile.setMeta("byte", (byte) 7);
+
+        NexusProfile decoded = BinaryProfileCodec.decode(BinaryProfileCodec.encode(profile));
+        assertEquals(-12, decoded.<Object>getMeta("short"));
+        assertEquals(7, decoded.<Object>getMeta("byte"));
+    }
+
+    @Test
+    void unsupportedMetaIsRejectedOnEncode() {
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.setMeta("uuid", UUID.randomUUID());
+        assertThrows(BinaryProfileCodec.UnsupportedTypeException.class, () -> BinaryProfileCodec.encode(profile));
+
+        NexusProfile keyed = new NexusProfile(UUID.randomUUID(), "tester");
+        keyed.setMeta("map", Map.of(1, "one"));
+        assertThrows(BinaryProfileCodec.UnsupportedTypeException.class, () -> BinaryProfileCodec.encode(keyed));
+
+        Object deep = "leaf";
+        for (int i = 0; i < 40; i++)
+            deep = List.of(deep);
+        NexusProfile nested = new NexusProfile(UUID.randomUUID(), "tester");
+        nested.setMeta("deep", deep);
+        assertThrows(BinaryProfileCodec.UnsupportedTypeException.class, () -> BinaryProfileCodec.encode(nested));
+    }
+
+    @Test
+    void truncatedInputIsRejected() throws Exception {
+        byte[] data = BinaryProfileCodec.encode(sample());
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(IOException.class, () -> BinaryProfileCodec.decode(truncated), "길이 " + length);
+        }
+    }
+
+    @Test
+    void corruptInputIsRejected() throws Exception {
+        byte[] data = BinaryProfileCodec.encode(sample());
+
+        byte[] trailing = Arrays.copyOf(data, data.length + 1);
+        assertThrows(IOException.class, () -> BinaryProfileCodec.decode(trailing));
+
+        byte[] version = data.clone();
+        version[3] = (byte) (BinaryProfileCodec.VERSION + 1);
+        assertThrows(IOException.class, () -> BinaryProfileCodec.decode(version));
+
+        byte[] magic = data.clone();
+        magic[0] = '{';
+        assertThrows(IOException.class, () -> BinaryProfileCodec.decode(magic));
+
+        // 메타 하나짜리 프로필의 타입 태그를 알 수 없는 값으로
+        NexusProfile single = new NexusProfile(new UUID(1, 2), null);
+        single.setMeta("k", true);
+        byte[] tag = BinaryProfileCodec.encode(single);
+        tag[tag.length - 1] = 42;
+        assertThrows(IOException.class, () -> BinaryProfileCodec.decode(tag));
+
+        // 스탯 개수가 남은 바이트보다 큰 값 (큰 배열을 만들지 않고 거부)
+        byte[] count = Arrays.copyOf(tag, 4 + 16 + 1 + 5);
+        count[4 + 16 + 1] = (byte) 0xFF;
+        count[4 + 16 + 2] = (byte) 0xFF;
+        count[4 + 16 + 3] = (byte) 0xFF;
+        count[4 + 16 + 4] = (byte) 0xFF;
+        count[4 + 16 + 5] = 0x07;
+        assertThrows(IOException.class, () -> BinaryProfileCodec.decode(count));
+
+        // 어느 바이트가 망가져도 IOException 이외의 예외(배열 크기, 스택 오버플로 등)가 나지 않음
+        for (int i = 0; i < data.length; i++) {
+            for (int mask : new int[] { 0x01, 0x80, 0xFF }) {
+                byte[] corrupt = data.clone();
+                corrupt[i] ^= (byte) mask;
+                try {
+                    BinaryProfileCodec.decode(corrupt);
+                } catch (IOException expected) {
+                    // 거부
+                } catch (RuntimeException | Error e) {
+                    fail("위치 " + i + " 손상 시 예상하지 못한 예외: " + e);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodedProfileReencodesIdentically() throws Exception {
+        byte[] data = BinaryProfileCodec.encode(sample());
+        assertArrayEquals(data, BinaryProfileCodec.encode(BinaryProfileCodec.decode(data)));
+    }
+
+    private static int encodedSize(AttributeKey key, double value) throws Exception {
+        NexusProfile profile = new NexusProfile(new UUID(0, 0), null);
+        profile.setStat(key, value);
+        return BinaryProfileCodec.encode(profile).length;
+    }
+
+    private static NexusProfile sample() {
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.setStat(AttributeKey.of("CodecTest-Sample"), 12.0);
+        profile.setStat(AttributeKey.of("CodecTest-SampleFraction"), 0.5);
+        profile.loadStat("CodecTest-SampleUnknown", 3.0);
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("depth", List.of(List.of(1L, 2.5f)));
+        profile.setMeta("nested", nested);
+        profile.setMeta("name", "값");
+        return profile;
+    }
+}
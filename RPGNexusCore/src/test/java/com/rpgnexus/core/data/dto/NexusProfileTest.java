@@ -0,0 +1,63 @@
+package com.rpgnexus.core.data.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rpgnexus.core.data.codec.BinaryProfileCodec;
+import com.rpgnexus.core.registry.AttributeKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 등록되지 않은 스탯 이름이 AttributeKey 순번을 만들지 않고 보존되는지 확인합니다.
+ */
+class NexusProfileTest {
+
+    @Test
+    void unknownStatsDoNotAllocateOrdinals() throws Exception {
+        AttributeKey known = AttributeKey.of("ProfileTest-Known");
+        int before = AttributeKey.count();
+
+        Map<String, Double> stored = new LinkedHashMap<>();
+        stored.put("ProfileTest-Known", 3.0);
+        stored.put("ProfileTest-Removed", 7.5);
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.setStatContainer(stored);
+
+        assertEquals(before, AttributeKey.count());
+        assertNull(AttributeKey.find("ProfileTest-Removed"));
+        assertEquals(3.0, profile.getStat(known));
+        assertEquals(1, profile.getStatCount());
+        assertEquals(Map.of("ProfileTest-Removed", 7.5), profile.getUnknownStats());
+        assertEquals(stored, profile.getStatContainer());
+
+        // 저장 형식 왕복에서도 순번 없이 그대로 유지
+        NexusProfile decoded = BinaryProfileCodec.decode(BinaryProfileCodec.encode(profile));
+        assertEquals(stored, decoded.getStatContainer());
+        ObjectMapper mapper = new ObjectMapper();
+        NexusProfile json = mapper.readValue(mapper.writeValueAsString(profile), NexusProfile.class);
+        assertEquals(stored, json.getStatContainer());
+        assertEquals(before, AttributeKey.count());
+    }
+
+    @Test
+    void unknownStatIsPromotedOnceRegistered() {
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.loadStat("ProfileTest-Late", 4.0);
+        assertTrue(profile.getUnknownStats().containsKey("ProfileTest-Late"));
+
+        // 리로드 등으로 나중에 등록된 이름 (대소문자 무시)
+        AttributeKey late = AttributeKey.of("profiletest-late");
+        assertEquals(4.0, profile.getStat(late));
+        assertTrue(profile.getUnknownStats().isEmpty());
+        assertEquals(1, profile.getStatCount());
+
+        profile.setStat(late, 5.0);
+        assertEquals(5.0, profile.getStat("ProfileTest-Late"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.rpgnexus.core.data.storage;
+
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 파일 임대에서 빼앗긴 임대로는 기록이 실행되지 않는지 확인합니다. (JsonDataStorage의 저장 전 확인)
+ */
+class FileProfileLeasesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void runIfHeldStopsAfterTakeover() throws Exception {
+        FileProfileLeases leases = new FileProfileLeases(directory.resolve("leases").toFile());
+        UUID uuid = UUID.randomUUID();
+        AtomicInteger writes = new AtomicInteger();
+
+        Lease first = leases.acquire(uuid, "server-a", 60_000, false);
+        assertTrue(leases.runIfHeld(first, writes::incrementAndGet));
+        assertEquals(1, writes.get());
+
+        assertFalse(leases.acquire(uuid, "server-b", 60_000, false).isGranted());
+        Lease taken = leases.acquire(uuid, "server-b", 60_000, true);
+        assertEquals(first.getToken() + 1, taken.getToken());
+
+        assertFalse(leases.runIfHeld(first, writes::incrementAndGet));
+        assertEquals(1, writes.get());
+        assertTrue(leases.runIfHeld(taken, writes::incrementAndGet));
+        assertEquals(2, writes.get());
+    }
+}
@@ -0,0 +1,264 @@
+package com.rpgnexus.core.data.storage;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 재시작 시 인덱스 복구, 잘린 끝부분 정리, 압축과 저장의 경합, 세그먼트 전환을 확인합니다.
+ */
+class LogDataStorageTest {
+
+    private static final Logger LOGGER = Logger.getLogger("LogDataStorageTest");
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    // 세그먼트 하나에 10개 남짓 들어가는 크기
+    private static final int BLOB_SIZE = 5000;
+
+    @TempDir
+    Path directory;
+
+    private LogDataStorage storage;
+
+    @AfterEach
+    void close() {
+        if (storage != null)
+            storage.close();
+    }
+
+    @Test
+    void restartRebuildsIndex() throws Exception {
+        storage = open();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        storage.saveBatch(List.of(profile(first, 1, 10), profile(second, 1, 10)));
+        storage.save(profile(first, 2, 10)).get();
+        storage.close();
+
+        storage = open();
+        assertEquals(new HashSet<>(List.of(first, second)), storage.listProfiles());
+        assertEquals(2.0, version(storage.load(first).get()));
+        assertEquals(1.0, version(storage.load(second).get()));
+        assertNull(storage.load(UUID.randomUUID()).get());
+    }
+
+    @Test
+    void tornTailIsZeroedAndNextAppendWorks() throws Exception {
+        storage = open();
+        UUID first = UUID.randomUUID();
+        storage.save(profile(first, 1, 10)).get();
+        storage.close();
+
+        // 기록 도중 멈춘 레코드: 길이는 썼지만 CRC와 본문이 맞지 않음
+        File segment = segmentFiles().get(0);
+        int end;
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            end = 24 + raf.readInt();
+            raf.seek(end);
+            raf.writeInt(100);
+            raf.writeInt(0xDEADBEEF);
+            for (int i = 0; i < 40; i++)
+                raf.writeByte(0x5A);
+        }
+
+        storage = open();
+        assertEquals(Collections.singleton(first), storage.listProfiles());
+        UUID second = UUID.randomUUID();
+        storage.save(profile(second, 1, 10)).get();
+        storage.close();
+
+        storage = open();
+        assertEquals(new HashSet<>(List.of(first, second)), storage.listProfiles());
+        assertEquals(1.0, version(storage.load(first).get()));
+        assertEquals(1.0, version(storage.load(second).get()));
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "r")) {
+            raf.seek(end);
+            int length = raf.readInt();
+            raf.seek(end + 24 + length);
+            for (int i = 0; i < 64; i++)
+                assertEquals(0, raf.readByte(), "잘린 레코드의 찌꺼기가 남음");
+        }
+    }
+
+    @Test
+    void rollAcrossSegmentsThenRestart() throws Exception {
+        storage = open();
+        Map<UUID, Integer> saved = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            UUID uuid = UUID.randomUUID();
+            storage.save(profile(uuid, i, BLOB_SIZE)).get();
+            saved.put(uuid, i);
+        }
+        assertTrue(segmentFiles().size() >= 3, "세그먼트가 전환되지 않음: " + segmentFiles());
+        storage.close();
+
+        storage = open();
+        assertEquals(saved.keySet(), storage.listProfiles());
+        for (Map.Entry<UUID, Integer> entry : saved.entrySet()) {
+            NexusProfile loaded = storage.load(entry.getKey()).get();
+            assertEquals(entry.getValue().doubleValue(), version(loaded));
+            assertEquals(BLOB_SIZE, loaded.<String>getMeta("blob").length());
+        }
+
+        // 복구한 활성 세그먼트 끝에 이어 쓰고 다시 복구
+        UUID last = UUID.randomUUID();
+        storage.save(profile(last, 99, BLOB_SIZE)).get();
+        storage.close();
+        storage = open();
+        assertEquals(saved.size() + 1, storage.listProfiles().size());
+        assertEquals(99.0, version(storage.load(last).get()));
+    }
+
+    @Test
+    void compactionKeepsNewestRecordWhenSaveRaces() throws Exception {
+        storage = open();
+        List<UUID> uuids = new ArrayList<>();
+        Map<UUID, Integer> latest = new ConcurrentHashMap<>();
+        List<NexusProfile> initial = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID uuid = UUID.randomUUID();
+            uuids.add(uuid);
+            initial.add(profile(uuid, 0, 1000));
+            latest.put(uuid, 0);
+        }
+        storage.saveBatch(initial);
+
+        // 압축이 레코드를 읽고 잠금을 기다리는 동안 같은 플레이어가 든 배치를 계속 저장
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            Random random = new Random(7);
+            try {
+                for (int version = 1; version <= 200; version++) {
+                    Map<UUID, NexusProfile> batch = new HashMap<>();
+                    for (int i = 0; i < 50; i++) {
+                        UUID uuid = uuids.get(random.nextInt(uuids.size()));
+                        batch.put(uuid, profile(uuid, version, 1000));
+                    }
+                    storage.saveBatch(new ArrayList<>(batch.values()));
+                    for (UUID uuid : batch.keySet())
+                        latest.put(uuid, version);
+                    // 다음 저장이 덮기 전에 확인 (잠금을 기다리던 압축이 이전 레코드를 다시 쓰지 않았는지)
+                    assertNewest(latest);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "LogDataStorageTest-Writer");
+        writer.start();
+        while (writer.isAlive())
+            storage.compact();
+        writer.join();
+        assertNull(failure.get());
+        storage.compact();
+
+        assertNewest(latest);
+        storage.close();
+        storage = open();
+        assertNewest(latest);
+    }
+
+    @Test
+    void corruptSealedSegmentIsReported() throws Exception {
+        storage = open();
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UUID uuid = UUID.randomUUID();
+            uuids.add(uuid);
+            storage.save(profile(uuid, i, BLOB_SIZE)).get();
+        }
+        storage.close();
+
+        // 첫 세그먼트의 두 번째 레코드 본문을 망가뜨림
+        File sealed = segmentFiles().get(0);
+        try (RandomAccessFile raf = new RandomAccessFile(sealed, "rw")) {
+            int second = 24 + raf.readInt();
+            raf.seek(second + 40);
+            raf.writeByte(raf.readByte() ^ 0xFF);
+        }
+
+        List<String> warnings = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel() == Level.WARNING)
+                    warnings.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        LOGGER.addHandler(handler);
+        try {
+            storage = open();
+        } finally {
+            LOGGER.removeHandler(handler);
+        }
+        assertEquals(1, warnings.size(), "봉인 세그먼트 손상이 기록되지 않음: " + warnings);
+        assertTrue(warnings.get(0).contains(sealed.getName()));
+        assertEquals(0.0, version(storage.load(uuids.get(0)).get()));
+        assertNull(storage.load(uuids.get(1)).get());
+        assertEquals(19.0, version(storage.load(uuids.get(19)).get()));
+
+        // 읽지 못한 레코드가 남은 파일은 압축으로 지우지 않음
+        storage.compact();
+        assertTrue(sealed.exists());
+    }
+
+    private void assertNewest(Map<UUID, Integer> latest) throws Exception {
+        for (Map.Entry<UUID, Integer> entry : latest.entrySet())
+            assertEquals(entry.getValue().doubleValue(), version(storage.load(entry.getKey()).get()),
+                    "압축 후 이전 레코드가 보임: " + entry.getKey());
+    }
+
+    private LogDataStorage open() {
+        // 압축은 테스트에서 직접 실행
+        LogDataStorage opened = new LogDataStorage(directory.toFile(), LOGGER, SEGMENT_SIZE, 0, 1.0);
+        opened.initialize();
+        return opened;
+    }
+
+    private List<File> segmentFiles() {
+        File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(".log"));
+        List<File> sorted = new ArrayList<>(List.of(files));
+        sorted.sort(null);
+        return sorted;
+    }
+
+    private static NexusProfile profile(UUID uuid, int version, int blobSize) {
+        NexusProfile profile = new NexusProfile(uuid, "tester");
+        profile.setStat("LogTest-Version", version);
+        profile.setMeta("blob", "x".repeat(blobSize));
+        return profile;
+    }
+
+    private static double version(NexusProfile profile) {
+        return profile.getStatContainer().get("LogTest-Version");
+    }
+}
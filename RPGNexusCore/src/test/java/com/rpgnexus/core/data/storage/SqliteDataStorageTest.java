@@ -0,0 +1,224 @@
+package com.rpgnexus.core.data.storage;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.data.storage.ProfileLeases.Lease;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 임시 디렉터리의 SQLite 파일로 마이그레이션, 배치 저장, 임대를 확인합니다.
+ */
+class SqliteDataStorageTest {
+
+    private static final Logger LOGGER = Logger.getLogger("SqliteDataStorageTest");
+
+    @TempDir
+    Path directory;
+
+    private SqliteDataStorage storage;
+
+    @AfterEach
+    void close() {
+        if (storage != null)
+            storage.close();
+    }
+
+    @Test
+    void migratesVersionOneDatabase() throws Exception {
+        File file = directory.resolve("v1.db").toFile();
+        UUID uuid = UUID.randomUUID();
+        // 배포된 v1 스키마 그대로 (속성 이름이 대소문자를 구분하던 시절의 중복 행 포함)
+        try (Connection connection = open(file); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE profiles (uuid TEXT PRIMARY KEY, player_name TEXT, meta TEXT, "
+                    + "updated_at INTEGER NOT NULL)");
+            statement.execute("CREATE TABLE profile_stats (uuid TEXT NOT NULL, attribute TEXT NOT NULL, "
+                    + "value REAL NOT NULL, revision INTEGER NOT NULL, PRIMARY KEY (uuid, attribute)) WITHOUT ROWID");
+            statement.execute("CREATE INDEX idx_profile_stats_attribute ON profile_stats (attribute, value)");
+            statement.execute("INSERT INTO profiles VALUES ('" + uuid + "', 'old', '{\"class\":\"warrior\"}', 1)");
+            statement.execute("INSERT INTO profile_stats VALUES ('" + uuid + "', 'SqlTest-Migrated', 1.0, 1)");
+            statement.execute("INSERT INTO profile_stats VALUES ('" + uuid + "', 'sqltest-migrated', 2.0, 2)");
+            statement.execute("PRAGMA user_version = 1");
+        }
+
+        storage = open(file, 1);
+        assertEquals(3, userVersion(file));
+        assertEquals(1, count(file, "SELECT COUNT(*) FROM profile_stats WHERE attribute = 'SQLTEST-MIGRATED'"));
+        assertEquals(0, count(file, "SELECT COUNT(*) FROM profile_leases"));
+
+        NexusProfile loaded = storage.load(uuid).get();
+        assertEquals("old", loaded.getPlayerName());
+        assertEquals("warrior", loaded.getMeta("class"));
+        assertEquals(1, loaded.getStatContainer().size());
+
+        // 다시 열어도 마이그레이션을 반복하지 않음
+        storage.close();
+        storage = open(file, 1);
+        assertEquals(3, userVersion(file));
+    }
+
+    @Test
+    void rejectsNewerSchema() throws Exception {
+        File file = directory.resolve("future.db").toFile();
+        try (Connection connection = open(file); Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA user_version = 99");
+        }
+        assertThrows(IllegalStateException.class, () -> open(file, 1));
+    }
+
+    @Test
+    void deltaSaveWritesOnlyChangedRows() throws Exception {
+        File file = directory.resolve("delta.db").toFile();
+        storage = open(file, 2);
+        UUID uuid = UUID.randomUUID();
+
+        NexusProfile profile = new NexusProfile(uuid, "tester");
+        profile.setStat("SqlTest-A", 1.0);
+        profile.setStat("SqlTest-B", 2.0);
+        storage.saveBatch(List.of(profile.copyForSave()));
+        Map<String, Long> before = revisions(file, uuid);
+        assertEquals(2, before.size());
+
+        // 다른 서버/이전 버전이 남긴 행: 변경분 저장은 건드리지 않음
+        execute(file, "INSERT INTO profile_stats VALUES ('" + uuid + "', 'SqlTest-Stale', 9.0, 0)");
+
+        profile.setStat("SqlTest-A", 5.0);
+        assertFalse(profile.isPersistAll());
+        storage.saveBatch(List.of(profile.copyForSave()));
+
+        Map<String, Long> after = revisions(file, uuid);
+        assertEquals(3, after.size());
+        assertTrue(after.get("SqlTest-A") > before.get("SqlTest-A"));
+        assertEquals(before.get("SqlTest-B"), after.get("SqlTest-B"));
+        assertEquals(5.0, storage.load(uuid).get().getStatContainer().get("SqlTest-A"));
+    }
+
+    @Test
+    void fullSaveDeletesStaleRows() throws Exception {
+        File file = directory.resolve("full.db").toFile();
+        storage = open(file, 2);
+        UUID uuid = UUID.randomUUID();
+
+        NexusProfile profile = new NexusProfile(uuid, "tester");
+        profile.setStat("SqlTest-A", 1.0);
+        profile.setStat("SqlTest-B", 2.0);
+        storage.saveBatch(List.of(profile.copyForSave()));
+        execute(file, "INSERT INTO profile_stats VALUES ('" + uuid + "', 'SqlTest-Stale', 9.0, 0)");
+
+        // 스탯 통째 교체 -> 전체 저장: B와 남은 행 삭제
+        Map<String, Double> replaced = new HashMap<>();
+        replaced.put("SqlTest-A", 3.0);
+        profile.setStatContainer(replaced);
+        assertTrue(profile.isPersistAll());
+        storage.saveBatch(List.of(profile.copyForSave()));
+
+        assertEquals(Collections.singleton("SqlTest-A"), revisions(file, uuid).keySet());
+        assertEquals(replaced, storage.load(uuid).get().getStatContainer());
+    }
+
+    @Test
+    void acquireRespectsOwnerUnlessForced() throws Exception {
+        storage = open(directory.resolve("lease.db").toFile(), 1);
+        ProfileLeases leases = storage.getLeases();
+        UUID uuid = UUID.randomUUID();
+
+        Lease first = leases.acquire(uuid, "server-a", 60_000, false);
+        assertTrue(first.isGranted());
+        assertEquals(1, first.getToken());
+
+        // 같은 서버가 다시 얻으면 token 유지
+        assertEquals(1, leases.acquire(uuid, "server-a", 60_000, false).getToken());
+
+        Lease denied = leases.acquire(uuid, "server-b", 60_000, false);
+        assertFalse(denied.isGranted());
+        assertEquals("server-a", denied.getOwner());
+        assertEquals(1, denied.getToken());
+
+        Lease forced = leases.acquire(uuid, "server-b", 60_000, true);
+        assertTrue(forced.isGranted());
+        assertEquals(2, forced.getToken());
+
+        // 빼앗긴 서버는 갱신/반납이 되지 않음
+        assertEquals(Collections.singleton(uuid), leases.renew(List.of(first), 60_000));
+        leases.release(first);
+        assertEquals("server-b", leases.acquire(uuid, "server-a", 60_000, false).getOwner());
+
+        leases.release(forced);
+        Lease released = leases.acquire(uuid, "server-a", 60_000, false);
+        assertTrue(released.isGranted());
+        assertEquals(3, released.getToken());
+    }
+
+    @Test
+    void acquireTakesExpiredLease() throws Exception {
+        storage = open(directory.resolve("expired.db").toFile(), 1);
+        ProfileLeases leases = storage.getLeases();
+        UUID uuid = UUID.randomUUID();
+
+        assertTrue(leases.acquire(uuid, "server-a", -1, false).isGranted());
+        Lease taken = leases.acquire(uuid, "server-b", 60_000, false);
+        assertTrue(taken.isGranted());
+        assertEquals(2, taken.getToken());
+    }
+
+    private static SqliteDataStorage open(File file, int poolSize) {
+        SqliteDataStorage storage = new SqliteDataStorage(file, LOGGER, poolSize);
+        storage.initialize();
+        return storage;
+    }
+
+    private static Connection open(File file) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+    }
+
+    private static void execute(File file, String sql) throws SQLException {
+        try (Connection connection = open(file); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int userVersion(File file) throws SQLException {
+        return count(file, "PRAGMA user_version");
+    }
+
+    private static int count(File file, String sql) throws SQLException {
+        try (Connection connection = open(file); Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(sql)) {
+            return result.next() ? result.getInt(1) : -1;
+        }
+    }
+
+    private static Map<String, Long> revisions(File file, UUID uuid) throws SQLException {
+        Map<String, Long> revisions = new HashMap<>();
+        try (Connection connection = open(file);
+                PreparedStatement select = connection.prepareStatement(
+                        "SELECT attribute, revision FROM profile_stats WHERE uuid = ?")) {
+            select.setString(1, uuid.toString());
+            try (ResultSet result = select.executeQuery()) {
+                while (result.next())
+                    revisions.put(result.getString(1), result.getLong(2));
+            }
+        }
+        return revisions;
+    }
+}
@@ -0,0 +1,169 @@
+package com.rpgnexus.core.data.storage;
+
+import com.rpgnexus.core.config.dto.GeneralConfig.StorageSettings;
+import com.rpgnexus.core.data.dto.NexusProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 하위 저장소 장애 중 재시도를 다 쓴 저장의 처리를 확인합니다. (접속 중이면 버림, 퇴장했으면 계속 재시도)
+ */
+class WriteBehindStorageTest {
+
+    private static final Logger LOGGER = Logger.getLogger("WriteBehindStorageTest");
+
+    private final MemoryStorage backend = new MemoryStorage();
+    private WriteBehindStorage storage;
+
+    @AfterEach
+    void close() {
+        if (storage != null)
+            storage.shutdown(5000);
+    }
+
+    @Test
+    void offlineSaveIsRetriedUntilStorageRecovers() throws Exception {
+        open(uuid -> false);
+        NexusProfile profile = profile(1.0);
+        CompletableFuture<Void> saved = storage.save(profile);
+
+        // 재시도(1회)를 넘겨도 버리지 않고 대기열에 남음
+        backend.failing = true;
+        for (int i = 0; i < 5; i++) {
+            storage.flush().join();
+            Thread.sleep(60);
+        }
+        assertFalse(saved.isDone());
+        assertEquals(1, storage.getMetrics().getQueueDepth());
+        assertEquals(0, storage.getMetrics().getDropped());
+
+        backend.failing = false;
+        awaitDone(saved);
+        assertFalse(saved.isCompletedExceptionally());
+        assertEquals(1.0, backend.rows.get(profile.getUuid()).getStatContainer().get("RetryTest-Value"));
+    }
+
+    @Test
+    void onlineSaveIsDroppedAndNextSaveIsFull() throws Exception {
+        open(uuid -> true);
+        NexusProfile profile = profile(1.0);
+        backend.failing = true;
+        CompletableFuture<Void> saved = storage.save(profile);
+        awaitDone(saved);
+        assertTrue(saved.isCompletedExceptionally());
+        assertEquals(1, storage.getMetrics().getDropped());
+
+        // 버려진 변경분까지 남도록 다음 저장은 전체 저장
+        backend.failing = false;
+        profile.setStat("RetryTest-Other", 2.0);
+        CompletableFuture<Void> next = storage.save(profile);
+        awaitDone(next);
+        assertTrue(backend.lastFull.contains(profile.getUuid()));
+        assertEquals(1.0, backend.rows.get(profile.getUuid()).getStatContainer().get("RetryTest-Value"));
+    }
+
+    @Test
+    void retryingOfflineSaveIsReportedOnShutdown() throws Exception {
+        open(uuid -> false);
+        NexusProfile profile = profile(3.0);
+        backend.failing = true;
+        CompletableFuture<Void> saved = storage.save(profile);
+        for (int i = 0; i < 3; i++)
+            storage.flush().join();
+
+        WriteBehindStorage.ShutdownReport report = storage.shutdown(2000);
+        storage = null;
+        assertTrue(saved.isCompletedExceptionally());
+        assertEquals(1, report.getUnsaved().size());
+        assertEquals(3.0, report.getUnsaved().get(0).getStatContainer().get("RetryTest-Value"));
+    }
+
+    private void open(Predicate<String> online) {
+        StorageSettings settings = new StorageSettings();
+        settings.setMaxRetries(1);
+        settings.setFlushIntervalMillis(50);
+        storage = new WriteBehindStorage(backend, LOGGER, settings);
+        storage.setOnlineCheck(online);
+        storage.initialize();
+    }
+
+    private static NexusProfile profile(double value) {
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.markPersisted(); // 저장된 적 있는 프로필: 이후 저장은 변경분만
+        profile.setStat("RetryTest-Value", value);
+        return profile;
+    }
+
+    private void awaitDone(CompletableFuture<Void> future) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!future.isDone() && System.currentTimeMillis() < deadline) {
+            storage.flush().join();
+            Thread.sleep(20);
+        }
+        assertTrue(future.isDone());
+    }
+
+    /**
+     * 메모리에 스냅샷을 보관하는 저장소. failing이면 기록이 실패합니다.
+     */
+    private static final class MemoryStorage implements DataStorage {
+        private final Map<String, NexusProfile> rows = new ConcurrentHashMap<>();
+        private final Set<String> lastFull = ConcurrentHashMap.newKeySet();
+        private volatile boolean failing;
+
+        @Override
+        public CompletableFuture<NexusProfile> load(UUID uuid) {
+            NexusProfile row = rows.get(uuid.toString());
+            return CompletableFuture.completedFuture(row != null ? row.copy() : null);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(NexusProfile profile) {
+            return CompletableFuture.runAsync(() -> rows.put(profile.getUuid(), profile.copy()));
+        }
+
+        @Override
+        public void saveBatch(List<NexusProfile> profiles) throws Exception {
+            if (failing)
+                throw new IOException("저장소 장애 (테스트)");
+            for (NexusProfile profile : profiles) {
+                rows.put(profile.getUuid(), profile.copy());
+                if (profile.isPersistAll())
+                    lastFull.add(profile.getUuid());
+                else
+                    lastFull.remove(profile.getUuid());
+            }
+        }
+
+        @Override
+        public Set<UUID> listProfiles() {
+            Set<UUID> uuids = new HashSet<>();
+            for (String key : rows.keySet())
+                uuids.add(UUID.fromString(key));
+            return uuids;
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
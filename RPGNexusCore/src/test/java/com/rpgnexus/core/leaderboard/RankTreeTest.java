@@ -0,0 +1,128 @@
+package com.rpgnexus.core.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 순위 트리를 정렬된 목록과 비교합니다. (공동 순위, N번째 조회, 갱신/삭제)
+ */
+class RankTreeTest {
+
+    // 값 내림차순, 같으면 UUID 오름차순 (RankTree와 같은 순서)
+    private static final Comparator<Map.Entry<UUID, Double>> ORDER = Comparator
+            .<Map.Entry<UUID, Double>, Double>comparing(Map.Entry::getValue, Comparator.reverseOrder())
+            .thenComparing(Map.Entry::getKey);
+
+    @Test
+    void tiesShareRank() {
+        RankTree tree = new RankTree();
+        UUID first = new UUID(0, 1);
+        UUID tiedA = new UUID(0, 2);
+        UUID tiedB = new UUID(0, 3);
+        UUID last = new UUID(0, 4);
+        tree.update(last, "d", 1.0);
+        tree.update(tiedB, "c", 5.0);
+        tree.update(first, "a", 10.0);
+        tree.update(tiedA, "b", 5.0);
+
+        assertEquals(1, tree.rankOf(first));
+        assertEquals(2, tree.rankOf(tiedA));
+        assertEquals(2, tree.rankOf(tiedB));
+        assertEquals(4, tree.rankOf(last));
+        assertEquals(0, tree.rankOf(UUID.randomUUID()));
+
+        // 같은 값은 UUID 순
+        assertEquals(tiedA, tree.get(1).getUuid());
+        assertEquals(tiedB, tree.get(2).getUuid());
+        assertNull(tree.get(-1));
+        assertNull(tree.get(4));
+
+        // 값이 그대로면 이름만 바뀌고 순서는 그대로
+        assertFalse(tree.update(tiedB, "renamed", 5.0));
+        assertEquals("renamed", tree.get(2).getName());
+        assertFalse(tree.putIfAbsent(first, "a", 0.0));
+        assertEquals(10.0, tree.get(0).getValue());
+
+        assertTrue(tree.remove(first));
+        assertFalse(tree.remove(first));
+        assertEquals(1, tree.rankOf(tiedA));
+        assertEquals(3, tree.rankOf(last));
+    }
+
+    @Test
+    void matchesSortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        RankTree tree = new RankTree();
+        Map<UUID, Double> model = new HashMap<>();
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 300; i++)
+            players.add(UUID.randomUUID());
+        // 값 범위를 좁혀 공동 순위가 자주 생기도록 함 (-0.0과 0.0은 Double.compare처럼 다른 값)
+        double[] values = {-3.5, -0.0, 0.0, 1.0, 2.0, 2.5, 7.0, 100.0};
+
+        for (int step = 0; step < 20_000; step++) {
+            UUID uuid = players.get(random.nextInt(players.size()));
+            double value = values[random.nextInt(values.length)];
+            int action = random.nextInt(10);
+            if (action < 6) {
+                tree.update(uuid, "p" + step, value);
+                model.put(uuid, value);
+            } else if (action < 8) {
+                assertEquals(!model.containsKey(uuid), tree.putIfAbsent(uuid, "p" + step, value));
+                model.putIfAbsent(uuid, value);
+            } else {
+                assertEquals(model.remove(uuid) != null, tree.remove(uuid));
+            }
+            if (step % 500 == 0)
+                assertMatches(tree, model);
+        }
+        assertMatches(tree, model);
+
+        for (UUID uuid : players) {
+            tree.remove(uuid);
+            model.remove(uuid);
+        }
+        assertMatches(tree, model);
+        assertEquals(0, tree.size());
+    }
+
+    private static void assertMatches(RankTree tree, Map<UUID, Double> model) {
+        List<Map.Entry<UUID, Double>> sorted = new ArrayList<>(model.entrySet());
+        sorted.sort(ORDER);
+        assertEquals(sorted.size(), tree.size());
+
+        List<RankTree.Entry> entries = tree.entries();
+        assertEquals(sorted.size(), entries.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            Map.Entry<UUID, Double> expected = sorted.get(i);
+            assertEquals(expected.getKey(), entries.get(i).getUuid());
+            assertEquals(expected.getValue(), entries.get(i).getValue());
+            assertEquals(expected.getKey(), tree.get(i).getUuid());
+
+            // 공동 순위: 값이 더 큰 플레이어 수 + 1
+            int greater = 0;
+            while (greater < i && Double.compare(sorted.get(greater).getValue(), expected.getValue()) > 0)
+                greater++;
+            assertEquals(greater + 1, tree.rankOf(expected.getKey()));
+            assertTrue(tree.contains(expected.getKey()));
+        }
+
+        int limit = Math.min(10, sorted.size());
+        List<RankTree.Entry> top = tree.top(10);
+        assertEquals(limit, top.size());
+        for (int i = 0; i < limit; i++)
+            assertEquals(sorted.get(i).getKey(), top.get(i).getUuid());
+    }
+}
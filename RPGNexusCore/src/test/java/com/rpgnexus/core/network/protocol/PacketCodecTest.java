@@ -0,0 +1,171 @@
+package com.rpgnexus.core.network.protocol;
+
+import com.rpgnexus.core.data.dto.NexusProfile;
+import com.rpgnexus.core.network.packet.AttributeTablePacket;
+import com.rpgnexus.core.network.packet.Packet;
+import com.rpgnexus.core.network.packet.PacketType;
+import com.rpgnexus.core.network.packet.PlayerStatusDeltaPacket;
+import com.rpgnexus.core.network.packet.PlayerStatusPacket;
+import com.rpgnexus.core.network.packet.TargetInfoPacket;
+import com.rpgnexus.core.registry.AttributeKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * PacketEncoder로 만든 바이너리 프레임을 참조 디코더(PacketDecoder)로 다시 읽어 비교합니다.
+ */
+class PacketCodecTest {
+
+    private static final double[] NUMBERS = { 0.0, -0.0, 1.0, -1.0, 5.0, 0.5, -2.25, 1e-300, 1e300, -1e300,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE,
+            0x1p53 - 1, -(0x1p53 - 1), 0x1p53, -0x1p53, 0x1p62, 0x1p63, -0x1p63, 0x1p64, -0x1p64 };
+
+    @Test
+    void numbersRoundTripBitForBit() {
+        for (double value : NUMBERS) {
+            byte[] bytes = PacketBuffer.acquire().number(value).toByteArray();
+            PacketReader in = PacketReader.wrap(bytes);
+            double decoded = in.number();
+            in.expectEnd();
+            assertEquals(Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(decoded),
+                    () -> value + " -> " + decoded);
+        }
+    }
+
+    @Test
+    void numbersUseShortestForm() {
+        // 2^53 미만 정수는 varint, 나머지(-0.0, NaN, 범위 밖 정수 포함)는 헤더 + 8바이트
+        assertEquals(1, PacketBuffer.acquire().number(5.0).size());
+        assertEquals(1, PacketBuffer.acquire().number(-5.0).size());
+        assertEquals(9, PacketBuffer.acquire().number(0.5).size());
+        assertEquals(9, PacketBuffer.acquire().number(-0.0).size());
+        assertEquals(9, PacketBuffer.acquire().number(Double.NaN).size());
+        assertEquals(9, PacketBuffer.acquire().number(0x1p53).size());
+        assertEquals(9, PacketBuffer.acquire().number(-0x1p63).size());
+    }
+
+    @Test
+    void statusUsesAttributeTable() {
+        AttributeKey first = AttributeKey.of("CodecTest-First");
+        AttributeKey second = AttributeKey.of("CodecTest-Second");
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.setStat(first, 2.5);
+        profile.setStat(second, -0.0);
+        profile.setStat("mana", 30.0);
+        PlayerStatusPacket status = new PlayerStatusPacket(profile);
+
+        PacketDecoder decoder = new PacketDecoder();
+        Map<String, Object> table = payload(decoder.decode(encode(
+                AttributeTablePacket.range(0, status.getMaxAttributeOrdinal()))));
+        assertEquals(0, table.get("from"));
+        assertEquals(status.getMaxAttributeOrdinal() + 1, ((List<?>) table.get("names")).size());
+        assertEquals("CodecTest-First", decoder.getAttributes().get(first.ordinal()));
+
+        Map<String, Object> decoded = payload(decoder.decode(encode(status)));
+        assertEquals(30.0, decoded.get("currentMana"));
+        assertEquals(status.getPayload().getStats(), decoded.get("stats"));
+        @SuppressWarnings("unchecked")
+        Map<String, Double> stats = (Map<String, Double>) decoded.get("stats");
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(stats.get("CodecTest-Second")));
+
+        // 차이 패킷: 바뀐 값과 사라진 스탯만
+        NexusProfile next = new NexusProfile(UUID.randomUUID(), "tester");
+        next.setStat(first, 4.0);
+        next.setStat("mana", 30.0);
+        PlayerStatusDeltaPacket delta = PlayerStatusDeltaPacket.between(status.getPayload(),
+                new PlayerStatusPacket(next).getPayload());
+        Map<String, Object> changed = payload(decoder.decode(encode(delta)));
+        assertEquals(Map.of("CodecTest-First", 4.0), changed.get("stats"));
+        assertEquals(List.of("CodecTest-Second"), changed.get("removed"));
+    }
+
+    @Test
+    void attributeTableExtendsFromOffset() {
+        PacketDecoder decoder = new PacketDecoder();
+        decoder.decode(encode(new AttributeTablePacket(0, List.of("a", "b"))));
+        decoder.decode(encode(new AttributeTablePacket(2, List.of("c"))));
+        assertEquals(List.of("a", "b", "c"), decoder.getAttributes());
+    }
+
+    @Test
+    void bundleMatchesSeparateFrames() {
+        byte[] table = encode(new AttributeTablePacket(0, List.of("a")));
+        byte[] target = encode(new TargetInfoPacket(7, "zombie", 12.5, 20.0, true));
+        Map<String, Object> bundle = payload(new PacketDecoder().decode(PacketEncoder.bundle(List.of(table, target))));
+
+        PacketDecoder separate = new PacketDecoder();
+        assertEquals(List.of(separate.decode(table), separate.decode(target)), bundle.get("packets"));
+    }
+
+    @Test
+    void truncatedFramesAreRejected() {
+        NexusProfile profile = new NexusProfile(UUID.randomUUID(), "tester");
+        profile.setStat(AttributeKey.of("CodecTest-Truncated"), 0.25);
+        PlayerStatusPacket status = new PlayerStatusPacket(profile);
+        byte[] table = encode(AttributeTablePacket.range(0, status.getMaxAttributeOrdinal()));
+        byte[] frames = PacketEncoder.bundle(List.of(table, encode(status),
+                encode(new TargetInfoPacket(7, "zombie", 12.5, 20.0, true))));
+
+        for (byte[] frame : List.of(table, encode(status), frames)) {
+            PacketDecoder complete = new PacketDecoder();
+            complete.decode(table);
+            complete.decode(frame);
+            for (int length = 0; length < frame.length; length++) {
+                byte[] truncated = Arrays.copyOf(frame, length);
+                PacketDecoder decoder = new PacketDecoder();
+                decoder.decode(table);
+                assertThrows(IllegalArgumentException.class, () -> decoder.decode(truncated), "length " + length);
+            }
+        }
+    }
+
+    @Test
+    void malformedFramesAreRejected() {
+        int version = PacketEncoder.VERSION;
+        List<byte[]> frames = List.of(
+                // 표 밖의 from: 빈 순번을 채우지 않고 거부
+                frame(version, PacketType.ATTRIBUTE_TABLE).varint(Integer.MAX_VALUE).varint(1).string("a")
+                        .toByteArray(),
+                frame(version, PacketType.ATTRIBUTE_TABLE).varint(5).varint(0).toByteArray(),
+                // 남은 바이트보다 많은 개수
+                frame(version, PacketType.ATTRIBUTE_TABLE).varint(0).varint(Long.MAX_VALUE).toByteArray(),
+                frame(version, PacketType.BUNDLE).varint(1L << 40).toByteArray(),
+                frame(version, PacketType.ENTITY_INFO).varint(1).varint(-1L).toByteArray(),
+                // 순번 차이가 표를 넘거나 int 범위를 넘김
+                frame(version, PacketType.PLAYER_STATUS_DELTA).u8(0).varint(1).varint(Integer.MAX_VALUE).number(1)
+                        .varint(0).toByteArray(),
+                frame(version, PacketType.PLAYER_STATUS_DELTA).u8(0).varint(0).varint(2).varint(0)
+                        .varint(-1L).toByteArray(),
+                // 묶음 안의 길이가 남은 바이트를 넘김
+                frame(version, PacketType.BUNDLE).varint(1).varint(1000).u8(PacketType.HELLO.getId()).toByteArray(),
+                frame(version, PacketType.TARGET_INFO).varint(1L << 40).toByteArray(),
+                frame(version, PacketType.TARGET_INFO).varint(1).varint(Integer.MAX_VALUE).toByteArray());
+
+        for (byte[] frame : frames) {
+            PacketDecoder decoder = new PacketDecoder();
+            decoder.decode(encode(new AttributeTablePacket(0, List.of("a"))));
+            assertThrows(IllegalArgumentException.class, () -> decoder.decode(frame), () -> Arrays.toString(frame));
+            assertEquals(List.of("a"), decoder.getAttributes());
+        }
+    }
+
+    private static PacketBuffer frame(int version, PacketType type) {
+        return PacketBuffer.acquire().u8(version).u8(type.getId());
+    }
+
+    private static byte[] encode(Packet packet) {
+        return PacketEncoder.encode(packet, WireFormat.BINARY);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> payload(Map<String, Object> packet) {
+        return (Map<String, Object>) packet.get("payload");
+    }
+}
@@ -0,0 +1,227 @@
+package com.rpgnexus.core.script.compiler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.rpgnexus.core.script.FormulaOptimizer;
+import com.rpgnexus.core.script.FormulaParser;
+import com.rpgnexus.core.script.FormulaParser.BinaryOpNode;
+import com.rpgnexus.core.script.FormulaParser.ConstantNode;
+import com.rpgnexus.core.script.FormulaParser.FunctionNode;
+import com.rpgnexus.core.script.FormulaParser.Node;
+import com.rpgnexus.core.script.FormulaParser.VariableNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 바이트코드 컴파일 결과를 기존 트리 인터프리터(Node.evaluate(Map))와 비교하는 차분 테스트입니다.
+ * 비교는 Double.compare 기준이므로 NaN은 NaN끼리, -0.0과 0.0은 서로 다른 값으로 취급합니다.
+ */
+class FormulaCompilerTest {
+
+    private static final String[] SHIPPED_CONFIGS = { "damage-system.yml", "normal-system.yml" };
+    private static final String[] FORMULA_SECTIONS = { "Definition", "Definitions", "Tools", "Calculate" };
+    private static final double[] SPECIAL_VALUES = { 0.0, -0.0, 1.0, -1.0, 0.5, 100.0, Double.NaN,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE };
+    private static final String[] BINARY_OPS = { "+", "-", "*", "/", ">", "<", ">=", "<=", "==", "!=", "OR" };
+    private static final int VARIABLES = 6;
+
+    private final FormulaParser parser = new FormulaParser();
+    private final FormulaCompiler compiler = new FormulaCompiler();
+    private final FormulaOptimizer optimizer = new FormulaOptimizer();
+
+    @Test
+    void shippedFormulasMatchInterpreter() throws IOException {
+        Map<String, String> formulas = shippedFormulas();
+        assertFalse(formulas.isEmpty());
+
+        Random random = new Random(1);
+        for (Map.Entry<String, String> entry : formulas.entrySet()) {
+            // random(a, b)는 비교할 수 없으므로 random(a, a)로 바꿔 두 경로 모두 a를 반환하게 함
+            Node root = fixRandom(parser.parse(entry.getValue()));
+            assertMatches(entry.getKey(), root, random, 200);
+            assertMatches(entry.getKey() + " (optimized)", optimizer.optimize(root), root, random, 200);
+        }
+    }
+
+    @Test
+    void randomTreesMatchInterpreter() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            Node root = randomTree(random, 1 + random.nextInt(6));
+            assertMatches("tree #" + i, root, random, 20);
+            assertMatches("tree #" + i + " (optimized)", optimizer.optimize(root), root, random, 20);
+        }
+    }
+
+    @Test
+    void edgeCasesMatchInterpreter() {
+        String[] expressions = {
+                "1 / 0",
+                "%a% / %b%",
+                "%a% / (%b% - %b%)",
+                "0 - %a% / 0",
+                "if(%a%, %b%, %c%)",
+                "if(%a% > %b%, if(%b% > %c%, 1, 2), if(%c% == %c%, 3, 4))",
+                "max(min(%a%, 2), if(%b% >= 1, %c% / 0, 3))",
+                "min(max(%a%, %b%), max(%c%, min(%a%, %b%)))",
+                "max(%a%, %b%, %c%)",
+                "%missing% + 1",
+                "%player-status#Missing#$defender$% * 2",
+                "%a% OR %b% OR 7",
+                "%a% != %a%",
+                "unknown(%a%, 1 / 0) + 1",
+                "-%a% * -0"
+        };
+        Random random = new Random(7);
+        for (String expression : expressions) {
+            Node root = parser.parse(expression);
+            assertMatches(expression, root, random, 500);
+            assertMatches(expression + " (optimized)", optimizer.optimize(root), root, random, 500);
+        }
+    }
+
+    @Test
+    void invalidArgumentCountFallsBackToInterpreter() {
+        Node root = parser.parse("1 + if(%a%, 2)");
+        assertThrows(UnsupportedOperationException.class, () -> compiler.generate(root, new SlotLayout()));
+
+        SlotLayout layout = new SlotLayout();
+        CompiledFormula formula = compiler.compile(root, layout);
+        assertInstanceOf(InterpretedFormula.class, formula);
+        assertThrows(RuntimeException.class, () -> formula.eval(layout.newFrame()));
+    }
+
+    /**
+     * actual을 컴파일하고 reference 인터프리터와 비교합니다.
+     */
+    private void assertMatches(String label, Node root, Random random, int samples) {
+        assertMatches(label, root, root, random, samples);
+    }
+
+    private void assertMatches(String label, Node actual, Node reference, Random random, int samples) {
+        SlotLayout layout = new SlotLayout(true);
+        // 최적화로 사라진 변수도 기준 인터프리터에는 값이 들어가도록 기준 트리의 변수까지 슬롯에 등록
+        compiler.interpret(reference, layout);
+        CompiledFormula compiled = compiler.generate(actual, layout);
+        layout.freeze();
+
+        for (int i = 0; i < samples; i++) {
+            // 일부 변수는 컨텍스트에서 빼서 누락 변수(0.0) 처리도 함께 검증
+            Map<String, Double> context = new HashMap<>();
+            double[] frame = layout.newFrame();
+            for (int slot = 0; slot < frame.length; slot++) {
+                if (random.nextInt(5) == 0)
+                    continue;
+                double value = randomValue(random);
+                frame[slot] = value;
+                context.put(layout.nameOf(slot), value);
+            }
+
+            double expected = reference.evaluate(context);
+            double result = compiled.eval(frame);
+            assertEquals(0, Double.compare(expected, result),
+                    () -> label + ": expected " + expected + " but was " + result + " for " + context);
+        }
+    }
+
+    private static double randomValue(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return SPECIAL_VALUES[random.nextInt(SPECIAL_VALUES.length)];
+            case 1:
+                return random.nextInt(7) - 3;
+            default:
+                return (random.nextDouble() - 0.5) * 200.0;
+        }
+    }
+
+    private static Node randomTree(Random random, int depth) {
+        if (depth <= 0 || random.nextInt(4) == 0) {
+            if (random.nextBoolean())
+                return new VariableNode("v" + random.nextInt(VARIABLES));
+            return new ConstantNode(randomValue(random));
+        }
+
+        switch (random.nextInt(8)) {
+            case 0:
+                return new FunctionNode("if", Arrays.asList(randomTree(random, depth - 1),
+                        randomTree(random, depth - 1), randomTree(random, depth - 1)));
+            case 1:
+                return new FunctionNode(random.nextBoolean() ? "max" : "MIN", Arrays.asList(
+                        randomTree(random, depth - 1), randomTree(random, depth - 1)));
+            case 2: {
+                // 같은 인자를 두 번 넘겨 결정적인 random(a, a)
+                Node bound = randomTree(random, depth - 1);
+                return new FunctionNode("random", Arrays.asList(bound, bound));
+            }
+            case 3:
+                return new FunctionNode("unknown", List.of(randomTree(random, depth - 1)));
+            default:
+                return new BinaryOpNode(randomTree(random, depth - 1), BINARY_OPS[random.nextInt(BINARY_OPS.length)],
+                        randomTree(random, depth - 1));
+        }
+    }
+
+    private static Node fixRandom(Node node) {
+        if (node instanceof BinaryOpNode) {
+            BinaryOpNode binary = (BinaryOpNode) node;
+            return new BinaryOpNode(fixRandom(binary.getLeft()), binary.getOp(), fixRandom(binary.getRight()));
+        }
+        if (node instanceof FunctionNode) {
+            FunctionNode function = (FunctionNode) node;
+            List<Node> args = new ArrayList<>();
+            for (Node arg : function.getArgs())
+                args.add(fixRandom(arg));
+            if (function.getName().equalsIgnoreCase("random") && args.size() >= 2)
+                args.set(1, args.get(0));
+            return new FunctionNode(function.getName(), args);
+        }
+        return node;
+    }
+
+    /**
+     * 플러그인에 포함된 설정의 Definition(s)/Tools/Calculate 아래 모든 수식 문자열.
+     */
+    private static Map<String, String> shippedFormulas() throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        Map<String, String> formulas = new LinkedHashMap<>();
+        for (String resource : SHIPPED_CONFIGS) {
+            try (InputStream in = FormulaCompilerTest.class.getClassLoader().getResourceAsStream(resource)) {
+                assertTrue(in != null, "리소스 없음: " + resource);
+                collect(mapper.readTree(in), resource, false, formulas);
+            }
+        }
+        return formulas;
+    }
+
+    private static void collect(JsonNode node, String path, boolean inSection, Map<String, String> out) {
+        if (node.isTextual()) {
+            if (inSection)
+                out.put(path, node.asText());
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            boolean section = inSection || Arrays.asList(FORMULA_SECTIONS).contains(field.getKey());
+            collect(field.getValue(), path + "/" + field.getKey(), section, out);
+        }
+    }
+}